@@ -24,6 +24,21 @@
 # No ofuscar nombres de clases de seguridad (para debugging)
 -keepnames class com.tokyoghoull.ghoulstream.security.**
 
+# ========================================
+# 📝 LOGGING (SecurityLog)
+# ========================================
+
+# Eliminar en compile-time las llamadas VERBOSE/DEBUG en builds minificados:
+# sin formato, sin asignaciones y sin llamadas a android.util.Log.
+# isDebugEnabled() se declara constante false para que R8 elimine también los
+# bloques `if (SecurityLog.isDebugEnabled())` (sin valor de retorno solo se
+# borrarían las llamadas cuyo resultado no se usa)
+-assumenosideeffects class com.tokyoghoull.ghoulstream.security.SecurityLog {
+    public static void v(...);
+    public static void d(...);
+    public static boolean isDebugEnabled() return false;
+}
+
 # ========================================
 # 🔧 ATRIBUTOS NECESARIOS
 # ========================================
@@ -0,0 +1,142 @@
+// 🔐 Cipher.cpp - Programa de clave, bucle escalar y selección del camino vectorial
+//
+// @author TokyoghoulEs
+// @version 1.1.0
+// @since 2026-10-17
+
+#include "Cipher.h"
+
+#include <cstdlib>
+#include <cstring>
+
+namespace ghoulstream {
+
+namespace {
+
+// 🔄 Bucle escalar: cola de los caminos vectoriales y referencia para compararlos
+void transform_scalar(const uint8_t* in, uint8_t* out, size_t length,
+                      const uint8_t* shifts, size_t keyLength, size_t& keyIndex) {
+    size_t k = keyIndex;
+    for (size_t i = 0; i < length; i++) {
+        uint8_t index = static_cast<uint8_t>(in[i] - kFirstPrintable);
+        if (index < kAlphabetSize) {
+            index = static_cast<uint8_t>(index + shifts[k]);
+            if (index >= kAlphabetSize) {
+                index = static_cast<uint8_t>(index - kAlphabetSize);
+            }
+            out[i] = static_cast<uint8_t>(index + kFirstPrintable);
+        } else {
+            out[i] = in[i];
+        }
+        if (++k == keyLength) {
+            k = 0;
+        }
+    }
+    keyIndex = k;
+}
+
+bool cpu_supports(CipherPath path) {
+    switch (path) {
+        case CipherPath::kScalar:
+            return true;
+#if defined(__x86_64__) || defined(__i386__)
+        case CipherPath::kSse2:
+            return __builtin_cpu_supports("sse2");
+        case CipherPath::kAvx2:
+            return __builtin_cpu_supports("avx2");
+#endif
+#if defined(__ARM_NEON)
+        case CipherPath::kNeon:
+            return true;
+#endif
+        default:
+            return false;
+    }
+}
+
+// GHOULSTREAM_CIPHER_PATH=scalar|sse2|avx2|neon fuerza una implementación (comparación y benchmarks)
+CipherPath detect_path() {
+    const char* forced = std::getenv("GHOULSTREAM_CIPHER_PATH");
+    if (forced != nullptr) {
+        for (CipherPath path : {CipherPath::kScalar, CipherPath::kSse2, CipherPath::kAvx2, CipherPath::kNeon}) {
+            if (std::strcmp(forced, path_name(path)) == 0 && cpu_supports(path)) {
+                return path;
+            }
+        }
+    }
+    for (CipherPath path : {CipherPath::kAvx2, CipherPath::kNeon, CipherPath::kSse2}) {
+        if (cpu_supports(path)) {
+            return path;
+        }
+    }
+    return CipherPath::kScalar;
+}
+
+}  // namespace
+
+KeySchedule extend_key(const uint8_t* key, size_t keyLength) {
+    KeySchedule schedule;
+    schedule.length = keyLength;
+    schedule.encrypt.resize(keyLength + kMaxBlock);
+    schedule.decrypt.resize(keyLength + kMaxBlock);
+    for (size_t i = 0; i < keyLength + kMaxBlock; i++) {
+        // key[i] - 0x20 puede ser negativo (bytes de control): módulo positivo
+        int shift = (static_cast<int>(key[i % keyLength]) - kFirstPrintable) % kAlphabetSize;
+        if (shift < 0) {
+            shift += kAlphabetSize;
+        }
+        schedule.encrypt[i] = static_cast<uint8_t>(shift);
+        schedule.decrypt[i] = static_cast<uint8_t>(shift == 0 ? 0 : kAlphabetSize - shift);
+    }
+    return schedule;
+}
+
+void transform_with(CipherPath path, const uint8_t* in, uint8_t* out, size_t length,
+                    const KeySchedule& schedule, size_t keyOffset, bool decrypt) {
+    const uint8_t* shifts = schedule.shifts(decrypt);
+    size_t keyIndex = keyOffset;
+    size_t done = 0;
+    switch (path) {
+        case CipherPath::kSse2:
+            done = transform_sse2(in, out, length, shifts, schedule.length, keyIndex);
+            break;
+        case CipherPath::kAvx2:
+            done = transform_avx2(in, out, length, shifts, schedule.length, keyIndex);
+            break;
+        case CipherPath::kNeon:
+            done = transform_neon(in, out, length, shifts, schedule.length, keyIndex);
+            break;
+        case CipherPath::kScalar:
+            break;
+    }
+    transform_scalar(in + done, out + done, length - done, shifts, schedule.length, keyIndex);
+}
+
+void transform(const uint8_t* in, uint8_t* out, size_t length,
+               const KeySchedule& schedule, size_t keyOffset, bool decrypt) {
+    transform_with(best_path(), in, out, length, schedule, keyOffset, decrypt);
+}
+
+CipherPath best_path() {
+    static const CipherPath path = detect_path();
+    return path;
+}
+
+bool available_path(CipherPath path) {
+    return cpu_supports(path);
+}
+
+const char* path_name(CipherPath path) {
+    switch (path) {
+        case CipherPath::kSse2:
+            return "sse2";
+        case CipherPath::kAvx2:
+            return "avx2";
+        case CipherPath::kNeon:
+            return "neon";
+        default:
+            return "scalar";
+    }
+}
+
+}  // namespace ghoulstream
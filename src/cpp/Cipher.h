@@ -0,0 +1,95 @@
+// 🔐 Cipher.h - Núcleo del cifrado de libencryption.so
+//
+// Algoritmo versión 2, el mismo que CipherAlgorithm.java (por byte, posición i):
+//
+//   k     = key[i mod key.length]
+//   shift = (k - 0x20) mod 95
+//   c     = 0x20 + ((p - 0x20 + shift) mod 95)   si 0x20 <= p <= 0x7E
+//   c     = p                                     en otro caso
+//
+// No es compatible con las librerías precompiladas de la versión 1.0.0
+// (libs/<abi>/libencryption.so hasta regenerarlas con buildNativeAndroid), que
+// implementan otro algoritmo: JniCipherEngine solo usa la librería si
+// nativeAlgorithmVersion devuelve kAlgorithmVersion.
+//
+// @author TokyoghoulEs
+// @version 1.1.0
+// @since 2026-10-17
+
+#ifndef GHOULSTREAM_CIPHER_H
+#define GHOULSTREAM_CIPHER_H
+
+#include <cstddef>
+#include <cstdint>
+#include <vector>
+
+namespace ghoulstream {
+
+// Versión del algoritmo (CipherEngine.ALGORITHM_VERSION en Java)
+constexpr int kAlgorithmVersion = 2;
+
+// Primer y último byte del alfabeto imprimible
+constexpr uint8_t kFirstPrintable = 0x20;
+constexpr uint8_t kAlphabetSize = 95;
+
+// Bytes por iteración del camino vectorial más ancho (AVX2)
+constexpr size_t kMaxBlock = 32;
+
+// Implementaciones del bucle masivo, de la más lenta a la más rápida
+enum class CipherPath {
+    kScalar,
+    kSse2,
+    kAvx2,
+    kNeon,
+};
+
+// 🔑 Programa de clave: desplazamientos ya calculados en ambos sentidos
+//
+// Equivale a extend_key de la librería original, pero en lugar de extender la
+// clave hasta la longitud del texto se guarda una sola vuelta más kMaxBlock
+// bytes: cualquier bloque de kMaxBlock desplazamientos que empiece en
+// [0, length) es contiguo, y el camino vectorial lo carga con una instrucción.
+struct KeySchedule {
+    size_t length = 0;
+    std::vector<uint8_t> encrypt;  // shift
+    std::vector<uint8_t> decrypt;  // (95 - shift) mod 95: desencriptar también es una suma
+
+    const uint8_t* shifts(bool decrypting) const {
+        return decrypting ? decrypt.data() : encrypt.data();
+    }
+};
+
+// 🔑 Calcula el programa de una clave (bytes UTF-8, al menos un byte)
+KeySchedule extend_key(const uint8_t* key, size_t keyLength);
+
+// 🔄 Cifra o descifra length bytes de in a out (pueden ser el mismo buffer)
+// keyOffset es la posición de la clave del primer byte, en [0, schedule.length)
+void transform(const uint8_t* in, uint8_t* out, size_t length,
+               const KeySchedule& schedule, size_t keyOffset, bool decrypt);
+
+// 🔄 Igual que transform() con una implementación concreta (benchmarks y comparación)
+// La implementación debe estar disponible (ver available_path()).
+void transform_with(CipherPath path, const uint8_t* in, uint8_t* out, size_t length,
+                    const KeySchedule& schedule, size_t keyOffset, bool decrypt);
+
+// 🔍 Implementación elegida en runtime para esta CPU
+CipherPath best_path();
+
+// 🔍 true si la implementación se compiló y la CPU la soporta
+bool available_path(CipherPath path);
+
+// 🏷️ Nombre de una implementación ("scalar", "sse2", "avx2", "neon")
+const char* path_name(CipherPath path);
+
+// Caminos vectoriales (CipherSimd.cpp); procesan bloques completos y devuelven
+// cuántos bytes procesaron: la cola la termina el bucle escalar
+size_t transform_sse2(const uint8_t* in, uint8_t* out, size_t length,
+                      const uint8_t* shifts, size_t keyLength, size_t& keyIndex);
+size_t transform_avx2(const uint8_t* in, uint8_t* out, size_t length,
+                      const uint8_t* shifts, size_t keyLength, size_t& keyIndex);
+size_t transform_neon(const uint8_t* in, uint8_t* out, size_t length,
+                      const uint8_t* shifts, size_t keyLength, size_t& keyIndex);
+
+}  // namespace ghoulstream
+
+#endif  // GHOULSTREAM_CIPHER_H
@@ -0,0 +1,141 @@
+// ⚡ CipherSimd.cpp - Caminos vectoriales del cifrado (SSE2 / AVX2 / NEON)
+//
+// Cada bloque de 16 o 32 bytes se procesa sin saltos:
+//
+//   v         = p - 0x20                        (u8, con desbordamiento)
+//   imprimible = v <= 94
+//   t         = v + shift                       (<= 188, cabe en u8)
+//   t         = min(t, t - 95)                  (si t < 95, t - 95 da la vuelta y es mayor)
+//   c         = imprimible ? t + 0x20 : p
+//
+// Los desplazamientos del bloque se cargan de KeySchedule, que repite la
+// clave kMaxBlock bytes más allá de su longitud: el bloque que empieza en
+// cualquier posición de la clave es contiguo. AVX2 se compila con atributo
+// de función y se elige en runtime; NEON es obligatorio en arm64-v8a y lo
+// activa el NDK por defecto en armeabi-v7a.
+//
+// @author TokyoghoulEs
+// @version 1.1.0
+// @since 2026-10-17
+
+#include "Cipher.h"
+
+#if defined(__x86_64__) || defined(__i386__)
+#include <immintrin.h>
+#define GHOULSTREAM_X86 1
+#endif
+
+#if defined(__ARM_NEON)
+#include <arm_neon.h>
+#endif
+
+namespace ghoulstream {
+
+#if defined(GHOULSTREAM_X86)
+
+__attribute__((target("sse2")))
+size_t transform_sse2(const uint8_t* in, uint8_t* out, size_t length,
+                      const uint8_t* shifts, size_t keyLength, size_t& keyIndex) {
+    const __m128i first = _mm_set1_epi8(static_cast<char>(kFirstPrintable));
+    const __m128i last = _mm_set1_epi8(static_cast<char>(kAlphabetSize - 1));
+    const __m128i size = _mm_set1_epi8(static_cast<char>(kAlphabetSize));
+    const size_t step = 16 % keyLength;
+
+    size_t k = keyIndex;
+    size_t i = 0;
+    for (; i + 16 <= length; i += 16) {
+        __m128i p = _mm_loadu_si128(reinterpret_cast<const __m128i*>(in + i));
+        __m128i s = _mm_loadu_si128(reinterpret_cast<const __m128i*>(shifts + k));
+        __m128i v = _mm_sub_epi8(p, first);
+        __m128i printable = _mm_cmpeq_epi8(_mm_min_epu8(v, last), v);
+        __m128i t = _mm_add_epi8(v, s);
+        t = _mm_min_epu8(t, _mm_sub_epi8(t, size));
+        t = _mm_add_epi8(t, first);
+        __m128i c = _mm_or_si128(_mm_and_si128(printable, t), _mm_andnot_si128(printable, p));
+        _mm_storeu_si128(reinterpret_cast<__m128i*>(out + i), c);
+        k += step;
+        if (k >= keyLength) {
+            k -= keyLength;
+        }
+    }
+    keyIndex = k;
+    return i;
+}
+
+__attribute__((target("avx2")))
+size_t transform_avx2(const uint8_t* in, uint8_t* out, size_t length,
+                      const uint8_t* shifts, size_t keyLength, size_t& keyIndex) {
+    const __m256i first = _mm256_set1_epi8(static_cast<char>(kFirstPrintable));
+    const __m256i last = _mm256_set1_epi8(static_cast<char>(kAlphabetSize - 1));
+    const __m256i size = _mm256_set1_epi8(static_cast<char>(kAlphabetSize));
+    const size_t step = 32 % keyLength;
+
+    size_t k = keyIndex;
+    size_t i = 0;
+    for (; i + 32 <= length; i += 32) {
+        __m256i p = _mm256_loadu_si256(reinterpret_cast<const __m256i*>(in + i));
+        __m256i s = _mm256_loadu_si256(reinterpret_cast<const __m256i*>(shifts + k));
+        __m256i v = _mm256_sub_epi8(p, first);
+        __m256i printable = _mm256_cmpeq_epi8(_mm256_min_epu8(v, last), v);
+        __m256i t = _mm256_add_epi8(v, s);
+        t = _mm256_min_epu8(t, _mm256_sub_epi8(t, size));
+        t = _mm256_add_epi8(t, first);
+        _mm256_storeu_si256(reinterpret_cast<__m256i*>(out + i), _mm256_blendv_epi8(p, t, printable));
+        k += step;
+        if (k >= keyLength) {
+            k -= keyLength;
+        }
+    }
+    keyIndex = k;
+    return i;
+}
+
+#else
+
+size_t transform_sse2(const uint8_t*, uint8_t*, size_t, const uint8_t*, size_t, size_t&) {
+    return 0;
+}
+
+size_t transform_avx2(const uint8_t*, uint8_t*, size_t, const uint8_t*, size_t, size_t&) {
+    return 0;
+}
+
+#endif
+
+#if defined(__ARM_NEON)
+
+size_t transform_neon(const uint8_t* in, uint8_t* out, size_t length,
+                      const uint8_t* shifts, size_t keyLength, size_t& keyIndex) {
+    const uint8x16_t first = vdupq_n_u8(kFirstPrintable);
+    const uint8x16_t size = vdupq_n_u8(kAlphabetSize);
+    const size_t step = 16 % keyLength;
+
+    size_t k = keyIndex;
+    size_t i = 0;
+    for (; i + 16 <= length; i += 16) {
+        uint8x16_t p = vld1q_u8(in + i);
+        uint8x16_t s = vld1q_u8(shifts + k);
+        uint8x16_t v = vsubq_u8(p, first);
+        uint8x16_t printable = vcltq_u8(v, size);
+        uint8x16_t t = vaddq_u8(v, s);
+        t = vminq_u8(t, vsubq_u8(t, size));
+        t = vaddq_u8(t, first);
+        vst1q_u8(out + i, vbslq_u8(printable, t, p));
+        k += step;
+        if (k >= keyLength) {
+            k -= keyLength;
+        }
+    }
+    keyIndex = k;
+    return i;
+}
+
+#else
+
+size_t transform_neon(const uint8_t*, uint8_t*, size_t, const uint8_t*, size_t, size_t&) {
+    return 0;
+}
+
+#endif
+
+}  // namespace ghoulstream
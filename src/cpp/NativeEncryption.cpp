@@ -0,0 +1,364 @@
+// 🔧 NativeEncryption.cpp - Métodos JNI de NativeEncryption (libencryption.so)
+//
+// Implementa todos los métodos nativos declarados en NativeEncryption.java:
+// Strings, lotes, buffers (byte[] y ByteBuffer directo) y claves preparadas.
+// Las claves y los textos se convierten a UTF-8 estándar (igual que
+// String.getBytes(UTF_8) en Java, no el UTF-8 modificado de JNI) para que el
+// resultado coincida con JavaCipherEngine (CipherAlgorithm versión 2).
+//
+// @author TokyoghoulEs
+// @version 1.1.0
+// @since 2026-10-17
+
+#include <jni.h>
+
+#include <cstring>
+#include <vector>
+
+#include "Cipher.h"
+
+using ghoulstream::KeySchedule;
+
+namespace {
+
+const char* const kIllegalArgument = "java/lang/IllegalArgumentException";
+const char* const kOutOfBounds = "java/lang/IndexOutOfBoundsException";
+const char* const kNullPointer = "java/lang/NullPointerException";
+
+void throw_new(JNIEnv* env, const char* className, const char* message) {
+    jclass clazz = env->FindClass(className);
+    if (clazz != nullptr) {
+        env->ThrowNew(clazz, message);
+        env->DeleteLocalRef(clazz);
+    }
+}
+
+bool check_range(JNIEnv* env, jint offset, jint length, jsize capacity) {
+    if (offset < 0 || length < 0 || offset > capacity - length) {
+        throw_new(env, kOutOfBounds, "Región fuera del buffer");
+        return false;
+    }
+    return true;
+}
+
+// 🔤 UTF-16 → UTF-8 estándar; un surrogate suelto se sustituye por '?' como en Java
+void utf16_to_utf8(const jchar* chars, jsize length, std::vector<uint8_t>& out) {
+    out.clear();
+    out.reserve(static_cast<size_t>(length) * 3);
+    for (jsize i = 0; i < length; i++) {
+        uint32_t c = chars[i];
+        if (c < 0x80) {
+            out.push_back(static_cast<uint8_t>(c));
+        } else if (c < 0x800) {
+            out.push_back(static_cast<uint8_t>(0xC0 | (c >> 6)));
+            out.push_back(static_cast<uint8_t>(0x80 | (c & 0x3F)));
+        } else if (c >= 0xD800 && c <= 0xDFFF) {
+            if (c <= 0xDBFF && i + 1 < length && chars[i + 1] >= 0xDC00 && chars[i + 1] <= 0xDFFF) {
+                uint32_t cp = 0x10000 + ((c - 0xD800) << 10) + (chars[++i] - 0xDC00);
+                out.push_back(static_cast<uint8_t>(0xF0 | (cp >> 18)));
+                out.push_back(static_cast<uint8_t>(0x80 | ((cp >> 12) & 0x3F)));
+                out.push_back(static_cast<uint8_t>(0x80 | ((cp >> 6) & 0x3F)));
+                out.push_back(static_cast<uint8_t>(0x80 | (cp & 0x3F)));
+            } else {
+                out.push_back('?');
+            }
+        } else {
+            out.push_back(static_cast<uint8_t>(0xE0 | (c >> 12)));
+            out.push_back(static_cast<uint8_t>(0x80 | ((c >> 6) & 0x3F)));
+            out.push_back(static_cast<uint8_t>(0x80 | (c & 0x3F)));
+        }
+    }
+}
+
+// 🔤 UTF-8 → UTF-16; la entrada viene de utf16_to_utf8 (el cifrado solo toca ASCII), siempre es válida
+void utf8_to_utf16(const std::vector<uint8_t>& in, std::vector<jchar>& out) {
+    out.clear();
+    out.reserve(in.size());
+    for (size_t i = 0; i < in.size();) {
+        uint32_t b = in[i];
+        if (b < 0x80) {
+            out.push_back(static_cast<jchar>(b));
+            i += 1;
+        } else if (b < 0xE0) {
+            out.push_back(static_cast<jchar>(((b & 0x1F) << 6) | (in[i + 1] & 0x3F)));
+            i += 2;
+        } else if (b < 0xF0) {
+            out.push_back(static_cast<jchar>(((b & 0x0F) << 12) | ((in[i + 1] & 0x3F) << 6) | (in[i + 2] & 0x3F)));
+            i += 3;
+        } else {
+            uint32_t cp = ((b & 0x07) << 18) | ((in[i + 1] & 0x3F) << 12) | ((in[i + 2] & 0x3F) << 6) | (in[i + 3] & 0x3F);
+            cp -= 0x10000;
+            out.push_back(static_cast<jchar>(0xD800 + (cp >> 10)));
+            out.push_back(static_cast<jchar>(0xDC00 + (cp & 0x3FF)));
+            i += 4;
+        }
+    }
+}
+
+// 🔑 Último programa de clave de cada hilo: la clave maestra se repite en casi todas las llamadas
+struct ScheduleCache {
+    std::vector<uint8_t> key;
+    KeySchedule schedule;
+
+    const KeySchedule& get(const uint8_t* bytes, size_t length) {
+        if (schedule.length != length || std::memcmp(key.data(), bytes, length) != 0) {
+            key.assign(bytes, bytes + length);
+            schedule = ghoulstream::extend_key(bytes, length);
+        }
+        return schedule;
+    }
+};
+
+thread_local ScheduleCache tlsSchedule;
+
+// Buffers de trabajo reutilizados por hilo para las conversiones de String
+thread_local std::vector<jchar> tlsChars;
+thread_local std::vector<uint8_t> tlsBytes;
+thread_local std::vector<uint8_t> tlsKey;
+
+const KeySchedule* schedule_from_string(JNIEnv* env, jstring key) {
+    if (key == nullptr) {
+        throw_new(env, kNullPointer, "Clave null");
+        return nullptr;
+    }
+    jsize length = env->GetStringLength(key);
+    tlsChars.resize(static_cast<size_t>(length));
+    env->GetStringRegion(key, 0, length, tlsChars.data());
+    std::vector<uint8_t>& bytes = tlsKey;
+    utf16_to_utf8(tlsChars.data(), length, bytes);
+    if (bytes.empty()) {
+        throw_new(env, kIllegalArgument, "Clave vacía");
+        return nullptr;
+    }
+    return &tlsSchedule.get(bytes.data(), bytes.size());
+}
+
+const KeySchedule* schedule_from_bytes(JNIEnv* env, jbyteArray key, bool allowEmpty) {
+    if (key == nullptr) {
+        throw_new(env, kNullPointer, "Clave null");
+        return nullptr;
+    }
+    jsize length = env->GetArrayLength(key);
+    if (length == 0) {
+        if (!allowEmpty) {
+            throw_new(env, kIllegalArgument, "Clave vacía");
+        }
+        return nullptr;
+    }
+    std::vector<uint8_t>& bytes = tlsKey;
+    bytes.resize(static_cast<size_t>(length));
+    env->GetByteArrayRegion(key, 0, length, reinterpret_cast<jbyte*>(bytes.data()));
+    return &tlsSchedule.get(bytes.data(), bytes.size());
+}
+
+// 🔄 Cifra un String: ASCII sin conversión (un char = un byte), el resto vía UTF-8
+jstring transform_string(JNIEnv* env, jstring text, const KeySchedule& schedule, bool decrypt) {
+    jsize length = env->GetStringLength(text);
+    std::vector<jchar>& chars = tlsChars;
+    chars.resize(static_cast<size_t>(length));
+    env->GetStringRegion(text, 0, length, chars.data());
+
+    bool ascii = true;
+    for (jsize i = 0; i < length; i++) {
+        if (chars[i] >= 0x80) {
+            ascii = false;
+            break;
+        }
+    }
+
+    std::vector<uint8_t>& bytes = tlsBytes;
+    if (ascii) {
+        bytes.resize(static_cast<size_t>(length));
+        for (jsize i = 0; i < length; i++) {
+            bytes[i] = static_cast<uint8_t>(chars[i]);
+        }
+        ghoulstream::transform(bytes.data(), bytes.data(), bytes.size(), schedule, 0, decrypt);
+        for (jsize i = 0; i < length; i++) {
+            chars[i] = bytes[i];
+        }
+        return env->NewString(chars.data(), length);
+    }
+
+    utf16_to_utf8(chars.data(), length, bytes);
+    ghoulstream::transform(bytes.data(), bytes.data(), bytes.size(), schedule, 0, decrypt);
+    utf8_to_utf16(bytes, chars);
+    return env->NewString(chars.data(), static_cast<jsize>(chars.size()));
+}
+
+jstring crypt_string(JNIEnv* env, jstring text, jstring key, bool decrypt) {
+    if (text == nullptr) {
+        throw_new(env, kNullPointer, "Texto null");
+        return nullptr;
+    }
+    const KeySchedule* schedule = schedule_from_string(env, key);
+    return schedule != nullptr ? transform_string(env, text, *schedule, decrypt) : nullptr;
+}
+
+jobjectArray crypt_batch(JNIEnv* env, jobjectArray texts, jstring key, bool decrypt) {
+    if (texts == nullptr) {
+        throw_new(env, kNullPointer, "Lote null");
+        return nullptr;
+    }
+    const KeySchedule* schedule = schedule_from_string(env, key);
+    if (schedule == nullptr) {
+        return nullptr;
+    }
+
+    jsize count = env->GetArrayLength(texts);
+    jclass stringClass = env->FindClass("java/lang/String");
+    if (stringClass == nullptr) {
+        return nullptr;
+    }
+    jobjectArray output = env->NewObjectArray(count, stringClass, nullptr);
+    env->DeleteLocalRef(stringClass);
+    if (output == nullptr) {
+        return nullptr;
+    }
+
+    for (jsize i = 0; i < count; i++) {
+        jstring text = static_cast<jstring>(env->GetObjectArrayElement(texts, i));
+        if (text == nullptr) {
+            continue;
+        }
+        if (env->GetStringLength(text) > 0) {
+            jstring result = transform_string(env, text, *schedule, decrypt);
+            if (result == nullptr) {
+                // Sin memoria para el resultado: la excepción pendiente llega a Java
+                return nullptr;
+            }
+            env->SetObjectArrayElement(output, i, result);
+            env->DeleteLocalRef(result);
+        }
+        env->DeleteLocalRef(text);
+    }
+    return output;
+}
+
+void crypt_array(JNIEnv* env, jbyteArray data, jint offset, jint length,
+                 const KeySchedule& schedule, size_t keyOffset, bool decrypt) {
+    auto* bytes = static_cast<uint8_t*>(env->GetPrimitiveArrayCritical(data, nullptr));
+    if (bytes == nullptr) {
+        return;
+    }
+    ghoulstream::transform(bytes + offset, bytes + offset, static_cast<size_t>(length), schedule, keyOffset, decrypt);
+    env->ReleasePrimitiveArrayCritical(data, bytes, 0);
+}
+
+}  // namespace
+
+extern "C" {
+
+JNIEXPORT jint JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeAlgorithmVersion(
+        JNIEnv*, jclass) {
+    return ghoulstream::kAlgorithmVersion;
+}
+
+JNIEXPORT jstring JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeEncrypt(
+        JNIEnv* env, jclass, jstring text, jstring key) {
+    return crypt_string(env, text, key, false);
+}
+
+JNIEXPORT jstring JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeDecrypt(
+        JNIEnv* env, jclass, jstring text, jstring key) {
+    return crypt_string(env, text, key, true);
+}
+
+JNIEXPORT jobjectArray JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeEncryptBatch(
+        JNIEnv* env, jclass, jobjectArray texts, jstring key) {
+    return crypt_batch(env, texts, key, false);
+}
+
+JNIEXPORT jobjectArray JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeDecryptBatch(
+        JNIEnv* env, jclass, jobjectArray texts, jstring key) {
+    return crypt_batch(env, texts, key, true);
+}
+
+JNIEXPORT void JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeCryptArray(
+        JNIEnv* env, jclass, jbyteArray data, jint offset, jint length, jbyteArray key, jboolean decrypt) {
+    if (data == nullptr) {
+        throw_new(env, kNullPointer, "Buffer null");
+        return;
+    }
+    if (!check_range(env, offset, length, env->GetArrayLength(data))) {
+        return;
+    }
+    // JniCipherEngine sondea el método con un array y una clave vacíos
+    const KeySchedule* schedule = schedule_from_bytes(env, key, length == 0);
+    if (schedule == nullptr || length == 0) {
+        return;
+    }
+    crypt_array(env, data, offset, length, *schedule, 0, decrypt == JNI_TRUE);
+}
+
+JNIEXPORT void JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeCryptDirect(
+        JNIEnv* env, jclass, jobject src, jint srcOffset, jobject dst, jint dstOffset,
+        jint length, jbyteArray key, jboolean decrypt) {
+    auto* in = static_cast<uint8_t*>(env->GetDirectBufferAddress(src));
+    auto* out = static_cast<uint8_t*>(env->GetDirectBufferAddress(dst));
+    if (in == nullptr || out == nullptr) {
+        throw_new(env, kIllegalArgument, "Se requieren ByteBuffer directos");
+        return;
+    }
+    auto capacity = [](jlong value) {
+        return static_cast<jsize>(value > 0x7FFFFFFF ? 0x7FFFFFFF : value);
+    };
+    if (!check_range(env, srcOffset, length, capacity(env->GetDirectBufferCapacity(src)))
+            || !check_range(env, dstOffset, length, capacity(env->GetDirectBufferCapacity(dst)))) {
+        return;
+    }
+    const KeySchedule* schedule = schedule_from_bytes(env, key, length == 0);
+    if (schedule == nullptr || length == 0) {
+        return;
+    }
+    ghoulstream::transform(in + srcOffset, out + dstOffset, static_cast<size_t>(length), *schedule, 0,
+                           decrypt == JNI_TRUE);
+}
+
+JNIEXPORT jlong JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativePrepareKey(
+        JNIEnv* env, jclass, jbyteArray key) {
+    const KeySchedule* schedule = schedule_from_bytes(env, key, false);
+    if (schedule == nullptr) {
+        return 0;
+    }
+    return reinterpret_cast<jlong>(new KeySchedule(*schedule));
+}
+
+JNIEXPORT void JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeReleaseKey(
+        JNIEnv*, jclass, jlong handle) {
+    // Liberar el handle 0 no hace nada (JniCipherEngine lo usa como sonda)
+    delete reinterpret_cast<KeySchedule*>(handle);
+}
+
+JNIEXPORT void JNICALL
+Java_com_tokyoghoull_ghoulstream_security_NativeEncryption_nativeCryptPrepared(
+        JNIEnv* env, jclass, jlong handle, jbyteArray data, jint offset, jint length,
+        jint keyOffset, jboolean decrypt) {
+    const auto* schedule = reinterpret_cast<const KeySchedule*>(handle);
+    if (schedule == nullptr || data == nullptr) {
+        throw_new(env, kNullPointer, "Clave preparada o buffer null");
+        return;
+    }
+    if (!check_range(env, offset, length, env->GetArrayLength(data))) {
+        return;
+    }
+    if (keyOffset < 0) {
+        throw_new(env, kIllegalArgument, "Offset de clave negativo");
+        return;
+    }
+    if (length == 0) {
+        return;
+    }
+    crypt_array(env, data, offset, length, *schedule, static_cast<size_t>(keyOffset) % schedule->length,
+                decrypt == JNI_TRUE);
+}
+
+}  // extern "C"
@@ -0,0 +1,153 @@
+// ⏱️ CipherBench.cpp - Microbenchmark nativo del cifrado (sin JNI)
+//
+// Mide el throughput de cada implementación disponible (escalar, SSE2, AVX2,
+// NEON) con varios tamaños de payload y comprueba que todas producen los
+// mismos bytes que la escalar y que desencriptar devuelve el original. Antes
+// comprueba los vectores de referencia del algoritmo versión 2, los mismos que
+// CipherAlgorithmTest en Java.
+//
+//   cipher_bench [iteraciones_por_MB]
+//
+// @author TokyoghoulEs
+// @version 1.1.0
+// @since 2026-10-17
+
+#include <chrono>
+#include <cstdio>
+#include <cstdlib>
+#include <cstring>
+#include <random>
+#include <vector>
+
+#include "../Cipher.h"
+
+using namespace ghoulstream;
+
+namespace {
+
+// Mezcla realista: URLs ASCII con algún byte no imprimible y UTF-8
+std::vector<uint8_t> sample_payload(size_t length, uint32_t seed) {
+    std::mt19937 random(seed);
+    std::vector<uint8_t> data(length);
+    for (size_t i = 0; i < length; i++) {
+        uint32_t r = random() % 100;
+        data[i] = static_cast<uint8_t>(r < 90 ? 0x20 + random() % 95 : random() % 256);
+    }
+    return data;
+}
+
+double measure(CipherPath path, const std::vector<uint8_t>& input, std::vector<uint8_t>& output,
+               const KeySchedule& schedule, size_t rounds) {
+    // Calentamiento
+    for (size_t r = 0; r < rounds / 10 + 1; r++) {
+        transform_with(path, input.data(), output.data(), input.size(), schedule, r % schedule.length, false);
+    }
+    auto start = std::chrono::steady_clock::now();
+    for (size_t r = 0; r < rounds; r++) {
+        transform_with(path, input.data(), output.data(), input.size(), schedule, r % schedule.length, false);
+    }
+    std::chrono::duration<double> elapsed = std::chrono::steady_clock::now() - start;
+    return static_cast<double>(input.size()) * static_cast<double>(rounds) / elapsed.count() / (1024.0 * 1024.0);
+}
+
+// 🧪 Vectores de referencia (clave GhoulStream2025ProSecureKey), texto UTF-8
+struct GoldenVector {
+    const char* plain;
+    const char* encrypted;
+};
+
+const GoldenVector kGoldenVectors[] = {
+    {"GhoulStream Security Test", "nQ_kY'ieKC[2cwxFeYH_cJXY@"},
+    {"Canal \xC3\x91" "and\xC3\xBA" " ~{|}", "jJ^WYS\xC3\x91" "GPR\xC3\xBA" "24Lom"},
+};
+
+// Comprueba un camino contra los vectores de referencia
+bool verify_golden(CipherPath path, const KeySchedule& schedule) {
+    for (const GoldenVector& vector : kGoldenVectors) {
+        size_t length = std::strlen(vector.plain);
+        std::vector<uint8_t> output(length);
+        transform_with(path, reinterpret_cast<const uint8_t*>(vector.plain), output.data(), length, schedule, 0,
+                       false);
+        if (length != std::strlen(vector.encrypted) || std::memcmp(output.data(), vector.encrypted, length) != 0) {
+            return false;
+        }
+    }
+    return true;
+}
+
+// Compara cada camino con el escalar en todas las longitudes cortas y offsets de clave
+bool verify(CipherPath path, const KeySchedule& schedule) {
+    for (size_t length = 0; length <= 3 * kMaxBlock + 7; length++) {
+        std::vector<uint8_t> input = sample_payload(length, static_cast<uint32_t>(length));
+        for (size_t offset = 0; offset < schedule.length; offset++) {
+            std::vector<uint8_t> expected(length);
+            std::vector<uint8_t> actual(length);
+            transform_with(CipherPath::kScalar, input.data(), expected.data(), length, schedule, offset, false);
+            transform_with(path, input.data(), actual.data(), length, schedule, offset, false);
+            if (expected != actual) {
+                return false;
+            }
+            transform_with(path, actual.data(), actual.data(), length, schedule, offset, true);
+            if (actual != input) {
+                return false;
+            }
+        }
+    }
+    return true;
+}
+
+}  // namespace
+
+int main(int argc, char** argv) {
+    size_t roundsPerMb = argc > 1 ? std::strtoul(argv[1], nullptr, 10) : 200;
+    const char* key = "GhoulStream2025ProSecureKey";
+    KeySchedule schedule = extend_key(reinterpret_cast<const uint8_t*>(key), std::strlen(key));
+
+    std::vector<CipherPath> paths;
+    for (CipherPath path : {CipherPath::kScalar, CipherPath::kSse2, CipherPath::kAvx2, CipherPath::kNeon}) {
+        if (available_path(path)) {
+            paths.push_back(path);
+        }
+    }
+
+    std::printf("⏱️ GhoulStream CipherBench (camino por defecto: %s)\n", path_name(best_path()));
+
+    bool ok = true;
+    for (CipherPath path : paths) {
+        bool golden = verify_golden(path, schedule);
+        bool matches = verify(path, schedule);
+        ok &= golden && matches;
+        std::printf("• %-6s %s, %s\n", path_name(path),
+                    golden ? "✅ vectores v2" : "❌ FALLAN los vectores v2",
+                    matches ? "✅ idéntico al escalar" : "❌ DIFIERE del escalar");
+    }
+
+    std::printf("\n%10s", "bytes");
+    for (CipherPath path : paths) {
+        std::printf(" %10s MB/s", path_name(path));
+    }
+    std::printf(" %9s\n", "speedup");
+
+    for (size_t length : {64u, 256u, 1024u, 16384u, 262144u, 4194304u}) {
+        std::vector<uint8_t> input = sample_payload(length, 42);
+        std::vector<uint8_t> output(length);
+        size_t rounds = roundsPerMb * 1024 * 1024 / length + 1;
+
+        std::printf("%10zu", length);
+        double scalar = 0.0;
+        double best = 0.0;
+        for (CipherPath path : paths) {
+            double throughput = measure(path, input, output, schedule, rounds);
+            if (path == CipherPath::kScalar) {
+                scalar = throughput;
+            }
+            if (throughput > best) {
+                best = throughput;
+            }
+            std::printf(" %15.0f", throughput);
+        }
+        std::printf(" %8.2fx\n", scalar > 0.0 ? best / scalar : 0.0);
+    }
+
+    return ok ? EXIT_SUCCESS : EXIT_FAILURE;
+}
@@ -0,0 +1,154 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 🛡️ AesGcmCipher - Cifrado autenticado AES-256-GCM sobre el proveedor JCE de la plataforma
+ *
+ * A diferencia del algoritmo heredado de libencryption.so, detecta cualquier
+ * modificación del texto encriptado y usa las instrucciones AES de ARMv8/x86
+ * (el proveedor JCE está intrinsificado en ART y HotSpot).
+ *
+ * Payload dentro de {@link CipherEnvelope}:
+ * <pre>
+ * IV (12 bytes, aleatorio) | texto encriptado | tag (16 bytes)
+ * </pre>
+ * La cabecera del sobre se autentica como AAD, así que cambiar keyId,
+ * algoritmo o flags también invalida el valor.
+ *
+ * La clave AES se deriva de la clave del módulo con SHA-256 y se cachea en la
+ * {@link PreparedKey}.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+final class AesGcmCipher {
+
+    private static final String TAG = "AesGcmCipher";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    static final int IV_SIZE = 12;
+    static final int TAG_SIZE = 16;
+
+    // Separa la clave AES de cualquier otro uso de la misma clave del módulo
+    private static final byte[] KDF_LABEL = "GhoulStream AES-GCM v1\0".getBytes(StandardCharsets.US_ASCII);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Cipher.getInstance es caro: una instancia por hilo, re-inicializada en cada uso
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM no disponible", e);
+        }
+    });
+
+    private static final boolean AVAILABLE = probe();
+
+    private AesGcmCipher() {
+    }
+
+    /**
+     * @return true si el proveedor JCE ofrece AES/GCM/NoPadding
+     */
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean probe() {
+        try {
+            Cipher.getInstance(TRANSFORMATION);
+            return true;
+        } catch (GeneralSecurityException e) {
+            SecurityLog.w(TAG, "⚠️ AES-GCM no disponible en este dispositivo: {}", e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * 🔑 Deriva la clave AES-256 a partir de los bytes de una clave del módulo
+     */
+    static SecretKeySpec deriveKey(byte[] keyBytes) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(KDF_LABEL);
+            byte[] digest = sha256.digest(keyBytes);
+            try {
+                return new SecretKeySpec(digest, "AES");
+            } finally {
+                // SecretKeySpec guarda su propia copia
+                Arrays.fill(digest, (byte) 0);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * @param plainLength Longitud del texto en claro
+     * @return Longitud del payload encriptado
+     */
+    static int sealedLength(int plainLength) {
+        return IV_SIZE + plainLength + TAG_SIZE;
+    }
+
+    /**
+     * 🔐 Encripta en un sobre
+     * @param key Clave preparada (se usa su clave AES derivada)
+     * @param keyId Id de la clave para la cabecera
+     * @param flags Flags de la cabecera
+     * @param data Texto en claro
+     * @param offset Inicio
+     * @param length Longitud
+     * @return Sobre binario completo
+     */
+    static byte[] seal(PreparedKey key, int keyId, int flags, byte[] data, int offset, int length)
+            throws GeneralSecurityException {
+        byte[] envelope = CipherEnvelope.allocate(keyId, CipherEnvelope.ALG_AES_GCM, flags, sealedLength(length));
+        byte[] iv = new byte[IV_SIZE];
+        RANDOM.nextBytes(iv);
+        System.arraycopy(iv, 0, envelope, CipherEnvelope.HEADER_SIZE, IV_SIZE);
+
+        Cipher cipher = CIPHER.get();
+        cipher.init(Cipher.ENCRYPT_MODE, key.aesKey(), new GCMParameterSpec(TAG_SIZE * 8, iv));
+        cipher.updateAAD(envelope, 0, CipherEnvelope.HEADER_SIZE);
+        cipher.doFinal(data, offset, length, envelope, CipherEnvelope.HEADER_SIZE + IV_SIZE);
+        return envelope;
+    }
+
+    /**
+     * 🔓 Desencripta y verifica un sobre AES-GCM
+     * @param key Clave preparada
+     * @param envelope Sobre con algoritmo {@link CipherEnvelope#ALG_AES_GCM}
+     * @return Texto en claro o null si el tag no coincide (clave incorrecta o datos manipulados)
+     */
+    static byte[] open(PreparedKey key, CipherEnvelope envelope) throws GeneralSecurityException {
+        byte[] data = envelope.array();
+        int payloadLength = envelope.getPayloadLength();
+        if (payloadLength < IV_SIZE + TAG_SIZE) {
+            return null;
+        }
+
+        Cipher cipher = CIPHER.get();
+        cipher.init(Cipher.DECRYPT_MODE, key.aesKey(),
+                new GCMParameterSpec(TAG_SIZE * 8, data, CipherEnvelope.HEADER_SIZE, IV_SIZE));
+        cipher.updateAAD(data, 0, CipherEnvelope.HEADER_SIZE);
+        try {
+            int start = CipherEnvelope.HEADER_SIZE + IV_SIZE;
+            return cipher.doFinal(data, start, data.length - start);
+        } catch (AEADBadTagException e) {
+            SecurityLog.e(TAG, "❌ Sobre AES-GCM no auténtico (clave {} o datos manipulados)", envelope.getKeyId());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 📦 BatchResult - Resultado de una operación de encriptación por lotes
+ *
+ * Conserva el orden de las entradas y reporta el fallo de cada elemento
+ * por separado, en lugar de devolver un único null para todo el lote.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class BatchResult {
+
+    private final String[] results;
+    private final String[] errors;
+    private int failureCount;
+
+    BatchResult(int size) {
+        this.results = new String[size];
+        this.errors = new String[size];
+    }
+
+    /**
+     * Crea un resultado donde todos los elementos fallan por el mismo motivo
+     */
+    static BatchResult failed(int size, String error) {
+        BatchResult result = new BatchResult(size);
+        for (int i = 0; i < size; i++) {
+            result.setError(i, error);
+        }
+        return result;
+    }
+
+    void setResult(int index, String value) {
+        results[index] = value;
+    }
+
+    void setError(int index, String error) {
+        if (errors[index] == null) {
+            failureCount++;
+        }
+        results[index] = null;
+        errors[index] = error;
+    }
+
+    /**
+     * @return Número de elementos del lote
+     */
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * Obtiene el resultado de un elemento
+     * @param index Posición en el lote
+     * @return Texto procesado o null si ese elemento falló
+     */
+    public String get(int index) {
+        return results[index];
+    }
+
+    /**
+     * @param index Posición en el lote
+     * @return true si el elemento se procesó correctamente
+     */
+    public boolean isSuccess(int index) {
+        return errors[index] == null;
+    }
+
+    /**
+     * @param index Posición en el lote
+     * @return Descripción del error o null si el elemento fue exitoso
+     */
+    public String getError(int index) {
+        return errors[index];
+    }
+
+    /**
+     * @return Número de elementos procesados correctamente
+     */
+    public int getSuccessCount() {
+        return results.length - failureCount;
+    }
+
+    /**
+     * @return Número de elementos fallidos
+     */
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return true si todos los elementos se procesaron correctamente
+     */
+    public boolean isAllSuccessful() {
+        return failureCount == 0;
+    }
+
+    /**
+     * @return Lista inmutable de resultados (null en los elementos fallidos)
+     */
+    public List<String> getResults() {
+        return Collections.unmodifiableList(Arrays.asList(results.clone()));
+    }
+
+    /**
+     * @return Índices de los elementos fallidos
+     */
+    public List<Integer> getFailedIndices() {
+        List<Integer> failed = new ArrayList<>(failureCount);
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                failed.add(i);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{size=" + size() + ", ok=" + getSuccessCount()
+                + ", fallidos=" + failureCount + "}";
+    }
+}
@@ -0,0 +1,73 @@
+package com.tokyoghoull.ghoulstream.security;
+
+/**
+ * 🧮 CipherAlgorithm - Definición del algoritmo de cifrado (versión 2)
+ *
+ * Núcleo del cifrado sin dependencias fuera de {@code java.lang}: lo usa
+ * {@link JavaCipherEngine} en el dispositivo y build.gradle compila este mismo
+ * archivo para encriptar las constantes en el host (generateEncryptedConstants),
+ * así que ambos lados no pueden divergir.
+ *
+ * Algoritmo (por byte, posición i):
+ * <pre>
+ * k     = key[i mod key.length]
+ * shift = (k - 0x20) mod 95
+ * c     = 0x20 + ((p - 0x20 + shift) mod 95)   si 0x20 ≤ p ≤ 0x7E
+ * c     = p                                     en otro caso
+ * </pre>
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+final class CipherAlgorithm {
+
+    /** Versión del algoritmo (ver {@link CipherEngine#ALGORITHM_VERSION}) */
+    static final int VERSION = 2;
+
+    static final int FIRST_PRINTABLE = 0x20;
+    static final int LAST_PRINTABLE = 0x7E;
+    static final int ALPHABET_SIZE = LAST_PRINTABLE - FIRST_PRINTABLE + 1;
+
+    private CipherAlgorithm() {
+    }
+
+    /**
+     * 🔑 Calcula el desplazamiento de cada byte de la clave
+     */
+    static int[] computeShifts(byte[] key) {
+        int[] shifts = new int[key.length];
+        for (int i = 0; i < key.length; i++) {
+            shifts[i] = Math.floorMod((key[i] & 0xFF) - FIRST_PRINTABLE, ALPHABET_SIZE);
+        }
+        return shifts;
+    }
+
+    /**
+     * 🔄 Cifra o descifra en el sitio; keyOffset es la posición de clave del primer byte
+     */
+    static void transform(byte[] data, int offset, int length, int[] shifts, int keyOffset, boolean decrypt) {
+        int keyLength = shifts.length;
+        int end = offset + length;
+        for (int i = offset, k = keyOffset; i < end; i++) {
+            int b = data[i] & 0xFF;
+            if (b >= FIRST_PRINTABLE && b <= LAST_PRINTABLE) {
+                data[i] = (byte) apply(b, shifts[k], decrypt);
+            }
+            if (++k == keyLength) {
+                k = 0;
+            }
+        }
+    }
+
+    /**
+     * Desplaza un byte imprimible (0x20..0x7E)
+     */
+    static int apply(int b, int shift, boolean decrypt) {
+        int index = b - FIRST_PRINTABLE + (decrypt ? ALPHABET_SIZE - shift : shift);
+        if (index >= ALPHABET_SIZE) {
+            index -= ALPHABET_SIZE;
+        }
+        return FIRST_PRINTABLE + index;
+    }
+}
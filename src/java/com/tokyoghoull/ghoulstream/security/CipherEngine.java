@@ -0,0 +1,128 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ⚙️ CipherEngine - SPI de motores de cifrado
+ *
+ * Un motor implementa el cifrado del módulo, versión {@link #ALGORITHM_VERSION}:
+ * la clave (en UTF-8) se extiende repitiéndola hasta la longitud del texto y
+ * cada byte imprimible ASCII (0x20..0x7E) se desplaza dentro de ese rango,
+ * módulo 95; el resto de bytes se conserva. Todos los motores de una misma
+ * versión producen los mismos bytes.
+ *
+ * ⚠️ Las libencryption.so precompiladas de la versión 1.0.0 usan otro algoritmo
+ * (versión 1: Base64 del texto y Vigenère sobre a-zA-Z0-9 y espacio, módulo 63)
+ * y sus textos no se desencriptan con la versión 2. Por eso
+ * {@link JniCipherEngine} solo usa una librería que declare esta misma versión.
+ *
+ * Implementaciones: {@link JniCipherEngine} (libencryption.so) y
+ * {@link JavaCipherEngine} (Java puro). {@link NativeEncryption} elige uno al
+ * arrancar según disponibilidad y un micro-benchmark.
+ *
+ * Los parámetros ya llegan validados desde {@link NativeEncryption}; los
+ * motores señalan los errores con excepciones no comprobadas.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public interface CipherEngine {
+
+    /** Versión del algoritmo que implementan los motores (definido en {@link CipherAlgorithm}) */
+    int ALGORITHM_VERSION = CipherAlgorithm.VERSION;
+
+    /**
+     * @return Nombre corto del motor (para diagnósticos)
+     */
+    String getName();
+
+    /**
+     * @return true si el motor puede usarse en este proceso
+     */
+    boolean isAvailable();
+
+    /**
+     * @return true si el motor procesa bytes arbitrarios (no solo texto UTF-8 válido)
+     */
+    boolean supportsBinary();
+
+    /**
+     * 🔄 Procesa un String completo
+     *
+     * @param text Texto no vacío
+     * @param key Clave validada
+     * @param mode ENCRYPT o DECRYPT
+     * @return Texto procesado
+     */
+    String transform(String text, String key, CipherMode mode);
+
+    /**
+     * 📦 Procesa un lote de Strings con la misma clave
+     *
+     * @param texts Textos (los elementos null se devuelven como null)
+     * @param key Clave validada
+     * @param mode ENCRYPT o DECRYPT
+     * @return Resultados en el mismo orden (null en los elementos fallidos)
+     */
+    String[] transformBatch(String[] texts, String key, CipherMode mode);
+
+    /**
+     * 🧱 Procesa una región de un array en el mismo buffer
+     *
+     * @param data Buffer de datos
+     * @param offset Posición inicial de la región
+     * @param length Longitud de la región
+     * @param key Clave en UTF-8
+     * @param keyOffset Índice de la clave que corresponde al primer byte (0 ≤ keyOffset &lt; key.length)
+     * @param mode ENCRYPT o DECRYPT
+     */
+    void transform(byte[] data, int offset, int length, byte[] key, int keyOffset, CipherMode mode);
+
+    /**
+     * 🔑 Procesa un String completo con una clave preparada
+     * Por defecto convierte a UTF-8 y delega en la variante de bytes.
+     *
+     * @param text Texto no vacío
+     * @param key Clave preparada (adquirida por el llamador)
+     * @param mode ENCRYPT o DECRYPT
+     * @return Texto procesado
+     */
+    default String transform(String text, PreparedKey key, CipherMode mode) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        transform(data, 0, data.length, key, 0, mode);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 🔑 Procesa una región de un array con una clave preparada
+     * Por defecto usa los bytes de la clave; los motores pueden reutilizar lo
+     * que ya precalculó la clave (desplazamientos, clave nativa extendida).
+     *
+     * @param data Buffer de datos
+     * @param offset Posición inicial de la región
+     * @param length Longitud de la región
+     * @param key Clave preparada (adquirida por el llamador)
+     * @param keyOffset Índice de la clave que corresponde al primer byte
+     * @param mode ENCRYPT o DECRYPT
+     */
+    default void transform(byte[] data, int offset, int length, PreparedKey key, int keyOffset, CipherMode mode) {
+        transform(data, offset, length, key.bytes(), keyOffset, mode);
+    }
+
+    /**
+     * 🧱 Procesa una región entre dos buffers directos (posiciones absolutas)
+     *
+     * @param src Buffer directo de entrada
+     * @param srcOffset Posición absoluta en src
+     * @param dst Buffer directo de salida (puede ser src)
+     * @param dstOffset Posición absoluta en dst
+     * @param length Número de bytes
+     * @param key Clave en UTF-8
+     * @param keyOffset Índice de la clave que corresponde al primer byte
+     * @param mode ENCRYPT o DECRYPT
+     */
+    void transformDirect(ByteBuffer src, int srcOffset, ByteBuffer dst, int dstOffset, int length,
+                         byte[] key, int keyOffset, CipherMode mode);
+}
@@ -0,0 +1,198 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Locale;
+
+/**
+ * 🏁 CipherEngineSelector - Selección del motor de cifrado al arrancar
+ *
+ * 1. Si libencryption.so no está cargada o no implementa la versión del
+ *    algoritmo de los motores Java se usa el motor Java.
+ * 2. Si lo está, se comprueba con vectores de prueba que la librería produce
+ *    exactamente los mismos bytes que el motor Java de referencia; si no, o si
+ *    falta algún método nativo, el motor JNI se descarta.
+ * 3. Con ambos compatibles, un micro-benchmark decide qué motor atiende los
+ *    textos cortos (donde domina el coste JNI) y cuál los largos.
+ *
+ * {@link #initial} resuelve los pasos 1 y el forzado sin ejecutar nada nativo,
+ * para la inicialización de {@link NativeEncryption}; {@link #select} ejecuta
+ * los tres pasos y se lanza en segundo plano.
+ *
+ * La propiedad de sistema {@code ghoulstream.cipher.engine} (java | jni | auto)
+ * permite forzar la elección.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+final class CipherEngineSelector {
+
+    private static final String TAG = "CipherEngineSelector";
+
+    /** Propiedad de sistema para forzar el motor */
+    static final String ENGINE_PROPERTY = "ghoulstream.cipher.engine";
+
+    /** Límite (bytes) entre textos cortos y largos */
+    static final int SHORT_PAYLOAD_THRESHOLD = 256;
+
+    private static final String PROBE_KEY = "TestKey123456";
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURE_ITERATIONS = 400;
+
+    private CipherEngineSelector() {
+    }
+
+    /**
+     * Resultado de la selección
+     */
+    static final class Selection {
+        final CipherEngine shortEngine;
+        final CipherEngine longEngine;
+        final boolean javaCompatible;
+        final String reason;
+
+        Selection(CipherEngine shortEngine, CipherEngine longEngine, boolean javaCompatible, String reason) {
+            this.shortEngine = shortEngine;
+            this.longEngine = longEngine;
+            this.javaCompatible = javaCompatible;
+            this.reason = reason;
+        }
+
+        CipherEngine engineFor(int length) {
+            return length <= SHORT_PAYLOAD_THRESHOLD ? shortEngine : longEngine;
+        }
+    }
+
+    /**
+     * Selecciona un único motor para todos los tamaños
+     */
+    static Selection fixed(CipherEngine engine, String reason) {
+        return new Selection(engine, engine, true, reason);
+    }
+
+    /**
+     * 🚀 Selección provisional sin benchmark: motor Java para textos cortos y,
+     * si la librería está disponible, JNI para los largos
+     */
+    static Selection initial(JniCipherEngine jni, JavaCipherEngine java) {
+        String forced = forcedEngine();
+        if (!jni.isAvailable()) {
+            return fixed(java, "librería nativa no disponible");
+        }
+        if ("jni".equals(forced)) {
+            return fixed(jni, "forzado por " + ENGINE_PROPERTY);
+        }
+        if ("java".equals(forced)) {
+            return fixed(java, "forzado por " + ENGINE_PROPERTY);
+        }
+        return new Selection(java, jni, true, "provisional, benchmark pendiente");
+    }
+
+    /**
+     * 🏁 Ejecuta la selección completa (vectores de compatibilidad + micro-benchmark)
+     */
+    static Selection select(JniCipherEngine jni, JavaCipherEngine java) {
+        String forced = forcedEngine();
+
+        if (!jni.isAvailable()) {
+            return fixed(java, "librería nativa no disponible");
+        }
+        if ("jni".equals(forced)) {
+            return fixed(jni, "forzado por " + ENGINE_PROPERTY);
+        }
+
+        if (!isCompatible(java, jni)) {
+            SecurityLog.w(TAG, "⚠️ libencryption.so no coincide con el motor Java de referencia, se descarta JNI");
+            jni.markUnavailable();
+            return fixed(java, "librería nativa incompatible con el algoritmo versión " + CipherEngine.ALGORITHM_VERSION);
+        }
+        if ("java".equals(forced)) {
+            return fixed(java, "forzado por " + ENGINE_PROPERTY);
+        }
+
+        String shortPayload = payload(64);
+        String longPayload = payload(4096);
+        long jniShort;
+        long jniLong;
+        try {
+            jniShort = measure(jni, shortPayload);
+            jniLong = measure(jni, longPayload);
+        } catch (RuntimeException | LinkageError e) {
+            SecurityLog.w(TAG, "⚠️ Error midiendo el motor JNI, se usará el motor Java: {}", e.getMessage());
+            jni.markUnavailable();
+            return fixed(java, "error en el motor JNI");
+        }
+        long javaShort = measure(java, shortPayload);
+        long javaLong = measure(java, longPayload);
+
+        CipherEngine shortEngine = javaShort <= jniShort ? java : jni;
+        CipherEngine longEngine = javaLong <= jniLong ? java : jni;
+        String reason = String.format(Locale.ROOT,
+                "benchmark 64B jni=%dns java=%dns, 4KB jni=%dns java=%dns",
+                jniShort, javaShort, jniLong, javaLong);
+        SecurityLog.i(TAG, "🏁 Motores seleccionados: cortos=" + shortEngine.getName() +
+              ", largos=" + longEngine.getName() + " (" + reason + ")");
+        return new Selection(shortEngine, longEngine, true, reason);
+    }
+
+    private static String forcedEngine() {
+        return System.getProperty(ENGINE_PROPERTY, "auto").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 🧪 Compara ambos motores con vectores que cubren todo el rango imprimible
+     */
+    static boolean isCompatible(CipherEngine reference, CipherEngine candidate) {
+        StringBuilder printable = new StringBuilder();
+        for (char c = 0x20; c <= 0x7E; c++) {
+            printable.append(c);
+        }
+
+        String[] vectors = {
+                "GhoulStream Security Test",
+                "https://ghoulstream.example/live/user/pass/12345.m3u8?token=a1b2",
+                printable.toString(),
+                "Canal Niño Ñandú – áéíóú"
+        };
+
+        try {
+            for (String vector : vectors) {
+                String expected = reference.transform(vector, PROBE_KEY, CipherMode.ENCRYPT);
+                if (!expected.equals(candidate.transform(vector, PROBE_KEY, CipherMode.ENCRYPT))) {
+                    return false;
+                }
+                if (!vector.equals(candidate.transform(expected, PROBE_KEY, CipherMode.DECRYPT))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException | LinkageError e) {
+            // Una librería sin alguno de los métodos nativos lanza UnsatisfiedLinkError
+            SecurityLog.w(TAG, "⚠️ Error comparando motores: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * ⏱️ Tiempo medio por operación (ns) tras calentamiento
+     */
+    private static long measure(CipherEngine engine, String payload) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            engine.transform(payload, PROBE_KEY, CipherMode.ENCRYPT);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            engine.transform(payload, PROBE_KEY, CipherMode.ENCRYPT);
+        }
+        return (System.nanoTime() - start) / MEASURE_ITERATIONS;
+    }
+
+    private static String payload(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        String base = "https://ghoulstream.example/live/";
+        while (sb.length() < length) {
+            sb.append(base);
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+}
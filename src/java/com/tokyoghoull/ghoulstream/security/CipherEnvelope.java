@@ -0,0 +1,202 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Base64;
+
+/**
+ * ✉️ CipherEnvelope - Cabecera versionada de los datos encriptados
+ *
+ * Antes el texto encriptado no llevaba cabecera: cambiar la clave invalidaba
+ * todos los valores guardados a la vez. El sobre indica con qué clave y
+ * algoritmo se encriptó cada valor, de modo que {@link KeyRing} puede
+ * desencriptar con la clave correcta y re-encriptar de forma perezosa.
+ *
+ * Formato binario (7 bytes de cabecera + payload):
+ * <pre>
+ * 'G' 'S' | versión (1) | keyId (2, big-endian) | algId (1) | flags (1) | payload
+ * </pre>
+ * Forma de texto: {@code "gse:" + Base64(cabecera + payload)}.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class CipherEnvelope {
+
+    /** Prefijo de la forma de texto */
+    public static final String TEXT_PREFIX = "gse:";
+
+    /** Versión actual del formato */
+    public static final int VERSION = 1;
+
+    /** Tamaño de la cabecera en bytes */
+    public static final int HEADER_SIZE = 7;
+
+    /** Algoritmo heredado de libencryption.so (desplazamiento sobre ASCII imprimible) */
+    public static final int ALG_LEGACY = 1;
+
+    /** AES-256-GCM del proveedor JCE (autenticado) */
+    public static final int ALG_AES_GCM = 2;
+
+    /** Flag: el payload se comprimió antes de encriptar (ver {@link KeyRing#setCompression(boolean)}) */
+    public static final int FLAG_COMPRESSED = 0x01;
+
+    /** Flags que esta versión sabe interpretar */
+    static final int KNOWN_FLAGS = FLAG_COMPRESSED;
+
+    /** keyId máximo (2 bytes sin signo) */
+    public static final int MAX_KEY_ID = 0xFFFF;
+
+    private static final byte MAGIC_0 = 'G';
+    private static final byte MAGIC_1 = 'S';
+
+    private final int version;
+    private final int keyId;
+    private final int algorithmId;
+    private final int flags;
+    private final byte[] data;
+
+    private CipherEnvelope(int version, int keyId, int algorithmId, int flags, byte[] data) {
+        this.version = version;
+        this.keyId = keyId;
+        this.algorithmId = algorithmId;
+        this.flags = flags;
+        this.data = data;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getKeyId() {
+        return keyId;
+    }
+
+    public int getAlgorithmId() {
+        return algorithmId;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    /**
+     * @param flag Bit de flag
+     * @return true si el flag está activo
+     */
+    public boolean hasFlag(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    /**
+     * @return Longitud del payload
+     */
+    public int getPayloadLength() {
+        return data.length - HEADER_SIZE;
+    }
+
+    /**
+     * Array completo del sobre (cabecera incluida); el payload empieza en {@link #HEADER_SIZE}
+     */
+    byte[] array() {
+        return data;
+    }
+
+    // ------------------------------------------------------------- codificación
+
+    /**
+     * 📦 Reserva un sobre con la cabecera escrita y hueco para el payload
+     * @param keyId Id de la clave
+     * @param algorithmId Id del algoritmo
+     * @param flags Flags
+     * @param payloadLength Longitud del payload
+     * @return Array de HEADER_SIZE + payloadLength bytes
+     */
+    static byte[] allocate(int keyId, int algorithmId, int flags, int payloadLength) {
+        if (keyId < 0 || keyId > MAX_KEY_ID || algorithmId < 0 || algorithmId > 0xFF || flags < 0 || flags > 0xFF) {
+            throw new IllegalArgumentException("Cabecera de sobre fuera de rango");
+        }
+        byte[] out = new byte[HEADER_SIZE + payloadLength];
+        out[0] = MAGIC_0;
+        out[1] = MAGIC_1;
+        out[2] = (byte) VERSION;
+        out[3] = (byte) (keyId >>> 8);
+        out[4] = (byte) keyId;
+        out[5] = (byte) algorithmId;
+        out[6] = (byte) flags;
+        return out;
+    }
+
+    /**
+     * 🔍 Lee la cabecera de un sobre binario
+     * @param data Sobre completo (no se copia)
+     * @return Sobre o null si no tiene una cabecera válida
+     */
+    static CipherEnvelope parse(byte[] data) {
+        if (data == null || data.length < HEADER_SIZE || data[0] != MAGIC_0 || data[1] != MAGIC_1) {
+            return null;
+        }
+        int version = data[2] & 0xFF;
+        if (version != VERSION) {
+            return null;
+        }
+        int keyId = ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+        return new CipherEnvelope(version, keyId, data[5] & 0xFF, data[6] & 0xFF, data);
+    }
+
+    /**
+     * 🔍 Lee un sobre en forma de texto
+     * @param text Texto {@code gse:...}
+     * @return Sobre o null si el texto no es un sobre válido
+     */
+    static CipherEnvelope parse(String text) {
+        if (!hasTextPrefix(text)) {
+            return null;
+        }
+        try {
+            return parse(Base64.getDecoder().decode(text.substring(TEXT_PREFIX.length())));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 🔍 Lee solo la cabecera de un sobre en forma de texto, sin decodificar el payload
+     * @param text Texto {@code gse:...}
+     * @return Cabecera (sin payload) o null si el texto no es un sobre válido
+     */
+    public static CipherEnvelope peekHeader(String text) {
+        if (!hasTextPrefix(text) || text.length() < TEXT_PREFIX.length() + 12) {
+            return null;
+        }
+        try {
+            // 12 caracteres Base64 = 9 bytes: cubren los 7 de la cabecera
+            byte[] head = Base64.getDecoder().decode(text.substring(TEXT_PREFIX.length(), TEXT_PREFIX.length() + 12));
+            CipherEnvelope parsed = parse(head);
+            return parsed == null ? null
+                    : new CipherEnvelope(parsed.version, parsed.keyId, parsed.algorithmId, parsed.flags, new byte[HEADER_SIZE]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param data Sobre binario
+     * @return Forma de texto {@code gse:...}
+     */
+    static String toText(byte[] data) {
+        return TEXT_PREFIX + Base64.getEncoder().encodeToString(data);
+    }
+
+    /**
+     * @return true si el texto tiene el prefijo de sobre (no valida el contenido)
+     */
+    public static boolean hasTextPrefix(String text) {
+        return text != null && text.startsWith(TEXT_PREFIX);
+    }
+
+    @Override
+    public String toString() {
+        return "CipherEnvelope{v" + version + ", keyId=" + keyId + ", alg=" + algorithmId
+                + ", flags=" + flags + ", payload=" + getPayloadLength() + "B}";
+    }
+}
@@ -0,0 +1,15 @@
+package com.tokyoghoull.ghoulstream.security;
+
+/**
+ * 🔀 CipherMode - Dirección de una operación de cifrado
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public enum CipherMode {
+    /** 🔐 Encriptar texto en claro */
+    ENCRYPT,
+    /** 🔓 Desencriptar texto encriptado */
+    DECRYPT
+}
@@ -0,0 +1,45 @@
+package com.tokyoghoull.ghoulstream.security;
+
+/**
+ * 💥 CryptoException - Fallo de una operación de cifrado con su {@link FailureReason}
+ *
+ * Hay una instancia preasignada por causa, sin stack trace: lanzarla no
+ * asigna memoria ni recorre la pila. Para errores con contexto (clave
+ * concreta, id del valor) usar los logs del módulo.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class CryptoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final CryptoException[] INSTANCES;
+
+    static {
+        FailureReason[] reasons = FailureReason.values();
+        INSTANCES = new CryptoException[reasons.length];
+        for (FailureReason reason : reasons) {
+            INSTANCES[reason.ordinal()] = new CryptoException(reason);
+        }
+    }
+
+    private final FailureReason reason;
+
+    private CryptoException(FailureReason reason) {
+        super("Operación de cifrado fallida: " + reason, null, false, false);
+        this.reason = reason;
+    }
+
+    /**
+     * @return Instancia compartida para la causa indicada
+     */
+    static CryptoException of(FailureReason reason) {
+        return INSTANCES[reason.ordinal()];
+    }
+
+    public FailureReason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,111 @@
+package com.tokyoghoull.ghoulstream.security;
+
+/**
+ * 🎯 CryptoResult - Resultado de una operación de cifrado: el valor o la causa del fallo
+ *
+ * Alternativa a los métodos que devuelven null: el llamador distingue una
+ * librería ausente de una entrada inválida o de un fallo transitorio del
+ * motor, y decide si reintentar ({@link #isRetryable()}) o rendirse
+ * ({@link #isPermanent()}). Los fallos son instancias preasignadas: un fallo
+ * no asigna memoria, no registra logs y no captura stack traces.
+ *
+ * @example
+ * CryptoResult result = NativeEncryption.tryDecrypt(stored, key);
+ * if (result.isSuccess()) {
+ *     load(result.getValue());
+ * } else if (result.isRetryable()) {
+ *     scheduleRetry(backoff);
+ * } else {
+ *     useFallback(result.getReason());
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class CryptoResult {
+
+    private static final CryptoResult[] FAILURES;
+
+    static {
+        FailureReason[] reasons = FailureReason.values();
+        FAILURES = new CryptoResult[reasons.length];
+        for (FailureReason reason : reasons) {
+            FAILURES[reason.ordinal()] = new CryptoResult(null, reason);
+        }
+    }
+
+    private final String value;
+    private final FailureReason reason;
+
+    private CryptoResult(String value, FailureReason reason) {
+        this.value = value;
+        this.reason = reason;
+    }
+
+    static CryptoResult success(String value) {
+        return new CryptoResult(value, null);
+    }
+
+    /**
+     * @return Instancia compartida para la causa indicada
+     */
+    static CryptoResult failure(FailureReason reason) {
+        return FAILURES[reason.ordinal()];
+    }
+
+    public boolean isSuccess() {
+        return reason == null;
+    }
+
+    /**
+     * @return Valor procesado
+     * @throws CryptoException Si la operación falló (instancia compartida, sin stack trace)
+     */
+    public String getValue() {
+        if (reason != null) {
+            throw CryptoException.of(reason);
+        }
+        return value;
+    }
+
+    /**
+     * @return Valor procesado o null si la operación falló
+     */
+    public String getValueOrNull() {
+        return value;
+    }
+
+    /**
+     * @param fallback Valor a devolver si la operación falló
+     */
+    public String orElse(String fallback) {
+        return reason == null ? value : fallback;
+    }
+
+    /**
+     * @return Causa del fallo o null si la operación fue exitosa
+     */
+    public FailureReason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return true si falló por una causa que puede ser transitoria
+     */
+    public boolean isRetryable() {
+        return reason != null && reason.isRetryable();
+    }
+
+    /**
+     * @return true si falló porque no hay motor de cifrado (no reintentar)
+     */
+    public boolean isPermanent() {
+        return reason != null && reason.isPermanent();
+    }
+
+    @Override
+    public String toString() {
+        return reason == null ? "CryptoResult{ok, longitud=" + value.length() + "}" : "CryptoResult{" + reason + "}";
+    }
+}
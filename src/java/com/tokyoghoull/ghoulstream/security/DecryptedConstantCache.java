@@ -0,0 +1,339 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 🗄️ DecryptedConstantCache - Caché acotada de constantes desencriptadas
+ *
+ * Evita cruzar JNI y repetir la extensión de clave cada vez que se consulta
+ * una constante predefinida (canales, EPG, Xtream...). Los valores se guardan
+ * como buffers {@code char[]} que se sobrescriben con ceros al expirar,
+ * invalidarse o ser desalojados, en lugar de Strings internados.
+ *
+ * Thread-safe y sin locks en los aciertos: el mapa es un ConcurrentHashMap y
+ * cada entrada se copia con una lectura optimista ({@link StampedLock}), que
+ * solo se repite si la entrada se borró a mitad de la copia. Las escrituras
+ * (carga, invalidación, desalojo) se sincronizan sobre la propia caché; la
+ * carga (desencriptación) se hace fuera del lock. El desalojo por tamaño
+ * descarta la entrada usada hace más tiempo (resolución ~1 ms).
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class DecryptedConstantCache {
+
+    /** Número máximo de entradas por defecto */
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    /** TTL por defecto: 0 = sin expiración */
+    public static final long DEFAULT_TTL_MILLIS = 0L;
+
+    /**
+     * 🔓 Carga el valor en claro de una constante cuando no está en caché
+     */
+    public interface Loader {
+        /**
+         * @return Valor desencriptado o null si hay error (no se cachea)
+         */
+        String load();
+    }
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private volatile long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor con valores por defecto
+     */
+    public DecryptedConstantCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param maxEntries Número máximo de constantes en caché (mínimo 1)
+     * @param ttlMillis Tiempo de vida de cada entrada en ms (0 = sin expiración)
+     */
+    public DecryptedConstantCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries debe ser >= 1 (actual: " + maxEntries + ")");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>(maxEntries);
+        setTtlMillis(ttlMillis);
+    }
+
+    /**
+     * 🔍 Obtiene una constante, cargándola si no está en caché o ha expirado
+     *
+     * @param id Identificador de la constante
+     * @param loader Función de carga (normalmente NativeEncryption.decrypt)
+     * @return Valor desencriptado o null si la carga falla
+     */
+    public String get(String id, Loader loader) {
+        String cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        String value = loader.load();
+        if (value == null) {
+            return null;
+        }
+
+        put(id, value.toCharArray());
+        return value;
+    }
+
+    /**
+     * 🔍 Obtiene una constante solo si está en caché y vigente (sin cargarla)
+     *
+     * @param id Identificador de la constante
+     * @return Valor o null si no está en caché
+     */
+    public String getIfPresent(String id) {
+        String cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 🔍 Copia el valor vigente de una entrada sin tomar el lock de la caché
+     * @return Valor o null si no está, expiró o se borró durante la lectura
+     */
+    private String lookup(String id) {
+        Entry entry = id != null ? entries.get(id) : null;
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.isExpired(now)) {
+            synchronized (this) {
+                if (entries.remove(id, entry)) {
+                    entry.wipe();
+                    evictions.increment();
+                }
+            }
+            return null;
+        }
+        String value = entry.read();
+        if (value != null) {
+            entry.touch(now);
+        }
+        return value;
+    }
+
+    /**
+     * 🗑️ Invalida una constante y borra su buffer
+     * @param id Identificador de la constante
+     */
+    public synchronized void invalidate(String id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            entry.wipe();
+        }
+    }
+
+    /**
+     * 🗑️ Invalida todas las constantes y borra sus buffers
+     */
+    public synchronized void invalidateAll() {
+        for (Entry entry : entries.values()) {
+            entry.wipe();
+        }
+        entries.clear();
+    }
+
+    /**
+     * ⏱️ Configura el tiempo de vida de las entradas
+     * Afecta solo a entradas cargadas a partir de este momento.
+     *
+     * @param ttlMillis Tiempo de vida en ms (0 = sin expiración)
+     */
+    public void setTtlMillis(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ttlMillis no puede ser negativo (actual: " + ttlMillis + ")");
+        }
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * @return Tiempo de vida configurado en ms (0 = sin expiración)
+     */
+    public long getTtlMillis() {
+        return ttlNanos / 1_000_000L;
+    }
+
+    /**
+     * @return Número máximo de entradas
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return Número de entradas actualmente en caché
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Número de aciertos de caché
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Número de fallos de caché (cargas)
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Número de entradas desalojadas por tamaño o expiración
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Ratio de aciertos entre 0.0 y 1.0
+     */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * 🔄 Reinicia los contadores de aciertos/fallos/desalojos
+     */
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * 📊 Obtiene un resumen de las estadísticas de la caché
+     * @return String con el resumen
+     */
+    public String getStats() {
+        return "Caché de constantes: " + size() + "/" + maxEntries + " entradas"
+                + ", aciertos=" + getHitCount()
+                + ", fallos=" + getMissCount()
+                + ", desalojos=" + getEvictionCount()
+                + ", ratio=" + String.format(java.util.Locale.ROOT, "%.2f", getHitRatio())
+                + ", ttl=" + getTtlMillis() + "ms";
+    }
+
+    /**
+     * 📥 Inserta un valor ya desencriptado (precarga); la caché toma posesión del array
+     * @param id Identificador de la constante
+     * @param value Valor desencriptado (se borrará al expirar o invalidarse)
+     */
+    synchronized void put(String id, char[] value) {
+        long ttl = ttlNanos;
+        long expiresAt = ttl == 0 ? Long.MAX_VALUE : System.nanoTime() + ttl;
+
+        Entry previous = entries.put(id, new Entry(value, expiresAt));
+        if (previous != null) {
+            previous.wipe();
+        }
+
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, Entry> eldest = null;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (candidate.getKey().equals(id)) {
+                    continue;
+                }
+                if (eldest == null || candidate.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null || !entries.remove(eldest.getKey(), eldest.getValue())) {
+                break;
+            }
+            eldest.getValue().wipe();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Entrada de caché con buffer borrable
+     */
+    private static final class Entry {
+        // ~1 ms: el último acceso solo se escribe al cambiar de tick, no en cada acierto
+        private static final int TOUCH_SHIFT = 20;
+
+        final char[] value;
+        final long expiresAt;
+        final StampedLock lock = new StampedLock();
+        volatile long lastAccess = System.nanoTime() >> TOUCH_SHIFT;
+        private boolean wiped;
+
+        Entry(char[] value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+
+        void touch(long now) {
+            long tick = now >> TOUCH_SHIFT;
+            if (lastAccess != tick) {
+                lastAccess = tick;
+            }
+        }
+
+        /**
+         * @return Copia del valor o null si la entrada ya se borró
+         */
+        String read() {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                boolean gone = wiped;
+                String copy = new String(value);
+                if (lock.validate(stamp)) {
+                    return gone ? null : copy;
+                }
+            }
+            // Un borrado coincidió con la copia: se repite con lock de lectura
+            stamp = lock.readLock();
+            try {
+                return wiped ? null : new String(value);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void wipe() {
+            long stamp = lock.writeLock();
+            try {
+                wiped = true;
+                Arrays.fill(value, '\0');
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import android.content.Context;
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 🛡️ EnvironmentGuard - Comprobaciones anti-tampering asíncronas y cacheadas
+ *
+ * Ejecuta en paralelo, en un executor de fondo, la detección de root (sondeo
+ * del sistema de archivos, sin lanzar procesos), de depurador y de integridad
+ * de firma. El veredicto se cachea y se vuelve a comprobar cada
+ * {@link #setRecheckIntervalMillis(long) intervalo}:
+ * <ul>
+ *   <li>⚡ {@link #currentVerdict()} - lectura volátil para caminos calientes;
+ *       si el veredicto caducó lanza una nueva comprobación sin bloquear.</li>
+ *   <li>⏳ {@link #awaitVerdict(long, TimeUnit)} - espera a un veredicto vigente.</li>
+ *   <li>🔔 {@link Listener} - aviso cuando cambia el resultado.</li>
+ * </ul>
+ *
+ * @example
+ * EnvironmentGuard guard = GhoulStreamSecurity.getEnvironmentGuard();
+ * guard.addListener((previous, current) -> { if (current.isCompromised()) lockDown(); });
+ * if (guard.currentVerdict().isCompromised()) return;
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class EnvironmentGuard {
+
+    private static final String TAG = "EnvironmentGuard";
+
+    /** Intervalo por defecto entre comprobaciones (ms) */
+    public static final long DEFAULT_RECHECK_INTERVAL_MILLIS = 5 * 60_000L;
+
+    // Ubicaciones habituales del binario su (SuperSU, Magisk, builds de prueba)
+    private static final String[] SU_PATHS = {
+            "/system/bin/su",
+            "/system/xbin/su",
+            "/sbin/su",
+            "/system/su",
+            "/system/bin/.ext/su",
+            "/system/bin/failsafe/su",
+            "/system/sd/xbin/su",
+            "/system/usr/we-need-root/su",
+            "/su/bin/su",
+            "/data/local/su",
+            "/data/local/bin/su",
+            "/data/local/xbin/su",
+            "/cache/su",
+            "/dev/su",
+            "/vendor/bin/su"
+    };
+
+    /**
+     * 🔔 Recibe los cambios de veredicto
+     */
+    public interface Listener {
+        /**
+         * @param previous Veredicto anterior (puede ser {@link EnvironmentVerdict#UNKNOWN})
+         * @param current Nuevo veredicto
+         */
+        void onVerdictChanged(EnvironmentVerdict previous, EnvironmentVerdict current);
+    }
+
+    private final Supplier<Context> contextSupplier;
+    private final Executor executor;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<CompletableFuture<EnvironmentVerdict>> inFlight = new AtomicReference<>();
+
+    private volatile EnvironmentVerdict verdict = EnvironmentVerdict.UNKNOWN;
+    private volatile long verdictNanos;
+    private volatile long recheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_RECHECK_INTERVAL_MILLIS);
+
+    // La firma del APK no cambia mientras el proceso vive: un resultado válido se reutiliza
+    private volatile boolean integrityConfirmed = false;
+
+    /**
+     * @param context Contexto de la aplicación (para la verificación de firma)
+     */
+    public EnvironmentGuard(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * @param context Contexto de la aplicación (para la verificación de firma)
+     * @param executor Executor donde ejecutar las comprobaciones (null = hilos daemon propios)
+     */
+    public EnvironmentGuard(Context context, Executor executor) {
+        this(() -> context, executor);
+    }
+
+    EnvironmentGuard(Supplier<Context> contextSupplier, Executor executor) {
+        this.contextSupplier = contextSupplier;
+        this.executor = executor != null ? executor : DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * ⚡ Veredicto cacheado, sin bloquear
+     * Si aún no hay veredicto o caducó, lanza una comprobación en segundo plano
+     * y devuelve el último conocido (puede ser {@link EnvironmentVerdict#UNKNOWN}).
+     * @return Último veredicto
+     */
+    public EnvironmentVerdict currentVerdict() {
+        EnvironmentVerdict current = verdict;
+        if (!current.isKnown() || isExpired()) {
+            check();
+        }
+        return current;
+    }
+
+    /**
+     * ⏳ Espera a un veredicto vigente
+     * @param timeout Tiempo máximo de espera
+     * @param unit Unidad del tiempo
+     * @return Veredicto vigente, el último conocido si se agotó el tiempo o
+     *         {@link EnvironmentVerdict#UNKNOWN} si aún no hay contexto
+     */
+    public EnvironmentVerdict awaitVerdict(long timeout, TimeUnit unit) {
+        EnvironmentVerdict current = verdict;
+        if (current.isKnown() && !isExpired()) {
+            return current;
+        }
+        try {
+            return check().get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            SecurityLog.w(TAG, "⚠️ Comprobación de entorno no completada: {}", e.toString());
+        }
+        return verdict;
+    }
+
+    /**
+     * 🔄 Lanza una comprobación (o se une a la que esté en curso)
+     * @return Future con el nuevo veredicto
+     */
+    public CompletableFuture<EnvironmentVerdict> check() {
+        while (true) {
+            CompletableFuture<EnvironmentVerdict> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<EnvironmentVerdict> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                runChecks(created);
+                return created;
+            }
+        }
+    }
+
+    /**
+     * ⏱️ Configura cada cuánto caduca el veredicto
+     * @param intervalMillis Intervalo en ms (0 = comprobar en cada consulta)
+     */
+    public void setRecheckIntervalMillis(long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("intervalMillis no puede ser negativo (actual: " + intervalMillis + ")");
+        }
+        this.recheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * @return Intervalo entre comprobaciones en ms
+     */
+    public long getRecheckIntervalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(recheckIntervalNanos);
+    }
+
+    /**
+     * 🔔 Registra un listener de cambios de veredicto
+     */
+    public void addListener(Listener listener) {
+        if (listener != null) {
+            listeners.addIfAbsent(listener);
+        }
+    }
+
+    /**
+     * 🔕 Elimina un listener
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private boolean isExpired() {
+        return System.nanoTime() - verdictNanos > recheckIntervalNanos;
+    }
+
+    /**
+     * 🧵 Ejecuta las tres comprobaciones en paralelo y publica el veredicto
+     */
+    private void runChecks(CompletableFuture<EnvironmentVerdict> target) {
+        if (contextSupplier.get() == null) {
+            // Sin contexto (antes de initialize()) la firma no puede verificarse:
+            // no se publica ni se cachea un veredicto incompleto
+            inFlight.compareAndSet(target, null);
+            target.complete(EnvironmentVerdict.UNKNOWN);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<Boolean> root = CompletableFuture.supplyAsync(EnvironmentGuard::isSuBinaryPresent, executor);
+            CompletableFuture<Boolean> debugger = CompletableFuture.supplyAsync(EnvironmentGuard::isDebuggerAttached, executor);
+            CompletableFuture<Boolean> integrity = CompletableFuture.supplyAsync(this::checkIntegrity, executor);
+
+            CompletableFuture.allOf(root, debugger, integrity).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    SecurityLog.e(TAG, "❌ Error en comprobaciones de entorno", error);
+                    finish(target, null, error);
+                    return;
+                }
+                EnvironmentVerdict result = new EnvironmentVerdict(
+                        root.join(), debugger.join(), integrity.join(), System.nanoTime() - start);
+                finish(target, result, null);
+            });
+        } catch (RuntimeException e) {
+            // Executor rechazó la tarea
+            finish(target, null, e);
+        }
+    }
+
+    private void finish(CompletableFuture<EnvironmentVerdict> target, EnvironmentVerdict result, Throwable error) {
+        EnvironmentVerdict previous = verdict;
+        if (result != null) {
+            verdict = result;
+            verdictNanos = System.nanoTime();
+        }
+        inFlight.compareAndSet(target, null);
+
+        if (result == null) {
+            target.completeExceptionally(error);
+            return;
+        }
+
+        SecurityLog.d(TAG, "🛡️ Entorno comprobado: {}", result);
+        if (!result.sameOutcome(previous)) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onVerdictChanged(previous, result);
+                } catch (RuntimeException e) {
+                    SecurityLog.e(TAG, "❌ Error en listener de entorno", e);
+                }
+            }
+        }
+        target.complete(result);
+    }
+
+    /**
+     * 🔍 Busca el binario su en rutas conocidas y en el PATH (sin lanzar procesos)
+     * @return true si se encontró
+     */
+    static boolean isSuBinaryPresent() {
+        for (String path : SU_PATHS) {
+            if (new File(path).exists()) {
+                return true;
+            }
+        }
+
+        String envPath = System.getenv("PATH");
+        if (envPath != null) {
+            for (String dir : envPath.split(":")) {
+                if (!dir.isEmpty() && new File(dir, "su").exists()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 🐞 Comprueba si hay un depurador conectado o esperado
+     */
+    static boolean isDebuggerAttached() {
+        return android.os.Debug.isDebuggerConnected() || android.os.Debug.waitingForDebugger();
+    }
+
+    /**
+     * ✍️ Verifica que la aplicación tiene firmantes válidos (API 28+)
+     */
+    private boolean checkIntegrity() {
+        if (integrityConfirmed) {
+            return true;
+        }
+
+        Context context = contextSupplier.get();
+        if (context == null) {
+            return false;
+        }
+
+        try {
+            android.content.pm.PackageManager pm = context.getPackageManager();
+            android.content.pm.PackageInfo packageInfo = pm.getPackageInfo(
+                context.getPackageName(),
+                android.content.pm.PackageManager.GET_SIGNING_CERTIFICATES
+            );
+            boolean valid = packageInfo.signingInfo != null &&
+                            packageInfo.signingInfo.getApkContentsSigners() != null &&
+                            packageInfo.signingInfo.getApkContentsSigners().length > 0;
+            integrityConfirmed = valid;
+            return valid;
+        } catch (Exception e) {
+            SecurityLog.e(TAG, "Error validando integridad: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 🧵 Executor por defecto: creado solo si ninguna instancia recibe uno propio
+     */
+    private static final class DefaultExecutorHolder {
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "ghoulstream-env-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
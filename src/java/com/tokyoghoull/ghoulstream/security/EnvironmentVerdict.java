@@ -0,0 +1,106 @@
+package com.tokyoghoull.ghoulstream.security;
+
+/**
+ * 🛡️ EnvironmentVerdict - Veredicto inmutable de las comprobaciones anti-tampering
+ *
+ * Lo produce {@link EnvironmentGuard} tras ejecutar en paralelo las comprobaciones
+ * de root, depurador e integridad de firma.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class EnvironmentVerdict {
+
+    /** Veredicto inicial antes de la primera comprobación */
+    public static final EnvironmentVerdict UNKNOWN = new EnvironmentVerdict(false, false, false, false, 0L, 0L);
+
+    private final boolean known;
+    private final boolean rooted;
+    private final boolean debuggerAttached;
+    private final boolean integrityValid;
+    private final long timestamp;
+    private final long checkNanos;
+
+    EnvironmentVerdict(boolean rooted, boolean debuggerAttached, boolean integrityValid, long checkNanos) {
+        this(true, rooted, debuggerAttached, integrityValid, System.currentTimeMillis(), checkNanos);
+    }
+
+    private EnvironmentVerdict(boolean known, boolean rooted, boolean debuggerAttached, boolean integrityValid,
+                               long timestamp, long checkNanos) {
+        this.known = known;
+        this.rooted = rooted;
+        this.debuggerAttached = debuggerAttached;
+        this.integrityValid = integrityValid;
+        this.timestamp = timestamp;
+        this.checkNanos = checkNanos;
+    }
+
+    /**
+     * @return true si el veredicto procede de una comprobación real
+     */
+    public boolean isKnown() {
+        return known;
+    }
+
+    /**
+     * @return true si se encontró un binario su
+     */
+    public boolean isRooted() {
+        return rooted;
+    }
+
+    /**
+     * @return true si hay un depurador conectado
+     */
+    public boolean isDebuggerAttached() {
+        return debuggerAttached;
+    }
+
+    /**
+     * @return true si la firma de la aplicación es válida
+     */
+    public boolean isIntegrityValid() {
+        return integrityValid;
+    }
+
+    /**
+     * @return true si alguna comprobación falló
+     */
+    public boolean isCompromised() {
+        return known && (rooted || debuggerAttached || !integrityValid);
+    }
+
+    /**
+     * @return Momento de la comprobación (ms desde epoch, 0 si es UNKNOWN)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return Duración de la comprobación en ms
+     */
+    public long getCheckMillis() {
+        return checkNanos / 1_000_000L;
+    }
+
+    /**
+     * @param other Otro veredicto
+     * @return true si ambos tienen el mismo resultado (ignora timestamps)
+     */
+    public boolean sameOutcome(EnvironmentVerdict other) {
+        return other != null && known == other.known && rooted == other.rooted &&
+               debuggerAttached == other.debuggerAttached && integrityValid == other.integrityValid;
+    }
+
+    @Override
+    public String toString() {
+        if (!known) {
+            return "EnvironmentVerdict{desconocido}";
+        }
+        return "EnvironmentVerdict{root=" + rooted + ", depurador=" + debuggerAttached +
+               ", integridad=" + integrityValid + ", comprobado=" + timestamp +
+               ", duración=" + getCheckMillis() + "ms}";
+    }
+}
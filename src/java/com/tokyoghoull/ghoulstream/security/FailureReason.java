@@ -0,0 +1,47 @@
+package com.tokyoghoull.ghoulstream.security;
+
+/**
+ * 🚦 FailureReason - Causa de una operación de cifrado fallida
+ *
+ * Indica además si tiene sentido reintentar: solo los fallos del motor
+ * pueden ser transitorios; repetir una entrada rechazada da el mismo resultado.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public enum FailureReason {
+    /** 🔍 Parámetros inválidos (texto vacío, clave corta, región fuera de rango) */
+    VALIDATION(false, false),
+    /** 📚 Ningún motor disponible (libencryption.so ausente y sin motor de respaldo) */
+    LIBRARY_MISSING(false, true),
+    /** 🔧 Excepción lanzada por el motor JNI */
+    JNI_EXCEPTION(true, false),
+    /** ☕ Excepción lanzada por otro motor (Java de referencia) */
+    ENGINE_ERROR(true, false),
+    /** 🧩 El motor no pudo procesar el texto (texto encriptado dañado o manipulado) */
+    INVALID_CIPHERTEXT(false, false);
+
+    private final boolean retryable;
+    private final boolean permanent;
+
+    FailureReason(boolean retryable, boolean permanent) {
+        this.retryable = retryable;
+        this.permanent = permanent;
+    }
+
+    /**
+     * @return true si reintentar la misma operación (con espera) puede funcionar
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /**
+     * @return true si ninguna operación funcionará durante la vida del proceso
+     * (dejar de intentarlo y usar el fallback)
+     */
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
@@ -1,7 +1,25 @@
 package com.tokyoghoull.ghoulstream.security;
 
 import android.content.Context;
-import android.util.Log;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 🛡️ GhoulStreamSecurity - Clase específica para GhoulStream Pro
@@ -20,26 +38,41 @@ public class GhoulStreamSecurity {
     // 🔑 Clave maestra para GhoulStream (ofuscada dinámicamente)
     private static final String GHOULSTREAM_MASTER_KEY = buildMasterKey();
     
-    // 📺 URLs encriptadas de contenido GhoulStream (ejemplos - reemplazar con URLs reales encriptadas)
-    private static final String ENCRYPTED_CHANNELS_URL = "gH9sP3wM7qR5tV8yB2cF5jL9nQ2sU6xZ0aC4fH8kM1pT4vY7zB0eG3iL6oR9uX2w";
-    private static final String ENCRYPTED_MOVIES_URL = "pQ4sT7vW0yZ3aC6fH9kL2nO5rU8xAbD1gI4lM7pS0vY3bE6hK9nQ2tW5zA8cF1i";
-    private static final String ENCRYPTED_SERIES_URL = "tU7xA0bD3gH6jM9pS2vY5zA8cF1iL4oR7uX0eH3kN6qT9wV2yZ5aB8dG1fJ4mP7s";
-    private static final String ENCRYPTED_API_ENDPOINT = "cF5jL9nQ2sU6xZ0aC4fH8kM1pT4vY7zB0eG3iL6oR9uX2wV5yZ8aB1dE4gH7kN0q";
+    /** Id de la clave maestra en el anillo de claves */
+    public static final int MASTER_KEY_ID = 1;
     
-    // 🌐 URLs de servicios GhoulStream
-    private static final String ENCRYPTED_UPDATE_URL = "fH8kM1pT4vY7zB0eG3iL6oR9uX2wV5yZ8aB1dE4gH7kN0qT3vY6zA9cF2iL5oR8u";
-    private static final String ENCRYPTED_EPG_URL = "iL6oR9uX2wV5yZ8aB1dE4gH7kN0qT3vY6zA9cF2iL5oR8uX1eH4kN7qT0wV3yZ6a";
-    private static final String ENCRYPTED_XTREAM_CONFIG = "kN0qT3vY6zA9cF2iL5oR8uX1eH4kN7qT0wV3yZ6aB9dG2fJ5mP8sT1vW4xA7bD0g";
+    // 📺 URLs encriptadas de contenido GhoulStream: viven en EncryptedConstantTable,
+    // generada por la tarea Gradle generateEncryptedConstants (ver build.gradle),
+    // y se identifican con SecretId
     
-    // Estado de inicialización
-    private static boolean isInitialized = false;
-    private static Context appContext = null;
+    // 🗄️ Caché de constantes desencriptadas (evita cruzar JNI en cada getter)
+    private static final DecryptedConstantCache CONSTANT_CACHE = new DecryptedConstantCache();
+    
+    // 🩺 Última instantánea de salud (self-test, constantes, pruebas de ida y vuelta)
+    private static final SecurityHealthMonitor HEALTH_MONITOR = new SecurityHealthMonitor(GhoulStreamSecurity::computeHealth);
+    
+    // Estado de inicialización (publicado entre hilos)
+    private static volatile boolean isInitialized = false;
+    private static volatile Context appContext = null;
+    
+    // Inicialización única: todos los llamadores comparten el mismo future
+    private static final AtomicReference<CompletableFuture<Boolean>> INIT_FUTURE = new AtomicReference<>();
+    
+    // 🛡️ Comprobaciones anti-tampering en segundo plano (veredicto cacheado)
+    private static final EnvironmentGuard ENVIRONMENT_GUARD = new EnvironmentGuard(() -> appContext, null);
+    
+    // Tiempo máximo que las comprobaciones síncronas heredadas esperan al veredicto
+    private static final long ENVIRONMENT_CHECK_TIMEOUT_MILLIS = 2_000L;
+    
+    // Tiempo máximo que los getters esperan a la inicialización (0 = no esperar)
+    private static volatile long readinessTimeoutMillis = 0L;
     
     /**
      * 🔑 Construye la clave maestra de forma dinámica y ofuscada
      * Múltiples capas de ofuscación para dificultar ingeniería inversa
+     * (package-private para poder medirla desde los benchmarks JMH)
      */
-    private static String buildMasterKey() {
+    static String buildMasterKey() {
         // 🛡️ TÉCNICA 1: Construcción por partes
         String part1 = new StringBuilder("Ghoul").append("Stream").toString();
         String part2 = String.valueOf(2025);
@@ -77,70 +110,460 @@ public class GhoulStreamSecurity {
         return GHOULSTREAM_MASTER_KEY;
     }
     
+    /**
+     * 🔑 Clave maestra preparada una sola vez (bytes y programa de clave reutilizados)
+     * Vive lo mismo que el proceso; no se cierra.
+     */
+    private static PreparedKey getPreparedMasterKey() {
+        return PreparedMasterKeyHolder.KEY;
+    }
+    
+    private static final class PreparedMasterKeyHolder {
+        static final PreparedKey KEY = pinned(NativeEncryption.prepareKey(GHOULSTREAM_MASTER_KEY));
+        
+        // La clave maestra vive lo que el proceso: sin contador de usuarios compartido entre hilos
+        private static PreparedKey pinned(PreparedKey key) {
+            return key != null ? key.pin() : null;
+        }
+    }
+    
+    private static final class KeyRingHolder {
+        static final KeyRing RING = createRing();
+        
+        // Configuración, EPG y playlists se comprimen antes de encriptar (las URLs cortas no)
+        private static KeyRing createRing() {
+            KeyRing ring = new KeyRing(MASTER_KEY_ID, getPreparedMasterKey());
+            ring.setCompression(true);
+            return ring;
+        }
+    }
+    
+    /**
+     * 🔑 Anillo de claves usado por encryptCustomUrl, la configuración de usuario y las
+     * credenciales Xtream
+     * Contiene la clave maestra con id {@link #MASTER_KEY_ID} (también clave heredada
+     * para valores sin cabecera). Para rotar, añadir una clave y marcarla como actual;
+     * los valores antiguos siguen siendo legibles (ver {@link KeyMigrator}).
+     * @return Anillo de claves del módulo
+     */
+    public static KeyRing getKeyRing() {
+        return KeyRingHolder.RING;
+    }
+    
+    /**
+     * 🔍 Indica si un valor guardado debe re-encriptarse con la clave actual
+     * @param encrypted Valor devuelto por un método encrypt* del módulo
+     * @return true si es del formato anterior o usa una clave antigua
+     */
+    public static boolean needsReencryption(String encrypted) {
+        return getKeyRing().needsReencryption(encrypted);
+    }
+    
+    /**
+     * 🔄 Re-encripta un valor guardado con la clave actual (perezoso: solo si hace falta)
+     * @param encrypted Valor devuelto por un método encrypt* del módulo
+     * @return Valor al día (el mismo si no hacía falta) o null si no se pudo desencriptar
+     */
+    public static String reencrypt(String encrypted) {
+        return getKeyRing().reencrypt(encrypted);
+    }
+    
+    /**
+     * 🗄️ Obtiene un secreto predefinido desde la caché, desencriptándolo si es necesario
+     * @param secret Secreto a obtener
+     * @return Valor desencriptado o null si hay error
+     */
+    private static String getCachedSecret(SecretId secret) {
+        return CONSTANT_CACHE.get(secret.getId(), () -> {
+            SecurityMetrics.secretLoaded(secret);
+            byte[] record = EncryptedConstantTable.copy(secret.tableIndex());
+            try {
+                return NativeEncryption.decryptInPlace(record, 0, record.length, getPreparedMasterKey())
+                    ? new String(record, StandardCharsets.UTF_8)
+                    : null;
+            } finally {
+                Arrays.fill(record, (byte) 0);
+            }
+        });
+    }
+    
+    /**
+     * 📦 Desencripta varias constantes de una vez y las deja en caché
+     * Un único acceso a la tabla; el texto se decodifica directamente a los
+     * buffers char[] de la caché, sin Strings intermedios.
+     * @param secrets Constantes a cargar (las {@code count} primeras)
+     * @return Número de constantes cargadas
+     */
+    private static int preloadConstants(SecretId[] secrets, int count) {
+        PreparedKey key = getPreparedMasterKey();
+        verifyConstantTableKey(key);
+        
+        byte[] blob = EncryptedConstantTable.copyBlob();
+        int loaded = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                SecretId secret = secrets[i];
+                SecurityMetrics.secretLoaded(secret);
+                int offset = EncryptedConstantTable.offset(secret.tableIndex());
+                int length = EncryptedConstantTable.length(secret.tableIndex());
+                if (!NativeEncryption.decryptInPlace(blob, offset, length, key)) {
+                    continue;
+                }
+                CharBuffer chars = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(blob, offset, length));
+                char[] value = Arrays.copyOfRange(chars.array(), chars.arrayOffset(), chars.arrayOffset() + chars.remaining());
+                Arrays.fill(chars.array(), '\0');
+                CONSTANT_CACHE.put(secret.getId(), value);
+                loaded++;
+            }
+        } finally {
+            Arrays.fill(blob, (byte) 0);
+        }
+        return loaded;
+    }
+    
+    /**
+     * 🧪 Comprueba que todas las constantes se desencriptan, en un buffer
+     * temporal que se borra al terminar y sin pasar por la caché
+     */
+    private static void checkConstants(SecurityHealth.Builder builder) {
+        PreparedKey key = getPreparedMasterKey();
+        verifyConstantTableKey(key);
+        
+        byte[] blob = EncryptedConstantTable.copyBlob();
+        try {
+            for (SecretId secret : SecretId.values()) {
+                int offset = EncryptedConstantTable.offset(secret.tableIndex());
+                int length = EncryptedConstantTable.length(secret.tableIndex());
+                builder.constant(secret.getLabel(), NativeEncryption.decryptInPlace(blob, offset, length, key));
+            }
+        } finally {
+            Arrays.fill(blob, (byte) 0);
+        }
+    }
+    
+    /**
+     * 🔑 Comprueba que la tabla se generó con la misma clave maestra
+     */
+    private static void verifyConstantTableKey(PreparedKey key) {
+        byte[] check = EncryptedConstantTable.keyCheck();
+        if (check == null) {
+            return;
+        }
+        if (!NativeEncryption.decryptInPlace(check, 0, check.length, key) ||
+            !EncryptedConstantTable.KEY_CHECK_PLAINTEXT.equals(new String(check, StandardCharsets.UTF_8))) {
+            SecurityLog.e(TAG, "❌ EncryptedConstantTable se generó con una masterKey distinta de la del módulo");
+        }
+    }
+    
+    /**
+     * ⏱️ Configura el tiempo de vida de las constantes desencriptadas en caché
+     * @param ttlMillis Tiempo de vida en ms (0 = sin expiración)
+     */
+    public static void setConstantCacheTtl(long ttlMillis) {
+        CONSTANT_CACHE.setTtlMillis(ttlMillis);
+    }
+    
+    /**
+     * 🗑️ Invalida todas las constantes en caché y borra sus buffers
+     * Útil al pasar la app a segundo plano o tras actualizar constantes
+     */
+    public static void clearConstantCache() {
+        CONSTANT_CACHE.invalidateAll();
+        SecurityLog.d(TAG, "🗑️ Caché de constantes invalidada");
+    }
+    
+    /**
+     * 📊 Obtiene la caché de constantes (estadísticas de aciertos/fallos)
+     * @return Caché de constantes desencriptadas
+     */
+    public static DecryptedConstantCache getConstantCache() {
+        return CONSTANT_CACHE;
+    }
+    
     /**
      * 🚀 Inicializa el módulo de seguridad
+     * Bloquea el hilo llamador; en onCreate usar {@link #initializeAsync(Context, Executor)}.
+     * Si otra inicialización está en curso, espera a su resultado en lugar de repetirla.
      * @param context Contexto de la aplicación
      * @return true si la inicialización fue exitosa
      */
     public static boolean initialize(Context context) {
         if (isInitialized) {
-            Log.d(TAG, "✅ Módulo ya inicializado");
+            SecurityLog.d(TAG, "✅ Módulo ya inicializado");
             return true;
         }
         
         try {
+            return initializeAsync(context, Runnable::run).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            SecurityLog.e(TAG, "❌ Inicialización interrumpida");
+            return false;
+        } catch (ExecutionException e) {
+            SecurityLog.e(TAG, "❌ Error inicializando módulo de seguridad: " + e.getCause(), e.getCause());
+            return false;
+        }
+    }
+    
+    /**
+     * 🚀 Inicializa el módulo de seguridad fuera del hilo principal
+     * 
+     * Carga de la librería nativa, selección de motor, self-test y precarga de
+     * las constantes se ejecutan en el executor indicado. Es idempotente y libre
+     * de carreras: las llamadas concurrentes reciben el mismo future y el trabajo
+     * se ejecuta una sola vez. Tras un fallo, una nueva llamada reintenta.
+     * 
+     * @param context Contexto de la aplicación
+     * @param executor Executor donde ejecutar la inicialización
+     * @return Future que se completa con true si la inicialización fue exitosa
+     * 
+     * @example
+     * GhoulStreamSecurity.initializeAsync(this, Executors.newSingleThreadExecutor())
+     *     .thenAccept(ok -> Log.i("App", "Seguridad lista: " + ok));
+     */
+    public static CompletableFuture<Boolean> initializeAsync(Context context, Executor executor) {
+        while (true) {
+            CompletableFuture<Boolean> current = INIT_FUTURE.get();
+            if (current != null && !(current.isDone() && !current.join())) {
+                // En curso o completada con éxito: se comparte el mismo resultado
+                return current;
+            }
+            
+            CompletableFuture<Boolean> created = new CompletableFuture<>();
+            if (!INIT_FUTURE.compareAndSet(current, created)) {
+                continue;
+            }
+            
+            if (context == null || executor == null) {
+                SecurityLog.e(TAG, "❌ Contexto o executor null en la inicialización");
+                created.complete(false);
+                return created;
+            }
+            
             appContext = context.getApplicationContext();
+            SecurityLog.applyDefaultLevel(isDebuggable(appContext));
+            try {
+                executor.execute(() -> created.complete(runInitialization()));
+            } catch (RejectedExecutionException e) {
+                SecurityLog.e(TAG, "❌ Executor rechazó la inicialización: " + e.getMessage());
+                created.complete(false);
+            }
+            return created;
+        }
+    }
+    
+    /**
+     * ⏳ Espera a que el módulo esté inicializado
+     * @param timeout Tiempo máximo de espera
+     * @param unit Unidad del tiempo de espera
+     * @return true si el módulo quedó inicializado dentro del plazo
+     */
+    public static boolean awaitInitialization(long timeout, TimeUnit unit) {
+        if (isInitialized) {
+            return true;
+        }
+        
+        CompletableFuture<Boolean> future = INIT_FUTURE.get();
+        if (future == null) {
+            return false;
+        }
+        
+        try {
+            return future.get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * ⏳ Configura cuánto esperan los getters a una inicialización en curso
+     * Con 0 (por defecto) los getters no esperan y desencriptan bajo demanda.
+     * @param timeoutMillis Tiempo máximo de espera en ms
+     */
+    public static void setReadinessTimeout(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("timeoutMillis no puede ser negativo (actual: " + timeoutMillis + ")");
+        }
+        readinessTimeoutMillis = timeoutMillis;
+    }
+    
+    /**
+     * ✅ Verifica si el módulo está inicializado
+     * @return true si la inicialización terminó con éxito
+     */
+    public static boolean isInitialized() {
+        return isInitialized;
+    }
+    
+    /**
+     * 🐞 Detecta si la app es depurable (activa los logs DEBUG del módulo)
+     */
+    private static boolean isDebuggable(Context context) {
+        try {
+            return (context.getApplicationInfo().flags & android.content.pm.ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 🔧 Trabajo de inicialización (ejecutado una sola vez en el executor)
+     */
+    private static boolean runInitialization() {
+        try {
+            long start = System.nanoTime();
             
-            // Verificar disponibilidad de librería nativa
+            // Verificar disponibilidad de librería nativa (primer acceso: carga + selección de motor)
             if (!NativeEncryption.isAvailable()) {
-                Log.e(TAG, "❌ Librería nativa no disponible");
+                SecurityLog.e(TAG, "❌ Librería nativa no disponible");
                 return false;
             }
             
-            // Realizar self-test
-            if (!NativeEncryption.performSelfTest()) {
-                Log.e(TAG, "❌ Self-test de encriptación falló");
+            // Self-test + precarga de constantes; publica la primera instantánea de salud
+            SecurityHealth health = HEALTH_MONITOR.refresh();
+            if (!health.isSelfTestPassed()) {
+                SecurityLog.e(TAG, "❌ Self-test de encriptación falló");
                 return false;
             }
             
             isInitialized = true;
-            Log.i(TAG, "✅ GhoulStream Security Module inicializado exitosamente");
+            SecurityLog.i(TAG, "✅ GhoulStream Security Module inicializado exitosamente (" + 
+                  (System.nanoTime() - start) / 1_000_000L + " ms)");
             return true;
             
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error inicializando módulo de seguridad: " + e.getMessage(), e);
+        } catch (Throwable e) {
+            SecurityLog.e(TAG, "❌ Error inicializando módulo de seguridad: " + e.getMessage(), e);
             return false;
         }
     }
     
     /**
-     * 📺 Obtiene la URL por defecto de canales de TV
-     * @return URL desencriptada de canales o null si hay error
+     * ⏳ Espera a una inicialización en curso si se configuró un tiempo de espera
      */
-    public static String getDefaultChannelsUrl() {
+    private static void awaitReadiness() {
+        long timeout = readinessTimeoutMillis;
+        if (timeout > 0 && !isInitialized) {
+            awaitInitialization(timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * 🏷️ Obtiene un secreto predefinido
+     * Punto de entrada común de todos los getters: la fila se resuelve por índice
+     * y el valor sale de la caché tras la primera desencriptación.
+     * @param secret Secreto a obtener
+     * @return Valor desencriptado o null si hay error
+     */
+    public static String getSecret(SecretId secret) {
+        if (secret == null) {
+            SecurityLog.w(TAG, "⚠️ SecretId nulo");
+            return null;
+        }
+        long started = SecurityMetrics.start();
         try {
-            String url = NativeEncryption.decrypt(ENCRYPTED_CHANNELS_URL, getMasterKey());
-            Log.d(TAG, "📺 URL de canales obtenida exitosamente");
-            return url;
+            awaitReadiness();
+            String value = getCachedSecret(secret);
+            SecurityLog.d(TAG, "🔓 Secreto obtenido: {}", secret.getLabel());
+            SecurityMetrics.secret(secret, started, value != null);
+            return value;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error obteniendo URL de canales: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Error obteniendo " + secret.getLabel() + ": " + e.getMessage());
+            SecurityMetrics.secret(secret, started, false);
             return null;
         }
     }
     
+    /**
+     * 🏷️ Obtiene un secreto por id ("channels", "epg", ...)
+     * Firma única {@code (String)String} pensada para que los llamadores por
+     * reflexión (SecurityManagerWrapper) resuelvan un solo MethodHandle y lo
+     * reutilicen para todos los secretos.
+     * @param id Id del secreto (ver {@link SecretId#getId()})
+     * @return Valor desencriptado o null si el id no existe o hay error
+     */
+    public static String getSecret(String id) {
+        SecretId secret = SecretId.fromId(id);
+        if (secret == null) {
+            SecurityLog.w(TAG, "⚠️ Secreto desconocido: {}", id);
+            return null;
+        }
+        return getSecret(secret);
+    }
+    
+    /**
+     * 📦 Obtiene varios secretos a la vez
+     * Los que no están en caché se desencriptan con un único acceso a la tabla,
+     * por el mismo camino que {@link #getSecret(SecretId)}.
+     * @param secrets Secretos a obtener
+     * @return Mapa secreto → valor (sin entradas para los que fallaron)
+     */
+    public static Map<SecretId, String> getSecrets(Set<SecretId> secrets) {
+        Map<SecretId, String> values = new EnumMap<>(SecretId.class);
+        if (secrets == null || secrets.isEmpty()) {
+            return values;
+        }
+        long started = SecurityMetrics.start();
+        awaitReadiness();
+        
+        SecretId[] missing = new SecretId[secrets.size()];
+        int missingCount = 0;
+        for (SecretId secret : secrets) {
+            String cached = CONSTANT_CACHE.getIfPresent(secret.getId());
+            if (cached != null) {
+                values.put(secret, cached);
+            } else {
+                missing[missingCount++] = secret;
+            }
+        }
+        
+        if (missingCount > 0) {
+            try {
+                preloadConstants(missing, missingCount);
+                for (int i = 0; i < missingCount; i++) {
+                    // Acierto tras la precarga; solo vuelve a desencriptar si la entrada ya caducó
+                    String value = getCachedSecret(missing[i]);
+                    if (value != null) {
+                        values.put(missing[i], value);
+                    } else {
+                        SecurityLog.e(TAG, "❌ Error obteniendo {}", missing[i].getLabel());
+                    }
+                }
+            } catch (Exception e) {
+                SecurityLog.e(TAG, "❌ Error obteniendo secretos: {}", e.getMessage());
+            }
+        }
+        
+        for (SecretId secret : secrets) {
+            SecurityMetrics.secret(secret, started, values.containsKey(secret));
+        }
+        return values;
+    }
+    
+    /**
+     * 📦 Obtiene todos los secretos predefinidos en un único lote
+     * @return Mapa secreto → valor
+     */
+    public static Map<SecretId, String> getAllSecrets() {
+        return getSecrets(EnumSet.allOf(SecretId.class));
+    }
+    
+    /**
+     * 📺 Obtiene la URL por defecto de canales de TV
+     * @return URL desencriptada de canales o null si hay error
+     */
+    public static String getDefaultChannelsUrl() {
+        return getSecret(SecretId.CHANNELS);
+    }
+    
     /**
      * 🎬 Obtiene la URL por defecto de películas
      * @return URL desencriptada de películas o null si hay error
      */
     public static String getDefaultMoviesUrl() {
-        try {
-            String url = NativeEncryption.decrypt(ENCRYPTED_MOVIES_URL, getMasterKey());
-            Log.d(TAG, "🎬 URL de películas obtenida exitosamente");
-            return url;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error obteniendo URL de películas: " + e.getMessage());
-            return null;
-        }
+        return getSecret(SecretId.MOVIES);
     }
     
     /**
@@ -148,14 +571,7 @@ public class GhoulStreamSecurity {
      * @return URL desencriptada de series o null si hay error
      */
     public static String getDefaultSeriesUrl() {
-        try {
-            String url = NativeEncryption.decrypt(ENCRYPTED_SERIES_URL, getMasterKey());
-            Log.d(TAG, "📺 URL de series obtenida exitosamente");
-            return url;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error obteniendo URL de series: " + e.getMessage());
-            return null;
-        }
+        return getSecret(SecretId.SERIES);
     }
     
     /**
@@ -163,14 +579,7 @@ public class GhoulStreamSecurity {
      * @return URL desencriptada de API o null si hay error
      */
     public static String getApiEndpoint() {
-        try {
-            String url = NativeEncryption.decrypt(ENCRYPTED_API_ENDPOINT, getMasterKey());
-            Log.d(TAG, "🔑 Endpoint de API obtenido exitosamente");
-            return url;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error obteniendo endpoint de API: " + e.getMessage());
-            return null;
-        }
+        return getSecret(SecretId.API);
     }
     
     /**
@@ -178,14 +587,7 @@ public class GhoulStreamSecurity {
      * @return URL desencriptada de actualización o null si hay error
      */
     public static String getUpdateUrl() {
-        try {
-            String url = NativeEncryption.decrypt(ENCRYPTED_UPDATE_URL, getMasterKey());
-            Log.d(TAG, "🔄 URL de actualización obtenida exitosamente");
-            return url;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error obteniendo URL de actualización: " + e.getMessage());
-            return null;
-        }
+        return getSecret(SecretId.UPDATE);
     }
     
     /**
@@ -193,14 +595,7 @@ public class GhoulStreamSecurity {
      * @return URL desencriptada de EPG o null si hay error
      */
     public static String getEpgUrl() {
-        try {
-            String url = NativeEncryption.decrypt(ENCRYPTED_EPG_URL, getMasterKey());
-            Log.d(TAG, "📡 URL de EPG obtenida exitosamente");
-            return url;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error obteniendo URL de EPG: " + e.getMessage());
-            return null;
-        }
+        return getSecret(SecretId.EPG);
     }
     
     /**
@@ -208,14 +603,7 @@ public class GhoulStreamSecurity {
      * @return Configuración desencriptada o null si hay error
      */
     public static String getXtreamConfig() {
-        try {
-            String config = NativeEncryption.decrypt(ENCRYPTED_XTREAM_CONFIG, getMasterKey());
-            Log.d(TAG, "🎯 Configuración de Xtream obtenida exitosamente");
-            return config;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error obteniendo configuración de Xtream: " + e.getMessage());
-            return null;
-        }
+        return getSecret(SecretId.XTREAM);
     }
     
     /**
@@ -225,16 +613,16 @@ public class GhoulStreamSecurity {
      */
     public static String encryptCustomUrl(String url) {
         if (url == null || url.isEmpty()) {
-            Log.w(TAG, "⚠️ URL vacía proporcionada para encriptación");
+            SecurityLog.w(TAG, "⚠️ URL vacía proporcionada para encriptación");
             return null;
         }
         
         try {
-            String encrypted = NativeEncryption.encrypt(url, getMasterKey());
-            Log.d(TAG, "🔐 URL personalizada encriptada exitosamente");
+            String encrypted = getKeyRing().encrypt(url);
+            SecurityLog.d(TAG, "🔐 URL personalizada encriptada exitosamente");
             return encrypted;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error encriptando URL personalizada: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Error encriptando URL personalizada: " + e.getMessage());
             return null;
         }
     }
@@ -246,16 +634,16 @@ public class GhoulStreamSecurity {
      */
     public static String decryptCustomUrl(String encryptedUrl) {
         if (encryptedUrl == null || encryptedUrl.isEmpty()) {
-            Log.w(TAG, "⚠️ URL encriptada vacía proporcionada");
+            SecurityLog.w(TAG, "⚠️ URL encriptada vacía proporcionada");
             return null;
         }
         
         try {
-            String decrypted = NativeEncryption.decrypt(encryptedUrl, getMasterKey());
-            Log.d(TAG, "🔓 URL personalizada desencriptada exitosamente");
+            String decrypted = getKeyRing().decrypt(encryptedUrl);
+            SecurityLog.d(TAG, "🔓 URL personalizada desencriptada exitosamente");
             return decrypted;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error desencriptando URL personalizada: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Error desencriptando URL personalizada: " + e.getMessage());
             return null;
         }
     }
@@ -267,16 +655,16 @@ public class GhoulStreamSecurity {
      */
     public static String encryptUserConfiguration(String config) {
         if (config == null || config.isEmpty()) {
-            Log.w(TAG, "⚠️ Configuración vacía proporcionada");
+            SecurityLog.w(TAG, "⚠️ Configuración vacía proporcionada");
             return null;
         }
         
         try {
-            String encrypted = NativeEncryption.encrypt(config, getMasterKey());
-            Log.d(TAG, "🔐 Configuración de usuario encriptada exitosamente");
+            String encrypted = getKeyRing().encrypt(config);
+            SecurityLog.d(TAG, "🔐 Configuración de usuario encriptada exitosamente");
             return encrypted;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error encriptando configuración: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Error encriptando configuración: " + e.getMessage());
             return null;
         }
     }
@@ -288,37 +676,143 @@ public class GhoulStreamSecurity {
      */
     public static String decryptUserConfiguration(String encryptedConfig) {
         if (encryptedConfig == null || encryptedConfig.isEmpty()) {
-            Log.w(TAG, "⚠️ Configuración encriptada vacía proporcionada");
+            SecurityLog.w(TAG, "⚠️ Configuración encriptada vacía proporcionada");
             return null;
         }
         
         try {
-            String decrypted = NativeEncryption.decrypt(encryptedConfig, getMasterKey());
-            Log.d(TAG, "🔓 Configuración de usuario desencriptada exitosamente");
+            String decrypted = getKeyRing().decrypt(encryptedConfig);
+            SecurityLog.d(TAG, "🔓 Configuración de usuario desencriptada exitosamente");
             return decrypted;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error desencriptando configuración: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Error desencriptando configuración: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 📺 Encripta una playlist M3U por segmentos para actualizarla luego con deltas
+     * @param playlist Playlist completa
+     * @return Playlist encriptada (guardar con {@link IncrementalPlaylist#toBytes()}) o null si hay error
+     */
+    public static IncrementalPlaylist encryptPlaylist(String playlist) {
+        if (playlist == null || playlist.isEmpty()) {
+            SecurityLog.w(TAG, "⚠️ Playlist vacía proporcionada");
+            return null;
+        }
+        
+        IncrementalPlaylist encrypted = IncrementalPlaylist.encrypt(getKeyRing(), playlist);
+        if (encrypted != null) {
+            SecurityLog.d(TAG, "📺 Playlist encriptada en {} segmentos", encrypted.getSegmentCount());
+        }
+        return encrypted;
+    }
+    
+    /**
+     * 🔄 Calcula el delta entre la playlist guardada y su nueva versión
+     * Solo se encriptan los canales nuevos o modificados; aplicar con
+     * {@link IncrementalPlaylist#apply(IncrementalPlaylist.Delta)}.
+     * @param stored Playlist encriptada guardada
+     * @param playlist Nueva versión completa de la playlist
+     * @return Delta o null si hay error
+     */
+    public static IncrementalPlaylist.Delta updatePlaylist(IncrementalPlaylist stored, String playlist) {
+        if (stored == null || playlist == null || playlist.isEmpty()) {
+            SecurityLog.w(TAG, "⚠️ Playlist vacía proporcionada");
             return null;
         }
+        
+        IncrementalPlaylist.Delta delta = stored.update(getKeyRing(), playlist);
+        if (delta != null) {
+            SecurityLog.d(TAG, "🔄 Delta de playlist: {} de {} segmentos re-encriptados",
+                    delta.getInsertedCount(), delta.getSegmentCount());
+        }
+        return delta;
+    }
+    
+    /**
+     * 🔓 Desencripta una playlist de {@link #encryptPlaylist(String)}
+     * @param encrypted Playlist encriptada
+     * @return Playlist en claro o null si hay error
+     */
+    public static String decryptPlaylist(IncrementalPlaylist encrypted) {
+        if (encrypted == null) {
+            SecurityLog.w(TAG, "⚠️ Playlist encriptada vacía proporcionada");
+            return null;
+        }
+        return encrypted.decrypt(getKeyRing());
+    }
+    
+    /**
+     * 🗃️ Abre un almacén clave-valor encriptado con el anillo del módulo
+     * Cada ajuste se sella y persiste por separado (ver {@link SecureStore}).
+     * @param file Archivo del almacén (p. ej. en {@code context.getFilesDir()})
+     * @return Almacén abierto; cerrarlo al terminar
+     * @throws IOException si el archivo no se puede leer o crear
+     */
+    public static SecureStore openSecureStore(File file) throws IOException {
+        return SecureStore.open(file, getKeyRing());
+    }
+    
+    /**
+     * ✍️ Crea un contenedor mapeado (caché de playlist) encriptado con la clave maestra
+     * @param file Archivo destino (se publica al cerrar el escritor)
+     * @return Escritor; añadir un registro por canal y cerrarlo
+     * @throws IOException si no se puede crear el archivo
+     */
+    public static MappedBlobStore.Writer createBlobStore(File file) throws IOException {
+        return MappedBlobStore.create(file, getPreparedMasterKey());
+    }
+    
+    /**
+     * 🗺️ Abre un contenedor mapeado escrito con {@link #createBlobStore(File)}
+     * Los registros se desencriptan uno a uno desde el archivo mapeado, sin cargarlo en el heap.
+     * @param file Archivo del contenedor
+     * @return Contenedor abierto; cerrarlo al terminar
+     * @throws IOException si el archivo no existe o está dañado
+     */
+    public static MappedBlobStore openBlobStore(File file) throws IOException {
+        return MappedBlobStore.open(file, getPreparedMasterKey());
+    }
+    
+    /**
+     * 🌊 Abre un stream que desencripta un archivo completo (M3U, EPG XMLTV) al leerlo
+     * Memoria constante: permite parsear mientras se lee, sin cargar el archivo en un String
+     * @param encryptedInput Stream con el contenido encriptado
+     * @return Stream con el contenido en claro
+     */
+    public static InputStream openDecryptingStream(InputStream encryptedInput) {
+        return new NativeCipherInputStream(encryptedInput, getPreparedMasterKey(), CipherMode.DECRYPT);
+    }
+    
+    /**
+     * 🌊 Abre un stream que encripta un archivo completo (M3U, EPG XMLTV) al escribirlo
+     * @param encryptedOutput Stream de destino para el contenido encriptado
+     * @return Stream en el que escribir el contenido en claro
+     */
+    public static OutputStream openEncryptingStream(OutputStream encryptedOutput) {
+        return new NativeCipherOutputStream(encryptedOutput, getPreparedMasterKey(), CipherMode.ENCRYPT);
     }
     
     /**
      * 🔐 Encripta credenciales de Xtream Codes
+     * Para código nuevo usar {@link #encryptXtreamCredentials(String, char[], String)}:
+     * formato binario sin JSON y contraseña borrable.
      * @param credentials Credenciales en formato JSON
      * @return Credenciales encriptadas o null si hay error
      */
     public static String encryptXtreamCredentials(String credentials) {
         if (credentials == null || credentials.isEmpty()) {
-            Log.w(TAG, "⚠️ Credenciales vacías proporcionadas");
+            SecurityLog.w(TAG, "⚠️ Credenciales vacías proporcionadas");
             return null;
         }
         
         try {
-            String encrypted = NativeEncryption.encrypt(credentials, getMasterKey());
-            Log.d(TAG, "🔐 Credenciales Xtream encriptadas exitosamente");
+            String encrypted = getKeyRing().encrypt(credentials);
+            SecurityLog.d(TAG, "🔐 Credenciales Xtream encriptadas exitosamente");
             return encrypted;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error encriptando credenciales Xtream: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Error encriptando credenciales Xtream: " + e.getMessage());
             return null;
         }
     }
@@ -330,89 +824,205 @@ public class GhoulStreamSecurity {
      */
     public static String decryptXtreamCredentials(String encryptedCredentials) {
         if (encryptedCredentials == null || encryptedCredentials.isEmpty()) {
-            Log.w(TAG, "⚠️ Credenciales encriptadas vacías proporcionadas");
+            SecurityLog.w(TAG, "⚠️ Credenciales encriptadas vacías proporcionadas");
             return null;
         }
         
         try {
-            String decrypted = NativeEncryption.decrypt(encryptedCredentials, getMasterKey());
-            Log.d(TAG, "🔓 Credenciales Xtream desencriptadas exitosamente");
+            String decrypted = getKeyRing().decrypt(encryptedCredentials);
+            SecurityLog.d(TAG, "🔓 Credenciales Xtream desencriptadas exitosamente");
             return decrypted;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error desencriptando credenciales Xtream: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Error desencriptando credenciales Xtream: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 🔐 Encripta credenciales de Xtream Codes en formato binario (sin JSON)
+     * @param username Usuario
+     * @param password Contraseña (no se modifica; el llamador puede borrarla después)
+     * @param server URL del servidor
+     * @return Credenciales encriptadas ({@code gse:...}) o null si hay error
+     */
+    public static String encryptXtreamCredentials(String username, char[] password, String server) {
+        if (username == null || password == null || server == null) {
+            SecurityLog.w(TAG, "⚠️ Credenciales incompletas proporcionadas");
+            return null;
+        }
+        try (XtreamCredentials credentials = new XtreamCredentials(server, username, password)) {
+            return encryptXtreamCredentials(credentials);
+        }
+    }
+    
+    /**
+     * 🔐 Encripta credenciales de Xtream Codes en formato binario (sin JSON)
+     * @param credentials Credenciales
+     * @return Credenciales encriptadas ({@code gse:...}) o null si hay error
+     */
+    public static String encryptXtreamCredentials(XtreamCredentials credentials) {
+        if (credentials == null) {
+            SecurityLog.w(TAG, "⚠️ Credenciales vacías proporcionadas");
             return null;
         }
+        
+        byte[] data = null;
+        try {
+            data = credentials.toBytes();
+            String encrypted = getKeyRing().encrypt(data, 0, data.length);
+            SecurityLog.d(TAG, "🔐 Credenciales Xtream encriptadas exitosamente");
+            return encrypted;
+        } catch (RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error encriptando credenciales Xtream: " + e.getMessage());
+            return null;
+        } finally {
+            if (data != null) {
+                Arrays.fill(data, (byte) 0);
+            }
+        }
+    }
+    
+    /**
+     * 🔓 Desencripta credenciales de Xtream Codes generadas con
+     * {@link #encryptXtreamCredentials(XtreamCredentials)}
+     * @param encryptedCredentials Credenciales encriptadas ({@code gse:...})
+     * @return Credenciales (borrar con {@link XtreamCredentials#close()}) o null si hay error
+     */
+    public static XtreamCredentials decryptXtreamCredentialsTyped(String encryptedCredentials) {
+        if (encryptedCredentials == null || encryptedCredentials.isEmpty()) {
+            SecurityLog.w(TAG, "⚠️ Credenciales encriptadas vacías proporcionadas");
+            return null;
+        }
+        
+        byte[] data = null;
+        try {
+            data = getKeyRing().decryptToBytes(encryptedCredentials);
+            if (data == null) {
+                return null;
+            }
+            XtreamCredentials credentials = XtreamCredentials.fromBytes(data, 0, data.length);
+            SecurityLog.d(TAG, "🔓 Credenciales Xtream desencriptadas exitosamente");
+            return credentials;
+        } catch (IllegalArgumentException e) {
+            SecurityLog.e(TAG, "❌ Error desencriptando credenciales Xtream: " + e.getMessage());
+            return null;
+        } finally {
+            if (data != null) {
+                Arrays.fill(data, (byte) 0);
+            }
+        }
     }
     
     /**
      * 🧪 Realiza un test de seguridad completo
+     * Reutiliza la última instantánea de salud si no está obsoleta
+     * (ver {@link #getHealthMonitor()} para ajustar la antigüedad máxima).
      * @return SecurityTestResult con los resultados del test
      */
     public static SecurityTestResult performSecurityTest() {
-        Log.i(TAG, "🧪 Iniciando test completo de GhoulStreamSecurity...");
+        return performSecurityTest(false);
+    }
+    
+    /**
+     * 🧪 Realiza un test de seguridad completo
+     * @param forceRefresh true para recalcular aunque la instantánea sea reciente
+     * @return SecurityTestResult con los resultados del test
+     */
+    public static SecurityTestResult performSecurityTest(boolean forceRefresh) {
+        SecurityHealth health = forceRefresh ? HEALTH_MONITOR.refresh() : HEALTH_MONITOR.get();
+        SecurityTestResult result = health.toSecurityTestResult();
         
-        SecurityTestResult result = new SecurityTestResult();
+        if (result.isValid()) {
+            SecurityLog.d(TAG, "✅ Test completo exitoso (instantánea de hace {} ms)", health.getAgeMillis());
+        } else {
+            SecurityLog.w(TAG, "⚠️ Test completo con errores: {}", result.getErrors());
+        }
+        return result;
+    }
+    
+    /**
+     * 🩺 Obtiene el estado de salud del módulo (recalculado solo si está obsoleto)
+     * @return Instantánea de salud
+     */
+    public static SecurityHealth getHealth() {
+        return HEALTH_MONITOR.get();
+    }
+    
+    /**
+     * 🔄 Recalcula el estado de salud ahora
+     * @return Nueva instantánea de salud
+     */
+    public static SecurityHealth refreshHealth() {
+        return HEALTH_MONITOR.refresh();
+    }
+    
+    /**
+     * ⏰ Refresca el estado de salud periódicamente en segundo plano
+     * Las consultas de diagnóstico leen entonces la instantánea sin bloquear.
+     * @param periodMillis Periodo de refresco en ms
+     */
+    public static void startHealthMonitoring(long periodMillis) {
+        HEALTH_MONITOR.startPeriodicRefresh(periodMillis);
+    }
+    
+    /**
+     * ⏹️ Detiene el refresco periódico del estado de salud
+     */
+    public static void stopHealthMonitoring() {
+        HEALTH_MONITOR.stopPeriodicRefresh();
+    }
+    
+    /**
+     * @return Monitor de salud (antigüedad máxima, refresco asíncrono)
+     */
+    public static SecurityHealthMonitor getHealthMonitor() {
+        return HEALTH_MONITOR;
+    }
+    
+    /**
+     * 🩺 Sonda de salud: ejecuta todas las comprobaciones una vez
+     * Usa la caché de constantes sin esperar a la inicialización, para poder
+     * ejecutarse desde el propio trabajo de inicialización.
+     */
+    private static SecurityHealth computeHealth() {
+        SecurityLog.i(TAG, "🧪 Iniciando test completo de GhoulStreamSecurity...");
+        SecurityHealth.Builder builder = new SecurityHealth.Builder()
+            .nativeLibraryLoaded(NativeEncryption.isNativeLibraryLoaded());
         
         try {
-            // Test 1: Verificar disponibilidad de librería nativa
-            if (!NativeEncryption.isAvailable()) {
-                result.addError("Librería nativa no disponible");
-                return result;
+            // Test 1: Verificar disponibilidad de motor
+            boolean available = NativeEncryption.isAvailable();
+            builder.engineAvailable(available)
+                .engineSummary(NativeEncryption.getEngine().getName());
+            if (!available) {
+                return builder.build();
             }
-            result.addFeature("Librería nativa disponible");
             
             // Test 2: Self-test de NativeEncryption
-            if (!NativeEncryption.performSelfTest()) {
-                result.addError("Self-test de NativeEncryption falló");
-                return result;
+            boolean selfTest = NativeEncryption.performSelfTest();
+            builder.selfTestPassed(selfTest);
+            if (!selfTest) {
+                return builder.build();
             }
-            result.addFeature("Self-test de encriptación exitoso");
             
-            // Test 3: Verificar URLs predefinidas
-            if (getDefaultChannelsUrl() != null) result.addFeature("URL de canales OK");
-            if (getDefaultMoviesUrl() != null) result.addFeature("URL de películas OK");
-            if (getDefaultSeriesUrl() != null) result.addFeature("URL de series OK");
-            if (getApiEndpoint() != null) result.addFeature("Endpoint de API OK");
-            if (getUpdateUrl() != null) result.addFeature("URL de actualización OK");
-            if (getEpgUrl() != null) result.addFeature("URL de EPG OK");
-            if (getXtreamConfig() != null) result.addFeature("Configuración Xtream OK");
+            // Test 3: Verificar URLs predefinidas sobre una copia temporal de la tabla
+            // (no llena la caché: respeta clearConstantCache() y el TTL)
+            checkConstants(builder);
             
             // Test 4: Test de encriptación/desencriptación personalizada
             String testUrl = "https://test-ghoulstream.com/api/v1/test";
-            String encrypted = encryptCustomUrl(testUrl);
-            String decrypted = decryptCustomUrl(encrypted);
-            
-            if (testUrl.equals(decrypted)) {
-                result.addFeature("Encriptación/desencriptación personalizada OK");
-            } else {
-                result.addError("Encriptación/desencriptación personalizada falló");
-            }
+            builder.customRoundTripOk(testUrl.equals(decryptCustomUrl(encryptCustomUrl(testUrl))));
             
             // Test 5: Test de configuración de usuario
             String testConfig = "{\"theme\":\"dark\",\"language\":\"es\"}";
-            String encryptedConfig = encryptUserConfiguration(testConfig);
-            String decryptedConfig = decryptUserConfiguration(encryptedConfig);
-            
-            if (testConfig.equals(decryptedConfig)) {
-                result.addFeature("Encriptación de configuración OK");
-            } else {
-                result.addError("Encriptación de configuración falló");
-            }
-            
-            result.setValid(result.getErrors().isEmpty());
-            
-            if (result.isValid()) {
-                Log.i(TAG, "✅ Test completo exitoso: todas las funcionalidades operativas");
-            } else {
-                Log.w(TAG, "⚠️ Test completo con errores: " + result.getErrors());
-            }
+            builder.configRoundTripOk(testConfig.equals(decryptUserConfiguration(encryptUserConfiguration(testConfig))));
             
         } catch (Exception e) {
-            result.addError("Test completo falló con excepción: " + e.getMessage());
-            Log.e(TAG, "❌ Test completo fallido", e);
+            builder.failure("Test completo falló con excepción: " + e.getMessage());
+            SecurityLog.e(TAG, "❌ Test completo fallido", e);
         }
         
-        return result;
+        return builder.build();
     }
     
     /**
@@ -429,50 +1039,60 @@ public class GhoulStreamSecurity {
         diagnostics.append("📚 LIBRERÍA NATIVA:\n");
         diagnostics.append(NativeEncryption.getDiagnosticInfo()).append("\n");
         
+        // Una sola instantánea para todas las secciones (sin repetir llamadas nativas)
+        SecurityHealth health = HEALTH_MONITOR.get();
+        
         // Test de URLs predefinidas
         diagnostics.append("📺 URLS PREDEFINIDAS:\n");
-        diagnostics.append("• Canales: ").append(getDefaultChannelsUrl() != null ? "✅ OK" : "❌ ERROR").append("\n");
-        diagnostics.append("• Películas: ").append(getDefaultMoviesUrl() != null ? "✅ OK" : "❌ ERROR").append("\n");
-        diagnostics.append("• Series: ").append(getDefaultSeriesUrl() != null ? "✅ OK" : "❌ ERROR").append("\n");
-        diagnostics.append("• API: ").append(getApiEndpoint() != null ? "✅ OK" : "❌ ERROR").append("\n");
-        diagnostics.append("• Actualización: ").append(getUpdateUrl() != null ? "✅ OK" : "❌ ERROR").append("\n");
-        diagnostics.append("• EPG: ").append(getEpgUrl() != null ? "✅ OK" : "❌ ERROR").append("\n");
-        diagnostics.append("• Xtream Config: ").append(getXtreamConfig() != null ? "✅ OK" : "❌ ERROR").append("\n\n");
+        for (Map.Entry<String, Boolean> constant : health.getConstants().entrySet()) {
+            diagnostics.append("• ").append(constant.getKey()).append(": ")
+                .append(constant.getValue() ? "✅ OK" : "❌ ERROR").append("\n");
+        }
+        diagnostics.append("\n");
         
         // Test completo
         diagnostics.append("🧪 TEST COMPLETO:\n");
-        SecurityTestResult testResult = performSecurityTest();
+        SecurityTestResult testResult = health.toSecurityTestResult();
         diagnostics.append("• Resultado: ").append(testResult.isValid() ? "✅ PASS" : "❌ FAIL").append("\n");
         diagnostics.append("• Features: ").append(testResult.getFeatures().size()).append("\n");
-        diagnostics.append("• Errores: ").append(testResult.getErrors().size()).append("\n\n");
+        diagnostics.append("• Errores: ").append(testResult.getErrors().size()).append("\n");
+        diagnostics.append("• Calculado: ").append(health.getTimestamp())
+            .append(" (hace ").append(health.getAgeMillis()).append(" ms, costó ")
+            .append(health.getComputeMillis()).append(" ms)\n\n");
         
         // Información del sistema
         diagnostics.append("📱 INFORMACIÓN DEL SISTEMA:\n");
         diagnostics.append("• Clave maestra: ").append(getMasterKey().length()).append(" caracteres\n");
-        diagnostics.append("• URLs encriptadas: 7 configuradas\n");
+        diagnostics.append("• URLs encriptadas: ").append(EncryptedConstantTable.COUNT).append(" configuradas\n");
+        diagnostics.append("• ").append(CONSTANT_CACHE.getStats()).append("\n");
         diagnostics.append("• Inicializado: ").append(isInitialized ? "✅ Sí" : "❌ No").append("\n");
-        diagnostics.append("• Timestamp: ").append(System.currentTimeMillis()).append("\n");
+        diagnostics.append("• Timestamp: ").append(System.currentTimeMillis()).append("\n\n");
+        
+        // Métricas de operaciones (ver SecurityMetrics)
+        diagnostics.append("📈 MÉTRICAS:\n");
+        diagnostics.append(SecurityMetrics.snapshot());
         
         return diagnostics.toString();
     }
     
     /**
      * 🔧 Utilidad para desarrolladores: genera strings encriptados
-     * Usar solo durante desarrollo para generar las constantes encriptadas
+     * Para las constantes del módulo usar la tarea Gradle generateEncryptedConstants,
+     * que las encripta en el host sin pasar por un dispositivo
      * 
      * @param plainText Texto a encriptar
      * @return String encriptado para usar como constante
      */
     public static String generateEncryptedConstant(String plainText) {
         if (plainText == null || plainText.isEmpty()) {
-            Log.w(TAG, "⚠️ Texto vacío para generar constante");
+            SecurityLog.w(TAG, "⚠️ Texto vacío para generar constante");
             return null;
         }
         
         String encrypted = NativeEncryption.encrypt(plainText, getMasterKey());
         if (encrypted != null) {
-            Log.i(TAG, "🔧 Constante generada para: " + plainText.substring(0, Math.min(20, plainText.length())) + "...");
-            Log.i(TAG, "📋 Usar en código: \"" + encrypted + "\"");
+            SecurityLog.i(TAG, "🔧 Constante generada para: " + plainText.substring(0, Math.min(20, plainText.length())) + "...");
+            SecurityLog.i(TAG, "📋 Usar en código: \"" + encrypted + "\"");
         }
         
         return encrypted;
@@ -492,23 +1112,27 @@ public class GhoulStreamSecurity {
             android.content.pm.Signature[] signatures = packageInfo.signatures;
             return signatures != null && signatures.length > 0;
         } catch (Exception e) {
-            Log.e(TAG, "Error validando firmas legacy: " + e.getMessage());
+            SecurityLog.e(TAG, "Error validando firmas legacy: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * 🛡️ Motor de comprobaciones de entorno (root, depurador, firma)
+     * Usar {@link EnvironmentGuard#currentVerdict()} en caminos calientes.
+     * @return EnvironmentGuard compartido del módulo
+     */
+    public static EnvironmentGuard getEnvironmentGuard() {
+        return ENVIRONMENT_GUARD;
+    }
+    
     /**
      * 🛡️ Detecta acceso root en el dispositivo (para flavor ultraSecure)
+     * Sondea rutas conocidas del binario su sin lanzar procesos.
      * @return true si se detecta root
      */
     public static boolean detectRootAccess() {
-        // Implementación básica - expandir en ultraSecure
-        try {
-            Process process = Runtime.getRuntime().exec(new String[]{"/system/xbin/which", "su"});
-            return process.waitFor() == 0;
-        } catch (Exception e) {
-            return false;
-        }
+        return EnvironmentGuard.isSuBinaryPresent();
     }
     
     /**
@@ -521,27 +1145,15 @@ public class GhoulStreamSecurity {
     
     /**
      * 🛡️ Valida integridad de la aplicación (para flavor ultraSecure)
+     * Usa el veredicto cacheado de {@link #getEnvironmentGuard()}; solo espera
+     * (hasta 2 s) si aún no hay uno vigente.
      * @return true si la integridad es válida
      */
     public static boolean validateAppIntegrity() {
-        // Implementación básica - expandir en ultraSecure
         if (appContext == null) {
             return false;
         }
-        
-        try {
-            // Verificar firma de la aplicación (API 28+)
-            android.content.pm.PackageManager pm = appContext.getPackageManager();
-            android.content.pm.PackageInfo packageInfo = pm.getPackageInfo(
-                appContext.getPackageName(), 
-                android.content.pm.PackageManager.GET_SIGNING_CERTIFICATES
-            );
-            return packageInfo.signingInfo != null && 
-                   packageInfo.signingInfo.getApkContentsSigners() != null &&
-                   packageInfo.signingInfo.getApkContentsSigners().length > 0;
-        } catch (Exception e) {
-            Log.e(TAG, "Error validando integridad: " + e.getMessage());
-            return false;
-        }
+        EnvironmentVerdict verdict = ENVIRONMENT_GUARD.awaitVerdict(ENVIRONMENT_CHECK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        return verdict.isKnown() && verdict.isIntegrityValid();
     }
 }
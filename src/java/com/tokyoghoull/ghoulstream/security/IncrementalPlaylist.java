@@ -0,0 +1,773 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 📺 IncrementalPlaylist - Playlist encriptada por segmentos con actualizaciones delta
+ *
+ * La playlist se parte en registros (en M3U, las directivas {@code #EXTINF}/{@code #EXTGRP}
+ * junto con la URL que las sigue; en otros textos, cada línea) y cada registro se guarda
+ * en su propio sobre de {@link KeyRing}, identificado por un SipHash-2-4 de su contenido.
+ * Al actualizar solo se encriptan los registros cuyo id no estaba en la versión guardada;
+ * el resto reutiliza el sobre existente. {@link #update(KeyRing, String)} devuelve un
+ * {@link Delta} pequeño (copias de tramos de la versión anterior + sobres nuevos) que se
+ * guarda o envía y se aplica con {@link #apply(Delta)}.
+ *
+ * - Los ids son SipHash-2-4 de 128 bits con una subclave derivada de la clave del anillo:
+ *   no permiten comprobar contenidos adivinados sin la clave y cuestan mucho menos que un
+ *   HMAC-SHA256 por registro (la actualización recorre la playlist entera para detectar
+ *   cambios; encriptar y escribir solo depende de lo que cambió).
+ * - Un tag HMAC-SHA256 sobre la lista ordenada de ids protege el orden y la integridad del
+ *   conjunto; {@link #decrypt(KeyRing)} lo verifica junto con el id de cada registro.
+ *
+ * Las instancias son inmutables y pueden compartirse entre hilos.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class IncrementalPlaylist {
+
+    private static final String TAG = "IncrementalPlaylist";
+
+    /** Número máximo de segmentos aceptado al leer */
+    static final int MAX_SEGMENTS = 1 << 22;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final byte[] PLAYLIST_MAGIC = {'G', 'S', 'P'};
+    private static final byte[] DELTA_MAGIC = {'G', 'S', 'D'};
+    private static final int RUN_COPY = 0;
+    private static final int RUN_INSERT = 1;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] ID_LABEL = "GhoulStream playlist segment v1\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MANIFEST_LABEL = "manifest\0".getBytes(StandardCharsets.US_ASCII);
+
+    // Los ids de clave válidos son 1..65535: 0 marca la base vacía y cabe en el short serializado
+    private static final int NO_KEY_ID = 0;
+
+    private static final IncrementalPlaylist EMPTY =
+            new IncrementalPlaylist(NO_KEY_ID, new byte[0], new long[0], new byte[0][]);
+
+    private final int keyId;
+    private final byte[] tag;
+    // Id del segmento i en ids[2i], ids[2i + 1]
+    private final long[] ids;
+    private final byte[][] envelopes;
+
+    private IncrementalPlaylist(int keyId, byte[] tag, long[] ids, byte[][] envelopes) {
+        this.keyId = keyId;
+        this.tag = tag;
+        this.ids = ids;
+        this.envelopes = envelopes;
+    }
+
+    /**
+     * 🔐 Encripta una playlist completa por segmentos con la clave actual del anillo
+     * @param ring Anillo de claves
+     * @param content Playlist (M3U u otro texto por líneas)
+     * @return Playlist encriptada o null si hay error
+     */
+    public static IncrementalPlaylist encrypt(KeyRing ring, String content) {
+        Delta delta = EMPTY.update(ring, content);
+        return delta != null ? EMPTY.apply(delta) : null;
+    }
+
+    /**
+     * @return Número de segmentos
+     */
+    public int getSegmentCount() {
+        return envelopes.length;
+    }
+
+    /**
+     * @return Id de la clave con la que se calcularon los ids de segmento
+     */
+    public int getKeyId() {
+        return keyId;
+    }
+
+    // ------------------------------------------------------------- delta
+
+    /**
+     * 🔄 Calcula el delta hasta una nueva versión de la playlist
+     * Solo se encriptan los registros nuevos o modificados; el resto se referencia por
+     * posición en esta versión. Si la clave actual del anillo no es la de esta versión,
+     * todos los registros se re-encriptan (rotación).
+     * @param ring Anillo de claves
+     * @param content Nueva playlist completa
+     * @return Delta aplicable con {@link #apply(Delta)} o null si hay error
+     */
+    public Delta update(KeyRing ring, String content) {
+        if (ring == null || content == null) {
+            SecurityLog.w(TAG, "⚠️ Anillo o playlist nulos");
+            return null;
+        }
+        int newKeyId = ring.getCurrentKeyId();
+        PreparedKey key = ring.keyOrNull(newKeyId);
+        if (key == null) {
+            SecurityLog.e(TAG, "❌ KeyRing sin clave actual");
+            return null;
+        }
+
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        SegmentKeys keys = null;
+        try {
+            keys = SegmentKeys.derive(key);
+            ByteBuffer words = littleEndian(data);
+            int[] ends = recordEnds(data, words);
+            int count = ends.length;
+            // Con otra clave ningún id puede coincidir: todo se re-encripta
+            IdIndex index = newKeyId == keyId ? new IdIndex(ids) : null;
+
+            long[] newIds = new long[count * 2];
+            List<Run> runs = new ArrayList<>();
+            Run run = null;
+            int inserted = 0;
+            int start = 0;
+            for (int i = 0; i < count; i++) {
+                int length = ends[i] - start;
+                keys.sipHash(words, start, length, newIds, 2 * i);
+                long id0 = newIds[2 * i];
+                long id1 = newIds[2 * i + 1];
+                int basePosition = index != null ? index.find(id0, id1) : -1;
+                if (basePosition >= 0) {
+                    if (run != null && run.isCopy() && run.baseStart + run.count == basePosition) {
+                        run.count++;
+                    } else {
+                        run = Run.copy(basePosition);
+                        runs.add(run);
+                    }
+                } else {
+                    byte[] envelope = ring.seal(data, start, length);
+                    if (envelope == null) {
+                        return null;
+                    }
+                    if (run == null || run.isCopy()) {
+                        run = Run.insert();
+                        runs.add(run);
+                    }
+                    run.add(id0, id1, envelope);
+                    inserted++;
+                }
+                start = ends[i];
+            }
+
+            Delta delta = new Delta(newKeyId, tag, keys.manifestTag(newKeyId, newIds), count,
+                    runs.toArray(new Run[0]));
+            SecurityLog.d(TAG, "🔄 Delta de playlist: {} de {} segmentos encriptados", inserted, count);
+            return delta;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error calculando delta de playlist", e);
+            return null;
+        } finally {
+            Arrays.fill(data, (byte) 0);
+            if (keys != null) {
+                keys.clear();
+            }
+        }
+    }
+
+    /**
+     * 🧩 Aplica un delta de {@link #update(KeyRing, String)} a esta versión (no necesita clave)
+     * @param delta Delta calculado sobre esta misma versión
+     * @return Nueva versión de la playlist
+     * @throws IllegalArgumentException si el delta corresponde a otra versión o está dañado
+     */
+    public IncrementalPlaylist apply(Delta delta) {
+        if (delta == null || !MessageDigest.isEqual(delta.baseTag, tag)) {
+            throw new IllegalArgumentException("El delta no corresponde a esta versión de la playlist");
+        }
+        long[] newIds = new long[delta.targetCount * 2];
+        byte[][] newEnvelopes = new byte[delta.targetCount][];
+        int position = 0;
+        for (Run run : delta.runs) {
+            if (run.count > delta.targetCount - position) {
+                throw new IllegalArgumentException("Delta de playlist con más segmentos de los declarados");
+            }
+            if (run.isCopy()) {
+                if (run.baseStart < 0 || run.baseStart > envelopes.length - run.count) {
+                    throw new IllegalArgumentException("Delta de playlist fuera de rango");
+                }
+                // Los segmentos son inmutables: se comparten con la versión anterior
+                System.arraycopy(ids, 2 * run.baseStart, newIds, 2 * position, 2 * run.count);
+                System.arraycopy(envelopes, run.baseStart, newEnvelopes, position, run.count);
+            } else {
+                System.arraycopy(run.ids, 0, newIds, 2 * position, 2 * run.count);
+                System.arraycopy(run.envelopes, 0, newEnvelopes, position, run.count);
+            }
+            position += run.count;
+        }
+        if (position != delta.targetCount) {
+            throw new IllegalArgumentException("Delta de playlist incompleto");
+        }
+        return new IncrementalPlaylist(delta.keyId, delta.targetTag, newIds, newEnvelopes);
+    }
+
+    // ------------------------------------------------------------- descifrado
+
+    /**
+     * 🔓 Desencripta la playlist completa verificando el orden y cada segmento
+     * @param ring Anillo con la clave de esta versión
+     * @return Playlist en claro o null si hay error o los datos fueron manipulados
+     */
+    public String decrypt(KeyRing ring) {
+        PreparedKey key = ring != null ? ring.keyOrNull(keyId) : null;
+        if (key == null) {
+            SecurityLog.e(TAG, "❌ Clave {} no disponible en el anillo", keyId);
+            return null;
+        }
+
+        byte[][] plains = new byte[envelopes.length][];
+        byte[] out = null;
+        SegmentKeys keys = null;
+        try {
+            keys = SegmentKeys.derive(key);
+            if (!MessageDigest.isEqual(keys.manifestTag(keyId, ids), tag)) {
+                SecurityLog.e(TAG, "❌ Lista de segmentos manipulada");
+                return null;
+            }
+            long[] id = new long[2];
+            int total = 0;
+            for (int i = 0; i < envelopes.length; i++) {
+                byte[] plain = ring.open(envelopes[i]);
+                if (plain == null) {
+                    return null;
+                }
+                plains[i] = plain;
+                keys.sipHash(littleEndian(plain), 0, plain.length, id, 0);
+                if (id[0] != ids[2 * i] || id[1] != ids[2 * i + 1]) {
+                    SecurityLog.e(TAG, "❌ Segmento {} no corresponde a su id", i);
+                    return null;
+                }
+                total += plain.length;
+            }
+
+            out = new byte[total];
+            int position = 0;
+            for (byte[] plain : plains) {
+                System.arraycopy(plain, 0, out, position, plain.length);
+                position += plain.length;
+            }
+            return new String(out, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error desencriptando playlist", e);
+            return null;
+        } finally {
+            for (byte[] plain : plains) {
+                if (plain != null) {
+                    Arrays.fill(plain, (byte) 0);
+                }
+            }
+            if (out != null) {
+                Arrays.fill(out, (byte) 0);
+            }
+            if (keys != null) {
+                keys.clear();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------- serialización
+
+    /**
+     * 💾 Serializa la playlist para guardarla
+     * @return Formato binario leído por {@link #fromBytes(byte[])}
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.write(PLAYLIST_MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(keyId);
+            writeBlock(out, tag);
+            out.writeInt(envelopes.length);
+            for (int i = 0; i < envelopes.length; i++) {
+                out.writeLong(ids[2 * i]);
+                out.writeLong(ids[2 * i + 1]);
+                writeBlock(out, envelopes[i]);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 📂 Lee una playlist guardada con {@link #toBytes()}
+     * @throws IllegalArgumentException si el formato no es válido
+     */
+    public static IncrementalPlaylist fromBytes(byte[] data) {
+        try (DataInputStream in = open(data, PLAYLIST_MAGIC)) {
+            int keyId = in.readUnsignedShort();
+            byte[] tag = readBlock(in);
+            int count = readCount(in);
+            long[] ids = new long[count * 2];
+            byte[][] envelopes = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                ids[2 * i] = in.readLong();
+                ids[2 * i + 1] = in.readLong();
+                envelopes[i] = readBlock(in);
+            }
+            checkEnd(in);
+            return new IncrementalPlaylist(keyId, tag, ids, envelopes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Playlist encriptada truncada", e);
+        }
+    }
+
+    /**
+     * 🧩 Cambios entre dos versiones de una {@link IncrementalPlaylist}
+     *
+     * Tramos en orden: copias de segmentos de la versión base (solo posición y número)
+     * o segmentos nuevos con su sobre. Su tamaño depende de lo que cambió, no del tamaño
+     * de la playlist. Inmutable.
+     */
+    public static final class Delta {
+
+        private final int keyId;
+        private final byte[] baseTag;
+        private final byte[] targetTag;
+        private final int targetCount;
+        private final Run[] runs;
+
+        private Delta(int keyId, byte[] baseTag, byte[] targetTag, int targetCount, Run[] runs) {
+            this.keyId = keyId;
+            this.baseTag = baseTag;
+            this.targetTag = targetTag;
+            this.targetCount = targetCount;
+            this.runs = runs;
+        }
+
+        /**
+         * @return Segmentos de la nueva versión
+         */
+        public int getSegmentCount() {
+            return targetCount;
+        }
+
+        /**
+         * @return Segmentos incluidos en el delta (nuevos o modificados)
+         */
+        public int getInsertedCount() {
+            int inserted = 0;
+            for (Run run : runs) {
+                if (!run.isCopy()) {
+                    inserted += run.count;
+                }
+            }
+            return inserted;
+        }
+
+        /**
+         * @return true si la nueva versión es idéntica a la base
+         */
+        public boolean isEmpty() {
+            return Arrays.equals(baseTag, targetTag);
+        }
+
+        /**
+         * 💾 Serializa el delta
+         * @return Formato binario leído por {@link #fromBytes(byte[])}
+         */
+        public byte[] toBytes() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.write(DELTA_MAGIC);
+                out.writeByte(FORMAT_VERSION);
+                out.writeShort(keyId);
+                writeBlock(out, baseTag);
+                writeBlock(out, targetTag);
+                out.writeInt(targetCount);
+                out.writeInt(runs.length);
+                for (Run run : runs) {
+                    if (run.isCopy()) {
+                        out.writeByte(RUN_COPY);
+                        out.writeInt(run.baseStart);
+                        out.writeInt(run.count);
+                    } else {
+                        out.writeByte(RUN_INSERT);
+                        out.writeInt(run.count);
+                        for (int i = 0; i < run.count; i++) {
+                            out.writeLong(run.ids[2 * i]);
+                            out.writeLong(run.ids[2 * i + 1]);
+                            writeBlock(out, run.envelopes[i]);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        /**
+         * 📂 Lee un delta guardado con {@link #toBytes()}
+         * @throws IllegalArgumentException si el formato no es válido
+         */
+        public static Delta fromBytes(byte[] data) {
+            try (DataInputStream in = open(data, DELTA_MAGIC)) {
+                int keyId = in.readUnsignedShort();
+                byte[] baseTag = readBlock(in);
+                byte[] targetTag = readBlock(in);
+                int targetCount = readCount(in);
+                Run[] runs = new Run[readCount(in)];
+                for (int r = 0; r < runs.length; r++) {
+                    int type = in.readUnsignedByte();
+                    if (type == RUN_COPY) {
+                        runs[r] = Run.copy(in.readInt());
+                        runs[r].count = readCount(in);
+                    } else if (type == RUN_INSERT) {
+                        int count = readCount(in);
+                        runs[r] = Run.insert();
+                        for (int i = 0; i < count; i++) {
+                            long id0 = in.readLong();
+                            long id1 = in.readLong();
+                            runs[r].add(id0, id1, readBlock(in));
+                        }
+                    } else {
+                        throw new IllegalArgumentException("Tramo de delta desconocido: " + type);
+                    }
+                }
+                checkEnd(in);
+                return new Delta(keyId, baseTag, targetTag, targetCount, runs);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Delta de playlist truncado", e);
+            }
+        }
+    }
+
+    /**
+     * Tramo de un delta: copia de la base (ids == null) o segmentos nuevos
+     */
+    private static final class Run {
+        final int baseStart;
+        int count;
+        long[] ids;
+        byte[][] envelopes;
+
+        private Run(int baseStart, long[] ids, byte[][] envelopes) {
+            this.baseStart = baseStart;
+            this.ids = ids;
+            this.envelopes = envelopes;
+        }
+
+        static Run copy(int baseStart) {
+            Run run = new Run(baseStart, null, null);
+            run.count = 1;
+            return run;
+        }
+
+        static Run insert() {
+            return new Run(-1, new long[8], new byte[4][]);
+        }
+
+        boolean isCopy() {
+            return ids == null;
+        }
+
+        void add(long id0, long id1, byte[] envelope) {
+            if (count == envelopes.length) {
+                ids = Arrays.copyOf(ids, count * 4);
+                envelopes = Arrays.copyOf(envelopes, count * 2);
+            }
+            ids[2 * count] = id0;
+            ids[2 * count + 1] = id1;
+            envelopes[count] = envelope;
+            count++;
+        }
+    }
+
+    // ------------------------------------------------------------- helpers
+
+    /**
+     * ✂️ Fin (exclusivo) de cada registro
+     * Un registro termina con la primera línea que no es directiva ({@code #...}) ni
+     * está en blanco; lo que quede al final forma el último registro.
+     */
+    static int[] recordEnds(byte[] data) {
+        return recordEnds(data, littleEndian(data));
+    }
+
+    private static int[] recordEnds(byte[] data, ByteBuffer words) {
+        int[] ends = new int[64];
+        int count = 0;
+        int lineStart = 0;
+        while (lineStart < data.length) {
+            int lineEnd = indexOfNewline(data, words, lineStart);
+            int next = Math.min(lineEnd + 1, data.length);
+            if (isEntryLine(data, lineStart, lineEnd) || next == data.length) {
+                if (count == ends.length) {
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                ends[count++] = next;
+            }
+            lineStart = next;
+        }
+        return Arrays.copyOf(ends, count);
+    }
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long NEWLINES = ONES * '\n';
+
+    /**
+     * 🔎 Busca el siguiente '\n' de 8 en 8 bytes (SWAR: el bit alto de cada byte que
+     * vale cero tras el XOR; el más bajo activado es siempre exacto)
+     * @return Posición del '\n' o data.length si no hay más
+     */
+    private static int indexOfNewline(byte[] data, ByteBuffer words, int from) {
+        int i = from;
+        for (int end = data.length - 8; i <= end; i += 8) {
+            long x = words.getLong(i) ^ NEWLINES;
+            long found = (x - ONES) & ~x & HIGHS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        while (i < data.length && data[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static ByteBuffer littleEndian(byte[] data) {
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static boolean isEntryLine(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = data[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return b != '#';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 🗂️ Índice id → primera posición de la versión guardada (direccionamiento abierto;
+     * los ids ya son pseudoaleatorios y sirven directamente como hash)
+     */
+    private static final class IdIndex {
+        private final long[] ids;
+        private final int[] slots;
+        private final int mask;
+
+        IdIndex(long[] ids) {
+            this.ids = ids;
+            int count = ids.length / 2;
+            int capacity = Integer.highestOneBit(Math.max(count, 1) * 2 + 1) << 1;
+            slots = new int[capacity];
+            mask = capacity - 1;
+            // Se inserta en orden: un id repetido conserva su primera posición
+            for (int i = 0; i < count; i++) {
+                int slot = (int) ids[2 * i] & mask;
+                while (slots[slot] != 0) {
+                    int other = slots[slot] - 1;
+                    if (ids[2 * other] == ids[2 * i] && ids[2 * other + 1] == ids[2 * i + 1]) {
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (slots[slot] == 0) {
+                    slots[slot] = i + 1;
+                }
+            }
+        }
+
+        int find(long id0, long id1) {
+            int slot = (int) id0 & mask;
+            while (slots[slot] != 0) {
+                int position = slots[slot] - 1;
+                if (ids[2 * position] == id0 && ids[2 * position + 1] == id1) {
+                    return position;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 🔑 Subclaves derivadas de la clave AES del anillo con HMAC-SHA256:
+     * 16 bytes para SipHash (ids) y 32 para el tag de la lista
+     */
+    private static final class SegmentKeys {
+        private long k0;
+        private long k1;
+        private final Mac manifest;
+
+        private SegmentKeys(long k0, long k1, Mac manifest) {
+            this.k0 = k0;
+            this.k1 = k1;
+            this.manifest = manifest;
+        }
+
+        static SegmentKeys derive(PreparedKey key) throws GeneralSecurityException {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            byte[] aes = key.aesKey().getEncoded();
+            byte[] sipKey = null;
+            byte[] manifestKey = null;
+            try {
+                mac.init(new SecretKeySpec(aes, MAC_ALGORITHM));
+                sipKey = mac.doFinal(ID_LABEL);
+                manifestKey = mac.doFinal(MANIFEST_LABEL);
+                mac.init(new SecretKeySpec(manifestKey, MAC_ALGORITHM));
+                return new SegmentKeys(readLongLE(sipKey, 0), readLongLE(sipKey, 8), mac);
+            } finally {
+                Arrays.fill(aes, (byte) 0);
+                if (sipKey != null) {
+                    Arrays.fill(sipKey, (byte) 0);
+                }
+                if (manifestKey != null) {
+                    Arrays.fill(manifestKey, (byte) 0);
+                }
+            }
+        }
+
+        void clear() {
+            k0 = 0;
+            k1 = 0;
+        }
+
+        /**
+         * 🧮 SipHash-2-4 con salida de 128 bits, escrita en out[outIndex] y out[outIndex + 1]
+         * @param words Vista little-endian de los datos ({@link #littleEndian(byte[])})
+         */
+        void sipHash(ByteBuffer words, int offset, int length, long[] out, int outIndex) {
+            long v0 = 0x736f6d6570736575L ^ k0;
+            long v1 = 0x646f72616e646f6dL ^ k1 ^ 0xeeL;
+            long v2 = 0x6c7967656e657261L ^ k0;
+            long v3 = 0x7465646279746573L ^ k1;
+
+            int end = offset + length - (length & 7);
+            for (int i = offset; i < end; i += 8) {
+                long m = words.getLong(i);
+                v3 ^= m;
+                for (int r = 0; r < 2; r++) {
+                    v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                    v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                    v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                    v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+                }
+                v0 ^= m;
+            }
+            long last = ((long) length) << 56;
+            for (int i = 0; i < (length & 7); i++) {
+                last |= (words.get(end + i) & 0xFFL) << (8 * i);
+            }
+            v3 ^= last;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= last;
+
+            // Finalización: 4 rondas por cada mitad de la salida
+            v2 ^= 0xeeL;
+            for (int output = 0; output < 2; output++) {
+                for (int r = 0; r < 4; r++) {
+                    v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                    v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                    v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                    v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+                }
+                out[outIndex + output] = v0 ^ v1 ^ v2 ^ v3;
+                v1 ^= 0xddL;
+            }
+        }
+
+        byte[] manifestTag(int keyId, long[] ids) {
+            byte[] block = new byte[4096];
+            int count = ids.length / 2;
+            block[0] = (byte) (keyId >>> 8);
+            block[1] = (byte) keyId;
+            block[2] = (byte) (count >>> 24);
+            block[3] = (byte) (count >>> 16);
+            block[4] = (byte) (count >>> 8);
+            block[5] = (byte) count;
+            manifest.update(block, 0, 6);
+            int filled = 0;
+            for (long id : ids) {
+                for (int b = 0; b < 8; b++) {
+                    block[filled++] = (byte) (id >>> (56 - 8 * b));
+                }
+                if (filled == block.length) {
+                    manifest.update(block, 0, filled);
+                    filled = 0;
+                }
+            }
+            manifest.update(block, 0, filled);
+            return manifest.doFinal();
+        }
+    }
+
+    private static long readLongLE(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static DataInputStream open(byte[] data, byte[] magic) throws IOException {
+        if (data == null || data.length < magic.length + 1) {
+            throw new IllegalArgumentException("Formato de playlist no soportado");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        byte[] header = new byte[magic.length];
+        in.readFully(header);
+        if (!Arrays.equals(header, magic) || in.readUnsignedByte() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Formato de playlist no soportado");
+        }
+        return in;
+    }
+
+    private static void writeBlock(DataOutputStream out, byte[] block) throws IOException {
+        out.writeInt(block.length);
+        out.write(block);
+    }
+
+    private static byte[] readBlock(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        // ByteArrayInputStream.available() es exacto: evita reservar longitudes manipuladas
+        if (length < 0 || length > in.available()) {
+            throw new IllegalArgumentException("Bloque de playlist con longitud inválida: " + length);
+        }
+        byte[] block = new byte[length];
+        in.readFully(block);
+        return block;
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("Número de segmentos inválido: " + count);
+        }
+        return count;
+    }
+
+    private static void checkEnd(DataInputStream in) throws IOException {
+        if (in.available() != 0) {
+            throw new IllegalArgumentException("Playlist con bytes sobrantes");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ☕ JavaCipherEngine - Implementación de referencia en Java puro
+ *
+ * Referencia del algoritmo versión {@link CipherEngine#ALGORITHM_VERSION} sin
+ * JNI: útil en el flavor standard, en tests sobre la JVM del host y para textos
+ * cortos, donde el coste del cruce JNI supera al del propio cifrado.
+ *
+ * El algoritmo está definido en {@link CipherAlgorithm}; este motor añade los
+ * adaptadores String/ByteBuffer y la caché del programa de clave. La clave no
+ * se materializa extendida: se indexa en módulo.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class JavaCipherEngine implements CipherEngine {
+
+    // Último programa de clave calculado (la clave maestra se reutiliza en cada llamada)
+    private volatile KeySchedule lastSchedule;
+
+    @Override
+    public String getName() {
+        return "java";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsBinary() {
+        return true;
+    }
+
+    @Override
+    public String transform(String text, String key, CipherMode mode) {
+        return transform(text, schedule(key).shifts, mode);
+    }
+
+    @Override
+    public String transform(String text, PreparedKey key, CipherMode mode) {
+        return transform(text, key.shifts(), mode);
+    }
+
+    @Override
+    public void transform(byte[] data, int offset, int length, PreparedKey key, int keyOffset, CipherMode mode) {
+        transform(data, offset, length, key.shifts(), keyOffset, mode);
+    }
+
+    private static String transform(String text, int[] shifts, CipherMode mode) {
+        int length = text.length();
+
+        // Camino rápido ASCII: cada char es un byte UTF-8, se evita la conversión
+        char[] chars = new char[length];
+        text.getChars(0, length, chars, 0);
+        for (int i = 0; i < length; i++) {
+            if (chars[i] >= 0x80) {
+                byte[] data = text.getBytes(StandardCharsets.UTF_8);
+                transform(data, 0, data.length, shifts, 0, mode);
+                return new String(data, StandardCharsets.UTF_8);
+            }
+        }
+
+        int keyLength = shifts.length;
+        boolean decrypt = mode == CipherMode.DECRYPT;
+        for (int i = 0, k = 0; i < length; i++) {
+            int c = chars[i];
+            if (c >= CipherAlgorithm.FIRST_PRINTABLE && c <= CipherAlgorithm.LAST_PRINTABLE) {
+                chars[i] = (char) CipherAlgorithm.apply(c, shifts[k], decrypt);
+            }
+            if (++k == keyLength) {
+                k = 0;
+            }
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String[] transformBatch(String[] texts, String key, CipherMode mode) {
+        schedule(key);
+        String[] output = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] != null && !texts[i].isEmpty()) {
+                output[i] = transform(texts[i], key, mode);
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public void transform(byte[] data, int offset, int length, byte[] key, int keyOffset, CipherMode mode) {
+        transform(data, offset, length, shifts(key), keyOffset, mode);
+    }
+
+    @Override
+    public void transformDirect(ByteBuffer src, int srcOffset, ByteBuffer dst, int dstOffset, int length,
+                                byte[] key, int keyOffset, CipherMode mode) {
+        int[] shifts = shifts(key);
+        boolean decrypt = mode == CipherMode.DECRYPT;
+        for (int i = 0, k = keyOffset; i < length; i++) {
+            int b = src.get(srcOffset + i) & 0xFF;
+            if (b >= CipherAlgorithm.FIRST_PRINTABLE && b <= CipherAlgorithm.LAST_PRINTABLE) {
+                b = CipherAlgorithm.apply(b, shifts[k], decrypt);
+            }
+            dst.put(dstOffset + i, (byte) b);
+            if (++k == shifts.length) {
+                k = 0;
+            }
+        }
+    }
+
+    /**
+     * 🔄 Núcleo del cifrado sobre un array con el programa de clave ya calculado
+     */
+    static void transform(byte[] data, int offset, int length, int[] shifts, int keyOffset, CipherMode mode) {
+        CipherAlgorithm.transform(data, offset, length, shifts, keyOffset, mode == CipherMode.DECRYPT);
+    }
+
+    /**
+     * 🔑 Calcula el desplazamiento de cada byte de la clave
+     */
+    static int[] computeShifts(byte[] key) {
+        return CipherAlgorithm.computeShifts(key);
+    }
+
+    private KeySchedule schedule(String key) {
+        KeySchedule cached = lastSchedule;
+        if (cached != null && cached.key != null && (cached.key == key || cached.key.equals(key))) {
+            return cached;
+        }
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        KeySchedule computed = new KeySchedule(key, bytes, computeShifts(bytes));
+        lastSchedule = computed;
+        return computed;
+    }
+
+    private int[] shifts(byte[] key) {
+        KeySchedule cached = lastSchedule;
+        if (cached != null && (cached.bytes == key || java.util.Arrays.equals(cached.bytes, key))) {
+            return cached.shifts;
+        }
+        KeySchedule computed = new KeySchedule(null, key.clone(), computeShifts(key));
+        lastSchedule = computed;
+        return computed.shifts;
+    }
+
+    /**
+     * Clave con sus desplazamientos precalculados
+     */
+    private static final class KeySchedule {
+        final String key;
+        final byte[] bytes;
+        final int[] shifts;
+
+        KeySchedule(String key, byte[] bytes, int[] shifts) {
+            this.key = key;
+            this.bytes = bytes;
+            this.shifts = shifts;
+        }
+    }
+}
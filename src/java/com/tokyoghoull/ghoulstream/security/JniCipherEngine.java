@@ -0,0 +1,147 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 🔧 JniCipherEngine - Motor de cifrado sobre libencryption.so
+ *
+ * Encapsula las llamadas JNI declaradas en {@link NativeEncryption}. Solo se
+ * considera disponible si la librería cargada exporta
+ * {@code nativeAlgorithmVersion} y declara {@link CipherEngine#ALGORITHM_VERSION}:
+ * las librerías precompiladas de la versión 1.0.0 implementan otro algoritmo y
+ * no exportan ningún método JNI, así que con ellas se usa el motor Java.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class JniCipherEngine implements CipherEngine {
+
+    private static final String TAG = "JniCipherEngine";
+
+    // Se desactiva si la librería resulta incompatible o le falta algún método
+    private volatile boolean available;
+
+    JniCipherEngine(boolean libraryLoaded) {
+        this.available = libraryLoaded && probeAlgorithmVersion();
+    }
+
+    @Override
+    public String getName() {
+        return "jni";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public boolean supportsBinary() {
+        return available;
+    }
+
+    /**
+     * 🚫 Descarta el motor tras un fallo de enlace (método nativo ausente)
+     */
+    void markUnavailable() {
+        available = false;
+    }
+
+    /**
+     * 🔑 Extiende la clave en el lado nativo
+     * @return Handle nativo o 0 si el motor no está disponible
+     */
+    long prepareNativeKey(byte[] key) {
+        return available ? NativeEncryption.nativePrepareKey(key) : 0L;
+    }
+
+    /**
+     * 🗑️ Libera un handle creado con {@link #prepareNativeKey(byte[])}
+     */
+    static void releasePreparedKey(long handle) {
+        NativeEncryption.nativeReleaseKey(handle);
+    }
+
+    @Override
+    public String transform(String text, String key, CipherMode mode) {
+        // Adaptador String: UTF-8 → buffer nativo → String
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        NativeEncryption.nativeCryptArray(data, 0, data.length, NativeEncryption.keyBytes(key),
+                mode == CipherMode.DECRYPT);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String[] transformBatch(String[] texts, String key, CipherMode mode) {
+        String[] output = mode == CipherMode.DECRYPT
+                ? NativeEncryption.nativeDecryptBatch(texts, key)
+                : NativeEncryption.nativeEncryptBatch(texts, key);
+        if (output == null || output.length != texts.length) {
+            throw new IllegalStateException("Resultado de lote nativo con tamaño inesperado");
+        }
+        return output;
+    }
+
+    @Override
+    public void transform(byte[] data, int offset, int length, byte[] key, int keyOffset, CipherMode mode) {
+        NativeEncryption.nativeCryptArray(data, offset, length, rotateKey(key, keyOffset),
+                mode == CipherMode.DECRYPT);
+    }
+
+    @Override
+    public void transform(byte[] data, int offset, int length, PreparedKey key, int keyOffset, CipherMode mode) {
+        long handle = key.nativeHandle();
+        if (handle != 0L) {
+            // La clave ya está extendida en C++: sin conversión ni rotación por llamada
+            NativeEncryption.nativeCryptPrepared(handle, data, offset, length, keyOffset, mode == CipherMode.DECRYPT);
+            return;
+        }
+        transform(data, offset, length, key.bytes(), keyOffset, mode);
+    }
+
+    @Override
+    public void transformDirect(ByteBuffer src, int srcOffset, ByteBuffer dst, int dstOffset, int length,
+                                byte[] key, int keyOffset, CipherMode mode) {
+        // Camino sin copias: GetDirectBufferAddress en ambos buffers
+        NativeEncryption.nativeCryptDirect(src, srcOffset, dst, dstOffset, length,
+                rotateKey(key, keyOffset), mode == CipherMode.DECRYPT);
+    }
+
+    /**
+     * 🔑 Rota la clave para que el primer byte use key[keyOffset]
+     * La clave extendida se repite cada key.length bytes, así que empezar en la
+     * posición p equivale a empezar en 0 con la clave rotada p mod key.length.
+     */
+    static byte[] rotateKey(byte[] key, int keyOffset) {
+        if (keyOffset == 0) {
+            return key;
+        }
+        byte[] rotated = new byte[key.length];
+        System.arraycopy(key, keyOffset, rotated, 0, key.length - keyOffset);
+        System.arraycopy(key, 0, rotated, key.length - keyOffset, keyOffset);
+        return rotated;
+    }
+
+    /**
+     * 🔍 Comprueba que la librería cargada implementa la versión del algoritmo
+     * de los motores Java (las librerías sin el método son de la versión 1)
+     */
+    private static boolean probeAlgorithmVersion() {
+        int version;
+        try {
+            version = NativeEncryption.nativeAlgorithmVersion();
+        } catch (LinkageError e) {
+            SecurityLog.w(TAG, "⚠️ libencryption.so no exporta métodos JNI de la versión {}, se usará el motor Java",
+                    ALGORITHM_VERSION);
+            return false;
+        }
+        if (version != ALGORITHM_VERSION) {
+            SecurityLog.w(TAG, "⚠️ libencryption.so implementa el algoritmo versión {}, se usará el motor Java",
+                    version);
+            return false;
+        }
+        return true;
+    }
+}
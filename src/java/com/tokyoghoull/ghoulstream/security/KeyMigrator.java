@@ -0,0 +1,261 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import android.content.SharedPreferences;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 🚚 KeyMigrator - Re-encripta en segundo plano los valores guardados tras una rotación
+ *
+ * Recorre un almacén ({@link Target}) y re-encripta con la clave actual del
+ * {@link KeyRing} los valores que la necesitan, limitado a
+ * {@link #setMaxPerSecond(int) N valores por segundo} para no competir con la
+ * app. Cada valor se sustituye solo si no cambió mientras se re-encriptaba.
+ *
+ * @example
+ * KeyMigrator migrator = new KeyMigrator(GhoulStreamSecurity.getKeyRing(),
+ *         KeyMigrator.forSharedPreferences(prefs, Arrays.asList("user_config", "custom_url")));
+ * migrator.start().thenAccept(count -> Log.i(TAG, count + " valores migrados"));
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class KeyMigrator {
+
+    private static final String TAG = "KeyMigrator";
+
+    /** Re-encriptaciones por segundo por defecto en segundo plano */
+    public static final int DEFAULT_MAX_PER_SECOND = 50;
+
+    /**
+     * 🗄️ Almacén de valores encriptados que el migrador puede recorrer
+     */
+    public interface Target {
+        /**
+         * @return Ids de los valores (se recorre una copia)
+         */
+        Iterable<String> ids();
+
+        /**
+         * @return Valor encriptado actual o null si ya no existe
+         */
+        String read(String id);
+
+        /**
+         * Sustituye el valor solo si sigue siendo {@code expected}
+         * @return true si se sustituyó
+         */
+        boolean replace(String id, String expected, String updated);
+    }
+
+    private final KeyRing ring;
+    private final Target target;
+    private final AtomicReference<CompletableFuture<Integer>> running = new AtomicReference<>();
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile int maxPerSecond = DEFAULT_MAX_PER_SECOND;
+    private volatile boolean stopRequested = false;
+
+    /**
+     * @param ring Anillo con la clave actual
+     * @param target Almacén a migrar
+     */
+    public KeyMigrator(KeyRing ring, Target target) {
+        if (ring == null || target == null) {
+            throw new IllegalArgumentException("KeyRing y Target no pueden ser null");
+        }
+        this.ring = ring;
+        this.target = target;
+    }
+
+    /**
+     * ⏱️ Limita el ritmo de la migración en segundo plano
+     * @param valuesPerSecond Re-encriptaciones por segundo (0 = sin límite)
+     */
+    public void setMaxPerSecond(int valuesPerSecond) {
+        if (valuesPerSecond < 0) {
+            throw new IllegalArgumentException("valuesPerSecond no puede ser negativo (actual: " + valuesPerSecond + ")");
+        }
+        this.maxPerSecond = valuesPerSecond;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    /**
+     * @return Valores re-encriptados desde que se creó el migrador
+     */
+    public long getMigratedCount() {
+        return migrated.get();
+    }
+
+    /**
+     * @return Valores que no se pudieron desencriptar (clave retirada o datos dañados)
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return true si hay una migración en segundo plano en curso
+     */
+    public boolean isRunning() {
+        return running.get() != null;
+    }
+
+    /**
+     * 🚚 Migra todo ahora, en el hilo llamador y sin límite de ritmo
+     * @return Valores re-encriptados
+     */
+    public int migrateNow() {
+        return runPass(0, false);
+    }
+
+    /**
+     * 🧵 Lanza la migración en un hilo daemon (o devuelve la que está en curso)
+     * @return Future con el número de valores re-encriptados
+     */
+    public CompletableFuture<Integer> start() {
+        CompletableFuture<Integer> created = new CompletableFuture<>();
+        if (!running.compareAndSet(null, created)) {
+            return running.get();
+        }
+        stopRequested = false;
+        Thread thread = new Thread(() -> {
+            try {
+                int count = runPass(maxPerSecond, true);
+                SecurityLog.i(TAG, "🚚 Migración de claves terminada: {} valores", count);
+                running.set(null);
+                created.complete(count);
+            } catch (RuntimeException e) {
+                SecurityLog.e(TAG, "❌ Error migrando valores", e);
+                running.set(null);
+                created.completeExceptionally(e);
+            }
+        }, "ghoulstream-key-migrator");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return created;
+    }
+
+    /**
+     * ⏹️ Detiene la migración en segundo plano tras el valor en curso
+     * El future de {@link #start()} se completa con lo migrado hasta entonces.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * @param perSecond Límite de ritmo (0 = sin límite)
+     * @param stoppable true si {@link #stop()} debe cortar la pasada (solo en segundo plano)
+     */
+    private int runPass(int perSecond, boolean stoppable) {
+        List<String> ids = new ArrayList<>();
+        for (String id : target.ids()) {
+            ids.add(id);
+        }
+
+        long intervalNanos = perSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / perSecond : 0L;
+        long nextSlot = System.nanoTime();
+        int count = 0;
+        for (String id : ids) {
+            if (stoppable && stopRequested) {
+                break;
+            }
+            String current = target.read(id);
+            if (current == null || !ring.needsReencryption(current)) {
+                continue;
+            }
+
+            if (intervalNanos > 0) {
+                long wait = nextSlot - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                nextSlot = Math.max(nextSlot, System.nanoTime()) + intervalNanos;
+            }
+
+            String updated = ring.reencrypt(current);
+            if (updated == null) {
+                failed.incrementAndGet();
+                SecurityLog.w(TAG, "⚠️ No se pudo re-encriptar {}", id);
+                continue;
+            }
+            if (target.replace(id, current, updated)) {
+                count++;
+                migrated.incrementAndGet();
+            }
+        }
+        return count;
+    }
+
+    // ------------------------------------------------------------- adaptadores
+
+    /**
+     * 🗺️ Adaptador para un ConcurrentMap (sustitución atómica con {@code replace})
+     * Todos los valores del mapa deben estar encriptados.
+     */
+    public static Target forMap(ConcurrentMap<String, String> map) {
+        return new Target() {
+            @Override
+            public Iterable<String> ids() {
+                return new ArrayList<>(map.keySet());
+            }
+
+            @Override
+            public String read(String id) {
+                return map.get(id);
+            }
+
+            @Override
+            public boolean replace(String id, String expected, String updated) {
+                return map.replace(id, expected, updated);
+            }
+        };
+    }
+
+    /**
+     * 📱 Adaptador para SharedPreferences
+     * Solo se recorren las claves indicadas: las preferencias suelen mezclar valores
+     * encriptados con valores en claro, que no deben tocarse. La comprobación y la
+     * escritura se sincronizan sobre {@code prefs}.
+     * @param prefs Preferencias
+     * @param encryptedIds Claves cuyos valores están encriptados
+     */
+    public static Target forSharedPreferences(SharedPreferences prefs, Collection<String> encryptedIds) {
+        List<String> ids = new ArrayList<>(encryptedIds);
+        return new Target() {
+            @Override
+            public Iterable<String> ids() {
+                return ids;
+            }
+
+            @Override
+            public String read(String id) {
+                return prefs.getString(id, null);
+            }
+
+            @Override
+            public boolean replace(String id, String expected, String updated) {
+                synchronized (prefs) {
+                    if (!expected.equals(prefs.getString(id, null))) {
+                        return false;
+                    }
+                    prefs.edit().putString(id, updated).apply();
+                    return true;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,423 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🔑 KeyRing - Claves por id para encriptar en {@link CipherEnvelope} y rotar sin parar la app
+ *
+ * Se encripta siempre con la clave y el algoritmo actuales (AES-GCM si el
+ * dispositivo lo ofrece); al desencriptar, clave y algoritmo se eligen por la
+ * cabecera. Los valores sin cabecera (formato anterior) se
+ * desencriptan con la clave heredada. Rotar consiste en añadir una clave y
+ * marcarla como actual: los valores antiguos siguen siendo legibles y se
+ * re-encriptan en la siguiente escritura ({@link #reencrypt(String)}) o en
+ * segundo plano con {@link KeyMigrator}.
+ *
+ * @example
+ * KeyRing ring = GhoulStreamSecurity.getKeyRing();
+ * ring.addKey(2, newKey);
+ * ring.setCurrentKeyId(2);                  // los nuevos valores usan la clave 2
+ * String value = ring.decrypt(stored);      // los antiguos se siguen leyendo
+ * if (ring.needsReencryption(stored)) save(ring.reencrypt(stored));
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class KeyRing {
+
+    private static final String TAG = "KeyRing";
+
+    private final ConcurrentHashMap<Integer, Entry> keys = new ConcurrentHashMap<>();
+    private volatile int currentKeyId = -1;
+    private volatile int legacyKeyId = -1;
+    private volatile int algorithmId = AesGcmCipher.isAvailable() ? CipherEnvelope.ALG_AES_GCM : CipherEnvelope.ALG_LEGACY;
+    private volatile boolean compression = false;
+
+    private static final class Entry {
+        final PreparedKey key;
+        final boolean owned;
+
+        Entry(PreparedKey key, boolean owned) {
+            this.key = key;
+            this.owned = owned;
+        }
+    }
+
+    /**
+     * Anillo vacío: añadir al menos una clave antes de usarlo
+     */
+    public KeyRing() {
+    }
+
+    /**
+     * @param keyId Id de la clave inicial (actual y heredada)
+     * @param key Clave preparada (el anillo no la cierra)
+     */
+    public KeyRing(int keyId, PreparedKey key) {
+        addKey(keyId, key);
+    }
+
+    // ------------------------------------------------------------- claves
+
+    /**
+     * ➕ Añade una clave preparada (el anillo no la cierra)
+     * La primera clave añadida pasa a ser la actual y la heredada.
+     * @param keyId Id (1..65535)
+     * @param key Clave preparada
+     */
+    public void addKey(int keyId, PreparedKey key) {
+        addKey(keyId, key, false);
+    }
+
+    /**
+     * ➕ Añade una clave (el anillo la prepara y la cierra al retirarla)
+     * @param keyId Id (1..65535)
+     * @param key Clave (mínimo 10 caracteres)
+     */
+    public void addKey(int keyId, String key) {
+        PreparedKey prepared = NativeEncryption.prepareKey(key);
+        if (prepared == null) {
+            throw new IllegalArgumentException("Clave inválida para el id " + keyId);
+        }
+        addKey(keyId, prepared, true);
+    }
+
+    private synchronized void addKey(int keyId, PreparedKey key, boolean owned) {
+        if (keyId < 1 || keyId > CipherEnvelope.MAX_KEY_ID) {
+            throw new IllegalArgumentException("keyId fuera de rango (1.." + CipherEnvelope.MAX_KEY_ID + "): " + keyId);
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("La clave no puede ser null");
+        }
+        if (keys.putIfAbsent(keyId, new Entry(key, owned)) != null) {
+            throw new IllegalArgumentException("Ya existe una clave con id " + keyId);
+        }
+        if (currentKeyId < 0) {
+            currentKeyId = keyId;
+            legacyKeyId = keyId;
+        }
+        SecurityLog.i(TAG, "🔑 Clave añadida al anillo: {}", keyId);
+    }
+
+    /**
+     * 🗑️ Retira una clave (los valores encriptados con ella dejan de ser legibles)
+     * @param keyId Id de la clave
+     * @throws IllegalStateException si es la clave actual
+     */
+    public synchronized void removeKey(int keyId) {
+        if (keyId == currentKeyId) {
+            throw new IllegalStateException("No se puede retirar la clave actual (" + keyId + ")");
+        }
+        Entry removed = keys.remove(keyId);
+        if (removed != null && removed.owned) {
+            removed.key.close();
+        }
+    }
+
+    /**
+     * 🔄 Cambia la clave con la que se encripta a partir de ahora
+     * @param keyId Id de una clave del anillo
+     */
+    public synchronized void setCurrentKeyId(int keyId) {
+        requireKey(keyId);
+        currentKeyId = keyId;
+        SecurityLog.i(TAG, "🔄 Clave actual: {}", keyId);
+    }
+
+    public int getCurrentKeyId() {
+        return currentKeyId;
+    }
+
+    /**
+     * 🕰️ Cambia la clave usada para valores sin cabecera (formato anterior al sobre)
+     * @param keyId Id de una clave del anillo
+     */
+    public synchronized void setLegacyKeyId(int keyId) {
+        requireKey(keyId);
+        legacyKeyId = keyId;
+    }
+
+    public int getLegacyKeyId() {
+        return legacyKeyId;
+    }
+
+    /**
+     * ⚙️ Cambia el algoritmo con el que se encripta a partir de ahora
+     * Los valores con el otro algoritmo siguen siendo legibles y
+     * {@link #needsReencryption(String)} los marca para migrar.
+     * @param algorithmId {@link CipherEnvelope#ALG_AES_GCM} o {@link CipherEnvelope#ALG_LEGACY}
+     */
+    public void setAlgorithm(int algorithmId) {
+        if (algorithmId == CipherEnvelope.ALG_AES_GCM) {
+            if (!AesGcmCipher.isAvailable()) {
+                throw new IllegalStateException("AES-GCM no disponible en este dispositivo");
+            }
+        } else if (algorithmId != CipherEnvelope.ALG_LEGACY) {
+            throw new IllegalArgumentException("Algoritmo desconocido: " + algorithmId);
+        }
+        this.algorithmId = algorithmId;
+    }
+
+    public int getAlgorithm() {
+        return algorithmId;
+    }
+
+    /**
+     * 📦 Comprime los payloads antes de encriptar (JSON, EPG, playlists)
+     * Solo con AES-GCM: el algoritmo heredado deja sin cifrar los bytes no
+     * imprimibles, que en un payload comprimido son la mayoría. Los payloads
+     * pequeños o que no se reducen se guardan sin comprimir. Los valores
+     * comprimidos se leen siempre, esté activada o no.
+     * @param enabled true para comprimir los nuevos valores
+     */
+    public void setCompression(boolean enabled) {
+        this.compression = enabled;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * @return Ids de las claves del anillo (ordenados)
+     */
+    public Set<Integer> getKeyIds() {
+        return new TreeSet<>(keys.keySet());
+    }
+
+    private PreparedKey requireKey(int keyId) {
+        Entry entry = keys.get(keyId);
+        if (entry == null) {
+            throw new IllegalArgumentException("Clave desconocida: " + keyId);
+        }
+        return entry.key;
+    }
+
+    PreparedKey keyOrNull(int keyId) {
+        Entry entry = keys.get(keyId);
+        return entry != null ? entry.key : null;
+    }
+
+    // ------------------------------------------------------------- cifrado
+
+    /**
+     * 🔐 Encripta un texto con la clave actual
+     * @param plainText Texto en claro
+     * @return Sobre en forma de texto ({@code gse:...}) o null si hay error
+     */
+    public String encrypt(String plainText) {
+        if (plainText == null) {
+            return null;
+        }
+        byte[] plain = plainText.getBytes(StandardCharsets.UTF_8);
+        try {
+            return encrypt(plain, 0, plain.length);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /**
+     * 🔐 Encripta bytes con la clave actual (los bytes del llamador no se modifican)
+     * @return Sobre en forma de texto ({@code gse:...}) o null si hay error
+     */
+    public String encrypt(byte[] data, int offset, int length) {
+        byte[] envelope = seal(data, offset, length);
+        return envelope != null ? CipherEnvelope.toText(envelope) : null;
+    }
+
+    /**
+     * 🔐 Encripta bytes con la clave actual en un sobre binario (sin Base64)
+     * @return Sobre binario completo o null si hay error
+     */
+    byte[] seal(byte[] data, int offset, int length) {
+        int keyId = currentKeyId;
+        PreparedKey key = keyOrNull(keyId);
+        if (key == null) {
+            SecurityLog.e(TAG, "❌ KeyRing sin clave actual");
+            return null;
+        }
+        if (data == null || offset < 0 || length < 0 || offset > data.length - length) {
+            SecurityLog.e(TAG, "❌ Región de datos inválida");
+            return null;
+        }
+
+        if (algorithmId == CipherEnvelope.ALG_AES_GCM) {
+            byte[] compressed = compression ? PayloadCompressor.compress(data, offset, length) : null;
+            try {
+                return compressed != null
+                        ? AesGcmCipher.seal(key, keyId, CipherEnvelope.FLAG_COMPRESSED, compressed, 0, compressed.length)
+                        : AesGcmCipher.seal(key, keyId, 0, data, offset, length);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                SecurityLog.e(TAG, "❌ Error encriptando con AES-GCM", e);
+                return null;
+            } finally {
+                if (compressed != null) {
+                    Arrays.fill(compressed, (byte) 0);
+                }
+            }
+        }
+
+        byte[] envelope = CipherEnvelope.allocate(keyId, CipherEnvelope.ALG_LEGACY, 0, length);
+        System.arraycopy(data, offset, envelope, CipherEnvelope.HEADER_SIZE, length);
+        if (!NativeEncryption.encryptInPlace(envelope, CipherEnvelope.HEADER_SIZE, length, key)) {
+            Arrays.fill(envelope, (byte) 0);
+            return null;
+        }
+        return envelope;
+    }
+
+    /**
+     * 🔓 Desencripta un sobre (o un valor sin cabecera con la clave heredada)
+     * @param encrypted Sobre {@code gse:...} o texto encriptado del formato anterior
+     * @return Texto en claro o null si hay error
+     */
+    public String decrypt(String encrypted) {
+        byte[] plain = decryptToBytes(encrypted);
+        if (plain == null) {
+            return null;
+        }
+        try {
+            return new String(plain, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /**
+     * 🔓 Desencripta a bytes (el llamador debe borrarlos al terminar)
+     * @param encrypted Sobre {@code gse:...} o texto encriptado del formato anterior
+     * @return Bytes en claro o null si hay error
+     */
+    public byte[] decryptToBytes(String encrypted) {
+        if (encrypted == null || encrypted.isEmpty()) {
+            return null;
+        }
+
+        CipherEnvelope envelope = CipherEnvelope.parse(encrypted);
+        if (envelope == null) {
+            return decryptLegacy(encrypted);
+        }
+        return open(envelope);
+    }
+
+    /**
+     * 🔓 Desencripta un sobre binario de {@link #seal(byte[], int, int)} (no se modifica)
+     * @return Bytes en claro o null si hay error
+     */
+    byte[] open(byte[] envelope) {
+        // El camino heredado desencripta y borra en el sitio: se trabaja sobre una copia
+        CipherEnvelope parsed = envelope != null ? CipherEnvelope.parse(envelope.clone()) : null;
+        if (parsed == null) {
+            SecurityLog.e(TAG, "❌ Sobre binario inválido");
+            return null;
+        }
+        return open(parsed);
+    }
+
+    private byte[] open(CipherEnvelope envelope) {
+        PreparedKey key = keyOrNull(envelope.getKeyId());
+        if (key == null) {
+            SecurityLog.e(TAG, "❌ Clave {} no disponible en el anillo", envelope.getKeyId());
+            return null;
+        }
+        if ((envelope.getFlags() & ~CipherEnvelope.KNOWN_FLAGS) != 0) {
+            SecurityLog.e(TAG, "❌ Flags de sobre no soportados: {}", envelope.getFlags());
+            return null;
+        }
+        if (envelope.getAlgorithmId() == CipherEnvelope.ALG_AES_GCM) {
+            try {
+                byte[] plain = AesGcmCipher.open(key, envelope);
+                return plain != null && envelope.hasFlag(CipherEnvelope.FLAG_COMPRESSED) ? inflate(plain) : plain;
+            } catch (GeneralSecurityException | RuntimeException e) {
+                SecurityLog.e(TAG, "❌ Error desencriptando con AES-GCM", e);
+                return null;
+            }
+        }
+        if (envelope.getAlgorithmId() != CipherEnvelope.ALG_LEGACY) {
+            SecurityLog.e(TAG, "❌ Algoritmo de sobre no soportado: {}", envelope.getAlgorithmId());
+            return null;
+        }
+
+        byte[] data = envelope.array();
+        int length = envelope.getPayloadLength();
+        try {
+            if (!NativeEncryption.decryptInPlace(data, CipherEnvelope.HEADER_SIZE, length, key)) {
+                return null;
+            }
+            return envelope.hasFlag(CipherEnvelope.FLAG_COMPRESSED)
+                    ? PayloadCompressor.decompress(data, CipherEnvelope.HEADER_SIZE, length)
+                    : Arrays.copyOfRange(data, CipherEnvelope.HEADER_SIZE, data.length);
+        } catch (IllegalArgumentException e) {
+            SecurityLog.e(TAG, "❌ {}", e.getMessage());
+            return null;
+        } finally {
+            Arrays.fill(data, (byte) 0);
+        }
+    }
+
+    /**
+     * 📭 Descomprime un payload ya desencriptado y borra la copia comprimida
+     */
+    private static byte[] inflate(byte[] compressed) {
+        try {
+            return PayloadCompressor.decompress(compressed, 0, compressed.length);
+        } finally {
+            Arrays.fill(compressed, (byte) 0);
+        }
+    }
+
+    private byte[] decryptLegacy(String encrypted) {
+        PreparedKey key = keyOrNull(legacyKeyId);
+        if (key == null) {
+            SecurityLog.e(TAG, "❌ KeyRing sin clave heredada");
+            return null;
+        }
+        String plain = NativeEncryption.decrypt(encrypted, key);
+        return plain != null ? plain.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    // ------------------------------------------------------------- rotación
+
+    /**
+     * 🔍 Indica si un valor no está encriptado con la clave actual
+     * Solo lee la cabecera; no desencripta.
+     * @param encrypted Valor guardado
+     * @return true si es del formato anterior o usa otra clave u otro algoritmo
+     */
+    public boolean needsReencryption(String encrypted) {
+        if (encrypted == null || encrypted.isEmpty()) {
+            return false;
+        }
+        CipherEnvelope header = CipherEnvelope.peekHeader(encrypted);
+        return header == null
+                || header.getKeyId() != currentKeyId
+                || header.getAlgorithmId() != algorithmId;
+    }
+
+    /**
+     * 🔄 Re-encripta un valor con la clave actual si hace falta
+     * @param encrypted Valor guardado
+     * @return El mismo valor si ya está al día, el re-encriptado, o null si no se pudo desencriptar
+     */
+    public String reencrypt(String encrypted) {
+        if (!needsReencryption(encrypted)) {
+            return encrypted;
+        }
+        byte[] plain = decryptToBytes(encrypted);
+        if (plain == null) {
+            return null;
+        }
+        try {
+            return encrypt(plain, 0, plain.length);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * 🗺️ MappedBlobStore - Contenedor de solo lectura con registros encriptados y mapeados en memoria
+ *
+ * Pensado para cachés de playlists con decenas de miles de canales en TVs con
+ * 1-2 GB de RAM: el archivo se mapea con {@code FileChannel.map} y cada registro
+ * se desencripta bajo demanda directamente desde la región mapeada, sin cargar
+ * el archivo ni mantener Strings en el heap.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * cabecera  | "GSMB" | versión | número de registros | reservado | offset del índice (long)
+ * datos     | registros encriptados uno tras otro
+ * índice    | (registros + 1) offsets absolutos (long); el registro i ocupa [off[i], off[i+1])
+ * cola      | CRC32 de cabecera + índice
+ * </pre>
+ * Cada registro se encripta con la posición de flujo igual a su offset en el
+ * archivo, de modo que prefijos repetidos (#EXTINF...) no producen el mismo texto
+ * encriptado.
+ *
+ * @example
+ * try (MappedBlobStore.Writer writer = MappedBlobStore.create(file, key)) {
+ *     for (String entry : entries) writer.add(entry);
+ * }
+ * try (MappedBlobStore store = MappedBlobStore.open(file, key)) {
+ *     String channel = store.getString(42);
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class MappedBlobStore implements Closeable {
+
+    private static final String TAG = "MappedBlobStore";
+
+    // "GSMB"
+    private static final int MAGIC = 0x47534D42;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int TRAILER_SIZE = 4;
+
+    private final PreparedKey key;
+    private final boolean ownsKey;
+    private final int count;
+    private final long fileSize;
+    private FileChannel channel;
+    private volatile MappedByteBuffer data;
+    private final LongBuffer offsets;
+
+    private MappedBlobStore(FileChannel channel, MappedByteBuffer data, int count, LongBuffer offsets,
+                            PreparedKey key, boolean ownsKey) {
+        this.channel = channel;
+        this.data = data;
+        this.count = count;
+        this.offsets = offsets;
+        this.fileSize = data.capacity();
+        this.key = key;
+        this.ownsKey = ownsKey;
+    }
+
+    // ------------------------------------------------------------- apertura
+
+    /**
+     * 📂 Abre un contenedor con una clave propia
+     * @param file Archivo escrito con {@link Writer}
+     * @param key Clave (mínimo 10 caracteres)
+     * @return Contenedor mapeado
+     * @throws IOException si el archivo no existe, no es un contenedor o está dañado
+     */
+    public static MappedBlobStore open(File file, String key) throws IOException {
+        PreparedKey prepared = requireKey(key);
+        try {
+            return open(file, prepared, true);
+        } catch (IOException | RuntimeException e) {
+            prepared.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 📂 Abre un contenedor con una clave preparada
+     * @param file Archivo escrito con {@link Writer}
+     * @param key Clave preparada (el contenedor no la cierra)
+     * @return Contenedor mapeado
+     * @throws IOException si el archivo no existe, no es un contenedor o está dañado
+     */
+    public static MappedBlobStore open(File file, PreparedKey key) throws IOException {
+        return open(file, key, false);
+    }
+
+    private static MappedBlobStore open(File file, PreparedKey key, boolean ownsKey) throws IOException {
+        if (file == null || key == null) {
+            throw new IllegalArgumentException("Archivo y clave no pueden ser null");
+        }
+
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            // Un único MappedByteBuffer direcciona hasta 2 GB, de sobra para una playlist
+            if (size < HEADER_SIZE + 8 + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño de contenedor inválido: " + size + " bytes");
+            }
+
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (data.getInt(0) != MAGIC) {
+                throw new IOException("Archivo no es un MappedBlobStore: " + file);
+            }
+            if (data.getInt(4) != VERSION) {
+                throw new IOException("Versión de MappedBlobStore no soportada: " + data.getInt(4));
+            }
+            int count = data.getInt(8);
+            long indexOffset = data.getLong(16);
+            long indexEnd = indexOffset + 8L * (count + 1L);
+            if (count < 0 || indexOffset < HEADER_SIZE || indexEnd + TRAILER_SIZE != size) {
+                throw new IOException("Índice de MappedBlobStore inválido");
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer header = data.duplicate();
+            header.position(0).limit(HEADER_SIZE);
+            crc.update(header);
+            ByteBuffer index = data.duplicate();
+            index.position((int) indexOffset).limit((int) indexEnd);
+            crc.update(index);
+            if (data.getInt((int) indexEnd) != (int) crc.getValue()) {
+                throw new IOException("CRC de MappedBlobStore incorrecto (archivo dañado)");
+            }
+
+            index.position((int) indexOffset);
+            LongBuffer offsets = index.slice().asLongBuffer();
+            if (offsets.get(0) != HEADER_SIZE || offsets.get(count) != indexOffset) {
+                throw new IOException("Offsets de MappedBlobStore inválidos");
+            }
+            // El CRC solo detecta daños accidentales: un archivo fabricado con offsets
+            // desordenados o fuera de los datos fallaría después en length()/get()
+            for (int i = 0; i < count; i++) {
+                long start = offsets.get(i);
+                long end = offsets.get(i + 1);
+                if (start < HEADER_SIZE || end < start || end > indexOffset) {
+                    throw new IOException("Offset " + (i + 1) + " de MappedBlobStore fuera de orden o de rango");
+                }
+            }
+
+            SecurityLog.d(TAG, "🗺️ Contenedor mapeado ({} registros, {} bytes)", count, size);
+            return new MappedBlobStore(channel, data, count, offsets, key, ownsKey);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * ✍️ Crea un escritor con una clave propia
+     * @param file Archivo destino (se sustituye de forma atómica al cerrar el escritor)
+     * @param key Clave (mínimo 10 caracteres)
+     * @return Escritor; cerrarlo para publicar el archivo
+     * @throws IOException si no se puede crear el archivo temporal
+     */
+    public static Writer create(File file, String key) throws IOException {
+        PreparedKey prepared = requireKey(key);
+        try {
+            return new Writer(file, prepared, true);
+        } catch (IOException | RuntimeException e) {
+            prepared.close();
+            throw e;
+        }
+    }
+
+    /**
+     * ✍️ Crea un escritor con una clave preparada
+     * @param file Archivo destino (se sustituye de forma atómica al cerrar el escritor)
+     * @param key Clave preparada (el escritor no la cierra)
+     * @return Escritor; cerrarlo para publicar el archivo
+     * @throws IOException si no se puede crear el archivo temporal
+     */
+    public static Writer create(File file, PreparedKey key) throws IOException {
+        return new Writer(file, key, false);
+    }
+
+    private static PreparedKey requireKey(String key) {
+        PreparedKey prepared = NativeEncryption.prepareKey(key);
+        if (prepared == null) {
+            throw new IllegalArgumentException("Clave inválida para MappedBlobStore");
+        }
+        return prepared;
+    }
+
+    // ------------------------------------------------------------- lectura
+
+    /**
+     * @return Número de registros
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return Tamaño del archivo mapeado en bytes
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * @param index Registro (0..size()-1)
+     * @return Longitud del registro en bytes
+     */
+    public int length(int index) {
+        checkIndex(index);
+        return (int) (offsets.get(index + 1) - offsets.get(index));
+    }
+
+    /**
+     * 🔓 Desencripta un registro en un buffer del llamador (sin asignaciones por registro)
+     * @param index Registro (0..size()-1)
+     * @param dst Buffer destino
+     * @param dstOffset Posición de escritura en dst
+     * @return Longitud del registro o -1 si no se pudo desencriptar
+     * @throws IndexOutOfBoundsException si el registro no cabe en dst
+     */
+    public int read(int index, byte[] dst, int dstOffset) {
+        MappedByteBuffer mapped = mapped();
+        checkIndex(index);
+        long start = offsets.get(index);
+        int length = (int) (offsets.get(index + 1) - start);
+        if (dst == null || dstOffset < 0 || dstOffset > dst.length - length) {
+            throw new IndexOutOfBoundsException("Buffer insuficiente para el registro " + index + " (" + length + " bytes)");
+        }
+
+        ByteBuffer view = mapped.duplicate();
+        view.position((int) start);
+        view.get(dst, dstOffset, length);
+        if (!NativeEncryption.decryptInPlace(dst, dstOffset, length, key, start)) {
+            Arrays.fill(dst, dstOffset, dstOffset + length, (byte) 0);
+            return -1;
+        }
+        return length;
+    }
+
+    /**
+     * 🔓 Desencripta un registro
+     * @param index Registro (0..size()-1)
+     * @return Bytes en claro o null si hay error
+     */
+    public byte[] get(int index) {
+        byte[] record = new byte[length(index)];
+        return read(index, record, 0) < 0 ? null : record;
+    }
+
+    /**
+     * 🔓 Desencripta un registro como texto UTF-8
+     * @param index Registro (0..size()-1)
+     * @return Texto en claro o null si hay error
+     */
+    public String getString(int index) {
+        byte[] record = get(index);
+        if (record == null) {
+            return null;
+        }
+        try {
+            return new String(record, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(record, (byte) 0);
+        }
+    }
+
+    /**
+     * 🔒 Cierra el archivo
+     * La región mapeada la libera el GC (Java no permite desmapear explícitamente);
+     * tras cerrar, cualquier lectura lanza IllegalStateException.
+     */
+    @Override
+    public void close() throws IOException {
+        if (data == null) {
+            return;
+        }
+        data = null;
+        channel.close();
+        if (ownsKey) {
+            key.close();
+        }
+    }
+
+    private MappedByteBuffer mapped() {
+        MappedByteBuffer mapped = data;
+        if (mapped == null) {
+            throw new IllegalStateException("MappedBlobStore cerrado");
+        }
+        return mapped;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Registro " + index + " fuera de rango (0.." + (count - 1) + ")");
+        }
+    }
+
+    // ------------------------------------------------------------- escritura
+
+    /**
+     * ✍️ Escritor secuencial de un MappedBlobStore
+     *
+     * Los registros se encriptan y escriben en un archivo temporal a medida que
+     * se añaden (memoria: un buffer de escritura y 8 bytes por registro para el
+     * índice). {@link #close()} escribe índice y cabecera y sustituye el destino
+     * con un rename atómico; {@link #abort()} descarta el temporal.
+     */
+    public static final class Writer implements Closeable {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final Path target;
+        private final Path temp;
+        private final PreparedKey key;
+        private final boolean ownsKey;
+        private final FileChannel out;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private long[] offsets = new long[1024];
+        private int count = 0;
+        private long position = HEADER_SIZE;
+        private boolean finished = false;
+
+        private Writer(File file, PreparedKey key, boolean ownsKey) throws IOException {
+            if (file == null || key == null) {
+                throw new IllegalArgumentException("Archivo y clave no pueden ser null");
+            }
+            this.target = file.toPath();
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.key = key;
+            this.ownsKey = ownsKey;
+            this.out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.out.position(HEADER_SIZE);
+            this.offsets[0] = HEADER_SIZE;
+        }
+
+        /**
+         * ➕ Añade un registro de texto (UTF-8)
+         * @param record Texto del registro
+         * @return Índice asignado
+         */
+        public int add(String record) throws IOException {
+            if (record == null) {
+                throw new IllegalArgumentException("El registro no puede ser null");
+            }
+            byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+            try {
+                return add(bytes, 0, bytes.length);
+            } finally {
+                Arrays.fill(bytes, (byte) 0);
+            }
+        }
+
+        /**
+         * ➕ Añade un registro binario (los bytes del llamador no se modifican)
+         * @param record Datos
+         * @param offset Inicio
+         * @param length Longitud
+         * @return Índice asignado
+         */
+        public int add(byte[] record, int offset, int length) throws IOException {
+            if (finished) {
+                throw new IllegalStateException("Writer cerrado");
+            }
+            if (record == null || offset < 0 || length < 0 || offset > record.length - length) {
+                throw new IllegalArgumentException("Región de registro inválida");
+            }
+
+            long recordStart = position;
+            int done = 0;
+            while (done < length) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int n = Math.min(buffer.remaining(), length - done);
+                int at = buffer.position();
+                buffer.put(record, offset + done, n);
+                // La posición de flujo es el offset absoluto en el archivo
+                if (!NativeEncryption.encryptInPlace(buffer.array(), at, n, key, recordStart + done)) {
+                    throw new IOException("No se pudo encriptar el registro " + count);
+                }
+                done += n;
+            }
+            position += length;
+
+            if (count + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[++count] = position;
+            return count - 1;
+        }
+
+        /**
+         * @return Registros añadidos hasta ahora
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * 💾 Escribe índice y cabecera y publica el archivo con un rename atómico
+         */
+        @Override
+        public void close() throws IOException {
+            if (finished) {
+                return;
+            }
+            try {
+                drain();
+                long indexOffset = position;
+                CRC32 crc = new CRC32();
+
+                ByteBuffer index = ByteBuffer.allocate(8 * (count + 1));
+                for (int i = 0; i <= count; i++) {
+                    index.putLong(offsets[i]);
+                }
+                index.flip();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0).putLong(indexOffset);
+                header.flip();
+
+                crc.update(header.duplicate());
+                crc.update(index.duplicate());
+                ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE).putInt((int) crc.getValue());
+                trailer.flip();
+
+                writeFully(index);
+                writeFully(trailer);
+                out.position(0);
+                writeFully(header);
+                out.force(true);
+                out.close();
+
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                SecurityLog.d(TAG, "💾 Contenedor escrito ({} registros, {} bytes)", count, indexOffset + index.capacity() + TRAILER_SIZE);
+            } catch (IOException | RuntimeException e) {
+                discard();
+                throw e;
+            } finally {
+                finish();
+            }
+        }
+
+        /**
+         * 🗑️ Descarta lo escrito sin tocar el archivo destino
+         */
+        public void abort() {
+            if (finished) {
+                return;
+            }
+            discard();
+            finish();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                out.write(source);
+            }
+        }
+
+        private void discard() {
+            try {
+                out.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                SecurityLog.w(TAG, "⚠️ No se pudo borrar el temporal: {}", temp);
+            }
+        }
+
+        private void finish() {
+            finished = true;
+            Arrays.fill(buffer.array(), (byte) 0);
+            if (ownsKey) {
+                key.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 🌊 NativeCipherInputStream - Stream de lectura que encripta/desencripta al vuelo
+ *
+ * Procesa los datos conforme se leen, directamente sobre el buffer del
+ * llamador, manteniendo la posición del keystream entre lecturas. La memoria
+ * usada es constante independientemente del tamaño del archivo, y el parser
+ * de M3U/XMLTV puede empezar antes de que se haya leído el archivo completo.
+ *
+ * @example
+ * try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+ *         new NativeCipherInputStream(new FileInputStream(epgFile), key, CipherMode.DECRYPT),
+ *         StandardCharsets.UTF_8))) {
+ *     parser.parse(reader);
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public class NativeCipherInputStream extends FilterInputStream {
+
+    /** Tamaño máximo de cada trozo procesado por llamada nativa */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final String key;
+    private final PreparedKey preparedKey;
+    private final CipherMode mode;
+    private final int chunkSize;
+    private final byte[] single = new byte[1];
+    private long position;
+
+    /**
+     * @param in Stream de origen
+     * @param key Clave (mínimo 10 caracteres)
+     * @param mode ENCRYPT o DECRYPT
+     */
+    public NativeCipherInputStream(InputStream in, String key, CipherMode mode) {
+        this(in, key, mode, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in Stream de origen
+     * @param key Clave (mínimo 10 caracteres)
+     * @param mode ENCRYPT o DECRYPT
+     * @param chunkSize Máximo de bytes procesados por llamada nativa
+     */
+    public NativeCipherInputStream(InputStream in, String key, CipherMode mode, int chunkSize) {
+        this(in, key, null, mode, chunkSize);
+    }
+
+    /**
+     * @param in Stream de origen
+     * @param key Clave preparada (el stream no la cierra)
+     * @param mode ENCRYPT o DECRYPT
+     */
+    public NativeCipherInputStream(InputStream in, PreparedKey key, CipherMode mode) {
+        this(in, null, key, mode, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in Stream de origen
+     * @param key Clave preparada (el stream no la cierra)
+     * @param mode ENCRYPT o DECRYPT
+     * @param chunkSize Máximo de bytes procesados por llamada nativa
+     */
+    public NativeCipherInputStream(InputStream in, PreparedKey key, CipherMode mode, int chunkSize) {
+        this(in, null, key, mode, chunkSize);
+    }
+
+    private NativeCipherInputStream(InputStream in, String key, PreparedKey preparedKey, CipherMode mode, int chunkSize) {
+        super(in);
+        if (in == null || mode == null) {
+            throw new IllegalArgumentException("Stream y modo no pueden ser null");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize debe ser >= 1 (actual: " + chunkSize + ")");
+        }
+        this.key = key;
+        this.preparedKey = preparedKey;
+        this.mode = mode;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, Math.min(len, chunkSize));
+        if (n > 0) {
+            transform(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+        if (skipped > 0) {
+            position += skipped;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // No soportado: la posición del keystream no puede retroceder
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset no soportado");
+    }
+
+    /**
+     * @return Número de bytes procesados desde el inicio del stream
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    private void transform(byte[] b, int off, int len) throws IOException {
+        boolean ok;
+        if (preparedKey != null) {
+            ok = mode == CipherMode.ENCRYPT
+                    ? NativeEncryption.encryptInPlace(b, off, len, preparedKey, position)
+                    : NativeEncryption.decryptInPlace(b, off, len, preparedKey, position);
+        } else {
+            ok = mode == CipherMode.ENCRYPT
+                    ? NativeEncryption.encryptInPlace(b, off, len, key, position)
+                    : NativeEncryption.decryptInPlace(b, off, len, key, position);
+        }
+        if (!ok) {
+            throw new IOException("Error de " + (mode == CipherMode.ENCRYPT ? "encriptación" : "desencriptación")
+                    + " en la posición " + position);
+        }
+        position += len;
+    }
+}
@@ -0,0 +1,174 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 🌊 NativeCipherOutputStream - Stream de escritura que encripta/desencripta al vuelo
+ *
+ * Acumula los datos en un buffer de tamaño fijo y los procesa por trozos,
+ * manteniendo la posición del keystream entre trozos. Los datos del
+ * llamador nunca se modifican. El buffer interno se borra al cerrar.
+ *
+ * @example
+ * try (OutputStream out = new NativeCipherOutputStream(
+ *         new FileOutputStream(playlistFile), key, CipherMode.ENCRYPT)) {
+ *     download.transferTo(out);
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public class NativeCipherOutputStream extends FilterOutputStream {
+
+    /** Tamaño por defecto del buffer interno */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final String key;
+    private final PreparedKey preparedKey;
+    private final CipherMode mode;
+    private final byte[] buffer;
+    private int count;
+    private long position;
+    private boolean closed;
+
+    /**
+     * @param out Stream de destino
+     * @param key Clave (mínimo 10 caracteres)
+     * @param mode ENCRYPT o DECRYPT
+     */
+    public NativeCipherOutputStream(OutputStream out, String key, CipherMode mode) {
+        this(out, key, mode, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param out Stream de destino
+     * @param key Clave (mínimo 10 caracteres)
+     * @param mode ENCRYPT o DECRYPT
+     * @param chunkSize Tamaño del buffer interno
+     */
+    public NativeCipherOutputStream(OutputStream out, String key, CipherMode mode, int chunkSize) {
+        this(out, key, null, mode, chunkSize);
+    }
+
+    /**
+     * @param out Stream de destino
+     * @param key Clave preparada (el stream no la cierra)
+     * @param mode ENCRYPT o DECRYPT
+     */
+    public NativeCipherOutputStream(OutputStream out, PreparedKey key, CipherMode mode) {
+        this(out, null, key, mode, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param out Stream de destino
+     * @param key Clave preparada (el stream no la cierra)
+     * @param mode ENCRYPT o DECRYPT
+     * @param chunkSize Tamaño del buffer interno
+     */
+    public NativeCipherOutputStream(OutputStream out, PreparedKey key, CipherMode mode, int chunkSize) {
+        this(out, null, key, mode, chunkSize);
+    }
+
+    private NativeCipherOutputStream(OutputStream out, String key, PreparedKey preparedKey, CipherMode mode, int chunkSize) {
+        super(out);
+        if (out == null || mode == null) {
+            throw new IllegalArgumentException("Stream y modo no pueden ser null");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize debe ser >= 1 (actual: " + chunkSize + ")");
+        }
+        this.key = key;
+        this.preparedKey = preparedKey;
+        this.mode = mode;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (count == buffer.length) {
+                drain();
+            }
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            drain();
+            out.flush();
+        } finally {
+            closed = true;
+            Arrays.fill(buffer, (byte) 0);
+            out.close();
+        }
+    }
+
+    /**
+     * @return Número de bytes procesados y escritos en el stream de destino
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    private void drain() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        boolean ok;
+        if (preparedKey != null) {
+            ok = mode == CipherMode.ENCRYPT
+                    ? NativeEncryption.encryptInPlace(buffer, 0, count, preparedKey, position)
+                    : NativeEncryption.decryptInPlace(buffer, 0, count, preparedKey, position);
+        } else {
+            ok = mode == CipherMode.ENCRYPT
+                    ? NativeEncryption.encryptInPlace(buffer, 0, count, key, position)
+                    : NativeEncryption.decryptInPlace(buffer, 0, count, key, position);
+        }
+        if (!ok) {
+            throw new IOException("Error de " + (mode == CipherMode.ENCRYPT ? "encriptación" : "desencriptación")
+                    + " en la posición " + position);
+        }
+        out.write(buffer, 0, count);
+        position += count;
+        count = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream cerrado");
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.tokyoghoull.ghoulstream.security;
 
-import android.util.Log;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * 🛡️ NativeEncryption - Wrapper Java para BaseEncryption C++
@@ -8,6 +10,11 @@ import android.util.Log;
  * Proporciona una interfaz Java fácil de usar para el sistema de encriptación nativo.
  * Protege strings sensibles usando libencryption.so para evitar ingeniería inversa.
  * 
+ * Las operaciones se delegan en un {@link CipherEngine}: el motor JNI cuando la
+ * librería cargada implementa la misma versión del algoritmo
+ * ({@link CipherEngine#ALGORITHM_VERSION}) y el motor Java de referencia cuando
+ * no es así o cuando resulta más rápido para textos cortos.
+ * 
  * @author TokyoghoulEs
  * @version 1.0.0
  * @since 2024-12-28
@@ -17,21 +24,64 @@ public class NativeEncryption {
     private static final String TAG = "NativeEncryption";
     private static final String LIBRARY_NAME = "encryption";
     
-    // Estado de inicialización
-    private static boolean isInitialized = false;
-    private static boolean initializationFailed = false;
+    // Estado de inicialización: final, fijado una sola vez al cargar la clase
+    private static final boolean isInitialized;
+    private static final boolean initializationFailed;
+    
+    // Última clave convertida a UTF-8 (la clave maestra se reutiliza en cada llamada)
+    private static volatile KeyBytes lastKeyBytes;
+    
+    // Motores de cifrado: JNI (libencryption.so) y Java puro de referencia
+    private static final JavaCipherEngine JAVA_ENGINE = new JavaCipherEngine();
+    private static final JniCipherEngine JNI_ENGINE;
+    private static volatile CipherEngineSelector.Selection engineSelection;
+    private static final Object ENGINE_LOCK = new Object();
+    
+    // Último resultado del self-test (0 = nunca ejecutado)
+    private static volatile long lastSelfTestMillis = 0L;
+    private static volatile boolean lastSelfTestPassed = false;
     
     static {
+        boolean loaded = false;
         try {
             System.loadLibrary(LIBRARY_NAME);
-            isInitialized = true;
-            Log.i(TAG, "✅ Librería nativa cargada exitosamente: lib" + LIBRARY_NAME + ".so");
+            loaded = true;
+            SecurityLog.i(TAG, "✅ Librería nativa cargada exitosamente: lib" + LIBRARY_NAME + ".so");
         } catch (UnsatisfiedLinkError e) {
-            initializationFailed = true;
-            Log.e(TAG, "❌ Error cargando librería nativa: " + e.getMessage(), e);
+            SecurityLog.e(TAG, "❌ Error cargando librería nativa: " + e.getMessage(), e);
+        }
+        isInitialized = loaded;
+        initializationFailed = !loaded;
+        
+        JNI_ENGINE = new JniCipherEngine(isInitialized && !initializationFailed);
+        
+        // El micro-benchmark no se ejecuta al cargar la clase: se arranca con una
+        // selección provisional y la definitiva se calcula en segundo plano
+        CipherEngineSelector.Selection initial = CipherEngineSelector.initial(JNI_ENGINE, JAVA_ENGINE);
+        engineSelection = initial;
+        if (initial.shortEngine != initial.longEngine) {
+            startEngineSelection(initial);
         }
     }
     
+    /**
+     * 🏁 Selección completa en un hilo daemon; solo sustituye a la provisional
+     * si entretanto no se ha fijado un motor con {@link #setEngine(CipherEngine)}
+     */
+    private static void startEngineSelection(CipherEngineSelector.Selection provisional) {
+        Thread thread = new Thread(() -> {
+            CipherEngineSelector.Selection selected = CipherEngineSelector.select(JNI_ENGINE, JAVA_ENGINE);
+            synchronized (ENGINE_LOCK) {
+                if (engineSelection == provisional) {
+                    engineSelection = selected;
+                }
+            }
+        }, "ghoulstream-engine-select");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+    
     /**
      * 🔐 Encripta un string usando la clave proporcionada
      * 
@@ -43,19 +93,7 @@ public class NativeEncryption {
      * String encrypted = NativeEncryption.encrypt("https://secret-url.com", "MySecretKey123");
      */
     public static String encrypt(String plainText, String key) {
-        if (!validateInputs(plainText, key)) {
-            return null;
-        }
-        
-        try {
-            String result = nativeEncrypt(plainText, key);
-            Log.d(TAG, "🔐 String encriptado exitosamente (longitud: " + 
-                  (result != null ? result.length() : 0) + ")");
-            return result;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error en encriptación: " + e.getMessage(), e);
-            return null;
-        }
+        return transformString(plainText, key, CipherMode.ENCRYPT, true).getValueOrNull();
     }
     
     /**
@@ -69,38 +107,414 @@ public class NativeEncryption {
      * String decrypted = NativeEncryption.decrypt("xK9mP2vL8nQ4...", "MySecretKey123");
      */
     public static String decrypt(String encryptedText, String key) {
-        if (!validateInputs(encryptedText, key)) {
+        return transformString(encryptedText, key, CipherMode.DECRYPT, true).getValueOrNull();
+    }
+    
+    /**
+     * 🎯 Encripta un string sin devolver null: el resultado indica la causa del fallo
+     * 
+     * Pensado para caminos calientes y reintentos: un fallo no registra logs ni
+     * asigna memoria (ver {@link CryptoResult}).
+     * 
+     * @param plainText Texto a encriptar
+     * @param key Clave de encriptación (mínimo 10 caracteres)
+     * @return Resultado con el texto encriptado o la causa del fallo
+     * 
+     * @example
+     * CryptoResult result = NativeEncryption.tryEncrypt(url, "MySecretKey123");
+     * if (!result.isSuccess() && result.isPermanent()) disableEncryption();
+     */
+    public static CryptoResult tryEncrypt(String plainText, String key) {
+        return transformString(plainText, key, CipherMode.ENCRYPT, false);
+    }
+    
+    /**
+     * 🎯 Desencripta un string sin devolver null
+     * 
+     * @param encryptedText Texto encriptado
+     * @param key Clave de desencriptación
+     * @return Resultado con el texto en claro o la causa del fallo
+     * @see #tryEncrypt(String, String)
+     */
+    public static CryptoResult tryDecrypt(String encryptedText, String key) {
+        return transformString(encryptedText, key, CipherMode.DECRYPT, false);
+    }
+    
+    /**
+     * 🎯 Encripta un string con una clave preparada sin devolver null
+     * @see #tryEncrypt(String, String)
+     */
+    public static CryptoResult tryEncrypt(String plainText, PreparedKey key) {
+        return transformPrepared(plainText, key, CipherMode.ENCRYPT, false);
+    }
+    
+    /**
+     * 🎯 Desencripta un string con una clave preparada sin devolver null
+     * @see #tryEncrypt(String, String)
+     */
+    public static CryptoResult tryDecrypt(String encryptedText, PreparedKey key) {
+        return transformPrepared(encryptedText, key, CipherMode.DECRYPT, false);
+    }
+    
+    /**
+     * 🔐 Encripta un array de bytes en el mismo buffer (sin copias ni Strings)
+     * 
+     * Permite reutilizar buffers y borrar el texto en claro tras su uso,
+     * algo imposible con Strings inmutables.
+     * 
+     * @param data Bytes a encriptar (se sobrescriben con el resultado)
+     * @param key Clave de encriptación (mínimo 10 caracteres)
+     * @return true si la operación fue exitosa
+     */
+    public static boolean encryptInPlace(byte[] data, String key) {
+        return data != null && encryptInPlace(data, 0, data.length, key);
+    }
+    
+    /**
+     * 🔐 Encripta una región de un array de bytes en el mismo buffer
+     * 
+     * @param data Buffer de datos
+     * @param offset Posición inicial de la región
+     * @param length Longitud de la región
+     * @param key Clave de encriptación (mínimo 10 caracteres)
+     * @return true si la operación fue exitosa
+     */
+    public static boolean encryptInPlace(byte[] data, int offset, int length, String key) {
+        return transformArray(data, offset, length, key, false);
+    }
+    
+    /**
+     * 🔓 Desencripta un array de bytes en el mismo buffer
+     * 
+     * @param data Bytes encriptados (se sobrescriben con el texto en claro)
+     * @param key Clave de desencriptación
+     * @return true si la operación fue exitosa
+     */
+    public static boolean decryptInPlace(byte[] data, String key) {
+        return data != null && decryptInPlace(data, 0, data.length, key);
+    }
+    
+    /**
+     * 🔓 Desencripta una región de un array de bytes en el mismo buffer
+     * 
+     * @param data Buffer de datos
+     * @param offset Posición inicial de la región
+     * @param length Longitud de la región
+     * @param key Clave de desencriptación
+     * @return true si la operación fue exitosa
+     */
+    public static boolean decryptInPlace(byte[] data, int offset, int length, String key) {
+        return transformArray(data, offset, length, key, true);
+    }
+    
+    /**
+     * 🔐 Encripta una región de un flujo de bytes que empieza en {@code streamPosition}
+     * 
+     * El cifrado es direccionable por posición: el byte de keystream en la
+     * posición i depende solo de i y de la clave. Procesar un flujo por trozos
+     * con su posición absoluta produce exactamente el mismo resultado que
+     * procesarlo de una vez.
+     * 
+     * @param data Buffer de datos (se sobrescribe con el resultado)
+     * @param offset Posición inicial de la región en el buffer
+     * @param length Longitud de la región
+     * @param key Clave de encriptación (mínimo 10 caracteres)
+     * @param streamPosition Posición absoluta del primer byte de la región en el flujo
+     * @return true si la operación fue exitosa
+     */
+    public static boolean encryptInPlace(byte[] data, int offset, int length, String key, long streamPosition) {
+        return transformArrayAt(data, offset, length, key, streamPosition, false);
+    }
+    
+    /**
+     * 🔓 Desencripta una región de un flujo de bytes que empieza en {@code streamPosition}
+     * 
+     * @param data Buffer de datos (se sobrescribe con el resultado)
+     * @param offset Posición inicial de la región en el buffer
+     * @param length Longitud de la región
+     * @param key Clave de desencriptación
+     * @param streamPosition Posición absoluta del primer byte de la región en el flujo
+     * @return true si la operación fue exitosa
+     * @see #encryptInPlace(byte[], int, int, String, long)
+     */
+    public static boolean decryptInPlace(byte[] data, int offset, int length, String key, long streamPosition) {
+        return transformArrayAt(data, offset, length, key, streamPosition, true);
+    }
+    
+    /**
+     * 🔑 Prepara una clave para reutilizarla en muchas operaciones
+     * 
+     * La clave se valida, se convierte a UTF-8 y se extiende una sola vez (en C++
+     * si la librería lo soporta). Liberar con {@link PreparedKey#close()}.
+     * 
+     * @param key Clave (mínimo 10 caracteres)
+     * @return PreparedKey o null si la clave no es válida
+     * 
+     * @example
+     * try (PreparedKey key = NativeEncryption.prepareKey("MySecretKey123")) {
+     *     String encrypted = NativeEncryption.encrypt("https://secret-url.com", key);
+     * }
+     */
+    public static PreparedKey prepareKey(String key) {
+        String keyError = validateKey(key);
+        if (keyError != null) {
+            SecurityLog.e(TAG, "❌ {}", keyError);
             return null;
         }
         
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long handle = 0L;
         try {
-            String result = nativeDecrypt(encryptedText, key);
-            Log.d(TAG, "🔓 String desencriptado exitosamente (longitud: " + 
-                  (result != null ? result.length() : 0) + ")");
-            return result;
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error en desencriptación: " + e.getMessage(), e);
-            return null;
+            handle = JNI_ENGINE.prepareNativeKey(bytes);
+        } catch (RuntimeException | LinkageError e) {
+            SecurityLog.w(TAG, "⚠️ Clave nativa no preparada, se usará la clave en bytes: {}", e.getMessage());
         }
+        return new PreparedKey(bytes, handle);
     }
     
     /**
-     * ✅ Verifica si la librería nativa está disponible y funcionando
+     * 🔐 Encripta un string con una clave preparada
      * 
-     * @return true si la librería está cargada correctamente
+     * @param plainText Texto a encriptar
+     * @param key Clave preparada con {@link #prepareKey(String)}
+     * @return String encriptado o null si hay error
+     */
+    public static String encrypt(String plainText, PreparedKey key) {
+        return transformPrepared(plainText, key, CipherMode.ENCRYPT, true).getValueOrNull();
+    }
+    
+    /**
+     * 🔓 Desencripta un string con una clave preparada
+     * 
+     * @param encryptedText Texto encriptado
+     * @param key Clave preparada con {@link #prepareKey(String)}
+     * @return String desencriptado o null si hay error
+     */
+    public static String decrypt(String encryptedText, PreparedKey key) {
+        return transformPrepared(encryptedText, key, CipherMode.DECRYPT, true).getValueOrNull();
+    }
+    
+    /**
+     * 🔐 Encripta una región de un array con una clave preparada
+     * @see #encryptInPlace(byte[], int, int, String)
+     */
+    public static boolean encryptInPlace(byte[] data, int offset, int length, PreparedKey key) {
+        return transformArrayAt(data, offset, length, key, 0L, false);
+    }
+    
+    /**
+     * 🔐 Encripta una región de un flujo con una clave preparada
+     * @see #encryptInPlace(byte[], int, int, String, long)
+     */
+    public static boolean encryptInPlace(byte[] data, int offset, int length, PreparedKey key, long streamPosition) {
+        return transformArrayAt(data, offset, length, key, streamPosition, false);
+    }
+    
+    /**
+     * 🔓 Desencripta una región de un array con una clave preparada
+     * @see #decryptInPlace(byte[], int, int, String)
+     */
+    public static boolean decryptInPlace(byte[] data, int offset, int length, PreparedKey key) {
+        return transformArrayAt(data, offset, length, key, 0L, true);
+    }
+    
+    /**
+     * 🔓 Desencripta una región de un flujo con una clave preparada
+     * @see #decryptInPlace(byte[], int, int, String, long)
+     */
+    public static boolean decryptInPlace(byte[] data, int offset, int length, PreparedKey key, long streamPosition) {
+        return transformArrayAt(data, offset, length, key, streamPosition, true);
+    }
+    
+    /**
+     * 🔐 Encripta los bytes restantes de {@code src} en {@code dst}
+     * 
+     * Con buffers directos la librería nativa trabaja sobre la memoria de los
+     * buffers sin copias. Ambos buffers avanzan su posición en los bytes procesados;
+     * {@code src} y {@code dst} pueden ser el mismo buffer.
+     * 
+     * @param src Buffer de entrada (se consumen sus bytes restantes)
+     * @param dst Buffer de salida (debe tener espacio suficiente)
+     * @param key Clave de encriptación (mínimo 10 caracteres)
+     * @return Número de bytes procesados o -1 si hay error
+     * 
+     * @example
+     * ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+     * int n = NativeEncryption.encrypt(plainBuffer, buffer, "MySecretKey123");
+     */
+    public static int encrypt(ByteBuffer src, ByteBuffer dst, String key) {
+        return transformBuffer(src, dst, key, false);
+    }
+    
+    /**
+     * 🔓 Desencripta los bytes restantes de {@code src} en {@code dst}
+     * 
+     * @param src Buffer de entrada (se consumen sus bytes restantes)
+     * @param dst Buffer de salida (debe tener espacio suficiente)
+     * @param key Clave de desencriptación
+     * @return Número de bytes procesados o -1 si hay error
+     * @see #encrypt(ByteBuffer, ByteBuffer, String)
+     */
+    public static int decrypt(ByteBuffer src, ByteBuffer dst, String key) {
+        return transformBuffer(src, dst, key, true);
+    }
+    
+    /**
+     * 📦 Encripta un lote de strings con la misma clave en una sola llamada JNI
+     * 
+     * La clave se valida y se extiende una sola vez para todo el lote. Los
+     * elementos null o vacíos se reportan como fallidos sin afectar al resto.
+     * 
+     * @param plainTexts Textos a encriptar
+     * @param key Clave de encriptación (mínimo 10 caracteres)
+     * @return BatchResult con el resultado o el error de cada elemento
+     * 
+     * @example
+     * BatchResult result = NativeEncryption.encryptBatch(urls, "MySecretKey123");
+     * for (int i = 0; i < result.size(); i++) {
+     *     if (result.isSuccess(i)) store(result.get(i));
+     * }
+     */
+    public static BatchResult encryptBatch(String[] plainTexts, String key) {
+        return processBatch(plainTexts, key, false);
+    }
+    
+    /**
+     * 📦 Encripta una lista de strings con la misma clave
+     * @see #encryptBatch(String[], String)
+     */
+    public static BatchResult encryptBatch(List<String> plainTexts, String key) {
+        return processBatch(plainTexts != null ? plainTexts.toArray(new String[0]) : null, key, false);
+    }
+    
+    /**
+     * 📦 Desencripta un lote de strings con la misma clave en una sola llamada JNI
+     * 
+     * @param encryptedTexts Textos encriptados
+     * @param key Clave de desencriptación (debe coincidir con la de encriptación)
+     * @return BatchResult con el resultado o el error de cada elemento
+     */
+    public static BatchResult decryptBatch(String[] encryptedTexts, String key) {
+        return processBatch(encryptedTexts, key, true);
+    }
+    
+    /**
+     * 📦 Desencripta una lista de strings con la misma clave
+     * @see #decryptBatch(String[], String)
+     */
+    public static BatchResult decryptBatch(List<String> encryptedTexts, String key) {
+        return processBatch(encryptedTexts != null ? encryptedTexts.toArray(new String[0]) : null, key, true);
+    }
+    
+    /**
+     * ✅ Verifica si hay un motor de cifrado disponible
+     * 
+     * Con libencryption.so ausente (flavor standard, tests en la JVM del host)
+     * el motor Java de referencia mantiene el módulo operativo.
+     * 
+     * @return true si hay un motor de cifrado utilizable
      */
     public static boolean isAvailable() {
+        CipherEngineSelector.Selection selection = engineSelection;
+        return selection.shortEngine.isAvailable() && selection.longEngine.isAvailable();
+    }
+    
+    /**
+     * 📚 Verifica si la librería nativa libencryption.so está cargada
+     * 
+     * @return true si la librería está cargada correctamente
+     */
+    public static boolean isNativeLibraryLoaded() {
         return isInitialized && !initializationFailed;
     }
     
+    /**
+     * ⚙️ Obtiene el motor usado para textos largos y buffers grandes
+     * 
+     * @return Motor de cifrado activo
+     */
+    public static CipherEngine getEngine() {
+        return engineSelection.longEngine;
+    }
+    
+    /**
+     * ⚙️ Obtiene el motor de cifrado JNI (puede no estar disponible)
+     * 
+     * @return Motor JNI
+     */
+    public static CipherEngine getNativeEngine() {
+        return JNI_ENGINE;
+    }
+    
+    /**
+     * ⚙️ Obtiene el motor de cifrado Java de referencia (siempre disponible)
+     * 
+     * @return Motor Java
+     */
+    public static CipherEngine getJavaEngine() {
+        return JAVA_ENGINE;
+    }
+    
+    /**
+     * ⚙️ Fuerza un motor de cifrado para todos los tamaños
+     * Útil en tests o para descartar un motor problemático en producción.
+     * 
+     * @param engine Motor a usar (debe estar disponible)
+     */
+    public static void setEngine(CipherEngine engine) {
+        if (engine == null || !engine.isAvailable()) {
+            throw new IllegalArgumentException("Motor de cifrado null o no disponible");
+        }
+        synchronized (ENGINE_LOCK) {
+            engineSelection = CipherEngineSelector.fixed(engine, "seleccionado manualmente");
+        }
+        SecurityLog.i(TAG, "⚙️ Motor de cifrado fijado: {}", engine.getName());
+    }
+    
+    /**
+     * 🏁 Repite la selección automática de motor (disponibilidad + micro-benchmark)
+     * de forma síncrona en el hilo llamante
+     */
+    public static void reselectEngine() {
+        CipherEngineSelector.Selection selected = CipherEngineSelector.select(JNI_ENGINE, JAVA_ENGINE);
+        synchronized (ENGINE_LOCK) {
+            engineSelection = selected;
+        }
+    }
+    
     /**
      * 🧪 Realiza un test básico de funcionalidad
      * 
      * @return true si el test pasa correctamente
      */
     public static boolean performSelfTest() {
+        boolean passed = runSelfTest();
+        lastSelfTestPassed = passed;
+        lastSelfTestMillis = System.currentTimeMillis();
+        return passed;
+    }
+    
+    /**
+     * 🧪 Último resultado del self-test sin volver a ejecutarlo
+     * 
+     * @return true si el último self-test pasó (false si nunca se ejecutó)
+     */
+    public static boolean getLastSelfTestResult() {
+        return lastSelfTestPassed;
+    }
+    
+    /**
+     * ⏱️ Momento del último self-test
+     * 
+     * @return Timestamp en ms o 0 si nunca se ejecutó
+     */
+    public static long getLastSelfTestTimestamp() {
+        return lastSelfTestMillis;
+    }
+    
+    private static boolean runSelfTest() {
         if (!isAvailable()) {
-            Log.w(TAG, "⚠️ Self-test fallido: librería no disponible");
+            SecurityLog.w(TAG, "⚠️ Self-test fallido: librería no disponible");
             return false;
         }
         
@@ -111,22 +525,22 @@ public class NativeEncryption {
             // Test de encriptación
             String encrypted = encrypt(testText, testKey);
             if (encrypted == null || encrypted.isEmpty()) {
-                Log.e(TAG, "❌ Self-test fallido: encriptación falló");
+                SecurityLog.e(TAG, "❌ Self-test fallido: encriptación falló");
                 return false;
             }
             
             // Test de desencriptación
             String decrypted = decrypt(encrypted, testKey);
             if (!testText.equals(decrypted)) {
-                Log.e(TAG, "❌ Self-test fallido: desencriptación no coincide");
+                SecurityLog.e(TAG, "❌ Self-test fallido: desencriptación no coincide");
                 return false;
             }
             
-            Log.i(TAG, "✅ Self-test exitoso: encriptación/desencriptación funcionando");
+            SecurityLog.i(TAG, "✅ Self-test exitoso: encriptación/desencriptación funcionando");
             return true;
             
         } catch (Exception e) {
-            Log.e(TAG, "❌ Self-test fallido con excepción: " + e.getMessage(), e);
+            SecurityLog.e(TAG, "❌ Self-test fallido con excepción: " + e.getMessage(), e);
             return false;
         }
     }
@@ -143,39 +557,516 @@ public class NativeEncryption {
         info.append("✅ Inicializada: ").append(isInitialized).append("\n");
         info.append("❌ Error inicialización: ").append(initializationFailed).append("\n");
         info.append("🔧 Disponible: ").append(isAvailable()).append("\n");
+        info.append("🧱 Soporte de buffers: ").append(JNI_ENGINE.supportsBinary()).append("\n");
+        CipherEngineSelector.Selection selection = engineSelection;
+        info.append("⚙️ Motor (cortos/largos): ").append(selection.shortEngine.getName())
+            .append("/").append(selection.longEngine.getName()).append("\n");
+        info.append("🏁 Selección: ").append(selection.reason).append("\n");
         
         if (isAvailable()) {
-            boolean selfTest = performSelfTest();
-            info.append("🧪 Self-test: ").append(selfTest ? "PASS" : "FAIL").append("\n");
+            // Se reutiliza el último self-test; solo se ejecuta si nunca se hizo
+            boolean selfTest = lastSelfTestMillis != 0L ? lastSelfTestPassed : performSelfTest();
+            long age = Math.max(0L, System.currentTimeMillis() - lastSelfTestMillis);
+            info.append("🧪 Self-test: ").append(selfTest ? "PASS" : "FAIL")
+                .append(" (hace ").append(age).append(" ms)\n");
         }
         
         return info.toString();
     }
     
     /**
-     * 🔍 Valida los parámetros de entrada
+     * ⚙️ Motor que atiende un texto o buffer de la longitud dada
+     */
+    private static CipherEngine engineFor(int length) {
+        return engineSelection.engineFor(length);
+    }
+    
+    /**
+     * 🔄 Procesa una región de un array en el mismo buffer
+     */
+    private static boolean transformArray(byte[] data, int offset, int length, String key, boolean decrypt) {
+        return transformArrayAt(data, offset, length, key, 0L, decrypt);
+    }
+    
+    /**
+     * 🔄 Procesa una región de un flujo indexando la clave según la posición absoluta
+     * La clave extendida se repite cada key.length bytes, así que empezar en la
+     * posición p equivale a empezar en 0 con el índice de clave p mod key.length.
+     */
+    private static boolean transformArrayAt(byte[] data, int offset, int length, String key,
+                                            long streamPosition, boolean decrypt) {
+        SecurityMetrics.Operation operation = bytesOperation(decrypt);
+        long started = SecurityMetrics.start();
+        if (streamPosition < 0) {
+            SecurityLog.e(TAG, "❌ Posición de flujo negativa: {}", streamPosition);
+            SecurityMetrics.failure(operation, started, FailureReason.VALIDATION);
+            return false;
+        }
+        
+        String keyError = validateKey(key);
+        if (keyError != null) {
+            SecurityLog.e(TAG, "❌ {}", keyError);
+            SecurityMetrics.failure(operation, started, validationFailure());
+            return false;
+        }
+        
+        if (data == null || offset < 0 || length < 0 || offset > data.length - length) {
+            SecurityLog.e(TAG, "❌ Región de buffer inválida");
+            SecurityMetrics.failure(operation, started, FailureReason.VALIDATION);
+            return false;
+        }
+        
+        if (length == 0) {
+            SecurityMetrics.success(operation, started, 0L);
+            return true;
+        }
+        
+        CipherEngine engine = engineFor(length);
+        try {
+            byte[] kb = keyBytes(key);
+            engine.transform(data, offset, length, kb, (int) (streamPosition % kb.length),
+                    decrypt ? CipherMode.DECRYPT : CipherMode.ENCRYPT);
+            SecurityMetrics.success(operation, started, length);
+            return true;
+        } catch (RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error procesando buffer: " + e.getMessage(), e);
+            SecurityMetrics.failure(operation, started, engineFailure(engine));
+            return false;
+        }
+    }
+    
+    /**
+     * 🔄 Procesa un String completo
+     * Con {@code verbose} registra el motivo de cada rechazo y la excepción del
+     * motor (API clásica que devuelve null); sin él, el fallo solo queda en
+     * el resultado y en {@link SecurityMetrics}.
+     */
+    private static CryptoResult transformString(String text, String key, CipherMode mode, boolean verbose) {
+        SecurityMetrics.Operation operation = stringOperation(mode);
+        long started = SecurityMetrics.start();
+        FailureReason rejected = checkInputs(text, key);
+        if (rejected != null) {
+            if (verbose) {
+                validateInputs(text, key);
+            }
+            SecurityMetrics.failure(operation, started, rejected);
+            return CryptoResult.failure(rejected);
+        }
+        
+        CipherEngine engine = engineFor(text.length());
+        String result;
+        try {
+            result = engine.transform(text, key, mode);
+        } catch (Exception e) {
+            if (verbose) {
+                SecurityLog.e(TAG, (mode == CipherMode.DECRYPT ? "❌ Error en desencriptación: " : "❌ Error en encriptación: ")
+                        + e.getMessage(), e);
+            }
+            return failed(operation, started, engineFailure(engine));
+        }
+        return completed(operation, started, text.length(), result, mode, verbose);
+    }
+    
+    /**
+     * 🔑 Procesa un String completo con una clave preparada
+     * @see #transformString(String, String, CipherMode, boolean)
+     */
+    private static CryptoResult transformPrepared(String text, PreparedKey key, CipherMode mode, boolean verbose) {
+        SecurityMetrics.Operation operation = stringOperation(mode);
+        long started = SecurityMetrics.start();
+        if (!isAvailable()) {
+            if (verbose) {
+                SecurityLog.e(TAG, "❌ Motor de cifrado no disponible");
+            }
+            return failed(operation, started, FailureReason.LIBRARY_MISSING);
+        }
+        
+        if (text == null || text.isEmpty() || key == null) {
+            if (verbose) {
+                SecurityLog.e(TAG, key == null ? "❌ PreparedKey no puede ser null" : "❌ Texto no puede ser null o vacío");
+            }
+            return failed(operation, started, FailureReason.VALIDATION);
+        }
+        
+        CipherEngine engine = engineFor(text.length());
+        String result;
+        try {
+            key.acquire();
+            try {
+                result = engine.transform(text, key, mode);
+            } finally {
+                key.release();
+            }
+        } catch (Exception e) {
+            if (verbose) {
+                SecurityLog.e(TAG, "❌ Error procesando con clave preparada: " + e.getMessage(), e);
+            }
+            // Una clave ya liberada (acquire) es un error del llamador, no del motor
+            return failed(operation, started,
+                    e instanceof IllegalStateException ? FailureReason.VALIDATION : engineFailure(engine));
+        }
+        return completed(operation, started, text.length(), result, mode, verbose);
+    }
+    
+    private static CryptoResult failed(SecurityMetrics.Operation operation, long started, FailureReason reason) {
+        SecurityMetrics.failure(operation, started, reason);
+        return CryptoResult.failure(reason);
+    }
+    
+    /**
+     * ✅ Cierra una operación String: un resultado null del motor es un texto que no pudo procesar
+     */
+    private static CryptoResult completed(SecurityMetrics.Operation operation, long started, int length,
+                                          String result, CipherMode mode, boolean verbose) {
+        if (result == null) {
+            if (verbose) {
+                SecurityLog.e(TAG, "❌ El motor no pudo procesar el texto (longitud: {})", length);
+            }
+            return failed(operation, started, FailureReason.INVALID_CIPHERTEXT);
+        }
+        SecurityMetrics.success(operation, started, length);
+        if (verbose) {
+            SecurityLog.d(TAG, mode == CipherMode.DECRYPT
+                    ? "🔓 String desencriptado exitosamente (longitud: {})"
+                    : "🔐 String encriptado exitosamente (longitud: {})", result.length());
+        }
+        return CryptoResult.success(result);
+    }
+    
+    /**
+     * 🔑 Procesa una región de un flujo con una clave preparada
+     */
+    private static boolean transformArrayAt(byte[] data, int offset, int length, PreparedKey key,
+                                            long streamPosition, boolean decrypt) {
+        SecurityMetrics.Operation operation = bytesOperation(decrypt);
+        long started = SecurityMetrics.start();
+        if (!isAvailable() || key == null) {
+            SecurityLog.e(TAG, "❌ Motor de cifrado no disponible o PreparedKey null");
+            SecurityMetrics.failure(operation, started, validationFailure());
+            return false;
+        }
+        
+        if (streamPosition < 0) {
+            SecurityLog.e(TAG, "❌ Posición de flujo negativa: {}", streamPosition);
+            SecurityMetrics.failure(operation, started, FailureReason.VALIDATION);
+            return false;
+        }
+        
+        if (data == null || offset < 0 || length < 0 || offset > data.length - length) {
+            SecurityLog.e(TAG, "❌ Región de buffer inválida");
+            SecurityMetrics.failure(operation, started, FailureReason.VALIDATION);
+            return false;
+        }
+        
+        if (length == 0) {
+            SecurityMetrics.success(operation, started, 0L);
+            return true;
+        }
+        
+        CipherEngine engine = engineFor(length);
+        try {
+            key.acquire();
+            try {
+                engine.transform(data, offset, length, key, (int) (streamPosition % key.length()),
+                        decrypt ? CipherMode.DECRYPT : CipherMode.ENCRYPT);
+                SecurityMetrics.success(operation, started, length);
+                return true;
+            } finally {
+                key.release();
+            }
+        } catch (RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error procesando buffer: " + e.getMessage(), e);
+            SecurityMetrics.failure(operation, started,
+                    e instanceof IllegalStateException ? FailureReason.VALIDATION : engineFailure(engine));
+            return false;
+        }
+    }
+    
+    /**
+     * 🧩 Procesa un trozo de un flujo sin validar ni registrar métricas
+     * Para {@link ParallelCipher}: valida la región y registra la operación
+     * completa una sola vez; cada trozo solo indexa la clave por su posición.
+     * @return null si terminó bien o la causa del fallo
+     */
+    static FailureReason transformChunk(byte[] data, int offset, int length, PreparedKey key,
+                                        long streamPosition, CipherMode mode) {
+        CipherEngine engine = engineFor(length);
+        try {
+            engine.transform(data, offset, length, key, (int) (streamPosition % key.length()), mode);
+            return null;
+        } catch (RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error procesando trozo: " + e.getMessage(), e);
+            return engineFailure(engine);
+        }
+    }
+    
+    /**
+     * 🔄 Procesa los bytes restantes de src en dst
+     */
+    private static int transformBuffer(ByteBuffer src, ByteBuffer dst, String key, boolean decrypt) {
+        String keyError = validateKey(key);
+        if (keyError != null) {
+            SecurityLog.e(TAG, "❌ {}", keyError);
+            return -1;
+        }
+        
+        if (src == null || dst == null || dst.isReadOnly()) {
+            SecurityLog.e(TAG, "❌ Buffers null o de solo lectura");
+            return -1;
+        }
+        
+        int length = src.remaining();
+        if (dst.remaining() < length) {
+            SecurityLog.e(TAG, "❌ Buffer de salida insuficiente (necesario: " + length + 
+                  ", disponible: " + dst.remaining() + ")");
+            return -1;
+        }
+        
+        if (length == 0) {
+            return 0;
+        }
+        
+        try {
+            if (src.isDirect() && dst.isDirect()) {
+                // Los buffers de heap se registran en transformArray
+                long started = SecurityMetrics.start();
+                CipherEngine engine = engineFor(length);
+                try {
+                    engine.transformDirect(src, src.position(), dst, dst.position(), length,
+                            keyBytes(key), 0, decrypt ? CipherMode.DECRYPT : CipherMode.ENCRYPT);
+                } catch (RuntimeException e) {
+                    SecurityMetrics.failure(bytesOperation(decrypt), started, engineFailure(engine));
+                    throw e;
+                }
+                SecurityMetrics.success(bytesOperation(decrypt), started, length);
+            } else {
+                if (src != dst) {
+                    ByteBuffer out = dst.duplicate();
+                    out.put(src.duplicate());
+                }
+                if (dst.hasArray()) {
+                    if (!transformArray(dst.array(), dst.arrayOffset() + dst.position(), length, key, decrypt)) {
+                        return -1;
+                    }
+                } else {
+                    byte[] tmp = new byte[length];
+                    dst.duplicate().get(tmp);
+                    if (!transformArray(tmp, 0, length, key, decrypt)) {
+                        return -1;
+                    }
+                    dst.duplicate().put(tmp);
+                }
+            }
+        } catch (RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error procesando ByteBuffer: " + e.getMessage(), e);
+            return -1;
+        }
+        
+        if (src != dst) {
+            src.position(src.position() + length);
+        }
+        dst.position(dst.position() + length);
+        return length;
+    }
+    
+    /**
+     * 🔑 Convierte la clave a UTF-8 reutilizando la última conversión
+     */
+    static byte[] keyBytes(String key) {
+        KeyBytes cached = lastKeyBytes;
+        if (cached != null && (cached.key == key || cached.key.equals(key))) {
+            return cached.bytes;
+        }
+        
+        KeyBytes converted = new KeyBytes(key, key.getBytes(StandardCharsets.UTF_8));
+        lastKeyBytes = converted;
+        return converted.bytes;
+    }
+    
+    /**
+     * 📦 Procesa un lote completo: valida la clave una vez y cruza JNI una sola vez
+     */
+    private static BatchResult processBatch(String[] texts, String key, boolean decrypt) {
+        SecurityMetrics.Operation operation = decrypt
+                ? SecurityMetrics.Operation.DECRYPT_BATCH : SecurityMetrics.Operation.ENCRYPT_BATCH;
+        long started = SecurityMetrics.start();
+        if (texts == null) {
+            SecurityLog.e(TAG, "❌ Lote no puede ser null");
+            SecurityMetrics.failure(operation, started, FailureReason.VALIDATION);
+            return BatchResult.failed(0, "Lote null");
+        }
+        
+        BatchResult result = new BatchResult(texts.length);
+        if (texts.length == 0) {
+            SecurityMetrics.success(operation, started, 0L);
+            return result;
+        }
+        
+        String keyError = validateKey(key);
+        if (keyError != null) {
+            SecurityLog.e(TAG, "❌ Lote rechazado: {}", keyError);
+            SecurityMetrics.failure(operation, started, validationFailure());
+            return BatchResult.failed(texts.length, keyError);
+        }
+        
+        // Los elementos inválidos se marcan aquí y se envían como null al lado nativo
+        String[] input = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] == null || texts[i].isEmpty()) {
+                result.setError(i, "Texto no puede ser null o vacío");
+            } else {
+                input[i] = texts[i];
+            }
+        }
+        
+        // Motor según la longitud media: el lote amortiza el cruce JNI una sola vez
+        long totalLength = 0;
+        for (String text : input) {
+            totalLength += text != null ? text.length() : 0;
+        }
+        CipherEngine engine = engineFor((int) Math.min(Integer.MAX_VALUE, totalLength / input.length));
+        
+        String[] output;
+        try {
+            output = engine.transformBatch(input, key, decrypt ? CipherMode.DECRYPT : CipherMode.ENCRYPT);
+        } catch (RuntimeException e) {
+            SecurityLog.e(TAG, "❌ Error en lote (" + engine.getName() + "): " + e.getMessage(), e);
+            for (int i = 0; i < input.length; i++) {
+                if (input[i] != null) {
+                    result.setError(i, "Error del motor " + engine.getName() + ": " + e.getMessage());
+                }
+            }
+            SecurityMetrics.failure(operation, started, engineFailure(engine));
+            return result;
+        }
+        
+        for (int i = 0; i < input.length; i++) {
+            if (input[i] == null) {
+                continue;
+            }
+            
+            String value = output[i];
+            if (value != null) {
+                result.setResult(i, value);
+            } else {
+                result.setError(i, decrypt ? "Desencriptación falló" : "Encriptación falló");
+            }
+        }
+        
+        SecurityLog.d(TAG, decrypt ? "📦 Lote desencriptado: {}/{} elementos" : "📦 Lote encriptado: {}/{} elementos",
+                result.getSuccessCount(), result.size());
+        SecurityMetrics.success(operation, started, totalLength);
+        return result;
+    }
+    
+    /**
+     * 🚦 Causa de un fallo de validación: sin motor disponible o parámetros inválidos
+     */
+    private static FailureReason validationFailure() {
+        return isAvailable() ? FailureReason.VALIDATION : FailureReason.LIBRARY_MISSING;
+    }
+    
+    /**
+     * 🚦 Causa de una excepción lanzada por un motor
+     */
+    private static FailureReason engineFailure(CipherEngine engine) {
+        return engine == JNI_ENGINE ? FailureReason.JNI_EXCEPTION : FailureReason.ENGINE_ERROR;
+    }
+    
+    private static SecurityMetrics.Operation stringOperation(CipherMode mode) {
+        return mode == CipherMode.DECRYPT ? SecurityMetrics.Operation.DECRYPT : SecurityMetrics.Operation.ENCRYPT;
+    }
+    
+    private static SecurityMetrics.Operation bytesOperation(boolean decrypt) {
+        return decrypt ? SecurityMetrics.Operation.DECRYPT_BYTES : SecurityMetrics.Operation.ENCRYPT_BYTES;
+    }
+    
+    /**
+     * 🔍 Valida la clave y la disponibilidad de la librería
+     * @return Descripción del error o null si es válida
+     */
+    private static String validateKey(String key) {
+        if (!isAvailable()) {
+            return "Motor de cifrado no disponible";
+        }
+        
+        if (key == null || key.length() < 10) {
+            return "Clave debe tener al menos 10 caracteres (actual: " + 
+                   (key != null ? key.length() : 0) + ")";
+        }
+        
+        return null;
+    }
+    
+    /**
+     * 🔍 Comprueba los parámetros de entrada sin registrar nada
+     * @return Causa del rechazo o null si son válidos
+     */
+    private static FailureReason checkInputs(String text, String key) {
+        if (!isAvailable()) {
+            return FailureReason.LIBRARY_MISSING;
+        }
+        if (text == null || text.isEmpty() || key == null || key.length() < 10) {
+            return FailureReason.VALIDATION;
+        }
+        return null;
+    }
+    
+    /**
+     * 🔍 Valida los parámetros de entrada registrando el motivo del rechazo
      */
     private static boolean validateInputs(String text, String key) {
         if (!isAvailable()) {
-            Log.e(TAG, "❌ Librería nativa no disponible");
+            SecurityLog.e(TAG, "❌ Motor de cifrado no disponible");
             return false;
         }
         
         if (text == null || text.isEmpty()) {
-            Log.e(TAG, "❌ Texto no puede ser null o vacío");
+            SecurityLog.e(TAG, "❌ Texto no puede ser null o vacío");
             return false;
         }
         
         if (key == null || key.length() < 10) {
-            Log.e(TAG, "❌ Clave debe tener al menos 10 caracteres (actual: " + 
-                  (key != null ? key.length() : 0) + ")");
+            SecurityLog.e(TAG, "❌ Clave debe tener al menos 10 caracteres (actual: {})", 
+                  key != null ? key.length() : 0);
             return false;
         }
         
         return true;
     }
     
-    // Métodos nativos (implementados en C++)
-    private static native String nativeEncrypt(String text, String key);
-    private static native String nativeDecrypt(String text, String key);
+    // Métodos nativos (implementados en C++), usados por JniCipherEngine
+    // Versión del algoritmo (CipherEngine.ALGORITHM_VERSION); ausente en las librerías de la versión 1
+    static native int nativeAlgorithmVersion();
+    
+    static native String nativeEncrypt(String text, String key);
+    static native String nativeDecrypt(String text, String key);
+
+    // Lotes: la clave se extiende una vez; los elementos null o fallidos devuelven null
+    static native String[] nativeEncryptBatch(String[] texts, String key);
+    static native String[] nativeDecryptBatch(String[] texts, String key);
+    
+    // Buffers: la clave llega como UTF-8; byte[] vía acceso crítico, ByteBuffer directo vía dirección
+    static native void nativeCryptArray(byte[] data, int offset, int length, byte[] key, boolean decrypt);
+    static native void nativeCryptDirect(ByteBuffer src, int srcOffset, ByteBuffer dst, int dstOffset,
+                                         int length, byte[] key, boolean decrypt);
+    
+    // Claves preparadas: la clave se extiende una vez en C++ y se referencia por handle
+    static native long nativePrepareKey(byte[] key);
+    static native void nativeReleaseKey(long handle);
+    static native void nativeCryptPrepared(long handle, byte[] data, int offset, int length,
+                                           int keyOffset, boolean decrypt);
+    
+    /**
+     * Clave convertida a UTF-8 junto al String original
+     */
+    private static final class KeyBytes {
+        final String key;
+        final byte[] bytes;
+        
+        KeyBytes(String key, byte[] bytes) {
+            this.key = key;
+            this.bytes = bytes;
+        }
+    }
 }
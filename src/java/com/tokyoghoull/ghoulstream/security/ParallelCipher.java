@@ -0,0 +1,325 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * ⚡ ParallelCipher - Encriptación por trozos en paralelo para payloads grandes
+ *
+ * El cifrado es direccionable por posición: el byte de keystream en la
+ * posición i depende solo de i y de la clave. Un payload por encima del
+ * {@link #setThreshold(int) umbral} se divide en trozos de
+ * {@link #setChunkSize(int) chunkSize} bytes y cada trozo se procesa con su
+ * posición absoluta en el flujo, así que el resultado es idéntico byte a byte
+ * al de {@link NativeEncryption}. Por debajo del umbral se delega sin más en
+ * el camino secuencial.
+ *
+ * Con un {@link ForkJoinPool} (por defecto el común) los trozos se reparten
+ * con fork/join; con cualquier otro {@link Executor} se envía un trozo por
+ * tarea y el hilo llamador procesa el primero.
+ *
+ * @example
+ * ParallelCipher parallel = new ParallelCipher();
+ * try (PreparedKey key = NativeEncryption.prepareKey("MySecretKey123")) {
+ *     String encrypted = parallel.encrypt(playlist, key);  // EPG / playlist de varios MB
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class ParallelCipher {
+
+    private static final String TAG = "ParallelCipher";
+
+    /** Tamaño (bytes o caracteres) a partir del cual se procesa en paralelo */
+    public static final int DEFAULT_THRESHOLD = 256 * 1024;
+
+    /** Tamaño de cada trozo por defecto */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /** Trozo mínimo: por debajo el reparto cuesta más que el cifrado */
+    public static final int MIN_CHUNK_SIZE = 4 * 1024;
+
+    private final Executor executor;
+    private volatile int threshold = DEFAULT_THRESHOLD;
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Procesa en {@link ForkJoinPool#commonPool()}
+     */
+    public ParallelCipher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor Pool o executor donde se procesan los trozos
+     */
+    public ParallelCipher(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor no puede ser null");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * 📏 Fija el tamaño mínimo para procesar en paralelo
+     * @param bytes Bytes (o caracteres para Strings); 0 = siempre en paralelo
+     */
+    public void setThreshold(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("threshold no puede ser negativo (actual: " + bytes + ")");
+        }
+        this.threshold = bytes;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 🧩 Fija el tamaño de cada trozo
+     * @param bytes Bytes por trozo (mínimo {@link #MIN_CHUNK_SIZE})
+     */
+    public void setChunkSize(int bytes) {
+        if (bytes < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize debe ser al menos " + MIN_CHUNK_SIZE + " (actual: " + bytes + ")");
+        }
+        this.chunkSize = bytes;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    // ------------------------------------------------------------- Strings
+
+    /**
+     * 🔐 Encripta un string (en paralelo si supera el umbral)
+     * @param plainText Texto a encriptar
+     * @param key Clave preparada con {@link NativeEncryption#prepareKey(String)}
+     * @return String encriptado o null si hay error
+     */
+    public String encrypt(String plainText, PreparedKey key) {
+        return transform(plainText, key, CipherMode.ENCRYPT);
+    }
+
+    /**
+     * 🔓 Desencripta un string (en paralelo si supera el umbral)
+     * @param encryptedText Texto encriptado
+     * @param key Clave preparada con {@link NativeEncryption#prepareKey(String)}
+     * @return String desencriptado o null si hay error
+     */
+    public String decrypt(String encryptedText, PreparedKey key) {
+        return transform(encryptedText, key, CipherMode.DECRYPT);
+    }
+
+    /**
+     * 🔐 Encripta un string con una clave de texto (se prepara una sola vez para todos los trozos)
+     * @see #encrypt(String, PreparedKey)
+     */
+    public String encrypt(String plainText, String key) {
+        return transform(plainText, key, CipherMode.ENCRYPT);
+    }
+
+    /**
+     * 🔓 Desencripta un string con una clave de texto
+     * @see #decrypt(String, PreparedKey)
+     */
+    public String decrypt(String encryptedText, String key) {
+        return transform(encryptedText, key, CipherMode.DECRYPT);
+    }
+
+    // ------------------------------------------------------------- bytes
+
+    /**
+     * 🔐 Encripta una región de un array en el mismo buffer
+     * @see NativeEncryption#encryptInPlace(byte[], int, int, PreparedKey)
+     */
+    public boolean encryptInPlace(byte[] data, int offset, int length, PreparedKey key) {
+        return transform(data, offset, length, key, 0L, CipherMode.ENCRYPT);
+    }
+
+    /**
+     * 🔐 Encripta una región de un flujo que empieza en {@code streamPosition}
+     * @see NativeEncryption#encryptInPlace(byte[], int, int, PreparedKey, long)
+     */
+    public boolean encryptInPlace(byte[] data, int offset, int length, PreparedKey key, long streamPosition) {
+        return transform(data, offset, length, key, streamPosition, CipherMode.ENCRYPT);
+    }
+
+    /**
+     * 🔓 Desencripta una región de un array en el mismo buffer
+     * @see NativeEncryption#decryptInPlace(byte[], int, int, PreparedKey)
+     */
+    public boolean decryptInPlace(byte[] data, int offset, int length, PreparedKey key) {
+        return transform(data, offset, length, key, 0L, CipherMode.DECRYPT);
+    }
+
+    /**
+     * 🔓 Desencripta una región de un flujo que empieza en {@code streamPosition}
+     * @see NativeEncryption#decryptInPlace(byte[], int, int, PreparedKey, long)
+     */
+    public boolean decryptInPlace(byte[] data, int offset, int length, PreparedKey key, long streamPosition) {
+        return transform(data, offset, length, key, streamPosition, CipherMode.DECRYPT);
+    }
+
+    // ------------------------------------------------------------- uso interno
+
+    private String transform(String text, String key, CipherMode mode) {
+        if (text == null || text.length() < threshold) {
+            return mode == CipherMode.DECRYPT ? NativeEncryption.decrypt(text, key) : NativeEncryption.encrypt(text, key);
+        }
+        try (PreparedKey prepared = NativeEncryption.prepareKey(key)) {
+            return prepared != null ? transform(text, prepared, mode) : null;
+        }
+    }
+
+    private String transform(String text, PreparedKey key, CipherMode mode) {
+        if (text == null || key == null || text.length() < threshold || !NativeEncryption.isAvailable()) {
+            return mode == CipherMode.DECRYPT ? NativeEncryption.decrypt(text, key) : NativeEncryption.encrypt(text, key);
+        }
+        // Mismo camino que el motor para textos no ASCII: se cifran los bytes UTF-8
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        SecurityMetrics.Operation operation = mode == CipherMode.DECRYPT
+                ? SecurityMetrics.Operation.DECRYPT : SecurityMetrics.Operation.ENCRYPT;
+        return process(data, 0, data.length, key, 0L, mode, operation) ? new String(data, StandardCharsets.UTF_8) : null;
+    }
+
+    private boolean transform(byte[] data, int offset, int length, PreparedKey key, long streamPosition, CipherMode mode) {
+        boolean valid = data != null && key != null && offset >= 0 && length >= 0
+                && offset <= data.length - length && streamPosition >= 0 && NativeEncryption.isAvailable();
+        if (!valid || length < threshold) {
+            // El camino secuencial también valida y registra el motivo del rechazo
+            return mode == CipherMode.DECRYPT
+                    ? NativeEncryption.decryptInPlace(data, offset, length, key, streamPosition)
+                    : NativeEncryption.encryptInPlace(data, offset, length, key, streamPosition);
+        }
+        SecurityMetrics.Operation operation = mode == CipherMode.DECRYPT
+                ? SecurityMetrics.Operation.DECRYPT_BYTES : SecurityMetrics.Operation.ENCRYPT_BYTES;
+        return process(data, offset, length, key, streamPosition, mode, operation);
+    }
+
+    /**
+     * ⚡ Reparte la región en trozos y la registra como una sola operación
+     */
+    private boolean process(byte[] data, int offset, int length, PreparedKey key, long streamPosition,
+                            CipherMode mode, SecurityMetrics.Operation operation) {
+        long started = SecurityMetrics.start();
+        try {
+            key.acquire();
+        } catch (IllegalStateException e) {
+            SecurityLog.e(TAG, "❌ " + e.getMessage());
+            SecurityMetrics.failure(operation, started, FailureReason.VALIDATION);
+            return false;
+        }
+
+        int size = chunkSize;
+        FailureReason failure;
+        try {
+            ChunkTask task = new ChunkTask(data, offset, length, key, streamPosition, mode, size);
+            failure = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).invoke(task) : runOnExecutor(task);
+        } finally {
+            key.release();
+        }
+
+        if (failure != null) {
+            SecurityMetrics.failure(operation, started, failure);
+            return false;
+        }
+        SecurityMetrics.success(operation, started, length);
+        SecurityLog.d(TAG, "⚡ {} bytes procesados en {} trozos", length, (length + size - 1L) / size);
+        return true;
+    }
+
+    /**
+     * 🧵 Un trozo por tarea en un executor cualquiera; el hilo llamador procesa el primero
+     */
+    private FailureReason runOnExecutor(ChunkTask whole) {
+        int size = whole.chunkSize;
+        int chunks = (int) ((whole.length + size - 1L) / size);
+        List<CompletableFuture<FailureReason>> pending = new ArrayList<>(chunks - 1);
+        for (int i = 1; i < chunks; i++) {
+            ChunkTask chunk = whole.chunk(i);
+            try {
+                pending.add(CompletableFuture.supplyAsync(chunk::process, executor));
+            } catch (RejectedExecutionException e) {
+                // Executor saturado o cerrado: el trozo se procesa aquí
+                pending.add(CompletableFuture.completedFuture(chunk.process()));
+            }
+        }
+
+        FailureReason failure = whole.chunk(0).process();
+        for (CompletableFuture<FailureReason> future : pending) {
+            FailureReason reason = future.join();
+            if (failure == null) {
+                failure = reason;
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * 🧩 Región de un flujo; se divide por la mitad (en múltiplos de chunkSize) hasta un trozo
+     */
+    private static final class ChunkTask extends RecursiveTask<FailureReason> {
+        private static final long serialVersionUID = 1L;
+
+        final byte[] data;
+        final int offset;
+        final int length;
+        final PreparedKey key;
+        final long streamPosition;
+        final CipherMode mode;
+        final int chunkSize;
+
+        ChunkTask(byte[] data, int offset, int length, PreparedKey key, long streamPosition,
+                  CipherMode mode, int chunkSize) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+            this.key = key;
+            this.streamPosition = streamPosition;
+            this.mode = mode;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * @return Trozo i-ésimo de esta región
+         */
+        ChunkTask chunk(int index) {
+            int start = index * chunkSize;
+            return new ChunkTask(data, offset + start, Math.min(chunkSize, length - start), key,
+                    streamPosition + start, mode, chunkSize);
+        }
+
+        FailureReason process() {
+            return NativeEncryption.transformChunk(data, offset, length, key, streamPosition, mode);
+        }
+
+        @Override
+        protected FailureReason compute() {
+            if (length <= chunkSize) {
+                return process();
+            }
+            int chunks = (int) ((length + chunkSize - 1L) / chunkSize);
+            int half = (chunks / 2) * chunkSize;
+            ChunkTask left = new ChunkTask(data, offset, half, key, streamPosition, mode, chunkSize);
+            ChunkTask right = new ChunkTask(data, offset + half, length - half, key, streamPosition + half, mode, chunkSize);
+            left.fork();
+            FailureReason rightFailure = right.compute();
+            FailureReason leftFailure = left.join();
+            return leftFailure != null ? leftFailure : rightFailure;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 📦 PayloadCompressor - Compresión previa al cifrado de los sobres
+ *
+ * JSON de configuración, EPG y playlists son muy repetitivos; comprimir antes
+ * de encriptar reduce el texto guardado varias veces. Se usa Deflate crudo
+ * (sin cabecera zlib) al nivel más rápido y solo cuando compensa: por debajo
+ * de {@link #MIN_SIZE} bytes, o si no se ahorra al menos un 1/8, el payload se
+ * guarda sin comprimir y el sobre no lleva {@link CipherEnvelope#FLAG_COMPRESSED}.
+ *
+ * Formato comprimido: longitud original (4 bytes, big-endian) + Deflate crudo.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+final class PayloadCompressor {
+
+    /** Tamaño mínimo para intentar comprimir */
+    static final int MIN_SIZE = 256;
+
+    /** Límite del tamaño descomprimido (protección frente a datos manipulados) */
+    static final int MAX_SIZE = 64 * 1024 * 1024;
+
+    private static final int LENGTH_PREFIX = 4;
+
+    // Deflater/Inflater reservan memoria nativa: una instancia por hilo, reiniciada en cada uso
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private PayloadCompressor() {
+    }
+
+    /**
+     * 📦 Comprime si compensa
+     * @param data Datos en claro
+     * @param offset Inicio
+     * @param length Longitud
+     * @return Payload comprimido (con longitud original) o null si no compensa
+     */
+    static byte[] compress(byte[] data, int offset, int length) {
+        if (length < MIN_SIZE || length > MAX_SIZE) {
+            return null;
+        }
+        // Solo interesa un resultado al menos 1/8 menor: el buffer no necesita más
+        int limit = length - (length >>> 3);
+        byte[] out = new byte[limit];
+        Deflater deflater = DEFLATER.get();
+        try {
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+            int written = LENGTH_PREFIX;
+            while (!deflater.finished() && written < limit) {
+                written += deflater.deflate(out, written, limit - written);
+            }
+            if (!deflater.finished()) {
+                Arrays.fill(out, (byte) 0);
+                return null;
+            }
+            out[0] = (byte) (length >>> 24);
+            out[1] = (byte) (length >>> 16);
+            out[2] = (byte) (length >>> 8);
+            out[3] = (byte) length;
+            byte[] result = Arrays.copyOf(out, written);
+            Arrays.fill(out, (byte) 0);
+            return result;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * 📭 Descomprime un payload de {@link #compress(byte[], int, int)}
+     * @return Datos originales
+     * @throws IllegalArgumentException si el payload está dañado
+     */
+    static byte[] decompress(byte[] data, int offset, int length) {
+        if (length < LENGTH_PREFIX) {
+            throw new IllegalArgumentException("Payload comprimido truncado");
+        }
+        int original = ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+        if (original < 0 || original > MAX_SIZE) {
+            throw new IllegalArgumentException("Longitud descomprimida inválida: " + original);
+        }
+
+        byte[] out = new byte[original];
+        Inflater inflater = INFLATER.get();
+        try {
+            inflater.setInput(data, offset + LENGTH_PREFIX, length - LENGTH_PREFIX);
+            int read = 0;
+            while (read < original) {
+                int n = inflater.inflate(out, read, original - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read == original && !inflater.finished() && inflater.inflate(new byte[1]) != 0) {
+                // Más datos de los declarados
+                read = -1;
+            }
+            // Bytes tras el final del stream Deflate: el payload no es el que se escribió
+            if (read != original || !inflater.finished() || inflater.getRemaining() != 0) {
+                throw new IllegalArgumentException("Payload comprimido dañado");
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Payload comprimido dañado: " + e.getMessage());
+        } finally {
+            inflater.reset();
+        }
+    }
+}
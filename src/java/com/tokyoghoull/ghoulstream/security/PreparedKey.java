@@ -0,0 +1,250 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 🔑 PreparedKey - Clave preparada una vez y reutilizada entre llamadas
+ *
+ * Guarda la clave en UTF-8, su programa de desplazamientos para el motor Java,
+ * la clave AES derivada (al primer uso de AES-GCM) y, si libencryption.so lo
+ * soporta, un handle a la clave ya extendida en el lado nativo. Así cada
+ * operación evita convertir la clave a bytes nativos y volver a extenderla,
+ * que en URLs cortas es buena parte del coste.
+ *
+ * Liberar con {@link #close()} (borra los buffers y el handle nativo). Si se
+ * olvida, un hilo de limpieza la libera cuando deja de ser alcanzable
+ * ({@code java.lang.ref.Cleaner} requiere API 33 y el módulo soporta API 28).
+ *
+ * @example
+ * try (PreparedKey key = NativeEncryption.prepareKey("MySecretKey123")) {
+ *     for (String url : urls) {
+ *         store(NativeEncryption.encrypt(url, key));
+ *     }
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class PreparedKey implements AutoCloseable {
+
+    private final int length;
+    private final State state;
+    private final Releaser releaser;
+
+    PreparedKey(byte[] bytes, long nativeHandle) {
+        this.length = bytes.length;
+        this.state = new State(bytes, JavaCipherEngine.computeShifts(bytes), nativeHandle);
+        this.releaser = Releaser.register(this, state);
+    }
+
+    /**
+     * @return Longitud de la clave en bytes UTF-8
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return true si la clave tiene un handle nativo (clave extendida en C++)
+     */
+    public boolean hasNativeHandle() {
+        return state.nativeHandle != 0L;
+    }
+
+    /**
+     * @return true si la clave ya se liberó
+     */
+    public boolean isClosed() {
+        return state.closed.get();
+    }
+
+    /**
+     * 🗑️ Libera la clave: borra sus buffers y el handle nativo
+     * Las operaciones en curso terminan antes de liberar; las posteriores fallan.
+     * No hace nada en las claves fijadas del módulo (la clave maestra).
+     */
+    @Override
+    public void close() {
+        releaser.clear();
+        Releaser.LIVE.remove(releaser);
+        state.close();
+    }
+
+    // ------------------------------------------------------------- uso interno
+
+    /**
+     * 📌 Fija la clave para toda la vida del proceso: {@link #close()} deja de
+     * liberarla y las operaciones ya no cuentan usuarios
+     * Para claves compartidas por todos los hilos (la clave maestra), donde el
+     * contador atómico de usuarios sería un punto de contención entre núcleos.
+     * @return Esta misma clave
+     */
+    PreparedKey pin() {
+        state.pinned = true;
+        return this;
+    }
+
+    /**
+     * Marca el inicio de una operación (impide liberar la clave mientras dura)
+     * @throws IllegalStateException si la clave ya está cerrada
+     */
+    void acquire() {
+        state.acquire();
+    }
+
+    /**
+     * Marca el fin de una operación iniciada con {@link #acquire()}
+     */
+    void release() {
+        state.release();
+    }
+
+    byte[] bytes() {
+        return state.bytes;
+    }
+
+    int[] shifts() {
+        return state.shifts;
+    }
+
+    long nativeHandle() {
+        return state.nativeHandle;
+    }
+
+    /**
+     * Clave AES-256 derivada para {@link AesGcmCipher}, calculada en el primer uso
+     */
+    SecretKeySpec aesKey() {
+        if (state.closed.get()) {
+            throw new IllegalStateException("PreparedKey ya liberada");
+        }
+        SecretKeySpec aes = state.aesKey;
+        if (aes == null) {
+            aes = AesGcmCipher.deriveKey(state.bytes);
+            state.aesKey = aes;
+        }
+        return aes;
+    }
+
+    /**
+     * Estado liberable, separado de PreparedKey para que la limpieza no la mantenga viva
+     */
+    private static final class State {
+        final byte[] bytes;
+        final int[] shifts;
+        final long nativeHandle;
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        volatile SecretKeySpec aesKey;
+        volatile boolean pinned;
+
+        // 1 = referencia del propietario; cada operación en curso suma 1
+        private final AtomicInteger users = new AtomicInteger(1);
+
+        State(byte[] bytes, int[] shifts, long nativeHandle) {
+            this.bytes = bytes;
+            this.shifts = shifts;
+            this.nativeHandle = nativeHandle;
+        }
+
+        void acquire() {
+            if (pinned) {
+                return;
+            }
+            while (true) {
+                int current = users.get();
+                if (current <= 0) {
+                    throw new IllegalStateException("PreparedKey ya liberada");
+                }
+                if (users.compareAndSet(current, current + 1)) {
+                    return;
+                }
+            }
+        }
+
+        void release() {
+            if (pinned) {
+                return;
+            }
+            if (users.decrementAndGet() == 0) {
+                free();
+            }
+        }
+
+        void close() {
+            if (pinned) {
+                return;
+            }
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+
+        private void free() {
+            if (nativeHandle != 0L) {
+                JniCipherEngine.releasePreparedKey(nativeHandle);
+            }
+            Arrays.fill(bytes, (byte) 0);
+            Arrays.fill(shifts, 0);
+            aesKey = null;
+        }
+    }
+
+    /**
+     * 🧹 Libera las claves que dejan de ser alcanzables sin haberse cerrado
+     */
+    private static final class Releaser extends PhantomReference<PreparedKey> {
+        static final ReferenceQueue<PreparedKey> QUEUE = new ReferenceQueue<>();
+        static final Set<Releaser> LIVE = ConcurrentHashMap.newKeySet();
+        private static volatile Thread cleanerThread;
+
+        private final State state;
+
+        private Releaser(PreparedKey key, State state) {
+            super(key, QUEUE);
+            this.state = state;
+        }
+
+        static Releaser register(PreparedKey key, State state) {
+            Releaser releaser = new Releaser(key, state);
+            LIVE.add(releaser);
+            ensureCleanerThread();
+            return releaser;
+        }
+
+        private static void ensureCleanerThread() {
+            if (cleanerThread != null) {
+                return;
+            }
+            synchronized (Releaser.class) {
+                if (cleanerThread == null) {
+                    Thread thread = new Thread(Releaser::drain, "ghoulstream-key-cleaner");
+                    thread.setDaemon(true);
+                    thread.start();
+                    cleanerThread = thread;
+                }
+            }
+        }
+
+        private static void drain() {
+            while (true) {
+                try {
+                    Releaser releaser = (Releaser) QUEUE.remove();
+                    LIVE.remove(releaser);
+                    releaser.state.close();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    SecurityLog.e("PreparedKey", "❌ Error liberando clave no cerrada", e);
+                }
+            }
+        }
+    }
+}
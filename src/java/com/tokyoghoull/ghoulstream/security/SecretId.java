@@ -0,0 +1,86 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Locale;
+
+/**
+ * 🏷️ SecretId - Identificadores de los secretos predefinidos de GhoulStream
+ *
+ * Cada valor apunta por índice a su fila en {@link EncryptedConstantTable}; el
+ * {@link #getId() id} coincide con la clave en secrets.properties y en
+ * constants/encrypted-constants.properties.
+ *
+ * @example
+ * String epg = GhoulStreamSecurity.getSecret(SecretId.EPG);
+ * Map<SecretId, String> urls = GhoulStreamSecurity.getSecrets(EnumSet.of(SecretId.CHANNELS, SecretId.MOVIES));
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public enum SecretId {
+
+    CHANNELS("channels", "URL de canales", EncryptedConstantTable.CHANNELS),
+    MOVIES("movies", "URL de películas", EncryptedConstantTable.MOVIES),
+    SERIES("series", "URL de series", EncryptedConstantTable.SERIES),
+    API("api", "Endpoint de API", EncryptedConstantTable.API),
+    UPDATE("update", "URL de actualización", EncryptedConstantTable.UPDATE),
+    EPG("epg", "URL de EPG", EncryptedConstantTable.EPG),
+    XTREAM("xtream", "Configuración Xtream", EncryptedConstantTable.XTREAM);
+
+    // Copia única de values() para búsquedas sin asignar
+    private static final SecretId[] VALUES = values();
+
+    private final String id;
+    private final String label;
+    private final int tableIndex;
+
+    SecretId(String id, String label, int tableIndex) {
+        this.id = id;
+        this.label = label;
+        this.tableIndex = tableIndex;
+    }
+
+    /**
+     * @return Identificador estable (clave de caché y de secrets.properties)
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Descripción legible para logs y diagnósticos
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return Fila en EncryptedConstantTable
+     */
+    int tableIndex() {
+        return tableIndex;
+    }
+
+    /**
+     * 🔍 Busca un secreto por id ("epg") o por nombre ("EPG")
+     * @param name Id o nombre del secreto
+     * @return SecretId o null si no existe
+     */
+    public static SecretId fromId(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (SecretId secret : VALUES) {
+            if (secret.id.equals(name)) {
+                return secret;
+            }
+        }
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (SecretId secret : VALUES) {
+            if (secret.id.equals(lower)) {
+                return secret;
+            }
+        }
+        return null;
+    }
+}
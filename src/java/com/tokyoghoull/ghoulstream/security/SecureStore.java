@@ -0,0 +1,732 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * 🗃️ SecureStore - Almacén clave-valor persistente con valores encriptados por clave
+ *
+ * Alternativa a {@code encryptUserConfiguration()} para configuraciones que cambian
+ * campo a campo: cambiar el tema reescribe solo ese valor, y leerlo desencripta
+ * solo ese valor.
+ * <ul>
+ *   <li>⚡ Índice en memoria: {@link #get(String)} es O(1) y desencripta un único valor
+ *       (en memoria los valores siguen encriptados).</li>
+ *   <li>📝 Log de solo-adición: cada escritura añade un registro; varias escrituras
+ *       sobre la misma clave antes del volcado se agrupan en una.</li>
+ *   <li>🧵 Volcado en segundo plano tras {@link #setFlushDelayMillis(long) un retardo},
+ *       fuera del hilo que escribe; {@link #flush()} fuerza un volcado síncrono.</li>
+ *   <li>💥 Commits atómicos: cada volcado es un bloque con CRC32; al abrir, un bloque
+ *       incompleto o corrupto (caída a mitad de escritura) se descarta entero.</li>
+ *   <li>🧹 Compactación: cuando el archivo duplica el tamaño de los datos vivos se
+ *       reescribe en un temporal y se sustituye con un rename atómico.</li>
+ *   <li>🔐 Cada valor y cada nombre se sella por separado con {@link KeyRing}
+ *       (sobre AES-GCM con nonce propio, comprimido si compensa): conocer un valor
+ *       no revela nada de los demás y un registro modificado no se acepta.</li>
+ * </ul>
+ *
+ * Solo usa java.io/java.nio y el cifrado del módulo, por lo que funciona en una JVM
+ * normal (tests en Linux) con el motor Java.
+ *
+ * @example
+ * try (SecureStore store = GhoulStreamSecurity.openSecureStore(new File(context.getFilesDir(), "settings.gss"))) {
+ *     store.put("theme", "dark");
+ *     String theme = store.get("theme");
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class SecureStore implements Closeable {
+
+    private static final String TAG = "SecureStore";
+
+    /** Retardo por defecto antes del volcado en segundo plano (ms) */
+    public static final long DEFAULT_FLUSH_DELAY_MILLIS = 200L;
+
+    /** Tamaño mínimo del archivo para considerar compactarlo (bytes) */
+    public static final long DEFAULT_COMPACTION_THRESHOLD_BYTES = 64 * 1024L;
+
+    // "GSS2": cabecera del archivo (registros en sobres de KeyRing); "GSSB": inicio de cada bloque
+    private static final int FILE_MAGIC = 0x47535332;
+    private static final int BLOCK_MAGIC = 0x47535342;
+    private static final int HEADER_SIZE = 4;
+    // magic + longitud del payload + CRC32
+    private static final int BLOCK_OVERHEAD = 12;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    // Id de la clave en el anillo propio de open(File, String) / open(File, PreparedKey)
+    private static final int STORE_KEY_ID = 1;
+
+    // Tamaño de un sobre AES-GCM sin contar el texto (cabecera + nonce + tag)
+    private static final int ENVELOPE_OVERHEAD = CipherEnvelope.HEADER_SIZE + AesGcmCipher.IV_SIZE
+            + AesGcmCipher.TAG_SIZE;
+
+    // Marca de borrado pendiente en el mapa de escrituras
+    private static final byte[] TOMBSTONE = new byte[0];
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final Path path;
+    private final KeyRing ring;
+    // Clave que el almacén preparó y cierra al cerrarse (null si es del llamador)
+    private final PreparedKey ownedKey;
+
+    // Clave en claro → sobre sellado del valor
+    private final ConcurrentHashMap<String, byte[]> index = new ConcurrentHashMap<>();
+
+    // Escrituras aún no volcadas (orden de llegada, una por clave); protegido por pendingLock
+    private final Object pendingLock = new Object();
+    private LinkedHashMap<String, byte[]> pending = new LinkedHashMap<>();
+    private boolean flushScheduled = false;
+
+    // Serializa todo el acceso al archivo (volcados y compactación)
+    private final Object ioLock = new Object();
+    private FileChannel channel;
+    private long fileBytes;
+    private IOException lastFlushError;
+
+    private final ScheduledExecutorService scheduler;
+    private volatile long flushDelayMillis = DEFAULT_FLUSH_DELAY_MILLIS;
+    private volatile long compactionThresholdBytes = DEFAULT_COMPACTION_THRESHOLD_BYTES;
+    // Se activa (con pendingLock) al empezar el cierre: no se aceptan más escrituras
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private SecureStore(Path path, KeyRing ring, PreparedKey ownedKey) {
+        this.path = path;
+        this.ring = ring;
+        this.ownedKey = ownedKey;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ghoulstream-store-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 📂 Abre (o crea) un almacén con una clave propia
+     * @param file Archivo del almacén
+     * @param key Clave (mínimo 10 caracteres)
+     * @return Almacén abierto
+     * @throws IOException si el archivo no se puede leer o crear
+     */
+    public static SecureStore open(File file, String key) throws IOException {
+        PreparedKey prepared = NativeEncryption.prepareKey(key);
+        if (prepared == null) {
+            throw new IllegalArgumentException("Clave inválida para SecureStore");
+        }
+        try {
+            return open(file, storeRing(prepared), prepared);
+        } catch (IOException | RuntimeException e) {
+            prepared.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 📂 Abre (o crea) un almacén con una clave preparada
+     * @param file Archivo del almacén
+     * @param key Clave preparada (el almacén no la cierra)
+     * @return Almacén abierto
+     * @throws IOException si el archivo no se puede leer o crear
+     */
+    public static SecureStore open(File file, PreparedKey key) throws IOException {
+        if (key == null) {
+            throw new IllegalArgumentException("Archivo y clave no pueden ser null");
+        }
+        return open(file, storeRing(key), null);
+    }
+
+    /**
+     * 📂 Abre (o crea) un almacén sobre un anillo de claves
+     * Los registros se sellan con la clave y el algoritmo actuales del anillo y se
+     * leen con la clave indicada en cada sobre, así que el anillo puede rotar.
+     * @param file Archivo del almacén
+     * @param ring Anillo de claves (el almacén no lo modifica ni cierra sus claves)
+     * @return Almacén abierto
+     * @throws IOException si el archivo no se puede leer o crear
+     */
+    public static SecureStore open(File file, KeyRing ring) throws IOException {
+        return open(file, ring, null);
+    }
+
+    private static SecureStore open(File file, KeyRing ring, PreparedKey ownedKey) throws IOException {
+        if (file == null || ring == null) {
+            throw new IllegalArgumentException("Archivo y clave no pueden ser null");
+        }
+        SecureStore store = new SecureStore(file.toPath(), ring, ownedKey);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            store.scheduler.shutdownNow();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Anillo de una sola clave para los almacenes abiertos con una clave suelta
+     */
+    private static KeyRing storeRing(PreparedKey key) {
+        KeyRing ring = new KeyRing(STORE_KEY_ID, key);
+        ring.setCompression(true);
+        return ring;
+    }
+
+    // ------------------------------------------------------------- lectura
+
+    /**
+     * 🔓 Obtiene un valor
+     * @param name Clave
+     * @return Valor en claro o null si no existe
+     */
+    public String get(String name) {
+        ensureOpen();
+        byte[] sealed = name != null ? index.get(name) : null;
+        if (sealed == null) {
+            return null;
+        }
+        byte[] plain = ring.open(sealed);
+        if (plain == null) {
+            SecurityLog.e(TAG, "❌ No se pudo desencriptar el valor de {}", name);
+            return null;
+        }
+        try {
+            return new String(plain, StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /**
+     * @param name Clave
+     * @param defaultValue Valor si la clave no existe
+     * @return Valor en claro o defaultValue
+     */
+    public String get(String name, String defaultValue) {
+        String value = get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return true si la clave existe
+     */
+    public boolean contains(String name) {
+        ensureOpen();
+        return name != null && index.containsKey(name);
+    }
+
+    /**
+     * @return Copia de las claves presentes
+     */
+    public Set<String> keys() {
+        ensureOpen();
+        return Collections.unmodifiableSet(new HashSet<>(index.keySet()));
+    }
+
+    /**
+     * @return Número de claves presentes
+     */
+    public int size() {
+        return index.size();
+    }
+
+    // ------------------------------------------------------------- escritura
+
+    /**
+     * 🔐 Guarda un valor (visible de inmediato; se persiste en el siguiente volcado)
+     * @param name Clave
+     * @param value Valor (null equivale a {@link #remove(String)})
+     */
+    public void put(String name, String value) {
+        if (value == null) {
+            remove(name);
+            return;
+        }
+        validateName(name);
+        byte[] encrypted = encryptValue(value);
+        synchronized (pendingLock) {
+            ensureOpen();
+            index.put(name, encrypted);
+            pending.put(name, encrypted);
+            scheduleFlushLocked();
+        }
+    }
+
+    /**
+     * 🔐 Guarda varios valores en un único bloque atómico
+     * @param values Claves y valores (valores null borran la clave)
+     */
+    public void putAll(Map<String, String> values) {
+        LinkedHashMap<String, byte[]> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            validateName(entry.getKey());
+            batch.put(entry.getKey(), entry.getValue() != null ? encryptValue(entry.getValue()) : TOMBSTONE);
+        }
+        synchronized (pendingLock) {
+            ensureOpen();
+            for (Map.Entry<String, byte[]> entry : batch.entrySet()) {
+                if (entry.getValue() == TOMBSTONE) {
+                    index.remove(entry.getKey());
+                } else {
+                    index.put(entry.getKey(), entry.getValue());
+                }
+                // Se reinserta para que el bloque conserve el orden del lote
+                pending.remove(entry.getKey());
+                pending.put(entry.getKey(), entry.getValue());
+            }
+            scheduleFlushLocked();
+        }
+    }
+
+    /**
+     * 🗑️ Borra una clave
+     * @param name Clave
+     */
+    public void remove(String name) {
+        validateName(name);
+        synchronized (pendingLock) {
+            ensureOpen();
+            if (index.remove(name) == null && !pending.containsKey(name)) {
+                return;
+            }
+            pending.put(name, TOMBSTONE);
+            scheduleFlushLocked();
+        }
+    }
+
+    /**
+     * 💾 Vuelca ahora las escrituras pendientes y espera a que estén en disco
+     * @throws IOException si la escritura falla (incluye errores de volcados en segundo plano)
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        synchronized (ioLock) {
+            IOException previous = lastFlushError;
+            lastFlushError = null;
+            writePending();
+            if (previous != null) {
+                throw previous;
+            }
+        }
+    }
+
+    /**
+     * 🧹 Reescribe el archivo solo con los valores vivos (temporal + rename atómico)
+     * @throws IOException si la compactación falla (el archivo original queda intacto)
+     */
+    public void compact() throws IOException {
+        ensureOpen();
+        synchronized (ioLock) {
+            writePending();
+            rewrite();
+        }
+    }
+
+    /**
+     * ⏱️ Configura el retardo del volcado en segundo plano
+     * @param delayMillis Retardo en ms (0 = volcar en cuanto sea posible)
+     */
+    public void setFlushDelayMillis(long delayMillis) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("delayMillis no puede ser negativo (actual: " + delayMillis + ")");
+        }
+        this.flushDelayMillis = delayMillis;
+    }
+
+    /**
+     * @return Retardo del volcado en segundo plano en ms
+     */
+    public long getFlushDelayMillis() {
+        return flushDelayMillis;
+    }
+
+    /**
+     * 🧹 Configura el tamaño mínimo a partir del cual se compacta automáticamente
+     * @param thresholdBytes Tamaño en bytes (0 = compactar siempre que haya basura)
+     */
+    public void setCompactionThresholdBytes(long thresholdBytes) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes no puede ser negativo (actual: " + thresholdBytes + ")");
+        }
+        this.compactionThresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * @return Tamaño actual del archivo en bytes
+     */
+    public long getFileSize() {
+        synchronized (ioLock) {
+            return fileBytes;
+        }
+    }
+
+    /**
+     * 🔒 Vuelca lo pendiente y cierra el archivo
+     * Los valores en memoria se borran; la clave se cierra si el almacén la creó.
+     * Las escrituras que terminaron antes del cierre se vuelcan siempre; las
+     * posteriores lanzan IllegalStateException. Llamadas repetidas no hacen nada.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (pendingLock) {
+            // Desde aquí ningún put/putAll/remove llega a pending
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        scheduler.shutdownNow();
+        IOException error;
+        synchronized (ioLock) {
+            error = lastFlushError;
+            lastFlushError = null;
+            try {
+                writePending();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        for (byte[] value : index.values()) {
+            Arrays.fill(value, (byte) 0);
+        }
+        index.clear();
+        if (ownedKey != null) {
+            ownedKey.close();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // ------------------------------------------------------------- interno
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("SecureStore cerrado");
+        }
+    }
+
+    private static void validateName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("La clave no puede ser null o vacía");
+        }
+    }
+
+    /**
+     * 🔐 Sella un valor (o un nombre) en un sobre de {@link KeyRing}
+     */
+    private byte[] encryptValue(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] sealed = ring.seal(bytes, 0, bytes.length);
+            if (sealed == null) {
+                throw new IllegalStateException("No se pudo encriptar el valor");
+            }
+            return sealed;
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+
+    private void scheduleFlushLocked() {
+        // Tras el cierre el volcado final lo hace close()
+        if (!flushScheduled && !closed.get()) {
+            flushScheduled = true;
+            scheduler.schedule(this::backgroundFlush, flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void backgroundFlush() {
+        synchronized (ioLock) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                writePending();
+            } catch (IOException e) {
+                lastFlushError = e;
+                SecurityLog.e(TAG, "❌ Error volcando SecureStore: {}", path, e);
+            }
+        }
+    }
+
+    /**
+     * 💾 Escribe las escrituras pendientes como un bloque y compacta si hace falta
+     * Llamar con ioLock.
+     */
+    private void writePending() throws IOException {
+        LinkedHashMap<String, byte[]> batch;
+        synchronized (pendingLock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        ByteBuffer block = encodeBlock(batch);
+        try {
+            channel.position(fileBytes);
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            channel.force(false);
+            fileBytes = channel.position();
+        } catch (IOException e) {
+            try {
+                channel.truncate(fileBytes);
+            } catch (IOException ignored) {
+                // Un bloque a medias se descarta igualmente al abrir (CRC)
+            }
+            // Se devuelven al mapa las escrituras que no tengan una más reciente
+            synchronized (pendingLock) {
+                for (Map.Entry<String, byte[]> entry : batch.entrySet()) {
+                    pending.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+                scheduleFlushLocked();
+            }
+            throw e;
+        }
+        SecurityLog.d(TAG, "💾 Bloque volcado ({} registros)", batch.size());
+
+        if (fileBytes > compactionThresholdBytes && fileBytes > 2 * liveBytes()) {
+            try {
+                rewrite();
+            } catch (IOException e) {
+                SecurityLog.w(TAG, "⚠️ Compactación fallida, se reintentará: {}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * 🧹 Escribe todos los valores vivos en un temporal y lo renombra sobre el archivo
+     * Llamar con ioLock y sin escrituras pendientes anteriores.
+     */
+    private void rewrite() throws IOException {
+        LinkedHashMap<String, byte[]> live = new LinkedHashMap<>(index);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(FILE_MAGIC);
+            header.flip();
+            out.write(header);
+            if (!live.isEmpty()) {
+                ByteBuffer block = encodeBlock(live);
+                while (block.hasRemaining()) {
+                    out.write(block);
+                }
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            fileBytes = channel.size();
+        }
+        // Sin esto, tras una caída el directorio puede seguir apuntando al archivo
+        // antiguo y los bloques añadidos (y forzados) al nuevo se pierden
+        forceDirectory();
+        SecurityLog.d(TAG, "🧹 SecureStore compactado ({} bytes)", fileBytes);
+    }
+
+    /**
+     * 💾 Fuerza a disco la entrada del archivo en su directorio (rename o creación)
+     * En sistemas donde un directorio no se puede abrir (Windows) no hace nada.
+     */
+    private void forceDirectory() {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            SecurityLog.d(TAG, "Directorio no sincronizable: {}", e.toString());
+        }
+    }
+
+    /**
+     * Tamaño aproximado del archivo compactado (las claves se cuentan en chars)
+     */
+    private long liveBytes() {
+        long total = HEADER_SIZE + BLOCK_OVERHEAD + 4;
+        for (Map.Entry<String, byte[]> entry : index.entrySet()) {
+            // op + longitud de clave + clave sellada + longitud de valor + valor sellado
+            total += 1 + 4 + ENVELOPE_OVERHEAD + entry.getKey().length() + 4 + entry.getValue().length;
+        }
+        return total;
+    }
+
+    /**
+     * 📦 Codifica un bloque: magic | longitud | payload | CRC32(payload)
+     * Payload: número de registros y, por registro, op | clave | [valor].
+     * Las claves se guardan selladas igual que los valores.
+     */
+    private ByteBuffer encodeBlock(Map<String, byte[]> records) {
+        byte[][] names = new byte[records.size()][];
+        int payloadSize = 4;
+        int i = 0;
+        for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+            byte[] name = encryptValue(entry.getKey());
+            names[i++] = name;
+            payloadSize += 1 + 4 + name.length;
+            if (entry.getValue() != TOMBSTONE) {
+                payloadSize += 4 + entry.getValue().length;
+            }
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_OVERHEAD + payloadSize);
+        block.putInt(BLOCK_MAGIC).putInt(payloadSize);
+        int payloadStart = block.position();
+        block.putInt(records.size());
+        i = 0;
+        for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+            byte[] name = names[i++];
+            boolean removed = entry.getValue() == TOMBSTONE;
+            block.put(removed ? OP_REMOVE : OP_PUT);
+            block.putInt(name.length).put(name);
+            if (!removed) {
+                block.putInt(entry.getValue().length).put(entry.getValue());
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(block.array(), payloadStart, payloadSize);
+        block.putInt((int) crc.getValue());
+        block.flip();
+        return block;
+    }
+
+    /**
+     * 📂 Reproduce el log y construye el índice
+     * Un bloque truncado o con CRC incorrecto marca el final válido: se descarta
+     * junto con lo que le siga y el archivo se recorta a ese punto.
+     */
+    private void load() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(FILE_MAGIC);
+            header.flip();
+            channel.write(header);
+            channel.force(true);
+            forceDirectory();
+            fileBytes = HEADER_SIZE;
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("SecureStore demasiado grande: " + size + " bytes");
+        }
+
+        ByteBuffer data = ByteBuffer.allocate((int) size);
+        while (data.hasRemaining() && channel.read(data) >= 0) {
+            // leer todo
+        }
+        data.flip();
+        if (data.remaining() < HEADER_SIZE || data.getInt() != FILE_MAGIC) {
+            throw new IOException("Archivo no es un SecureStore: " + path);
+        }
+
+        long validEnd = HEADER_SIZE;
+        int blocks = 0;
+        try {
+            while (data.remaining() >= BLOCK_OVERHEAD) {
+                int start = data.position();
+                if (data.getInt() != BLOCK_MAGIC) {
+                    break;
+                }
+                int payloadSize = data.getInt();
+                if (payloadSize < 4 || payloadSize > data.remaining() - 4) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(data.array(), data.position(), payloadSize);
+                if (data.getInt(data.position() + payloadSize) != (int) crc.getValue()) {
+                    break;
+                }
+                ByteBuffer payload = data.slice();
+                payload.limit(payloadSize);
+                applyBlock(payload);
+                data.position(start + BLOCK_OVERHEAD + payloadSize);
+                validEnd = data.position();
+                blocks++;
+            }
+        } finally {
+            Arrays.fill(data.array(), (byte) 0);
+        }
+
+        if (validEnd < size) {
+            SecurityLog.w(TAG, "⚠️ SecureStore con cola incompleta o corrupta, se descartan {} bytes", size - validEnd);
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        fileBytes = validEnd;
+        SecurityLog.d(TAG, "📂 SecureStore cargado ({} bloques, {} claves)", blocks, index.size());
+    }
+
+    private void applyBlock(ByteBuffer payload) throws IOException {
+        int count = payload.getInt();
+        for (int r = 0; r < count; r++) {
+            byte op = payload.get();
+            byte[] sealedName = new byte[payload.getInt()];
+            payload.get(sealedName);
+            byte[] name = ring.open(sealedName);
+            if (name == null) {
+                throw new IOException("Clave incorrecta o SecureStore manipulado: " + path);
+            }
+            String nameText = new String(name, StandardCharsets.UTF_8);
+            Arrays.fill(name, (byte) 0);
+            if (op == OP_PUT) {
+                byte[] value = new byte[payload.getInt()];
+                payload.get(value);
+                index.put(nameText, value);
+            } else {
+                index.remove(nameText);
+            }
+        }
+    }
+}
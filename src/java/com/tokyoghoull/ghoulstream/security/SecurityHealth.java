@@ -0,0 +1,227 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 🩺 SecurityHealth - Instantánea inmutable del estado del módulo
+ *
+ * Se calcula una vez (self-test, constantes, pruebas de ida y vuelta) y se
+ * reutiliza para diagnósticos y {@link SecurityTestResult} hasta que queda
+ * obsoleta, evitando repetir decenas de llamadas nativas en cada consulta.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class SecurityHealth {
+
+    private final long timestamp;
+    private final long createdNanos;
+    private final long computeNanos;
+    private final boolean nativeLibraryLoaded;
+    private final boolean engineAvailable;
+    private final String engineSummary;
+    private final boolean selfTestPassed;
+    private final Map<String, Boolean> constants;
+    private final boolean customRoundTripOk;
+    private final boolean configRoundTripOk;
+    private final String failure;
+
+    private SecurityHealth(Builder builder, long computeNanos) {
+        this.timestamp = System.currentTimeMillis();
+        this.createdNanos = System.nanoTime();
+        this.computeNanos = computeNanos;
+        this.nativeLibraryLoaded = builder.nativeLibraryLoaded;
+        this.engineAvailable = builder.engineAvailable;
+        this.engineSummary = builder.engineSummary;
+        this.selfTestPassed = builder.selfTestPassed;
+        this.constants = Collections.unmodifiableMap(new LinkedHashMap<>(builder.constants));
+        this.customRoundTripOk = builder.customRoundTripOk;
+        this.configRoundTripOk = builder.configRoundTripOk;
+        this.failure = builder.failure;
+    }
+
+    /**
+     * @return Momento de creación (ms desde epoch)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return Antigüedad de la instantánea en ms
+     */
+    public long getAgeMillis() {
+        return (System.nanoTime() - createdNanos) / 1_000_000L;
+    }
+
+    long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    /**
+     * @param maxAgeMillis Antigüedad máxima aceptable
+     * @return true si la instantánea es más antigua que maxAgeMillis
+     */
+    public boolean isStale(long maxAgeMillis) {
+        return getAgeMillis() > maxAgeMillis;
+    }
+
+    /**
+     * @return Tiempo que costó calcular la instantánea en ms
+     */
+    public long getComputeMillis() {
+        return computeNanos / 1_000_000L;
+    }
+
+    public boolean isNativeLibraryLoaded() {
+        return nativeLibraryLoaded;
+    }
+
+    public boolean isEngineAvailable() {
+        return engineAvailable;
+    }
+
+    public String getEngineSummary() {
+        return engineSummary;
+    }
+
+    public boolean isSelfTestPassed() {
+        return selfTestPassed;
+    }
+
+    /**
+     * @return Estado de cada constante predefinida (nombre → desencriptable)
+     */
+    public Map<String, Boolean> getConstants() {
+        return constants;
+    }
+
+    public boolean isCustomRoundTripOk() {
+        return customRoundTripOk;
+    }
+
+    public boolean isConfigRoundTripOk() {
+        return configRoundTripOk;
+    }
+
+    /**
+     * @return true si todas las comprobaciones pasaron
+     */
+    public boolean isHealthy() {
+        return failure == null && engineAvailable && selfTestPassed && customRoundTripOk && configRoundTripOk;
+    }
+
+    /**
+     * 🧪 Construye un SecurityTestResult a partir de la instantánea
+     * @return Resultado con el timestamp de la instantánea
+     */
+    public SecurityTestResult toSecurityTestResult() {
+        SecurityTestResult result = new SecurityTestResult(timestamp);
+
+        if (failure != null) {
+            result.addError(failure);
+            return result;
+        }
+
+        if (!engineAvailable) {
+            result.addError("Librería nativa no disponible");
+            return result;
+        }
+        result.addFeature("Librería nativa disponible");
+
+        if (!selfTestPassed) {
+            result.addError("Self-test de NativeEncryption falló");
+            return result;
+        }
+        result.addFeature("Self-test de encriptación exitoso");
+
+        for (Map.Entry<String, Boolean> constant : constants.entrySet()) {
+            if (constant.getValue()) {
+                result.addFeature(constant.getKey() + " OK");
+            }
+        }
+
+        if (customRoundTripOk) {
+            result.addFeature("Encriptación/desencriptación personalizada OK");
+        } else {
+            result.addError("Encriptación/desencriptación personalizada falló");
+        }
+
+        if (configRoundTripOk) {
+            result.addFeature("Encriptación de configuración OK");
+        } else {
+            result.addError("Encriptación de configuración falló");
+        }
+
+        result.setValid(result.getErrors().isEmpty());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SecurityHealth{healthy=" + isHealthy() + ", motor=" + engineSummary
+                + ", selfTest=" + selfTestPassed + ", edad=" + getAgeMillis() + "ms}";
+    }
+
+    /**
+     * 🏗️ Constructor incremental usado por la sonda de salud
+     */
+    static final class Builder {
+        private final long startNanos = System.nanoTime();
+        private boolean nativeLibraryLoaded;
+        private boolean engineAvailable;
+        private String engineSummary = "";
+        private boolean selfTestPassed;
+        private final Map<String, Boolean> constants = new LinkedHashMap<>();
+        private boolean customRoundTripOk;
+        private boolean configRoundTripOk;
+        private String failure;
+
+        Builder nativeLibraryLoaded(boolean value) {
+            nativeLibraryLoaded = value;
+            return this;
+        }
+
+        Builder engineAvailable(boolean value) {
+            engineAvailable = value;
+            return this;
+        }
+
+        Builder engineSummary(String value) {
+            engineSummary = value;
+            return this;
+        }
+
+        Builder selfTestPassed(boolean value) {
+            selfTestPassed = value;
+            return this;
+        }
+
+        Builder constant(String name, boolean ok) {
+            constants.put(name, ok);
+            return this;
+        }
+
+        Builder customRoundTripOk(boolean value) {
+            customRoundTripOk = value;
+            return this;
+        }
+
+        Builder configRoundTripOk(boolean value) {
+            configRoundTripOk = value;
+            return this;
+        }
+
+        Builder failure(String value) {
+            failure = value;
+            return this;
+        }
+
+        SecurityHealth build() {
+            return new SecurityHealth(this, System.nanoTime() - startNanos);
+        }
+    }
+}
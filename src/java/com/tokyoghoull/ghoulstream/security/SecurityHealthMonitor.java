@@ -0,0 +1,137 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 🩺 SecurityHealthMonitor - Cálculo y refresco de {@link SecurityHealth}
+ *
+ * Mantiene la última instantánea y la recalcula bajo demanda, cuando queda
+ * obsoleta o periódicamente en un hilo en segundo plano. Los refrescos
+ * concurrentes se agrupan: si otro hilo terminó un refresco mientras se
+ * esperaba, se reutiliza su resultado.
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class SecurityHealthMonitor {
+
+    private static final String TAG = "SecurityHealthMonitor";
+
+    /** Antigüedad máxima por defecto antes de recalcular (ms) */
+    public static final long DEFAULT_MAX_AGE_MILLIS = 60_000L;
+
+    private final Supplier<SecurityHealth> probe;
+    private final Object refreshLock = new Object();
+    private volatile SecurityHealth current;
+    private volatile long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+    private ScheduledExecutorService scheduler;
+
+    SecurityHealthMonitor(Supplier<SecurityHealth> probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * @return Última instantánea calculada o null si aún no hay ninguna
+     */
+    public SecurityHealth current() {
+        return current;
+    }
+
+    /**
+     * 🩺 Obtiene una instantánea no obsoleta, recalculándola solo si hace falta
+     * @return Instantánea vigente
+     */
+    public SecurityHealth get() {
+        SecurityHealth snapshot = current;
+        if (snapshot != null && !snapshot.isStale(maxAgeMillis)) {
+            return snapshot;
+        }
+        return refresh();
+    }
+
+    /**
+     * 🔄 Recalcula la instantánea ahora
+     * @return Nueva instantánea (o la de un refresco concurrente terminado durante la espera)
+     */
+    public SecurityHealth refresh() {
+        long requested = System.nanoTime();
+        synchronized (refreshLock) {
+            SecurityHealth snapshot = current;
+            if (snapshot != null && snapshot.getCreatedNanos() - requested > 0) {
+                // Otro hilo refrescó mientras esperábamos el lock
+                return snapshot;
+            }
+
+            snapshot = probe.get();
+            current = snapshot;
+            SecurityLog.d(TAG, "🩺 Estado de salud recalculado en {} ms", snapshot.getComputeMillis());
+            return snapshot;
+        }
+    }
+
+    /**
+     * 🔄 Recalcula la instantánea en segundo plano
+     * @param executor Executor donde ejecutar el cálculo
+     * @return Future con la nueva instantánea
+     */
+    public CompletableFuture<SecurityHealth> refreshAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(this::refresh, executor);
+    }
+
+    /**
+     * ⏱️ Configura la antigüedad máxima antes de recalcular en {@link #get()}
+     * @param maxAgeMillis Antigüedad máxima en ms
+     */
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        if (maxAgeMillis < 0) {
+            throw new IllegalArgumentException("maxAgeMillis no puede ser negativo (actual: " + maxAgeMillis + ")");
+        }
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @return Antigüedad máxima en ms
+     */
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    /**
+     * ⏰ Refresca la instantánea periódicamente en un hilo daemon
+     * @param periodMillis Periodo de refresco en ms
+     */
+    public synchronized void startPeriodicRefresh(long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("periodMillis debe ser > 0 (actual: " + periodMillis + ")");
+        }
+        stopPeriodicRefresh();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ghoulstream-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                SecurityLog.e(TAG, "❌ Error refrescando estado de salud", e);
+            }
+        }, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * ⏹️ Detiene el refresco periódico
+     */
+    public synchronized void stopPeriodicRefresh() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
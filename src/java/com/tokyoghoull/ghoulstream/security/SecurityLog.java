@@ -0,0 +1,270 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import android.util.Log;
+
+/**
+ * 📝 SecurityLog - Fachada de logging del módulo de seguridad
+ *
+ * Todas las clases del módulo registran a través de esta fachada en lugar de
+ * llamar a {@code android.util.Log} directamente:
+ * <ul>
+ *   <li>🎚️ Nivel mínimo en runtime: por debajo de él la llamada retorna tras una
+ *       lectura volátil, sin formatear ni llamar al sistema.</li>
+ *   <li>🦥 Formato diferido: los mensajes con {@code {}} solo se construyen si el
+ *       nivel está activo; los argumentos {@code long} no se encapsulan.</li>
+ *   <li>✂️ Compile-time: en builds minificados, las reglas de consumer-rules.pro
+ *       eliminan las llamadas de nivel VERBOSE/DEBUG por completo.</li>
+ *   <li>🔌 Destino intercambiable ({@link Sink}) para tests, telemetría o silencio total.</li>
+ * </ul>
+ *
+ * @example
+ * SecurityLog.d(TAG, "🔐 String encriptado (longitud: {})", result.length());
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class SecurityLog {
+
+    public static final int VERBOSE = Log.VERBOSE;
+    public static final int DEBUG = Log.DEBUG;
+    public static final int INFO = Log.INFO;
+    public static final int WARN = Log.WARN;
+    public static final int ERROR = Log.ERROR;
+
+    /** Nivel que desactiva todo el logging */
+    public static final int OFF = Integer.MAX_VALUE;
+
+    /**
+     * 🔌 Destino de los mensajes de log
+     */
+    public interface Sink {
+        /**
+         * @param level Nivel (VERBOSE..ERROR)
+         * @param tag Etiqueta de la clase que registra
+         * @param message Mensaje ya formateado
+         * @param error Excepción asociada o null
+         */
+        void log(int level, String tag, String message, Throwable error);
+    }
+
+    /** Destino por defecto: android.util.Log */
+    public static final Sink ANDROID = (level, tag, message, error) -> {
+        switch (level) {
+            case VERBOSE:
+                Log.v(tag, message, error);
+                break;
+            case DEBUG:
+                Log.d(tag, message, error);
+                break;
+            case INFO:
+                Log.i(tag, message, error);
+                break;
+            case WARN:
+                Log.w(tag, message, error);
+                break;
+            default:
+                Log.e(tag, message, error);
+                break;
+        }
+    };
+
+    // Release por defecto: DEBUG/VERBOSE desactivados hasta que initialize() detecte una app depurable
+    private static volatile int minLevel = INFO;
+    private static volatile boolean levelConfigured = false;
+    private static volatile Sink sink = ANDROID;
+
+    private SecurityLog() {
+    }
+
+    /**
+     * 🎚️ Configura el nivel mínimo de log
+     * @param level VERBOSE, DEBUG, INFO, WARN, ERROR u OFF
+     */
+    public static void setLevel(int level) {
+        minLevel = level;
+        levelConfigured = true;
+    }
+
+    /**
+     * 🎚️ Ajusta el nivel por defecto según si la app es depurable
+     * No hace nada si la app ya fijó un nivel con {@link #setLevel(int)}.
+     */
+    static void applyDefaultLevel(boolean debuggable) {
+        if (!levelConfigured) {
+            minLevel = debuggable ? DEBUG : INFO;
+        }
+    }
+
+    /**
+     * @return Nivel mínimo de log actual
+     */
+    public static int getLevel() {
+        return minLevel;
+    }
+
+    /**
+     * 🔌 Configura el destino de los mensajes
+     * @param newSink Destino (null = descartar todo)
+     */
+    public static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+
+    /**
+     * @param level Nivel a comprobar
+     * @return true si los mensajes de ese nivel se registran
+     */
+    public static boolean isLoggable(int level) {
+        return level >= minLevel && sink != null;
+    }
+
+    /**
+     * @return true si los mensajes DEBUG se registran (para proteger bloques costosos)
+     */
+    public static boolean isDebugEnabled() {
+        return isLoggable(DEBUG);
+    }
+
+    // ------------------------------------------------------------------ VERBOSE
+
+    public static void v(String tag, String message) {
+        if (isLoggable(VERBOSE)) {
+            emit(VERBOSE, tag, message, null);
+        }
+    }
+
+    public static void v(String tag, String format, long arg) {
+        if (isLoggable(VERBOSE)) {
+            emit(VERBOSE, tag, format(format, Long.toString(arg)), null);
+        }
+    }
+
+    // -------------------------------------------------------------------- DEBUG
+
+    public static void d(String tag, String message) {
+        if (isLoggable(DEBUG)) {
+            emit(DEBUG, tag, message, null);
+        }
+    }
+
+    public static void d(String tag, String format, long arg) {
+        if (isLoggable(DEBUG)) {
+            emit(DEBUG, tag, format(format, Long.toString(arg)), null);
+        }
+    }
+
+    public static void d(String tag, String format, long arg1, long arg2) {
+        if (isLoggable(DEBUG)) {
+            emit(DEBUG, tag, format(format, Long.toString(arg1), Long.toString(arg2)), null);
+        }
+    }
+
+    public static void d(String tag, String format, Object arg) {
+        if (isLoggable(DEBUG)) {
+            emit(DEBUG, tag, format(format, String.valueOf(arg)), null);
+        }
+    }
+
+    // --------------------------------------------------------------------- INFO
+
+    public static void i(String tag, String message) {
+        if (isLoggable(INFO)) {
+            emit(INFO, tag, message, null);
+        }
+    }
+
+    public static void i(String tag, String format, long arg) {
+        if (isLoggable(INFO)) {
+            emit(INFO, tag, format(format, Long.toString(arg)), null);
+        }
+    }
+
+    public static void i(String tag, String format, Object arg) {
+        if (isLoggable(INFO)) {
+            emit(INFO, tag, format(format, String.valueOf(arg)), null);
+        }
+    }
+
+    // --------------------------------------------------------------------- WARN
+
+    public static void w(String tag, String message) {
+        if (isLoggable(WARN)) {
+            emit(WARN, tag, message, null);
+        }
+    }
+
+    public static void w(String tag, String format, Object arg) {
+        if (isLoggable(WARN)) {
+            emit(WARN, tag, format(format, String.valueOf(arg)), null);
+        }
+    }
+
+    public static void w(String tag, String message, Throwable error) {
+        if (isLoggable(WARN)) {
+            emit(WARN, tag, message, error);
+        }
+    }
+
+    // -------------------------------------------------------------------- ERROR
+
+    public static void e(String tag, String message) {
+        if (isLoggable(ERROR)) {
+            emit(ERROR, tag, message, null);
+        }
+    }
+
+    public static void e(String tag, String format, long arg) {
+        if (isLoggable(ERROR)) {
+            emit(ERROR, tag, format(format, Long.toString(arg)), null);
+        }
+    }
+
+    public static void e(String tag, String format, Object arg) {
+        if (isLoggable(ERROR)) {
+            emit(ERROR, tag, format(format, String.valueOf(arg)), null);
+        }
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        if (isLoggable(ERROR)) {
+            emit(ERROR, tag, message, error);
+        }
+    }
+
+    public static void e(String tag, String format, Object arg, Throwable error) {
+        if (isLoggable(ERROR)) {
+            emit(ERROR, tag, format(format, String.valueOf(arg)), error);
+        }
+    }
+
+    private static void emit(int level, String tag, String message, Throwable error) {
+        Sink current = sink;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.log(level, tag, message, error);
+        } catch (RuntimeException ignored) {
+            // Un destino defectuoso nunca debe romper una operación de cifrado
+        }
+    }
+
+    /**
+     * 🦥 Sustituye cada {@code {}} por el siguiente argumento
+     */
+    static String format(String format, String... args) {
+        StringBuilder sb = new StringBuilder(format.length() + 16 * args.length);
+        int from = 0;
+        for (String arg : args) {
+            int at = format.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(format, from, at).append(arg);
+            from = at + 2;
+        }
+        sb.append(format, from, format.length());
+        return sb.toString();
+    }
+}
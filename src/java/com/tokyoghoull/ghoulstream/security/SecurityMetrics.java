@@ -0,0 +1,537 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 📈 SecurityMetrics - Contadores e histogramas de latencia de las operaciones del módulo
+ *
+ * Registra por operación ({@link Operation}) y por secreto ({@link SecretId}):
+ * llamadas, fallos por {@link FailureReason}, bytes procesados, tiempo total y un
+ * histograma de latencia en potencias de 2. Para los secretos registra además
+ * las cargas (fallos de caché), de las que sale el ratio de aciertos.
+ *
+ * <ul>
+ *   <li>🪶 Desactivadas (por defecto) cada operación cuesta una lectura volátil.</li>
+ *   <li>🔓 Activadas, solo {@link LongAdder}: sin locks ni contención entre hilos.</li>
+ *   <li>📸 {@link #snapshot()} devuelve una copia inmutable para diagnósticos o
+ *       para exportar a telemetría con {@link Snapshot#toMap()}.</li>
+ * </ul>
+ * Se activan con {@link #setEnabled(boolean)} o con la propiedad de sistema
+ * {@code ghoulstream.metrics=true}.
+ *
+ * @example
+ * SecurityMetrics.setEnabled(true);
+ * ...
+ * SecurityMetrics.Snapshot snapshot = SecurityMetrics.snapshot();
+ * telemetry.send(snapshot.toMap());
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class SecurityMetrics {
+
+    /** Propiedad de sistema que activa las métricas al arrancar */
+    public static final String ENABLED_PROPERTY = "ghoulstream.metrics";
+
+    /** Cubetas del histograma: la i cubre [2^(i-1), 2^i) ns; la última, todo lo demás (~1 s o más) */
+    public static final int HISTOGRAM_BUCKETS = 32;
+
+    /**
+     * ⚙️ Operaciones instrumentadas
+     */
+    public enum Operation {
+        /** 🔐 encrypt(String, clave) */
+        ENCRYPT("encrypt"),
+        /** 🔓 decrypt(String, clave) */
+        DECRYPT("decrypt"),
+        /** 🧱 encryptInPlace / encrypt(ByteBuffer) */
+        ENCRYPT_BYTES("encrypt_bytes"),
+        /** 🧱 decryptInPlace / decrypt(ByteBuffer) */
+        DECRYPT_BYTES("decrypt_bytes"),
+        /** 📦 encryptBatch */
+        ENCRYPT_BATCH("encrypt_batch"),
+        /** 📦 decryptBatch */
+        DECRYPT_BATCH("decrypt_batch");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return Nombre estable para exportar (prefijo de las claves de {@link Snapshot#toMap()})
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final SecretId[] SECRETS = SecretId.values();
+    private static final FailureReason[] REASONS = FailureReason.values();
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final Recorder[] OPERATION_RECORDERS = new Recorder[OPERATIONS.length];
+    private static final Recorder[] SECRET_RECORDERS = new Recorder[SECRETS.length];
+    private static final LongAdder[] SECRET_LOADS = new LongAdder[SECRETS.length];
+
+    // Inicio de la ventana de medición (ms desde epoch)
+    private static volatile long sinceMillis = System.currentTimeMillis();
+
+    static {
+        for (int i = 0; i < OPERATION_RECORDERS.length; i++) {
+            OPERATION_RECORDERS[i] = new Recorder();
+        }
+        for (int i = 0; i < SECRET_RECORDERS.length; i++) {
+            SECRET_RECORDERS[i] = new Recorder();
+            SECRET_LOADS[i] = new LongAdder();
+        }
+    }
+
+    private SecurityMetrics() {
+    }
+
+    /**
+     * 🎚️ Activa o desactiva el registro (los valores acumulados se conservan)
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 🔄 Pone todos los contadores a cero y reinicia la ventana de medición
+     */
+    public static void reset() {
+        for (Recorder recorder : OPERATION_RECORDERS) {
+            recorder.reset();
+        }
+        for (int i = 0; i < SECRET_RECORDERS.length; i++) {
+            SECRET_RECORDERS[i].reset();
+            SECRET_LOADS[i].reset();
+        }
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    // ------------------------------------------------------------- registro
+
+    /**
+     * ⏱️ Marca el inicio de una operación
+     * @return Instante en ns o 0 si las métricas están desactivadas
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * ✅ Registra una operación correcta
+     * @param startNanos Valor devuelto por {@link #start()}
+     * @param bytes Bytes (o caracteres, en las variantes String) procesados
+     */
+    static void success(Operation operation, long startNanos, long bytes) {
+        if (startNanos != 0L) {
+            OPERATION_RECORDERS[operation.ordinal()].record(System.nanoTime() - startNanos, bytes, null);
+        }
+    }
+
+    /**
+     * ❌ Registra una operación fallida
+     * @param startNanos Valor devuelto por {@link #start()}
+     */
+    static void failure(Operation operation, long startNanos, FailureReason reason) {
+        if (startNanos != 0L) {
+            OPERATION_RECORDERS[operation.ordinal()].record(System.nanoTime() - startNanos, 0L, reason);
+        }
+    }
+
+    /**
+     * 🏷️ Registra la obtención de un secreto
+     * Un fallo se anota como ENGINE_ERROR; la causa concreta queda registrada en
+     * la operación de {@link NativeEncryption} que lo produjo.
+     * @param startNanos Valor devuelto por {@link #start()}
+     * @param found false si el valor fue null
+     */
+    static void secret(SecretId secret, long startNanos, boolean found) {
+        if (startNanos != 0L) {
+            SECRET_RECORDERS[secret.ordinal()].record(System.nanoTime() - startNanos, 0L,
+                    found ? null : FailureReason.ENGINE_ERROR);
+        }
+    }
+
+    /**
+     * 📥 Registra la carga de un secreto que no estaba en caché
+     */
+    static void secretLoaded(SecretId secret) {
+        if (enabled) {
+            SECRET_LOADS[secret.ordinal()].increment();
+        }
+    }
+
+    /**
+     * 🪣 Cubeta del histograma para una latencia
+     */
+    static int bucketOf(long nanos) {
+        if (nanos <= 0L) {
+            return 0;
+        }
+        return Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * Acumuladores de una operación o de un secreto
+     */
+    private static final class Recorder {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder[] failures = new LongAdder[REASONS.length];
+        final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+        Recorder() {
+            for (int i = 0; i < failures.length; i++) {
+                failures[i] = new LongAdder();
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos, long processed, FailureReason reason) {
+            count.increment();
+            totalNanos.add(nanos);
+            histogram[bucketOf(nanos)].increment();
+            if (reason != null) {
+                failures[reason.ordinal()].increment();
+            } else if (processed > 0L) {
+                bytes.add(processed);
+            }
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            bytes.reset();
+            for (LongAdder failure : failures) {
+                failure.reset();
+            }
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+        }
+
+        Stats snapshot(long loads) {
+            long[] failureCounts = new long[failures.length];
+            for (int i = 0; i < failures.length; i++) {
+                failureCounts[i] = failures[i].sum();
+            }
+            long[] buckets = new long[histogram.length];
+            for (int i = 0; i < histogram.length; i++) {
+                buckets[i] = histogram[i].sum();
+            }
+            return new Stats(count.sum(), totalNanos.sum(), bytes.sum(), failureCounts, buckets, loads);
+        }
+    }
+
+    // ------------------------------------------------------------- instantáneas
+
+    /**
+     * 📸 Copia de los contadores actuales
+     * Las sumas de {@link LongAdder} no son atómicas entre sí: con tráfico
+     * concurrente los totales pueden diferir en las operaciones en curso.
+     */
+    public static Snapshot snapshot() {
+        Map<Operation, Stats> operations = new EnumMap<>(Operation.class);
+        for (Operation operation : OPERATIONS) {
+            operations.put(operation, OPERATION_RECORDERS[operation.ordinal()].snapshot(0L));
+        }
+        Map<SecretId, Stats> secrets = new EnumMap<>(SecretId.class);
+        for (SecretId secret : SECRETS) {
+            int i = secret.ordinal();
+            secrets.put(secret, SECRET_RECORDERS[i].snapshot(SECRET_LOADS[i].sum()));
+        }
+        return new Snapshot(enabled, sinceMillis, operations, secrets);
+    }
+
+    /**
+     * 📊 Estadísticas inmutables de una operación o de un secreto
+     */
+    public static final class Stats {
+        private final long count;
+        private final long totalNanos;
+        private final long bytes;
+        private final long[] failures;
+        private final long[] histogram;
+        private final long loads;
+
+        Stats(long count, long totalNanos, long bytes, long[] failures, long[] histogram, long loads) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.bytes = bytes;
+            this.failures = failures;
+            this.histogram = histogram;
+            this.loads = loads;
+        }
+
+        /**
+         * @return Llamadas registradas (correctas y fallidas)
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return Llamadas fallidas por cualquier causa
+         */
+        public long getFailureCount() {
+            long total = 0L;
+            for (long failure : failures) {
+                total += failure;
+            }
+            return total;
+        }
+
+        /**
+         * @return Llamadas fallidas por la causa indicada
+         */
+        public long getFailureCount(FailureReason reason) {
+            return failures[reason.ordinal()];
+        }
+
+        /**
+         * @return Bytes procesados por las llamadas correctas (caracteres en las variantes String)
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return Latencia media en ns (0 si no hay llamadas)
+         */
+        public long getMeanNanos() {
+            return count == 0L ? 0L : totalNanos / count;
+        }
+
+        /**
+         * 📐 Percentil aproximado a partir del histograma
+         * @param percentile Entre 0.0 y 1.0 (0.99 = p99)
+         * @return Límite superior en ns de la cubeta que contiene el percentil (0 si no hay llamadas)
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0L;
+            for (long bucket : histogram) {
+                total += bucket;
+            }
+            if (total == 0L) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(Math.max(0.0, Math.min(1.0, percentile)) * total);
+            long seen = 0L;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank && seen > 0L) {
+                    return i == histogram.length - 1 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        /**
+         * @return Copia del histograma (cubeta i = latencias en [2^(i-1), 2^i) ns)
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * @return Cargas por fallo de caché (solo secretos)
+         */
+        public long getLoadCount() {
+            return loads;
+        }
+
+        /**
+         * @return Ratio de aciertos de caché entre 0.0 y 1.0 (solo secretos)
+         */
+        public double getCacheHitRatio() {
+            return count == 0L ? 0.0 : Math.max(0.0, (double) (count - loads) / count);
+        }
+
+        void appendTo(StringBuilder out) {
+            out.append(count).append(" llamadas, ").append(getFailureCount()).append(" fallos, ")
+                    .append(bytes).append(" B, media ").append(formatNanos(getMeanNanos()))
+                    .append(", p50 ≤ ").append(formatNanos(getPercentileNanos(0.50)))
+                    .append(", p99 ≤ ").append(formatNanos(getPercentileNanos(0.99)));
+        }
+    }
+
+    /**
+     * 📸 Instantánea inmutable de todas las métricas
+     */
+    public static final class Snapshot {
+        private final boolean enabled;
+        private final long sinceMillis;
+        private final long timestamp;
+        private final Map<Operation, Stats> operations;
+        private final Map<SecretId, Stats> secrets;
+
+        Snapshot(boolean enabled, long sinceMillis, Map<Operation, Stats> operations, Map<SecretId, Stats> secrets) {
+            this.enabled = enabled;
+            this.sinceMillis = sinceMillis;
+            this.timestamp = System.currentTimeMillis();
+            this.operations = Collections.unmodifiableMap(operations);
+            this.secrets = Collections.unmodifiableMap(secrets);
+        }
+
+        /**
+         * @return true si las métricas estaban activadas al tomar la instantánea
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * @return Inicio de la ventana de medición (ms desde epoch; arranque o último reset)
+         */
+        public long getSinceMillis() {
+            return sinceMillis;
+        }
+
+        /**
+         * @return Momento de la instantánea (ms desde epoch)
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Stats get(Operation operation) {
+            return operations.get(operation);
+        }
+
+        public Stats get(SecretId secret) {
+            return secrets.get(secret);
+        }
+
+        public Map<Operation, Stats> getOperations() {
+            return operations;
+        }
+
+        public Map<SecretId, Stats> getSecrets() {
+            return secrets;
+        }
+
+        /**
+         * @return Ratio global de aciertos de la caché de secretos entre 0.0 y 1.0
+         */
+        public double getCacheHitRatio() {
+            long count = 0L;
+            long loads = 0L;
+            for (Stats stats : secrets.values()) {
+                count += stats.count;
+                loads += stats.loads;
+            }
+            return count == 0L ? 0.0 : Math.max(0.0, (double) (count - loads) / count);
+        }
+
+        /**
+         * 📤 Vista plana para telemetría
+         * Claves {@code <operación>.<métrica>} y {@code secret.<id>.<métrica>}, por ejemplo
+         * {@code decrypt.count}, {@code decrypt.failures.validation}, {@code decrypt.p99_ns}
+         * o {@code secret.epg.cache_hit_ratio}.
+         * @return Mapa ordenado nombre → valor
+         */
+        public Map<String, Number> toMap() {
+            Map<String, Number> out = new LinkedHashMap<>();
+            for (Map.Entry<Operation, Stats> entry : operations.entrySet()) {
+                export(out, entry.getKey().getKey(), entry.getValue(), false);
+            }
+            for (Map.Entry<SecretId, Stats> entry : secrets.entrySet()) {
+                export(out, "secret." + entry.getKey().getId(), entry.getValue(), true);
+            }
+            out.put("secret.cache_hit_ratio", getCacheHitRatio());
+            out.put("window_ms", Math.max(0L, timestamp - sinceMillis));
+            return out;
+        }
+
+        private static void export(Map<String, Number> out, String prefix, Stats stats, boolean secret) {
+            out.put(prefix + ".count", stats.count);
+            out.put(prefix + ".failures", stats.getFailureCount());
+            if (secret) {
+                out.put(prefix + ".loads", stats.loads);
+                out.put(prefix + ".cache_hit_ratio", stats.getCacheHitRatio());
+            } else {
+                for (FailureReason reason : REASONS) {
+                    out.put(prefix + ".failures." + reason.name().toLowerCase(Locale.ROOT), stats.getFailureCount(reason));
+                }
+                out.put(prefix + ".bytes", stats.bytes);
+            }
+            out.put(prefix + ".mean_ns", stats.getMeanNanos());
+            out.put(prefix + ".p50_ns", stats.getPercentileNanos(0.50));
+            out.put(prefix + ".p99_ns", stats.getPercentileNanos(0.99));
+        }
+
+        /**
+         * 📝 Resumen legible (solo operaciones y secretos con llamadas)
+         */
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append("• Estado: ").append(enabled ? "✅ activadas" : "⏸️ desactivadas")
+                    .append(" (ventana: ").append(Math.max(0L, timestamp - sinceMillis)).append(" ms)\n");
+            for (Map.Entry<Operation, Stats> entry : operations.entrySet()) {
+                Stats stats = entry.getValue();
+                if (stats.count == 0L) {
+                    continue;
+                }
+                out.append("• ").append(entry.getKey().getKey()).append(": ");
+                stats.appendTo(out);
+                for (FailureReason reason : REASONS) {
+                    long failures = stats.getFailureCount(reason);
+                    if (failures > 0L) {
+                        out.append(", ").append(reason.name().toLowerCase(Locale.ROOT)).append('=').append(failures);
+                    }
+                }
+                out.append('\n');
+            }
+            for (Map.Entry<SecretId, Stats> entry : secrets.entrySet()) {
+                Stats stats = entry.getValue();
+                if (stats.count == 0L) {
+                    continue;
+                }
+                out.append("• ").append(entry.getKey().getLabel()).append(": ");
+                stats.appendTo(out);
+                out.append(", caché ").append(String.format(Locale.ROOT, "%.2f", stats.getCacheHitRatio())).append('\n');
+            }
+            out.append("• Ratio de aciertos (secretos): ")
+                    .append(String.format(Locale.ROOT, "%.2f", getCacheHitRatio())).append('\n');
+            return out.toString();
+        }
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos == Long.MAX_VALUE) {
+            return "∞";
+        }
+        if (nanos < 10_000L) {
+            return nanos + " ns";
+        }
+        if (nanos < 10_000_000L) {
+            return (nanos / 1_000L) + " µs";
+        }
+        return (nanos / 1_000_000L) + " ms";
+    }
+}
@@ -30,6 +30,15 @@ public class SecurityTestResult {
         this.timestamp = System.currentTimeMillis();
     }
     
+    /**
+     * Constructor con timestamp explícito (resultados derivados de una instantánea cacheada)
+     * @param timestamp Momento en que se ejecutaron las pruebas
+     */
+    SecurityTestResult(long timestamp) {
+        this();
+        this.timestamp = timestamp;
+    }
+    
     /**
      * Agrega una feature detectada
      * @param feature Descripción de la feature
@@ -90,6 +99,23 @@ public class SecurityTestResult {
         return timestamp;
     }
     
+    /**
+     * Obtiene la antigüedad del resultado
+     * @return Milisegundos desde que se ejecutaron las pruebas
+     */
+    public long getAgeMillis() {
+        return Math.max(0L, System.currentTimeMillis() - timestamp);
+    }
+    
+    /**
+     * Verifica si el resultado es más antiguo que el límite dado
+     * @param maxAgeMillis Antigüedad máxima aceptable
+     * @return true si el resultado está obsoleto
+     */
+    public boolean isStale(long maxAgeMillis) {
+        return getAgeMillis() > maxAgeMillis;
+    }
+    
     /**
      * Obtiene un resumen del resultado
      * @return String con el resumen
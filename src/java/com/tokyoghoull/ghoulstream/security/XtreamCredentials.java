@@ -0,0 +1,282 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 📺 XtreamCredentials - Credenciales de Xtream Codes con serialización binaria compacta
+ *
+ * Sustituye al JSON opaco de {@code encryptXtreamCredentials(String)}: los campos
+ * se serializan con prefijo de longitud (sin JSON ni parseo) y el resultado se
+ * encripta directamente. La contraseña se guarda en un {@code char[]} que se
+ * borra con {@link #clear()} / {@link #close()}.
+ *
+ * Formato en claro:
+ * <pre>
+ * versión (1 byte) | servidor | usuario | contraseña
+ * cada campo: longitud UTF-8 (2 bytes, big-endian) + bytes UTF-8
+ * </pre>
+ *
+ * @example
+ * String stored = GhoulStreamSecurity.encryptXtreamCredentials(username, password, server);
+ * try (XtreamCredentials credentials = GhoulStreamSecurity.decryptXtreamCredentialsTyped(stored)) {
+ *     login(credentials.getServer(), credentials.getUsername(), credentials.getPassword());
+ * }
+ *
+ * @author TokyoghoulEs
+ * @version 1.1.0
+ * @since 2026-10-17
+ */
+public final class XtreamCredentials implements AutoCloseable {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int MAX_FIELD_BYTES = 0xFFFF;
+
+    private final String server;
+    private final String username;
+    private final char[] password;
+
+    /**
+     * @param server URL del servidor Xtream
+     * @param username Usuario
+     * @param password Contraseña (se copia; el llamador puede borrar su array)
+     */
+    public XtreamCredentials(String server, String username, char[] password) {
+        this(server, username, password, true);
+    }
+
+    private XtreamCredentials(String server, String username, char[] password, boolean copyPassword) {
+        if (password == null) {
+            throw new IllegalArgumentException("password no puede ser null");
+        }
+        this.server = requireField(server, "server");
+        this.username = requireField(username, "username");
+        this.password = copyPassword ? password.clone() : password;
+    }
+
+    private static String requireField(String value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " no puede ser null");
+        }
+        return value;
+    }
+
+    /**
+     * @return URL del servidor
+     */
+    public String getServer() {
+        return server;
+    }
+
+    /**
+     * @return Usuario
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 🔑 Contraseña
+     * Devuelve el array interno, sin copia: no modificarlo; se borra con {@link #clear()}.
+     * @return Contraseña
+     */
+    public char[] getPassword() {
+        return password;
+    }
+
+    /**
+     * 🧹 Borra la contraseña de memoria
+     */
+    public void clear() {
+        Arrays.fill(password, '\0');
+    }
+
+    /**
+     * 🧹 Equivalente a {@link #clear()} para usar con try-with-resources
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @Override
+    public String toString() {
+        // Nunca incluir la contraseña
+        return "XtreamCredentials{server=" + server + ", username=" + username + "}";
+    }
+
+    // ------------------------------------------------------------- serialización
+
+    /**
+     * 📦 Serializa a la forma binaria con prefijos de longitud
+     * @return Bytes en claro (el llamador debe borrarlos tras encriptarlos)
+     */
+    byte[] toBytes() {
+        byte[] serverBytes = server.getBytes(StandardCharsets.UTF_8);
+        byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+        int passwordLength = utf8Length(password);
+        checkFieldLength(serverBytes.length, "server");
+        checkFieldLength(usernameBytes.length, "username");
+        checkFieldLength(passwordLength, "password");
+
+        byte[] out = new byte[1 + 2 + serverBytes.length + 2 + usernameBytes.length + 2 + passwordLength];
+        int pos = 0;
+        out[pos++] = FORMAT_VERSION;
+        pos = putField(out, pos, serverBytes);
+        pos = putField(out, pos, usernameBytes);
+        out[pos++] = (byte) (passwordLength >>> 8);
+        out[pos++] = (byte) passwordLength;
+        encodeUtf8(password, out, pos);
+        return out;
+    }
+
+    /**
+     * 📦 Reconstruye unas credenciales desde la forma binaria
+     * @param data Bytes en claro
+     * @param offset Inicio
+     * @param length Longitud
+     * @return Credenciales
+     * @throws IllegalArgumentException si el formato no es válido
+     */
+    static XtreamCredentials fromBytes(byte[] data, int offset, int length) {
+        int end = offset + length;
+        if (length < 7 || data[offset] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Formato de credenciales Xtream no soportado");
+        }
+        int pos = offset + 1;
+
+        int serverLength = readLength(data, pos, end);
+        pos += 2;
+        String server = new String(data, pos, serverLength, StandardCharsets.UTF_8);
+        pos += serverLength;
+
+        int usernameLength = readLength(data, pos, end);
+        pos += 2;
+        String username = new String(data, pos, usernameLength, StandardCharsets.UTF_8);
+        pos += usernameLength;
+
+        int passwordLength = readLength(data, pos, end);
+        pos += 2;
+        if (pos + passwordLength != end) {
+            throw new IllegalArgumentException("Credenciales Xtream con bytes sobrantes");
+        }
+        char[] password = decodeUtf8(data, pos, passwordLength);
+        return new XtreamCredentials(server, username, password, false);
+    }
+
+    private static void checkFieldLength(int length, String name) {
+        if (length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException(name + " demasiado largo (" + length + " bytes)");
+        }
+    }
+
+    private static int putField(byte[] out, int pos, byte[] field) {
+        out[pos++] = (byte) (field.length >>> 8);
+        out[pos++] = (byte) field.length;
+        System.arraycopy(field, 0, out, pos, field.length);
+        return pos + field.length;
+    }
+
+    private static int readLength(byte[] data, int pos, int end) {
+        if (pos + 2 > end) {
+            throw new IllegalArgumentException("Credenciales Xtream truncadas");
+        }
+        int length = ((data[pos] & 0xFF) << 8) | (data[pos + 1] & 0xFF);
+        if (pos + 2 + length > end) {
+            throw new IllegalArgumentException("Credenciales Xtream truncadas");
+        }
+        return length;
+    }
+
+    // La contraseña se codifica/decodifica a mano para no pasar nunca por un String
+
+    private static int utf8Length(char[] chars) {
+        int length = 0;
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars.length && Character.isLowSurrogate(chars[i + 1])) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void encodeUtf8(char[] chars, byte[] out, int pos) {
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                out[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars.length && Character.isLowSurrogate(chars[i + 1])) {
+                int cp = Character.toCodePoint(c, chars[++i]);
+                out[pos++] = (byte) (0xF0 | (cp >> 18));
+                out[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                out[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                // Sustitutos sueltos se codifican tal cual (3 bytes), igual que utf8Length
+                out[pos++] = (byte) (0xE0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static char[] decodeUtf8(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int count = 0;
+        for (int i = offset; i < end; ) {
+            int b = data[i] & 0xFF;
+            int size = b < 0x80 ? 1 : b < 0xE0 ? 2 : b < 0xF0 ? 3 : 4;
+            count += size == 4 ? 2 : 1;
+            i += size;
+        }
+
+        char[] chars = new char[count];
+        int n = 0;
+        int i = offset;
+        while (i < end) {
+            int b = data[i] & 0xFF;
+            if (b < 0x80) {
+                chars[n++] = (char) b;
+                i += 1;
+            } else if (b < 0xE0) {
+                requireContinuation(data, i, 2, end);
+                chars[n++] = (char) (((b & 0x1F) << 6) | (data[i + 1] & 0x3F));
+                i += 2;
+            } else if (b < 0xF0) {
+                requireContinuation(data, i, 3, end);
+                chars[n++] = (char) (((b & 0x0F) << 12) | ((data[i + 1] & 0x3F) << 6) | (data[i + 2] & 0x3F));
+                i += 3;
+            } else {
+                requireContinuation(data, i, 4, end);
+                int cp = ((b & 0x07) << 18) | ((data[i + 1] & 0x3F) << 12)
+                        | ((data[i + 2] & 0x3F) << 6) | (data[i + 3] & 0x3F);
+                chars[n++] = Character.highSurrogate(cp);
+                chars[n++] = Character.lowSurrogate(cp);
+                i += 4;
+            }
+        }
+        return chars;
+    }
+
+    private static void requireContinuation(byte[] data, int pos, int size, int end) {
+        if (pos + size > end) {
+            throw new IllegalArgumentException("Contraseña UTF-8 truncada");
+        }
+        for (int k = 1; k < size; k++) {
+            if ((data[pos + k] & 0xC0) != 0x80) {
+                throw new IllegalArgumentException("Contraseña UTF-8 inválida");
+            }
+        }
+    }
+}
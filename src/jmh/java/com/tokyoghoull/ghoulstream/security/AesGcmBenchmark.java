@@ -0,0 +1,103 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks AES-GCM (JCE) frente al algoritmo heredado, desde URLs de 16 B hasta 1 MB
+ *
+ * - *InPlace / seal*: coste del cifrado sobre bytes, sin Base64 ni cabecera de texto.
+ * - *Envelope*: camino completo de {@link KeyRing} (String → sobre {@code gse:...}).
+ *
+ * Con -Pjmh.nativeLibDir el camino heredado usa libencryption.so (ida y vuelta JNI);
+ * sin ella, el motor Java.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=AesGcmBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesGcmBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    @Param({"16", "256", "1024", "4096", "65536", "1048576"})
+    public int payloadSize;
+
+    private PreparedKey key;
+    private byte[] plain;
+    private byte[] buffer;
+    private String plainText;
+    private KeyRing legacyRing;
+    private KeyRing aesRing;
+    private String legacyEnvelope;
+    private String aesEnvelope;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        key = NativeEncryption.prepareKey(KEY);
+        plainText = BenchmarkData.asciiPayload(payloadSize);
+        plain = plainText.getBytes(StandardCharsets.UTF_8);
+        buffer = plain.clone();
+
+        legacyRing = new KeyRing(1, key);
+        legacyRing.setAlgorithm(CipherEnvelope.ALG_LEGACY);
+        aesRing = new KeyRing(1, key);
+        aesRing.setAlgorithm(CipherEnvelope.ALG_AES_GCM);
+        legacyEnvelope = legacyRing.encrypt(plainText);
+        aesEnvelope = aesRing.encrypt(plainText);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        key.close();
+    }
+
+    @Benchmark
+    public boolean legacyInPlace() {
+        return NativeEncryption.encryptInPlace(buffer, 0, buffer.length, key);
+    }
+
+    @Benchmark
+    public byte[] aesGcmSeal() throws GeneralSecurityException {
+        return AesGcmCipher.seal(key, 1, 0, plain, 0, plain.length);
+    }
+
+    @Benchmark
+    public String legacyEnvelopeEncrypt() {
+        return legacyRing.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String aesGcmEnvelopeEncrypt() {
+        return aesRing.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String legacyEnvelopeDecrypt() {
+        return legacyRing.decrypt(legacyEnvelope);
+    }
+
+    @Benchmark
+    public String aesGcmEnvelopeDecrypt() {
+        return aesRing.decrypt(aesEnvelope);
+    }
+}
@@ -0,0 +1,68 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.util.Locale;
+
+/**
+ * 🧪 Datos de prueba compartidos por los benchmarks
+ */
+final class BenchmarkData {
+
+    private static final String URL_PATTERN =
+            "https://ghoulstream.example/live/user/pass/12345.m3u8?token=a1b2c3d4&epg=1\n";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Texto ASCII de la longitud exacta indicada con forma de playlist
+     */
+    static String asciiPayload(int length) {
+        StringBuilder sb = new StringBuilder(length + URL_PATTERN.length());
+        while (sb.length() < length) {
+            sb.append(URL_PATTERN);
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    /**
+     * JSON de configuración de usuario de la longitud exacta indicada
+     */
+    static String jsonConfig(int length) {
+        StringBuilder sb = new StringBuilder(length + 128).append("{\"favorites\":[");
+        for (int i = 0; sb.length() < length; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"Canal ").append(i)
+                    .append("\",\"group\":\"Deportes\",\"lastWatched\":").append(1760000000L + i * 37L).append("},");
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    /**
+     * Guía EPG (XMLTV) de la longitud exacta indicada
+     */
+    static String epgXml(int length) {
+        StringBuilder sb = new StringBuilder(length + 256).append("<tv>\n");
+        for (int i = 0; sb.length() < length; i++) {
+            sb.append("<programme start=\"20261017").append(String.format(Locale.ROOT, "%04d", i % 2400))
+                    .append("00 +0000\" channel=\"ch").append(i % 500).append("\"><title lang=\"es\">Programa ")
+                    .append(i).append("</title><desc lang=\"es\">Episodio ").append(i % 40)
+                    .append(" de la temporada</desc></programme>\n");
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    /**
+     * Playlist M3U con el número de canales indicado
+     */
+    static String m3uPlaylist(int channels) {
+        StringBuilder sb = new StringBuilder(channels * 160).append("#EXTM3U\n");
+        for (int i = 0; i < channels; i++) {
+            sb.append("#EXTINF:-1 tvg-id=\"ch").append(i).append("\" group-title=\"Grupo ").append(i % 25)
+                    .append("\",Canal ").append(i).append('\n')
+                    .append("https://ghoulstream.example/live/user/pass/").append(10000 + i).append(".m3u8\n");
+        }
+        return sb.toString();
+    }
+}
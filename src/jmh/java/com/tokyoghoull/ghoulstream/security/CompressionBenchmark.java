@@ -0,0 +1,118 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de la compresión previa al cifrado ({@link KeyRing#setCompression(boolean)})
+ *
+ * - *seal/open*: camino completo de {@link KeyRing} (String → sobre AES-GCM) con y sin compresión.
+ * - *deflateOnly / inflateOnly*: tiempo de la etapa de compresión aislada.
+ *
+ * El ratio (texto original / sobre) de cada payload se imprime al preparar el trial.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=CompressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    @Param({"config", "epg", "playlist"})
+    public String payloadType;
+
+    @Param({"4096", "262144"})
+    public int payloadSize;
+
+    private PreparedKey key;
+    private KeyRing plainRing;
+    private KeyRing compressedRing;
+    private String payload;
+    private byte[] payloadBytes;
+    private byte[] deflated;
+    private String plainEnvelope;
+    private String compressedEnvelope;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        key = NativeEncryption.prepareKey(KEY);
+        plainRing = new KeyRing(1, key);
+        compressedRing = new KeyRing(1, key);
+        compressedRing.setCompression(true);
+
+        switch (payloadType) {
+            case "config":
+                payload = BenchmarkData.jsonConfig(payloadSize);
+                break;
+            case "epg":
+                payload = BenchmarkData.epgXml(payloadSize);
+                break;
+            default:
+                payload = BenchmarkData.m3uPlaylist(payloadSize / 120);
+                break;
+        }
+        payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        deflated = PayloadCompressor.compress(payloadBytes, 0, payloadBytes.length);
+        plainEnvelope = plainRing.encrypt(payload);
+        compressedEnvelope = compressedRing.encrypt(payload);
+
+        System.out.println(String.format(Locale.ROOT, "%n📦 %s: %d B → sobre %d B sin comprimir / %d B comprimido (ratio %.2fx)",
+                payloadType, payloadBytes.length, plainEnvelope.length(), compressedEnvelope.length(),
+                (double) plainEnvelope.length() / compressedEnvelope.length()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        key.close();
+    }
+
+    @Benchmark
+    public String sealPlain() {
+        return plainRing.encrypt(payload);
+    }
+
+    @Benchmark
+    public String sealCompressed() {
+        return compressedRing.encrypt(payload);
+    }
+
+    @Benchmark
+    public String openPlain() {
+        return plainRing.decrypt(plainEnvelope);
+    }
+
+    @Benchmark
+    public String openCompressed() {
+        return compressedRing.decrypt(compressedEnvelope);
+    }
+
+    @Benchmark
+    public byte[] deflateOnly() {
+        return PayloadCompressor.compress(payloadBytes, 0, payloadBytes.length);
+    }
+
+    @Benchmark
+    public byte[] inflateOnly() {
+        return PayloadCompressor.decompress(deflated, 0, deflated.length);
+    }
+}
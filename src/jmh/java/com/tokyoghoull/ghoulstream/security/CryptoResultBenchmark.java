@@ -0,0 +1,71 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks del camino de error: API clásica (null + log) frente a {@link CryptoResult}
+ *
+ * El log de Android no existe en la JVM del host; los stubs lo descartan, así
+ * que en el dispositivo la diferencia del camino clásico es mayor.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=CryptoResultBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoResultBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+    private static final String SHORT_KEY = "corta";
+
+    private String plain;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        plain = BenchmarkData.asciiPayload(64);
+    }
+
+    @Benchmark
+    public String encryptSuccess() {
+        return NativeEncryption.encrypt(plain, KEY);
+    }
+
+    @Benchmark
+    public CryptoResult tryEncryptSuccess() {
+        return NativeEncryption.tryEncrypt(plain, KEY);
+    }
+
+    @Benchmark
+    public String encryptRejected() {
+        return NativeEncryption.encrypt(plain, SHORT_KEY);
+    }
+
+    @Benchmark
+    public CryptoResult tryEncryptRejected() {
+        return NativeEncryption.tryEncrypt(plain, SHORT_KEY);
+    }
+
+    @Benchmark
+    public FailureReason tryEncryptRejectedThrowing() {
+        try {
+            return NativeEncryption.tryEncrypt(plain, SHORT_KEY).getValue() != null ? null : FailureReason.VALIDATION;
+        } catch (CryptoException e) {
+            return e.getReason();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de GhoulStreamSecurity: getters de constantes, registro de secretos
+ * (incluido el acceso por reflexión frente a un MethodHandle cacheado) y
+ * construcción de la clave maestra
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=GhoulStreamSecurityBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GhoulStreamSecurityBenchmark {
+
+    private Method epgGetter;
+    private MethodHandle secretHandle;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Lo que hace SecurityManagerWrapper hoy (un Method por getter) frente a un único MethodHandle
+        Class<?> security = Class.forName("com.tokyoghoull.ghoulstream.security.GhoulStreamSecurity");
+        epgGetter = security.getMethod("getEpgUrl");
+        secretHandle = MethodHandles.publicLookup().findStatic(security, "getSecret",
+                MethodType.methodType(String.class, String.class));
+    }
+
+    @Benchmark
+    public String channelsUrlCached() {
+        return GhoulStreamSecurity.getDefaultChannelsUrl();
+    }
+
+    @Benchmark
+    public String channelsUrlUncached() {
+        GhoulStreamSecurity.getConstantCache().invalidateAll();
+        return GhoulStreamSecurity.getDefaultChannelsUrl();
+    }
+
+    @Benchmark
+    public String xtreamConfigCached() {
+        return GhoulStreamSecurity.getXtreamConfig();
+    }
+
+    @Benchmark
+    public String epgUrlCached() {
+        return GhoulStreamSecurity.getEpgUrl();
+    }
+
+    @Benchmark
+    public String epgSecretById() {
+        return GhoulStreamSecurity.getSecret(SecretId.EPG);
+    }
+
+    @Benchmark
+    public Object epgViaReflection() throws Exception {
+        return epgGetter.invoke(null);
+    }
+
+    @Benchmark
+    public String epgViaMethodHandle() throws Throwable {
+        return (String) secretHandle.invokeExact("epg");
+    }
+
+    @Benchmark
+    public Map<SecretId, String> allSecretsUncached() {
+        GhoulStreamSecurity.getConstantCache().invalidateAll();
+        return GhoulStreamSecurity.getAllSecrets();
+    }
+
+    @Benchmark
+    public String buildMasterKey() {
+        return GhoulStreamSecurity.buildMasterKey();
+    }
+}
@@ -0,0 +1,106 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de {@link IncrementalPlaylist}: re-encriptado completo frente a delta
+ *
+ * - *fullReencrypt*: lo que se hacía hasta ahora, un único sobre {@link KeyRing} con toda la playlist.
+ * - *segmentedEncrypt*: primera encriptación por segmentos.
+ * - *deltaUpdate*: nueva versión con {@code changed} canales modificados sobre la guardada.
+ * - *deltaApply*: aplicar el delta (deserializado) a la versión guardada.
+ *
+ * El tamaño del delta frente al de la playlist se imprime al preparar el trial.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=IncrementalPlaylistBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncrementalPlaylistBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    @Param({"20000"})
+    public int channels;
+
+    @Param({"50", "500"})
+    public int changed;
+
+    private PreparedKey key;
+    private KeyRing ring;
+    private String original;
+    private String updated;
+    private IncrementalPlaylist stored;
+    private byte[] deltaBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecurityLog.setLevel(SecurityLog.OFF);
+        key = NativeEncryption.prepareKey(KEY);
+        ring = new KeyRing(1, key);
+        original = BenchmarkData.m3uPlaylist(channels);
+        updated = modify(original, changed);
+        stored = IncrementalPlaylist.encrypt(ring, original);
+        deltaBytes = stored.update(ring, updated).toBytes();
+
+        System.out.println(String.format(Locale.ROOT, "%n📺 %d canales, %d cambiados: playlist %d B, delta %d B",
+                channels, changed, stored.toBytes().length, deltaBytes.length));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        key.close();
+    }
+
+    /**
+     * Cambia el nombre de {@code count} canales repartidos por toda la playlist
+     */
+    private static String modify(String playlist, int count) {
+        String[] lines = playlist.split("\n", -1);
+        int records = (lines.length - 2) / 2;
+        for (int i = 0; i < count; i++) {
+            int line = 1 + 2 * (int) ((long) i * records / count);
+            lines[line] = lines[line] + " HD";
+        }
+        return String.join("\n", lines);
+    }
+
+    @Benchmark
+    public String fullReencrypt() {
+        return ring.encrypt(updated);
+    }
+
+    @Benchmark
+    public IncrementalPlaylist segmentedEncrypt() {
+        return IncrementalPlaylist.encrypt(ring, updated);
+    }
+
+    @Benchmark
+    public IncrementalPlaylist.Delta deltaUpdate() {
+        return stored.update(ring, updated);
+    }
+
+    @Benchmark
+    public IncrementalPlaylist deltaApply() {
+        return stored.apply(IncrementalPlaylist.Delta.fromBytes(deltaBytes));
+    }
+}
@@ -0,0 +1,101 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de rotación de claves: coste por valor de re-encriptar (formato
+ * anterior y sobre con clave antigua), coste de comprobar un valor ya migrado y
+ * migración completa de un almacén sin límite de ritmo
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=KeyMigrationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyMigrationBenchmark {
+
+    private static final String OLD_KEY = "GhoulStream2025ProSecureKey";
+    private static final String NEW_KEY = "GhoulStream2026RotatedKey";
+
+    @Param({"64", "1024"})
+    public int valueSize;
+
+    private KeyRing ring;
+    private String legacyValue;
+    private String oldKeyValue;
+    private String currentValue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String plain = BenchmarkData.asciiPayload(valueSize);
+        ring = new KeyRing();
+        ring.addKey(1, OLD_KEY);
+        legacyValue = NativeEncryption.encrypt(plain, OLD_KEY);
+        oldKeyValue = ring.encrypt(plain);
+        ring.addKey(2, NEW_KEY);
+        ring.setCurrentKeyId(2);
+        currentValue = ring.encrypt(plain);
+    }
+
+    @Benchmark
+    public String reencryptLegacy() {
+        return ring.reencrypt(legacyValue);
+    }
+
+    @Benchmark
+    public String reencryptOldKey() {
+        return ring.reencrypt(oldKeyValue);
+    }
+
+    @Benchmark
+    public boolean checkAlreadyMigrated() {
+        return ring.needsReencryption(currentValue);
+    }
+
+    @Benchmark
+    public String decryptEnvelope() {
+        return ring.decrypt(currentValue);
+    }
+
+    /**
+     * 🚚 Migración de un almacén completo (1000 valores del formato anterior)
+     */
+    @State(Scope.Thread)
+    public static class Store {
+        static final int VALUES = 1000;
+        ConcurrentHashMap<String, String> map;
+        KeyMigrator migrator;
+
+        @Setup(Level.Invocation)
+        public void fill(KeyMigrationBenchmark bench) {
+            map = new ConcurrentHashMap<>();
+            for (int i = 0; i < VALUES; i++) {
+                map.put("value-" + i, i % 2 == 0 ? bench.legacyValue : bench.oldKeyValue);
+            }
+            migrator = new KeyMigrator(bench.ring, KeyMigrator.forMap(map));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int migrateStore(Store store) {
+        return store.migrator.migrateNow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Coste del logging en la ruta crítica: DEBUG activo frente a desactivado
+ *
+ * Con -prof gc, el caso "disabled" solo debe asignar el String resultado del cifrado.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=LoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+    private static final String URL = "https://ghoulstream.example/live/playlist.m3u";
+
+    /** "enabled" = DEBUG con un destino que consume el mensaje, "disabled" = nivel INFO */
+    @Param({"enabled", "disabled"})
+    public String logging;
+
+    private Blackhole sinkHole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        sinkHole = blackhole;
+        SecurityLog.setSink((level, tag, message, error) -> sinkHole.consume(message));
+        SecurityLog.setLevel("enabled".equals(logging) ? SecurityLog.DEBUG : SecurityLog.INFO);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityLog.setSink(SecurityLog.ANDROID);
+    }
+
+    @Benchmark
+    public String encryptShortUrl() {
+        return NativeEncryption.encrypt(URL, KEY);
+    }
+
+    @Benchmark
+    public String cachedGetter() {
+        return GhoulStreamSecurity.getDefaultChannelsUrl();
+    }
+}
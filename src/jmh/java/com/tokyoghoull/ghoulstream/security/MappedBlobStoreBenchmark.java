@@ -0,0 +1,137 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de MappedBlobStore: lectura aleatoria de un registro desde el archivo
+ * mapeado frente a desencriptar Strings encriptados guardados en el heap, apertura
+ * del contenedor y escritura completa
+ *
+ * Al preparar cada prueba se imprime el tamaño del archivo y el heap aproximado que
+ * ocuparía la misma playlist como Strings encriptados.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=MappedBlobStoreBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedBlobStoreBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    @Param({"10000", "50000"})
+    public int records;
+
+    private PreparedKey key;
+    private File file;
+    private MappedBlobStore store;
+    private String[] heapEncrypted;
+    private int[] lookups;
+    private int cursor;
+    private final byte[] buffer = new byte[1024];
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        key = NativeEncryption.prepareKey(KEY);
+        file = File.createTempFile("ghoulstream-blob", ".gsmb");
+        heapEncrypted = new String[records];
+
+        long heapBytes = 0;
+        try (MappedBlobStore.Writer writer = MappedBlobStore.create(file, key)) {
+            for (int i = 0; i < records; i++) {
+                String entry = channelEntry(i);
+                writer.add(entry);
+                heapEncrypted[i] = NativeEncryption.encrypt(entry, key);
+                // Cabecera de String + array de bytes (Latin-1 compacto) + referencia del array
+                heapBytes += 24 + 16 + heapEncrypted[i].length() + 4;
+            }
+        }
+        store = MappedBlobStore.open(file, key);
+
+        lookups = new int[4096];
+        Random random = new Random(42);
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = random.nextInt(records);
+        }
+
+        System.out.printf("%n📏 %d registros: archivo %d KB, Strings encriptados en heap ≈ %d KB%n",
+                records, store.getFileSize() / 1024, heapBytes / 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(file.toPath());
+        key.close();
+    }
+
+    private static String channelEntry(int i) {
+        return "#EXTINF:-1 tvg-id=\"ch" + i + "\" tvg-logo=\"https://ghoulstream.example/logo/" + i
+                + ".png\" group-title=\"Grupo " + (i % 40) + "\",Canal " + i + "\n"
+                + "https://ghoulstream.example/live/user/pass/" + i + ".m3u8";
+    }
+
+    private int nextIndex() {
+        return lookups[cursor++ & (lookups.length - 1)];
+    }
+
+    @Benchmark
+    public int readMappedIntoBuffer() {
+        return store.read(nextIndex(), buffer, 0);
+    }
+
+    @Benchmark
+    public String getStringMapped() {
+        return store.getString(nextIndex());
+    }
+
+    @Benchmark
+    public String decryptHeapString() {
+        return NativeEncryption.decrypt(heapEncrypted[nextIndex()], key);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int openAndReadOne() throws IOException {
+        try (MappedBlobStore opened = MappedBlobStore.open(file, key)) {
+            return opened.read(0, buffer, 0);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public int writeAll() throws IOException {
+        File target = File.createTempFile("ghoulstream-blob-write", ".gsmb");
+        try (MappedBlobStore.Writer writer = MappedBlobStore.create(target, key)) {
+            for (int i = 0; i < records; i++) {
+                writer.add(channelEntry(i));
+            }
+            return writer.size();
+        } finally {
+            Files.deleteIfExists(target.toPath());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de NativeEncryption: encrypt/decrypt desde URLs de 16 B hasta configs de 1 MB
+ *
+ * Los métodos *Prepared usan una {@link PreparedKey}; comparar con sus equivalentes
+ * de clave String en los tamaños pequeños, donde preparar la clave domina el coste.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=NativeEncryptionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NativeEncryptionBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    @Param({"16", "256", "4096", "65536", "1048576"})
+    public int payloadSize;
+
+    /** "default" = selección automática, "java" = motor Java forzado */
+    @Param({"default", "java"})
+    public String engine;
+
+    private String plainText;
+    private String encryptedText;
+    private byte[] buffer;
+    private PreparedKey preparedKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("java".equals(engine)) {
+            NativeEncryption.setEngine(NativeEncryption.getJavaEngine());
+        } else {
+            NativeEncryption.reselectEngine();
+        }
+        plainText = BenchmarkData.asciiPayload(payloadSize);
+        encryptedText = NativeEncryption.encrypt(plainText, KEY);
+        buffer = plainText.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        preparedKey = NativeEncryption.prepareKey(KEY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        preparedKey.close();
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return NativeEncryption.encrypt(plainText, KEY);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return NativeEncryption.decrypt(encryptedText, KEY);
+    }
+
+    @Benchmark
+    public boolean encryptInPlace() {
+        return NativeEncryption.encryptInPlace(buffer, KEY);
+    }
+
+    @Benchmark
+    public String encryptPrepared() {
+        return NativeEncryption.encrypt(plainText, preparedKey);
+    }
+
+    @Benchmark
+    public String decryptPrepared() {
+        return NativeEncryption.decrypt(encryptedText, preparedKey);
+    }
+
+    @Benchmark
+    public boolean encryptInPlacePrepared() {
+        return NativeEncryption.encryptInPlace(buffer, 0, buffer.length, preparedKey);
+    }
+}
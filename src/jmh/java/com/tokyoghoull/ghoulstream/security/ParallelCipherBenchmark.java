@@ -0,0 +1,87 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de {@link ParallelCipher}: escalado con el número de hilos
+ *
+ * Compara el camino secuencial de {@link NativeEncryption} con el reparto por
+ * trozos en un {@link ForkJoinPool} de {@code parallelism} hilos, para
+ * payloads de tamaño EPG / playlist. El speedup es parallel / sequential con
+ * el mismo payloadSize; no pasa del número de núcleos del host.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=ParallelCipherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelCipherBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    @Param({"1048576", "8388608"})
+    public int payloadSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private PreparedKey key;
+    private byte[] buffer;
+    private String plainText;
+    private ForkJoinPool pool;
+    private ParallelCipher parallel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        key = NativeEncryption.prepareKey(KEY);
+        plainText = BenchmarkData.asciiPayload(payloadSize);
+        buffer = plainText.getBytes(StandardCharsets.UTF_8);
+        pool = new ForkJoinPool(parallelism);
+        parallel = new ParallelCipher(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+        key.close();
+    }
+
+    @Benchmark
+    public boolean sequentialInPlace() {
+        return NativeEncryption.encryptInPlace(buffer, 0, buffer.length, key);
+    }
+
+    @Benchmark
+    public boolean parallelInPlace() {
+        return parallel.encryptInPlace(buffer, 0, buffer.length, key);
+    }
+
+    @Benchmark
+    public String sequentialString() {
+        return NativeEncryption.encrypt(plainText, key);
+    }
+
+    @Benchmark
+    public String parallelString() {
+        return parallel.encrypt(plainText, key);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks del coste de {@link SecurityMetrics} sobre las operaciones más cortas
+ *
+ * Con {@code metrics=false} el resultado debe coincidir con NativeEncryptionBenchmark;
+ * la variante de 4 hilos comprueba que los LongAdder no añaden contención.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=SecurityMetricsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityMetricsBenchmark {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private String plain;
+    private PreparedKey key;
+    private byte[] buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecurityMetrics.setEnabled(metrics);
+        SecurityMetrics.reset();
+        plain = BenchmarkData.asciiPayload(64);
+        key = NativeEncryption.prepareKey(KEY);
+        buffer = BenchmarkData.asciiPayload(256).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        key.close();
+        SecurityMetrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public String encryptString() {
+        return NativeEncryption.encrypt(plain, KEY);
+    }
+
+    @Benchmark
+    public boolean encryptInPlacePrepared() {
+        return NativeEncryption.encryptInPlace(buffer, 0, buffer.length, key);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String encryptStringContended() {
+        return NativeEncryption.encrypt(plain, KEY);
+    }
+}
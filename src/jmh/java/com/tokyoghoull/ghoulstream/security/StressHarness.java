@@ -0,0 +1,491 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * 🔥 StressHarness - Pruebas de concurrencia del módulo con curvas de escalado
+ *
+ * Cada escenario martillea la API pública desde 1..N hilos a la vez y comprueba
+ * cada resultado contra una referencia calculada en un solo hilo (no basta con
+ * la ida y vuelta: un estado compartido corrupto podría encriptar y
+ * desencriptar mal de forma simétrica). Se ejecuta con hilos de plataforma y,
+ * en JDK 21+, con hilos virtuales (por reflexión: el módulo compila para Java 17).
+ *
+ * Informa ops/s, aceleración respecto a 1 hilo y eficiencia por núcleo; termina
+ * con código 1 si algún resultado no coincide o alguna operación lanza.
+ *
+ * Ejecutar con: ./gradlew :security-module:stress
+ *   -Pstress.scenario=secrets      # filtro (regex) de escenarios
+ *   -Pstress.threads=1,2,4,8       # hilos (por defecto 1, 2, 4... hasta 2× núcleos)
+ *   -Pstress.seconds=3             # duración de cada medición
+ */
+public final class StressHarness {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+    private static final String[] KEYS = {KEY, "GhoulStream2026RotatedKey", "AnotherStressKey42", "Ñandú-clave-ÜTF8"};
+    private static final int SAMPLES = 256;
+
+    /**
+     * Una operación de un escenario; devuelve false si el resultado no coincide con la referencia
+     */
+    private interface Operation {
+        boolean run(ThreadLocalRandom random);
+    }
+
+    /**
+     * Escenario: preparación en un solo hilo, operación concurrente y comprobación final
+     */
+    private abstract static class Scenario {
+        final String name;
+        final String description;
+
+        Scenario(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        void setUp() {
+        }
+
+        abstract Operation operation();
+
+        /**
+         * Se ejecuta justo antes de cada medición (tras el calentamiento)
+         */
+        void beforeMeasure() {
+        }
+
+        /**
+         * @param operations Operaciones ejecutadas en la medición
+         * @return Error de la comprobación final o null
+         */
+        String verify(long operations) {
+            return null;
+        }
+
+        void tearDown() {
+        }
+    }
+
+    /**
+     * Resultado de una medición
+     */
+    private static final class Measurement {
+        long operations;
+        long mismatches;
+        long nanos;
+        Throwable firstError;
+    }
+
+    private StressHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        Pattern filter = Pattern.compile(options.getOrDefault("scenario", ".*"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "2"));
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] threads = options.containsKey("threads")
+                ? Arrays.stream(options.get("threads").split(",")).mapToInt(t -> Integer.parseInt(t.trim())).toArray()
+                : defaultThreadCounts(cores);
+        boolean virtualAvailable = virtualThreadBuilder() != null;
+
+        System.out.println("🔥 GhoulStream StressHarness");
+        System.out.println("• Núcleos: " + cores + ", hilos: " + Arrays.toString(threads) + ", " + seconds + " s por medición");
+        System.out.println("• Motor: " + NativeEncryption.getEngine().getName()
+                + (NativeEncryption.isNativeLibraryLoaded() ? " (libencryption.so)" : " (sin librería nativa)"));
+        System.out.println("• Hilos virtuales: " + (virtualAvailable ? "sí" : "no (requiere JDK 21+)"));
+
+        boolean failed = false;
+        for (Scenario scenario : scenarios()) {
+            if (!filter.matcher(scenario.name).find()) {
+                continue;
+            }
+            scenario.setUp();
+            try {
+                failed |= runCurve(scenario, threads, cores, seconds, false);
+                if (virtualAvailable) {
+                    failed |= runCurve(scenario, threads, cores, seconds, true);
+                }
+            } finally {
+                scenario.tearDown();
+            }
+        }
+
+        System.out.println();
+        System.out.println(failed ? "❌ Se encontraron errores de concurrencia" : "✅ Sin errores de concurrencia");
+        System.exit(failed ? 1 : 0);
+    }
+
+    // ------------------------------------------------------------- escenarios
+
+    private static List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+
+        // Strings con clave String: caché de la última clave en bytes compartida entre hilos
+        scenarios.add(new Scenario("roundtrip", "encrypt/decrypt(String) con claves alternas") {
+            final String[][] plain = new String[KEYS.length][SAMPLES];
+            final String[][] cipher = new String[KEYS.length][SAMPLES];
+
+            @Override
+            void setUp() {
+                for (int k = 0; k < KEYS.length; k++) {
+                    for (int i = 0; i < SAMPLES; i++) {
+                        plain[k][i] = sample(i);
+                        cipher[k][i] = NativeEncryption.encrypt(plain[k][i], KEYS[k]);
+                    }
+                }
+            }
+
+            @Override
+            Operation operation() {
+                return random -> {
+                    int k = random.nextInt(KEYS.length);
+                    int i = random.nextInt(SAMPLES);
+                    String encrypted = NativeEncryption.encrypt(plain[k][i], KEYS[k]);
+                    return cipher[k][i].equals(encrypted)
+                            && plain[k][i].equals(NativeEncryption.decrypt(encrypted, KEYS[k]));
+                };
+            }
+        });
+
+        // Bytes con una clave preparada compartida (contador de usuarios) y posición de flujo aleatoria
+        scenarios.add(new Scenario("prepared", "encrypt/decryptInPlace con PreparedKey compartida") {
+            PreparedKey key;
+            byte[] plain;
+            byte[] cipher;
+
+            @Override
+            void setUp() {
+                key = NativeEncryption.prepareKey(KEY);
+                plain = BenchmarkData.asciiPayload(4096).getBytes(StandardCharsets.UTF_8);
+                cipher = plain.clone();
+                NativeEncryption.encryptInPlace(cipher, 0, cipher.length, key, 0L);
+            }
+
+            @Override
+            Operation operation() {
+                byte[] buffer = new byte[plain.length];
+                return random -> {
+                    int offset = random.nextInt(plain.length - 64);
+                    int length = 1 + random.nextInt(Math.min(1024, plain.length - offset));
+                    System.arraycopy(plain, offset, buffer, 0, length);
+                    if (!NativeEncryption.encryptInPlace(buffer, 0, length, key, offset)) {
+                        return false;
+                    }
+                    for (int j = 0; j < length; j++) {
+                        if (buffer[j] != cipher[offset + j]) {
+                            return false;
+                        }
+                    }
+                    if (!NativeEncryption.decryptInPlace(buffer, 0, length, key, offset)) {
+                        return false;
+                    }
+                    for (int j = 0; j < length; j++) {
+                        if (buffer[j] != plain[offset + j]) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+            }
+
+            @Override
+            void tearDown() {
+                key.close();
+            }
+        });
+
+        // Getters de secretos con invalidaciones concurrentes (borrado de buffers mientras se leen)
+        scenarios.add(new Scenario("secrets", "getSecret() con invalidaciones de caché concurrentes") {
+            final Map<SecretId, String> reference = new EnumMap<>(SecretId.class);
+            final SecretId[] ids = SecretId.values();
+
+            @Override
+            void setUp() {
+                for (SecretId id : ids) {
+                    reference.put(id, GhoulStreamSecurity.getSecret(id));
+                }
+            }
+
+            @Override
+            Operation operation() {
+                return random -> {
+                    if (random.nextInt(64) == 0) {
+                        GhoulStreamSecurity.getConstantCache().invalidate(ids[random.nextInt(ids.length)].getId());
+                    }
+                    SecretId id = ids[random.nextInt(ids.length)];
+                    String value = GhoulStreamSecurity.getSecret(id);
+                    return value != null && value.equals(reference.get(id));
+                };
+            }
+        });
+
+        // Rotación de la clave actual mientras otros hilos encriptan y desencriptan
+        scenarios.add(new Scenario("keyring", "KeyRing con rotación de clave concurrente") {
+            KeyRing ring;
+            String[] plain;
+
+            @Override
+            void setUp() {
+                ring = new KeyRing();
+                for (int k = 0; k < KEYS.length; k++) {
+                    ring.addKey(k + 1, KEYS[k]);
+                }
+                plain = new String[SAMPLES];
+                for (int i = 0; i < SAMPLES; i++) {
+                    plain[i] = sample(i);
+                }
+            }
+
+            @Override
+            Operation operation() {
+                return random -> {
+                    if (random.nextInt(256) == 0) {
+                        ring.setCurrentKeyId(1 + random.nextInt(KEYS.length));
+                    }
+                    String value = plain[random.nextInt(SAMPLES)];
+                    String encrypted = ring.encrypt(value);
+                    return encrypted != null && value.equals(ring.decrypt(encrypted));
+                };
+            }
+        });
+
+        // Métricas activadas: ningún incremento perdido bajo contención
+        scenarios.add(new Scenario("metrics", "SecurityMetrics activadas (sin incrementos perdidos)") {
+            final String value = sample(7);
+            final String expected = NativeEncryption.encrypt(value, KEY);
+
+            @Override
+            void setUp() {
+                SecurityMetrics.setEnabled(true);
+            }
+
+            @Override
+            void beforeMeasure() {
+                SecurityMetrics.reset();
+            }
+
+            @Override
+            Operation operation() {
+                return random -> expected.equals(NativeEncryption.tryEncrypt(value, KEY).getValueOrNull());
+            }
+
+            @Override
+            String verify(long operations) {
+                long counted = SecurityMetrics.snapshot().get(SecurityMetrics.Operation.ENCRYPT).getCount();
+                return counted == operations ? null
+                        : "SecurityMetrics contó " + counted + " encriptaciones de " + operations;
+            }
+
+            @Override
+            void tearDown() {
+                SecurityMetrics.setEnabled(false);
+            }
+        });
+
+        // Inicialización y getters de estado desde muchos hilos a la vez
+        scenarios.add(new Scenario("lifecycle", "initializeAsync() y getters de estado concurrentes") {
+            int previousLevel;
+
+            @Override
+            void setUp() {
+                // Cada intento sin Context registra un error: se silencia para no inundar la salida
+                previousLevel = SecurityLog.getLevel();
+                SecurityLog.setLevel(SecurityLog.OFF);
+            }
+
+            @Override
+            Operation operation() {
+                return random -> {
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            // Sin Context en la JVM del host: cada intento debe terminar en false, nunca colgarse.
+                            // Puede devolver el future de otro hilo aún sin completar, por eso join()
+                            return !GhoulStreamSecurity.initializeAsync(null, Runnable::run).join();
+                        case 1:
+                            return !GhoulStreamSecurity.isInitialized()
+                                    && !GhoulStreamSecurity.awaitInitialization(0, TimeUnit.MILLISECONDS);
+                        case 2:
+                            return NativeEncryption.isAvailable() && NativeEncryption.getEngine() != null;
+                        default:
+                            return GhoulStreamSecurity.getKeyRing().getCurrentKeyId() == GhoulStreamSecurity.MASTER_KEY_ID;
+                    }
+                };
+            }
+
+            @Override
+            void tearDown() {
+                SecurityLog.setLevel(previousLevel);
+            }
+        });
+
+        return scenarios;
+    }
+
+    // ------------------------------------------------------------- ejecución
+
+    private static boolean runCurve(Scenario scenario, int[] threadCounts, int cores, long seconds, boolean virtual)
+            throws InterruptedException {
+        System.out.println();
+        System.out.println("🔁 " + scenario.name + " - " + scenario.description + (virtual ? " [virtuales]" : " [plataforma]"));
+        System.out.println(String.format(Locale.ROOT, "%7s %14s %10s %11s %9s", "hilos", "ops/s", "speedup", "eficiencia", "errores"));
+
+        // Calentamiento: compila la ruta caliente antes de la primera medición
+        measure(scenario, 1, TimeUnit.SECONDS.toNanos(1), virtual);
+
+        boolean failed = false;
+        double baseline = 0.0;
+        for (int threads : threadCounts) {
+            scenario.beforeMeasure();
+            Measurement result = measure(scenario, threads, TimeUnit.SECONDS.toNanos(seconds), virtual);
+            double opsPerSecond = result.operations * 1e9 / result.nanos;
+            if (baseline == 0.0) {
+                baseline = opsPerSecond / threads;
+            }
+            double speedup = opsPerSecond / baseline;
+            double efficiency = speedup / Math.min(threads, cores);
+            String verifyError = scenario.verify(result.operations);
+            long errors = result.mismatches + (result.firstError != null ? 1 : 0) + (verifyError != null ? 1 : 0);
+            System.out.println(String.format(Locale.ROOT, "%7d %14.0f %9.2fx %10.0f%% %9d",
+                    threads, opsPerSecond, speedup, efficiency * 100.0, errors));
+            if (result.firstError != null) {
+                System.out.println("   ❌ Excepción: " + result.firstError);
+            }
+            if (verifyError != null) {
+                System.out.println("   ❌ " + verifyError);
+            }
+            failed |= errors > 0;
+        }
+        return failed;
+    }
+
+    private static Measurement measure(Scenario scenario, int threads, long durationNanos, boolean virtual)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] operations = new long[threads];
+        long[] mismatches = new long[threads];
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        long[] deadline = new long[1];
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Runnable body = () -> {
+                Operation operation = scenario.operation();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long ops = 0;
+                long bad = 0;
+                try {
+                    ready.countDown();
+                    start.await();
+                    long end = deadline[0];
+                    do {
+                        // Comprobación del reloj cada 64 operaciones
+                        for (int i = 0; i < 64; i++) {
+                            if (!operation.run(random)) {
+                                bad++;
+                            }
+                            ops++;
+                        }
+                    } while (System.nanoTime() - end < 0);
+                } catch (Throwable e) {
+                    firstError.compareAndSet(null, e);
+                } finally {
+                    operations[index] = ops;
+                    mismatches[index] = bad;
+                    done.countDown();
+                }
+            };
+            workers.add(newThread(body, "stress-" + scenario.name + "-" + t, virtual));
+        }
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        deadline[0] = begin + durationNanos;
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        Measurement result = new Measurement();
+        for (int t = 0; t < threads; t++) {
+            result.operations += operations[t];
+            result.mismatches += mismatches[t];
+        }
+        result.nanos = elapsed;
+        result.firstError = firstError.get();
+        return result;
+    }
+
+    private static Thread newThread(Runnable body, String name, boolean virtual) {
+        if (virtual) {
+            try {
+                Object builder = virtualThreadBuilder();
+                Method unstarted = builder.getClass().getMethod("unstarted", Runnable.class);
+                unstarted.setAccessible(true);
+                return (Thread) unstarted.invoke(builder, body);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("No se pudo crear un hilo virtual", e);
+            }
+        }
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * @return {@code Thread.ofVirtual()} o null antes de JDK 21
+     */
+    private static Object virtualThreadBuilder() {
+        try {
+            return Thread.class.getMethod("ofVirtual").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // ------------------------------------------------------------- utilidades
+
+    private static int[] defaultThreadCounts(int cores) {
+        List<Integer> counts = new ArrayList<>();
+        for (int t = 1; t < cores * 2; t *= 2) {
+            counts.add(t);
+        }
+        counts.add(cores * 2);
+        return counts.stream().mapToInt(Integer::intValue).distinct().toArray();
+    }
+
+    private static String sample(int i) {
+        // Mezcla de ASCII y caracteres multibyte para cubrir la conversión UTF-8
+        return "https://ghoulstream.example/live/" + i + "/canal-ñ-" + (i * 7919) + ".m3u8?token=" + Integer.toHexString(i * 31);
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opción inválida: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
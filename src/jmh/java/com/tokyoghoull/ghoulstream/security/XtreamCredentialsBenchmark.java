@@ -0,0 +1,76 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ⏱️ Benchmarks de credenciales Xtream: formato binario tipado frente al JSON opaco
+ *
+ * El camino JSON desencripta el String y extrae los tres campos con indexOf, lo
+ * mínimo que hace cualquier llamador (org.json no existe en la JVM del host y
+ * sería más caro), y convierte la contraseña a char[]. Usar -prof gc para ver
+ * la basura generada por login.
+ *
+ * Ejecutar con: ./gradlew :security-module:jmh -Pjmh.include=XtreamCredentialsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XtreamCredentialsBenchmark {
+
+    private static final String SERVER = "https://ghoulstream.example:8080";
+    private static final String USERNAME = "ghoul_user_2025";
+    private static final String PASSWORD = "s3cr3t-P4ss!";
+
+    private String encryptedTyped;
+    private String encryptedJson;
+
+    @Setup
+    public void setUp() {
+        encryptedTyped = GhoulStreamSecurity.encryptXtreamCredentials(USERNAME, PASSWORD.toCharArray(), SERVER);
+        encryptedJson = GhoulStreamSecurity.encryptXtreamCredentials(
+                "{\"server\":\"" + SERVER + "\",\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}");
+    }
+
+    @Benchmark
+    public void decryptTyped(Blackhole blackhole) {
+        try (XtreamCredentials credentials = GhoulStreamSecurity.decryptXtreamCredentialsTyped(encryptedTyped)) {
+            blackhole.consume(credentials.getServer());
+            blackhole.consume(credentials.getUsername());
+            blackhole.consume(credentials.getPassword());
+        }
+    }
+
+    @Benchmark
+    public void decryptJson(Blackhole blackhole) {
+        String json = GhoulStreamSecurity.decryptXtreamCredentials(encryptedJson);
+        blackhole.consume(jsonField(json, "server"));
+        blackhole.consume(jsonField(json, "username"));
+        blackhole.consume(jsonField(json, "password").toCharArray());
+    }
+
+    @Benchmark
+    public String encryptTyped() {
+        return GhoulStreamSecurity.encryptXtreamCredentials(USERNAME, PASSWORD.toCharArray(), SERVER);
+    }
+
+    private static String jsonField(String json, String name) {
+        String marker = "\"" + name + "\":\"";
+        int start = json.indexOf(marker) + marker.length();
+        return json.substring(start, json.indexOf('"', start));
+    }
+}
@@ -0,0 +1,52 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * 🧪 Vectores de referencia del algoritmo versión {@value CipherAlgorithm#VERSION}
+ *
+ * Los mismos vectores los comprueba cipher_bench (src/cpp/bench) en cada camino
+ * nativo: si cambian, cambia el algoritmo y hay que subir
+ * {@link CipherEngine#ALGORITHM_VERSION}.
+ */
+public class CipherAlgorithmTest {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+
+    private static final String[][] GOLDEN = {
+            {"GhoulStream Security Test", "nQ_kY'ieKC[2cwxFeYH_cJXY@"},
+            {"Canal Ñandú ~{|}", "jJ^WYSÑGPRú24Lom"},
+    };
+
+    @Test
+    public void algorithmVersionIsPinned() {
+        assertEquals(2, CipherAlgorithm.VERSION);
+        assertEquals(CipherAlgorithm.VERSION, CipherEngine.ALGORITHM_VERSION);
+    }
+
+    @Test
+    public void goldenVectors() {
+        int[] shifts = CipherAlgorithm.computeShifts(KEY.getBytes(StandardCharsets.UTF_8));
+        for (String[] vector : GOLDEN) {
+            byte[] data = vector[0].getBytes(StandardCharsets.UTF_8);
+            CipherAlgorithm.transform(data, 0, data.length, shifts, 0, false);
+            assertArrayEquals(vector[1].getBytes(StandardCharsets.UTF_8), data);
+
+            CipherAlgorithm.transform(data, 0, data.length, shifts, 0, true);
+            assertEquals(vector[0], new String(data, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void engineMatchesGoldenVectors() {
+        for (String[] vector : GOLDEN) {
+            assertEquals(vector[1], NativeEncryption.encrypt(vector[0], KEY));
+            assertEquals(vector[0], NativeEncryption.decrypt(vector[1], KEY));
+        }
+    }
+}
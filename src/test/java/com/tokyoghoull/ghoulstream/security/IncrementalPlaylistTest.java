@@ -0,0 +1,275 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 🧪 Tests de {@link IncrementalPlaylist}: aplicación de deltas y detección de manipulaciones
+ */
+public class IncrementalPlaylistTest {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+    private static final String ROTATED_KEY = "GhoulStream2026RotatedKey!";
+
+    private PreparedKey key;
+    private KeyRing ring;
+
+    @Before
+    public void setUp() {
+        key = NativeEncryption.prepareKey(KEY);
+        ring = new KeyRing(1, key);
+    }
+
+    @After
+    public void tearDown() {
+        key.close();
+    }
+
+    @Test
+    public void encryptDecryptRoundTrip() {
+        String playlist = playlist(50, -1);
+        IncrementalPlaylist encrypted = IncrementalPlaylist.encrypt(ring, playlist);
+        assertNotNull(encrypted);
+        // Un registro por canal (#EXTM3U va con las directivas del primero)
+        assertEquals(50, encrypted.getSegmentCount());
+        assertEquals(playlist, encrypted.decrypt(ring));
+        assertEquals(playlist, IncrementalPlaylist.fromBytes(encrypted.toBytes()).decrypt(ring));
+    }
+
+    @Test
+    public void deltaContainsOnlyChangedRecords() {
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist(50, -1));
+        String updated = playlist(50, 17).replace(",Canal 42\n", ",Canal 42 HD\n");
+
+        IncrementalPlaylist.Delta delta = stored.update(ring, updated);
+        assertNotNull(delta);
+        assertEquals(50, delta.getSegmentCount());
+        assertEquals(2, delta.getInsertedCount());
+
+        IncrementalPlaylist applied = stored.apply(IncrementalPlaylist.Delta.fromBytes(delta.toBytes()));
+        assertEquals(updated, applied.decrypt(ring));
+        assertTrue(delta.toBytes().length < stored.toBytes().length / 10);
+    }
+
+    @Test
+    public void deltaHandlesInsertionsRemovalsAndReordering() {
+        String original = playlist(20, -1);
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, original);
+
+        String[] lines = original.split("\n", -1);
+        StringBuilder updated = new StringBuilder(lines[0]).append('\n');
+        // Canales 10..19, uno nuevo, y 0..4 (se quitan 5..9)
+        appendChannels(updated, lines, 10, 20);
+        updated.append("#EXTINF:-1 tvg-id=\"new\",Canal Nuevo\nhttp://ghoulstream.example/live/new.m3u8\n");
+        appendChannels(updated, lines, 0, 5);
+
+        IncrementalPlaylist.Delta delta = stored.update(ring, updated.toString());
+        // El canal nuevo, y los canales 10 y 0, que ganan o pierden la línea #EXTM3U
+        assertEquals(3, delta.getInsertedCount());
+        assertEquals(updated.toString(), stored.apply(delta).decrypt(ring));
+    }
+
+    @Test
+    public void unchangedPlaylistGivesEmptyDelta() {
+        String playlist = playlist(10, -1);
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist);
+        IncrementalPlaylist.Delta delta = stored.update(ring, playlist);
+        assertTrue(delta.isEmpty());
+        assertEquals(0, delta.getInsertedCount());
+        assertEquals(playlist, stored.apply(delta).decrypt(ring));
+    }
+
+    @Test
+    public void keyRotationReencryptsEverything() {
+        String playlist = playlist(10, -1);
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist);
+
+        ring.addKey(2, ROTATED_KEY);
+        ring.setCurrentKeyId(2);
+        IncrementalPlaylist.Delta delta = stored.update(ring, playlist);
+        assertEquals(10, delta.getInsertedCount());
+
+        IncrementalPlaylist rotated = stored.apply(delta);
+        assertEquals(2, rotated.getKeyId());
+        assertEquals(playlist, rotated.decrypt(ring));
+    }
+
+    @Test
+    public void keyIdSurvivesSerialization() {
+        KeyRing highId = new KeyRing(CipherEnvelope.MAX_KEY_ID, key);
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(highId, playlist(3, -1));
+        assertEquals(CipherEnvelope.MAX_KEY_ID, stored.getKeyId());
+        assertEquals(CipherEnvelope.MAX_KEY_ID, IncrementalPlaylist.fromBytes(stored.toBytes()).getKeyId());
+    }
+
+    @Test
+    public void deltaForAnotherBaseIsRejected() {
+        IncrementalPlaylist first = IncrementalPlaylist.encrypt(ring, playlist(10, -1));
+        IncrementalPlaylist second = IncrementalPlaylist.encrypt(ring, playlist(10, 3));
+        IncrementalPlaylist.Delta delta = first.update(ring, playlist(10, 5));
+        try {
+            second.apply(delta);
+            fail("Un delta de otra versión no debe aplicarse");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+
+    @Test
+    public void malformedDeltaIsRejected() {
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist(10, -1));
+        byte[] delta = stored.update(ring, playlist(10, 4)).toBytes();
+
+        assertRejected(Arrays.copyOf(delta, delta.length - 1));
+        assertRejected(Arrays.copyOf(delta, delta.length + 1));
+        byte[] badMagic = delta.clone();
+        badMagic[0] = 'X';
+        assertRejected(badMagic);
+    }
+
+    @Test
+    public void tamperedDeltaEnvelopeFailsToDecrypt() {
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist(10, -1));
+        // Cambia el último canal: el delta termina con el sobre insertado
+        byte[] delta = stored.update(ring, playlist(10, 9)).toBytes();
+        // Último byte: tag AES-GCM de ese sobre
+        delta[delta.length - 1] ^= 0x01;
+
+        IncrementalPlaylist applied = stored.apply(IncrementalPlaylist.Delta.fromBytes(delta));
+        assertNull(applied.decrypt(ring));
+    }
+
+    @Test
+    public void reorderedSegmentsAreDetected() throws IOException {
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist(5, -1));
+        Serialized serialized = Serialized.parse(stored.toBytes());
+        serialized.swap(1, 2);
+        assertNull(IncrementalPlaylist.fromBytes(serialized.toBytes()).decrypt(ring));
+    }
+
+    @Test
+    public void replacedSegmentIsDetected() throws IOException {
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist(5, -1));
+        Serialized serialized = Serialized.parse(stored.toBytes());
+        // Mismo id (la lista firmada no cambia) pero el sobre de otro segmento
+        serialized.envelopes[1] = serialized.envelopes[2];
+        assertNull(IncrementalPlaylist.fromBytes(serialized.toBytes()).decrypt(ring));
+    }
+
+    @Test
+    public void tamperedIdIsDetected() throws IOException {
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist(5, -1));
+        Serialized serialized = Serialized.parse(stored.toBytes());
+        serialized.ids[3] ^= 1L;
+        assertNull(IncrementalPlaylist.fromBytes(serialized.toBytes()).decrypt(ring));
+    }
+
+    @Test
+    public void wrongKeyFailsToDecrypt() {
+        IncrementalPlaylist stored = IncrementalPlaylist.encrypt(ring, playlist(5, -1));
+        KeyRing other = new KeyRing();
+        other.addKey(1, ROTATED_KEY);
+        assertNull(stored.decrypt(other));
+    }
+
+    // ------------------------------------------------------------- datos
+
+    /**
+     * Playlist M3U de {@code channels} canales; {@code changed} (≥ 0) renombra ese canal
+     */
+    private static String playlist(int channels, int changed) {
+        StringBuilder sb = new StringBuilder("#EXTM3U\n");
+        for (int i = 0; i < channels; i++) {
+            sb.append("#EXTINF:-1 tvg-id=\"c").append(i).append("\" group-title=\"Grupo ").append(i % 4)
+                    .append("\",Canal ").append(i).append(i == changed ? " (nuevo)" : "").append('\n')
+                    .append("http://ghoulstream.example/live/").append(i).append(".m3u8\n");
+        }
+        return sb.toString();
+    }
+
+    private static void appendChannels(StringBuilder sb, String[] lines, int from, int to) {
+        for (int i = from; i < to; i++) {
+            sb.append(lines[1 + 2 * i]).append('\n').append(lines[2 + 2 * i]).append('\n');
+        }
+    }
+
+    private static void assertRejected(byte[] delta) {
+        try {
+            IncrementalPlaylist.Delta.fromBytes(delta);
+            fail("Delta dañado aceptado");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+
+    /**
+     * Formato de {@link IncrementalPlaylist#toBytes()} desmontado para manipularlo
+     */
+    private static final class Serialized {
+        byte[] header;
+        byte[] tag;
+        long[] ids;
+        byte[][] envelopes;
+
+        static Serialized parse(byte[] data) throws IOException {
+            Serialized s = new Serialized();
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            s.header = new byte[6];
+            in.readFully(s.header);
+            s.tag = new byte[in.readInt()];
+            in.readFully(s.tag);
+            int count = in.readInt();
+            s.ids = new long[2 * count];
+            s.envelopes = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                s.ids[2 * i] = in.readLong();
+                s.ids[2 * i + 1] = in.readLong();
+                s.envelopes[i] = new byte[in.readInt()];
+                in.readFully(s.envelopes[i]);
+            }
+            return s;
+        }
+
+        void swap(int a, int b) {
+            byte[] envelope = envelopes[a];
+            envelopes[a] = envelopes[b];
+            envelopes[b] = envelope;
+            for (int j = 0; j < 2; j++) {
+                long id = ids[2 * a + j];
+                ids[2 * a + j] = ids[2 * b + j];
+                ids[2 * b + j] = id;
+            }
+        }
+
+        byte[] toBytes() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(header);
+            out.writeInt(tag.length);
+            out.write(tag);
+            out.writeInt(envelopes.length);
+            for (int i = 0; i < envelopes.length; i++) {
+                out.writeLong(ids[2 * i]);
+                out.writeLong(ids[2 * i + 1]);
+                out.writeInt(envelopes[i].length);
+                out.write(envelopes[i]);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+    }
+}
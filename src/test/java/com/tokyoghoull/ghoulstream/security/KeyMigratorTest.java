@@ -0,0 +1,100 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 🧪 Tests de {@link KeyMigrator}: migración completa y parada de la pasada en segundo plano
+ */
+public class KeyMigratorTest {
+
+    private static final String OLD_KEY = "GhoulStream2025ProSecureKey";
+    private static final String NEW_KEY = "GhoulStream2026RotatedKey!";
+    private static final int VALUES = 50;
+
+    private PreparedKey oldKey;
+    private PreparedKey newKey;
+    private KeyRing ring;
+    private ConcurrentHashMap<String, String> values;
+
+    @Before
+    public void setUp() {
+        oldKey = NativeEncryption.prepareKey(OLD_KEY);
+        newKey = NativeEncryption.prepareKey(NEW_KEY);
+        ring = new KeyRing(1, oldKey);
+        values = new ConcurrentHashMap<>();
+        for (int i = 0; i < VALUES; i++) {
+            values.put("v" + i, ring.encrypt("valor " + i));
+        }
+        ring.addKey(2, newKey);
+        ring.setCurrentKeyId(2);
+    }
+
+    @After
+    public void tearDown() {
+        oldKey.close();
+        newKey.close();
+    }
+
+    @Test
+    public void migrateNowReencryptsEverything() {
+        KeyMigrator migrator = new KeyMigrator(ring, KeyMigrator.forMap(values));
+        assertEquals(VALUES, migrator.migrateNow());
+        for (int i = 0; i < VALUES; i++) {
+            String stored = values.get("v" + i);
+            assertFalse(ring.needsReencryption(stored));
+            assertEquals("valor " + i, ring.decrypt(stored));
+        }
+    }
+
+    @Test
+    public void stopHaltsUnlimitedBackgroundPass() throws Exception {
+        CountDownLatch firstRead = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        KeyMigrator.Target map = KeyMigrator.forMap(values);
+        // El primer valor espera a que se haya pedido la parada
+        KeyMigrator.Target target = new KeyMigrator.Target() {
+            @Override
+            public Iterable<String> ids() {
+                return map.ids();
+            }
+
+            @Override
+            public String read(String id) {
+                firstRead.countDown();
+                try {
+                    stopped.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return map.read(id);
+            }
+
+            @Override
+            public boolean replace(String id, String expected, String updated) {
+                return map.replace(id, expected, updated);
+            }
+        };
+
+        KeyMigrator migrator = new KeyMigrator(ring, target);
+        migrator.setMaxPerSecond(0);
+        CompletableFuture<Integer> pass = migrator.start();
+        assertTrue(firstRead.await(10, TimeUnit.SECONDS));
+        migrator.stop();
+        stopped.countDown();
+
+        int count = pass.get(10, TimeUnit.SECONDS);
+        assertEquals(1, count);
+        assertFalse(migrator.isRunning());
+    }
+}
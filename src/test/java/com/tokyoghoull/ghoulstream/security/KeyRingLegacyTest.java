@@ -0,0 +1,151 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 🧪 Tests de {@link CipherEnvelope} / {@link KeyRing} con valores heredados:
+ * texto sin cabecera, sobres del algoritmo {@link CipherEnvelope#ALG_LEGACY}
+ * y rotación de clave
+ */
+public class KeyRingLegacyTest {
+
+    private static final String OLD_KEY = "GhoulStream2025ProSecureKey";
+    private static final String NEW_KEY = "GhoulStream2026RotatedKey!";
+    private static final String PLAIN = "{\"theme\":\"dark\",\"server\":\"https://ghoulstream.example/live\",\"name\":\"Ñandú\"}";
+
+    private PreparedKey oldKey;
+    private PreparedKey newKey;
+
+    @Before
+    public void setUp() {
+        oldKey = NativeEncryption.prepareKey(OLD_KEY);
+        newKey = NativeEncryption.prepareKey(NEW_KEY);
+    }
+
+    @After
+    public void tearDown() {
+        oldKey.close();
+        newKey.close();
+    }
+
+    @Test
+    public void valueWithoutHeaderUsesLegacyKey() {
+        // Formato anterior a los sobres: NativeEncryption.encrypt directo
+        String stored = NativeEncryption.encrypt(PLAIN, OLD_KEY);
+        assertNotNull(stored);
+        assertFalse(CipherEnvelope.hasTextPrefix(stored));
+
+        KeyRing ring = new KeyRing(1, oldKey);
+        ring.addKey(2, newKey);
+        ring.setCurrentKeyId(2);
+
+        assertEquals(1, ring.getLegacyKeyId());
+        assertEquals(PLAIN, ring.decrypt(stored));
+        assertTrue(ring.needsReencryption(stored));
+    }
+
+    @Test
+    public void legacyEnvelopeRoundTrip() {
+        KeyRing ring = new KeyRing(7, oldKey);
+        ring.setAlgorithm(CipherEnvelope.ALG_LEGACY);
+
+        String stored = ring.encrypt(PLAIN);
+        CipherEnvelope header = CipherEnvelope.peekHeader(stored);
+        assertNotNull(header);
+        assertEquals(7, header.getKeyId());
+        assertEquals(CipherEnvelope.ALG_LEGACY, header.getAlgorithmId());
+        assertEquals(0, header.getFlags());
+
+        assertEquals(PLAIN, ring.decrypt(stored));
+        assertFalse(ring.needsReencryption(stored));
+    }
+
+    @Test
+    public void legacyEnvelopeMatchesModuleCipher() {
+        // El payload de un sobre heredado es el cifrado del módulo sin transformar
+        byte[] plain = PLAIN.getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = CipherEnvelope.allocate(3, CipherEnvelope.ALG_LEGACY, 0, plain.length);
+        System.arraycopy(plain, 0, envelope, CipherEnvelope.HEADER_SIZE, plain.length);
+        assertTrue(NativeEncryption.encryptInPlace(envelope, CipherEnvelope.HEADER_SIZE, plain.length, oldKey));
+
+        KeyRing ring = new KeyRing(3, oldKey);
+        assertEquals(PLAIN, ring.decrypt(CipherEnvelope.toText(envelope)));
+    }
+
+    @Test
+    public void compressedLegacyEnvelopeIsReadable() {
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            json.append("{\"channel\":").append(i).append(",\"group\":\"Deportes\"},");
+        }
+        byte[] plain = json.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = PayloadCompressor.compress(plain, 0, plain.length);
+        assertNotNull(compressed);
+
+        byte[] envelope = CipherEnvelope.allocate(1, CipherEnvelope.ALG_LEGACY,
+                CipherEnvelope.FLAG_COMPRESSED, compressed.length);
+        System.arraycopy(compressed, 0, envelope, CipherEnvelope.HEADER_SIZE, compressed.length);
+        assertTrue(NativeEncryption.encryptInPlace(envelope, CipherEnvelope.HEADER_SIZE, compressed.length, oldKey));
+
+        KeyRing ring = new KeyRing(1, oldKey);
+        assertEquals(json.toString(), ring.decrypt(CipherEnvelope.toText(envelope)));
+    }
+
+    @Test
+    public void rotationReencryptsLegacyValues() {
+        KeyRing ring = new KeyRing(1, oldKey);
+        ring.setAlgorithm(CipherEnvelope.ALG_LEGACY);
+        String legacyEnvelope = ring.encrypt(PLAIN);
+        String noHeader = NativeEncryption.encrypt(PLAIN, OLD_KEY);
+
+        ring.addKey(2, newKey);
+        ring.setCurrentKeyId(2);
+        ring.setAlgorithm(CipherEnvelope.ALG_AES_GCM);
+
+        for (String stored : new String[] {legacyEnvelope, noHeader}) {
+            assertTrue(ring.needsReencryption(stored));
+            String migrated = ring.reencrypt(stored);
+            assertNotEquals(stored, migrated);
+            CipherEnvelope header = CipherEnvelope.peekHeader(migrated);
+            assertEquals(2, header.getKeyId());
+            assertEquals(CipherEnvelope.ALG_AES_GCM, header.getAlgorithmId());
+            assertFalse(ring.needsReencryption(migrated));
+            assertEquals(PLAIN, ring.decrypt(migrated));
+        }
+    }
+
+    @Test
+    public void unknownKeyOrFlagsAreRejected() {
+        KeyRing ring = new KeyRing(1, oldKey);
+        ring.setAlgorithm(CipherEnvelope.ALG_LEGACY);
+        String stored = ring.encrypt(PLAIN);
+
+        KeyRing other = new KeyRing(2, oldKey);
+        assertNull(other.decrypt(stored));
+
+        byte[] envelope = CipherEnvelope.allocate(1, CipherEnvelope.ALG_LEGACY, 0x80, 4);
+        assertNull(ring.decrypt(CipherEnvelope.toText(envelope)));
+    }
+
+    @Test
+    public void invalidEnvelopeTextIsNotParsed() {
+        assertNull(CipherEnvelope.peekHeader("gse:"));
+        assertNull(CipherEnvelope.peekHeader("gse:####################"));
+        assertNull(CipherEnvelope.parse("gse:QUJD"));
+
+        byte[] otherVersion = CipherEnvelope.allocate(1, CipherEnvelope.ALG_LEGACY, 0, 0);
+        otherVersion[2] = (byte) (CipherEnvelope.VERSION + 1);
+        assertNull(CipherEnvelope.parse(otherVersion));
+    }
+}
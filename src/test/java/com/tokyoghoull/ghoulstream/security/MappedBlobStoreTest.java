@@ -0,0 +1,98 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 🧪 Tests de {@link MappedBlobStore}: ida y vuelta y validación del índice al abrir
+ */
+public class MappedBlobStoreTest {
+
+    private static final String KEY = "MappedBlobStoreKey2025";
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORDS = 5;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws IOException {
+        File file = write("store.gsmb");
+        try (MappedBlobStore store = MappedBlobStore.open(file, KEY)) {
+            assertEquals(RECORDS, store.size());
+            for (int i = 0; i < RECORDS; i++) {
+                assertEquals(record(i), store.getString(i));
+            }
+        }
+    }
+
+    @Test
+    public void nonMonotonicOffsetsAreRejected() throws IOException {
+        File file = write("swapped.gsmb");
+        byte[] data = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int index = (int) buffer.getLong(16);
+        long first = buffer.getLong(index + 8);
+        buffer.putLong(index + 8, buffer.getLong(index + 16));
+        buffer.putLong(index + 16, first);
+        assertRejected(file, data);
+    }
+
+    @Test
+    public void outOfRangeOffsetsAreRejected() throws IOException {
+        File file = write("range.gsmb");
+        byte[] data = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int index = (int) buffer.getLong(16);
+        buffer.putLong(index + 16, data.length + 100L);
+        assertRejected(file, data);
+
+        buffer.putLong(index + 16, 3L);
+        assertRejected(file, data);
+    }
+
+    private File write(String name) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (MappedBlobStore.Writer writer = MappedBlobStore.create(file, KEY)) {
+            for (int i = 0; i < RECORDS; i++) {
+                writer.add(record(i));
+            }
+        }
+        return file;
+    }
+
+    private static String record(int i) {
+        return "#EXTINF:-1,Canal " + i + " – Ñandú\nhttp://ghoulstream.example/live/" + i + ".m3u8";
+    }
+
+    /**
+     * Guarda el archivo con el CRC recalculado (un archivo fabricado, no dañado) y lo abre
+     */
+    private static void assertRejected(File file, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int index = (int) buffer.getLong(16);
+        int indexEnd = data.length - 4;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, HEADER_SIZE);
+        crc.update(data, index, indexEnd - index);
+        buffer.putInt(indexEnd, (int) crc.getValue());
+        Files.write(file.toPath(), data);
+
+        try {
+            MappedBlobStore.open(file, KEY).close();
+            fail("Índice manipulado aceptado");
+        } catch (IOException expected) {
+            // esperado
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 🧪 Tests de {@link ParallelCipher}: el resultado por trozos es idéntico al secuencial
+ * de {@link NativeEncryption}, en el ForkJoinPool común y en un executor propio
+ */
+public class ParallelCipherTest {
+
+    private static final String KEY = "GhoulStream2025ProSecureKey";
+    private static final int OFFSET = 7;
+    private static final long STREAM_POSITION = 12_345L;
+
+    private PreparedKey key;
+    private ExecutorService fixedPool;
+
+    @Before
+    public void setUp() {
+        key = NativeEncryption.prepareKey(KEY);
+        fixedPool = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        fixedPool.shutdownNow();
+        key.close();
+    }
+
+    @Test
+    public void stringMatchesSequentialOnCommonPool() {
+        assertStringMatchesSequential(parallel(new ParallelCipher()));
+    }
+
+    @Test
+    public void stringMatchesSequentialOnFixedExecutor() {
+        assertStringMatchesSequential(parallel(new ParallelCipher(fixedPool)));
+    }
+
+    @Test
+    public void regionMatchesSequentialOnCommonPool() {
+        assertRegionMatchesSequential(parallel(new ParallelCipher()));
+    }
+
+    @Test
+    public void regionMatchesSequentialOnFixedExecutor() {
+        assertRegionMatchesSequential(parallel(new ParallelCipher(fixedPool)));
+    }
+
+    /**
+     * Umbral 0 y trozos mínimos: todo se reparte en el mayor número de trozos posible
+     */
+    private static ParallelCipher parallel(ParallelCipher cipher) {
+        cipher.setThreshold(0);
+        cipher.setChunkSize(ParallelCipher.MIN_CHUNK_SIZE);
+        return cipher;
+    }
+
+    private void assertStringMatchesSequential(ParallelCipher cipher) {
+        String plain = payload(10 * ParallelCipher.MIN_CHUNK_SIZE + 123);
+
+        String expected = NativeEncryption.encrypt(plain, key);
+        assertNotNull(expected);
+        assertEquals(expected, cipher.encrypt(plain, key));
+        assertEquals(expected, cipher.encrypt(plain, KEY));
+        assertEquals(plain, cipher.decrypt(expected, key));
+        assertEquals(plain, cipher.decrypt(expected, KEY));
+    }
+
+    private void assertRegionMatchesSequential(ParallelCipher cipher) {
+        byte[] plain = payload(9 * ParallelCipher.MIN_CHUNK_SIZE + 321).getBytes(StandardCharsets.UTF_8);
+        byte[] buffer = new byte[OFFSET + plain.length + 5];
+        Arrays.fill(buffer, (byte) '#');
+        System.arraycopy(plain, 0, buffer, OFFSET, plain.length);
+
+        byte[] expected = buffer.clone();
+        assertTrue(NativeEncryption.encryptInPlace(expected, OFFSET, plain.length, key, STREAM_POSITION));
+
+        byte[] actual = buffer.clone();
+        assertTrue(cipher.encryptInPlace(actual, OFFSET, plain.length, key, STREAM_POSITION));
+        // Incluye los bytes fuera de la región, que no deben tocarse
+        assertArrayEquals(expected, actual);
+
+        assertTrue(cipher.decryptInPlace(actual, OFFSET, plain.length, key, STREAM_POSITION));
+        assertArrayEquals(buffer, actual);
+    }
+
+    /**
+     * Texto con caracteres de 2 y 3 bytes en UTF-8: los cortes de trozo caen dentro de ellos
+     */
+    private static String payload(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        String line = "#EXTINF:-1 group-title=\"Niños – Ñandú\",Canal ";
+        for (int i = 0; sb.length() < length; i++) {
+            sb.append(line).append(i).append(" ✓\nhttp://ghoulstream.example/live/").append(i).append(".m3u8\n");
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+
+/**
+ * 🧪 Tests de {@link PayloadCompressor}: ida y vuelta y payloads dañados
+ */
+public class PayloadCompressorTest {
+
+    private static byte[] repetitive(int size) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < size) {
+            sb.append("{\"channel\":\"Canal ").append(sb.length() % 97).append("\",\"group\":\"Deportes\"},");
+        }
+        return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void roundTrip() {
+        byte[] data = repetitive(10_000);
+        byte[] compressed = PayloadCompressor.compress(data, 0, data.length);
+        assertNotNull(compressed);
+        assertArrayEquals(data, PayloadCompressor.decompress(compressed, 0, compressed.length));
+    }
+
+    @Test
+    public void roundTripWithOffsets() {
+        byte[] data = repetitive(4_000);
+        byte[] padded = new byte[data.length + 20];
+        System.arraycopy(data, 0, padded, 10, data.length);
+        byte[] compressed = PayloadCompressor.compress(padded, 10, data.length);
+
+        byte[] framed = new byte[compressed.length + 6];
+        System.arraycopy(compressed, 0, framed, 3, compressed.length);
+        assertArrayEquals(data, PayloadCompressor.decompress(framed, 3, compressed.length));
+    }
+
+    @Test
+    public void smallOrIncompressibleInputIsNotCompressed() {
+        byte[] small = repetitive(PayloadCompressor.MIN_SIZE - 1);
+        assertNull(PayloadCompressor.compress(small, 0, small.length));
+
+        byte[] random = new byte[8_192];
+        new Random(42).nextBytes(random);
+        assertNull(PayloadCompressor.compress(random, 0, random.length));
+    }
+
+    @Test
+    public void truncatedInputIsRejected() {
+        byte[] compressed = compressed();
+        assertCorrupt(compressed, 0, 3);
+        assertCorrupt(compressed, 0, 4);
+        assertCorrupt(compressed, 0, compressed.length / 2);
+        assertCorrupt(compressed, 0, compressed.length - 1);
+    }
+
+    @Test
+    public void invalidLengthPrefixIsRejected() {
+        byte[] negative = compressed();
+        negative[0] = (byte) 0x80;
+        assertCorrupt(negative, 0, negative.length);
+
+        byte[] huge = compressed();
+        int tooLarge = PayloadCompressor.MAX_SIZE + 1;
+        huge[0] = (byte) (tooLarge >>> 24);
+        huge[1] = (byte) (tooLarge >>> 16);
+        huge[2] = (byte) (tooLarge >>> 8);
+        huge[3] = (byte) tooLarge;
+        assertCorrupt(huge, 0, huge.length);
+    }
+
+    @Test
+    public void lengthMismatchIsRejected() {
+        byte[] shorter = compressed();
+        shorter[3]--;
+        assertCorrupt(shorter, 0, shorter.length);
+
+        byte[] longer = compressed();
+        longer[3]++;
+        assertCorrupt(longer, 0, longer.length);
+    }
+
+    @Test
+    public void corruptStreamIsRejected() {
+        byte[] compressed = compressed();
+        // Tipo de bloque Deflate reservado (11) en la primera cabecera
+        compressed[4] = (byte) 0x07;
+        assertCorrupt(compressed, 0, compressed.length);
+
+        byte[] garbage = new byte[64];
+        Arrays.fill(garbage, (byte) 0xFF);
+        garbage[0] = 0;
+        garbage[1] = 0;
+        garbage[2] = 0;
+        garbage[3] = 100;
+        assertCorrupt(garbage, 0, garbage.length);
+    }
+
+    @Test
+    public void trailingDataIsRejected() {
+        byte[] data = repetitive(2_000);
+        // Dos streams Deflate seguidos: el segundo no forma parte del payload declarado
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] stream = new byte[data.length];
+        int written = deflater.deflate(stream);
+        deflater.end();
+
+        byte[] payload = new byte[4 + 2 * written];
+        payload[0] = (byte) (data.length >>> 24);
+        payload[1] = (byte) (data.length >>> 16);
+        payload[2] = (byte) (data.length >>> 8);
+        payload[3] = (byte) data.length;
+        System.arraycopy(stream, 0, payload, 4, written);
+        System.arraycopy(stream, 0, payload, 4 + written, written);
+        assertCorrupt(payload, 0, payload.length);
+
+        // El mismo payload sin la copia es válido
+        assertArrayEquals(data, PayloadCompressor.decompress(payload, 0, 4 + written));
+    }
+
+    @Test
+    public void compressorIsReusableAfterCorruptInput() {
+        byte[] bad = compressed();
+        bad[4] = (byte) 0x07;
+        assertCorrupt(bad, 0, bad.length);
+
+        byte[] data = repetitive(3_000);
+        byte[] compressed = PayloadCompressor.compress(data, 0, data.length);
+        assertArrayEquals(data, PayloadCompressor.decompress(compressed, 0, compressed.length));
+    }
+
+    private static byte[] compressed() {
+        byte[] data = repetitive(5_000);
+        return PayloadCompressor.compress(data, 0, data.length);
+    }
+
+    private static void assertCorrupt(byte[] data, int offset, int length) {
+        try {
+            PayloadCompressor.decompress(data, offset, length);
+            fail("Payload dañado aceptado");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.tokyoghoull.ghoulstream.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 🧪 Tests de {@link SecureStore}: recarga tras escrituras cortadas y compactación
+ */
+public class SecureStoreTest {
+
+    private static final String KEY = "SecureStoreTestKey2025";
+    private static final String OTHER_KEY = "AnotherStoreKey2026";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reloadKeepsFlushedValues() throws IOException {
+        File file = folder.newFile("store.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("theme", "dark");
+            store.put("language", "es – ñandú");
+            store.put("server", "https://ghoulstream.example/live");
+            store.remove("server");
+        }
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertEquals(2, store.size());
+            assertEquals("dark", store.get("theme"));
+            assertEquals("es – ñandú", store.get("language"));
+            assertFalse(store.contains("server"));
+        }
+    }
+
+    @Test
+    public void tornWriteDiscardsOnlyTheIncompleteBlock() throws IOException {
+        File file = folder.newFile("torn.gss");
+        long committed;
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("theme", "dark");
+            store.flush();
+            committed = store.getFileSize();
+            store.put("theme", "light");
+            store.put("quality", "1080p");
+        }
+        long full = file.length();
+        assertTrue(full > committed);
+
+        // Caída a mitad del segundo bloque: el archivo acaba en mitad del payload
+        truncate(file, committed + (full - committed) / 2);
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertEquals("dark", store.get("theme"));
+            assertNull(store.get("quality"));
+            assertEquals(committed, store.getFileSize());
+        }
+        assertEquals(committed, file.length());
+    }
+
+    @Test
+    public void corruptBlockIsDiscardedWithEverythingAfterIt() throws IOException {
+        File file = folder.newFile("corrupt.gss");
+        long committed;
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("first", "1");
+            store.flush();
+            committed = store.getFileSize();
+            store.put("second", "2");
+            store.flush();
+            store.put("third", "3");
+        }
+
+        // Un bit cambiado en el payload del segundo bloque invalida su CRC
+        flipByte(file, committed + 12);
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertEquals("1", store.get("first"));
+            assertNull(store.get("second"));
+            assertNull(store.get("third"));
+        }
+        assertEquals(committed, file.length());
+    }
+
+    @Test
+    public void storeRemainsWritableAfterRecovery() throws IOException {
+        File file = folder.newFile("recover.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("a", "1");
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(new byte[] {'G', 'S', 'S', 'B', 0, 0});
+        }
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("b", "2");
+        }
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertEquals("1", store.get("a"));
+            assertEquals("2", store.get("b"));
+        }
+    }
+
+    @Test
+    public void compactRewritesOnlyLiveValues() throws IOException {
+        File file = folder.newFile("compact.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            for (int i = 0; i < 200; i++) {
+                store.put("counter", "value-" + i);
+                store.put("temp-" + i, "x");
+                store.remove("temp-" + i);
+                store.flush();
+            }
+            long before = store.getFileSize();
+            store.compact();
+            long after = store.getFileSize();
+            assertTrue("compactar debe reducir el archivo: " + before + " → " + after, after < before / 10);
+            assertEquals(after, file.length());
+            assertEquals("value-199", store.get("counter"));
+            assertFalse(new File(file.getPath() + ".tmp").exists());
+        }
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertEquals(1, store.size());
+            assertEquals("value-199", store.get("counter"));
+        }
+    }
+
+    @Test
+    public void automaticCompactionKeepsValues() throws IOException {
+        File file = folder.newFile("auto.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.setCompactionThresholdBytes(0);
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (int round = 0; round < 50; round++) {
+                batch.clear();
+                for (int i = 0; i < 10; i++) {
+                    batch.put("key-" + i, "round-" + round);
+                }
+                store.putAll(batch);
+                store.flush();
+            }
+            // Sin compactación el archivo tendría 50 bloques de 10 registros
+            assertTrue(store.getFileSize() < 4 * 1024);
+        }
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertEquals(10, store.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals("round-49", store.get("key-" + i));
+            }
+        }
+    }
+
+    @Test
+    public void leftoverTemporaryFileIsIgnored() throws IOException {
+        File file = folder.newFile("leftover.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("theme", "dark");
+        }
+        // Caída durante una compactación: el temporal queda a medias
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), new byte[] {'G', 'S', 'S', '1', 1, 2, 3});
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertEquals("dark", store.get("theme"));
+        }
+        assertFalse(temp.exists());
+    }
+
+    @Test
+    public void equalValuesAreSealedIndependently() throws IOException {
+        File file = folder.newFile("sealed.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("a", "dark");
+            store.put("b", "dark");
+        }
+        byte[] data = Files.readAllBytes(file.toPath());
+        ByteBuffer block = ByteBuffer.wrap(data, 12, data.length - 12);
+        block.getInt();
+        byte[][] values = new byte[2][];
+        for (int i = 0; i < 2; i++) {
+            block.get();
+            int nameLength = block.getInt();
+            block.position(block.position() + nameLength);
+            values[i] = new byte[block.getInt()];
+            block.get(values[i]);
+        }
+        // Nonce propio por registro: el mismo valor no produce los mismos bytes
+        assertNotEquals(ByteBuffer.wrap(values[0]), ByteBuffer.wrap(values[1]));
+    }
+
+    @Test
+    public void wrongKeyIsRejectedOnOpen() throws IOException {
+        File file = folder.newFile("wrongkey.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("theme", "dark");
+        }
+        try {
+            SecureStore.open(file, OTHER_KEY).close();
+            fail("Almacén abierto con otra clave");
+        } catch (IOException expected) {
+            // esperado
+        }
+    }
+
+    @Test
+    public void tamperedValueIsNotReturned() throws IOException {
+        File file = folder.newFile("tampered.gss");
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            store.put("theme", "dark");
+            store.put("quality", "1080p");
+        }
+
+        // Cambia el último byte del primer valor y recalcula el CRC del bloque: el
+        // bloque sigue siendo válido, pero el tag AES-GCM del sobre ya no
+        byte[] data = Files.readAllBytes(file.toPath());
+        ByteBuffer block = ByteBuffer.wrap(data);
+        block.position(8);
+        int payloadSize = block.getInt();
+        int payloadStart = block.position();
+        block.getInt();
+        block.get();
+        int nameLength = block.getInt();
+        block.position(block.position() + nameLength);
+        int valueLength = block.getInt();
+        data[block.position() + valueLength - 1] ^= 0x01;
+        CRC32 crc = new CRC32();
+        crc.update(data, payloadStart, payloadSize);
+        block.putInt(payloadStart + payloadSize, (int) crc.getValue());
+        Files.write(file.toPath(), data);
+
+        try (SecureStore store = SecureStore.open(file, KEY)) {
+            assertTrue(store.contains("theme"));
+            assertNull(store.get("theme"));
+            assertEquals("1080p", store.get("quality"));
+        }
+    }
+
+    @Test
+    public void writesAcknowledgedBeforeCloseAreKept() throws Exception {
+        File file = folder.newFile("close.gss");
+        SecureStore store = SecureStore.open(file, KEY);
+        store.setFlushDelayMillis(60_000L);
+
+        int writers = 4;
+        AtomicInteger[] written = new AtomicInteger[writers];
+        CountDownLatch started = new CountDownLatch(writers);
+        Thread[] threads = new Thread[writers];
+        for (int t = 0; t < writers; t++) {
+            AtomicInteger count = written[t] = new AtomicInteger();
+            String prefix = "w" + t + "-";
+            threads[t] = new Thread(() -> {
+                started.countDown();
+                try {
+                    for (int i = 0; ; i++) {
+                        store.put(prefix + i, "v" + i);
+                        count.set(i + 1);
+                    }
+                } catch (IllegalStateException closed) {
+                    // cerrado: las escrituras anteriores deben estar en disco
+                }
+            });
+            threads[t].start();
+        }
+        started.await();
+        Thread.sleep(20);
+        store.close();
+        store.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        try (SecureStore reopened = SecureStore.open(file, KEY)) {
+            for (int t = 0; t < writers; t++) {
+                for (int i = 0; i < written[t].get(); i++) {
+                    assertEquals("v" + i, reopened.get("w" + t + "-" + i));
+                }
+            }
+        }
+    }
+
+    private static void truncate(File file, long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private static void flipByte(File file, long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0x01);
+        }
+    }
+}